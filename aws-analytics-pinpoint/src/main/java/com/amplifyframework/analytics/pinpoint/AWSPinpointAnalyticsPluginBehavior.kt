@@ -154,6 +154,6 @@ internal class AWSPinpointAnalyticsPluginBehavior(
     }
 
     override fun flushEvents() {
-        analyticsClient.flushEvents()
+        analyticsClient.flushEvents(drainBacklog = true)
     }
 }
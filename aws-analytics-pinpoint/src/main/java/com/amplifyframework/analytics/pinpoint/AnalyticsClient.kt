@@ -35,6 +35,8 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeoutOrNull
 
 internal class AnalyticsClient(
     val context: Context,
@@ -59,6 +61,9 @@ internal class AnalyticsClient(
     private val globalAttributes = ConcurrentHashMap<String, String>()
     private val globalMetrics = ConcurrentHashMap<String, Double>()
 
+    // Longest the main thread waits for buffered events to be written, well below the ANR timeout.
+    private val persistTimeoutMillis = 2_000L
+
     fun createEvent(
         eventType: String,
         attributes: MutableMap<String, String> = mutableMapOf(),
@@ -112,14 +117,31 @@ internal class AnalyticsClient(
     }
 
     fun recordEvent(event: PinpointEvent) {
-        coroutineScope.launch {
-            eventRecorder.recordEvent(event)
+        eventRecorder.recordEvent(event)
+    }
+
+    /**
+     * Write recorded events which are still buffered in memory to the database, blocking until they are written or
+     * [persistTimeoutMillis] has passed. Called when the process may be killed, so that buffered events aren't lost.
+     * If the database is too slow, the write carries on in the background once the wait times out.
+     */
+    fun persistBufferedEvents() {
+        val write = coroutineScope.launch {
+            eventRecorder.writePendingEvents()
+        }
+        runBlocking {
+            withTimeoutOrNull(persistTimeoutMillis) { write.join() }
         }
     }
 
-    fun flushEvents() {
+    /**
+     * Submit stored events in the background.
+     * @param drainBacklog whether to submit every stored event, rather than a few batches
+     */
+    @JvmOverloads
+    fun flushEvents(drainBacklog: Boolean = false) {
         coroutineScope.launch {
-            val syncedEvents = eventRecorder.submitEvents()
+            val syncedEvents = eventRecorder.submitEvents(drainBacklog)
             Amplify.Hub.publish(
                 HubChannel.ANALYTICS,
                 HubEvent.create(AnalyticsChannelEventName.FLUSH_EVENTS, syncedEvents)
@@ -40,7 +40,7 @@ final class AutoEventSubmitter {
         this.autoFlushInterval = autoFlushInterval;
         this.submitRunnable = () -> {
             LOG.debug(String.format(Locale.US, "Auto submitting events after %d seconds", autoFlushInterval));
-            analyticsClient.flushEvents();
+            analyticsClient.flushEvents(true);
             handler.postDelayed(this.submitRunnable, autoFlushInterval);
         };
     }
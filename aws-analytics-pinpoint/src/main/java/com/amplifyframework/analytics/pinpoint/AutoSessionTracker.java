@@ -78,6 +78,8 @@ final class AutoSessionTracker implements Application.ActivityLifecycleCallbacks
         // resumed if app regains focus.In either case, app foreground status does not change for the
         // purpose of session tracking.
         Log.d(LOG_TAG, "Activity paused: " + activity.getLocalClassName());
+        // The process may be killed once paused, so don't leave recorded events in memory.
+        analyticsClient.persistBufferedEvents();
     }
 
     @Override
@@ -115,6 +117,8 @@ final class AutoSessionTracker implements Application.ActivityLifecycleCallbacks
     void applicationEnteredBackground() {
         Log.d(LOG_TAG, "Application entered the background.");
         sessionClient.stopSession();
+        // The process may be killed once in the background, so don't leave recorded events in memory.
+        analyticsClient.persistBufferedEvents();
         analyticsClient.flushEvents();
     }
 
@@ -16,7 +16,6 @@ package com.amplifyframework.analytics.pinpoint
 
 import android.content.Context
 import android.database.Cursor
-import android.net.Uri
 import aws.sdk.kotlin.services.pinpoint.PinpointClient
 import aws.sdk.kotlin.services.pinpoint.model.EndpointDemographic
 import aws.sdk.kotlin.services.pinpoint.model.EndpointItemResponse
@@ -38,8 +37,20 @@ import com.amplifyframework.analytics.pinpoint.targeting.TargetingClient
 import com.amplifyframework.analytics.pinpoint.targeting.endpointProfile.EndpointProfile
 import com.amplifyframework.core.Amplify
 import com.amplifyframework.logging.Logger
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 
 internal class EventRecorder(
@@ -53,45 +64,99 @@ internal class EventRecorder(
             AWS_PINPOINT_ANALYTICS_LOG_NAMESPACE.format(EventRecorder::class.java.simpleName)
         )
 ) {
-    private var isSyncInProgress = false
+    private val isSyncInProgress = AtomicBoolean(false)
     private val defaultMaxSubmissionAllowed = 3
+    private val defaultMaxConcurrentSubmissions = 4
+    private val maxConsecutiveFailedRounds = 3
+    private val initialBackoffMillis = 500L
+    private val maxBackoffMillis = 30_000L
     private val defaultMaxSubmissionSize = 1024 * 100
     private val serviceDefinedMaxEventsPerBatch: Int = 100
     private val badRequestCode = 400
-    internal suspend fun recordEvent(pinpointEvent: PinpointEvent): Uri? {
-        return withContext(coroutineDispatcher) {
-            val result = runCatching {
-                pinpointDatabase.saveEvent(pinpointEvent)
+    private val maxPendingEvents = 1000
+    private val groupCommitSize = 50
+    private val groupCommitIntervalMillis = 1000L
+
+    // Recorded events not yet written to the database. Events are written in one transaction per group. The count
+    // is taken before an event is queued and released once it is taken off to be written.
+    private val pendingEvents = ConcurrentLinkedQueue<PinpointEvent>()
+    private val pendingEventCount = AtomicInteger(0)
+    private val isWriteScheduled = AtomicBoolean(false)
+    private val writeMutex = Mutex()
+    private val writeScope = CoroutineScope(coroutineDispatcher)
+
+    /**
+     * Record an event. The event is buffered and written to the database along with other events once
+     * [groupCommitSize] events are pending or [groupCommitIntervalMillis] has passed. Events are never dropped: if
+     * more than [maxPendingEvents] are pending, because the database can't keep up, the caller writes them itself,
+     * which slows it down to the pace of the database.
+     */
+    internal fun recordEvent(pinpointEvent: PinpointEvent) {
+        val count = pendingEventCount.incrementAndGet()
+        pendingEvents.add(pinpointEvent)
+        when {
+            count > maxPendingEvents -> {
+                logger.warn("$count events are waiting to be stored, writing them before recording more")
+                runBlocking { writePendingEvents() }
             }
-            when {
-                result.isSuccess -> result.getOrNull()
-                else -> {
-                    logger.error("Failed to record event ${result.exceptionOrNull()}")
-                    null
+            count % groupCommitSize == 0 -> writeScope.launch { writePendingEvents() }
+            isWriteScheduled.compareAndSet(false, true) -> writeScope.launch {
+                delay(groupCommitIntervalMillis)
+                writePendingEvents()
+            }
+        }
+    }
+
+    /**
+     * Write all pending events to the database.
+     */
+    internal suspend fun writePendingEvents() {
+        writeMutex.withLock {
+            isWriteScheduled.set(false)
+            while (true) {
+                val events = mutableListOf<PinpointEvent>()
+                while (events.size < groupCommitSize) {
+                    events.add(pendingEvents.poll() ?: break)
+                }
+                if (events.isEmpty()) break
+                pendingEventCount.addAndGet(-events.size)
+                val result = runCatching {
+                    pinpointDatabase.saveEvents(events)
+                }
+                if (result.isFailure) {
+                    logger.error("Failed to record events ${result.exceptionOrNull()}")
                 }
             }
         }
     }
 
-    @Synchronized
-    internal suspend fun submitEvents(): List<AnalyticsEvent> {
+    /**
+     * Metrics of the last completed flush.
+     */
+    @Volatile
+    internal var lastFlushMetrics: FlushMetrics? = null
+        private set
+
+    /**
+     * Submit stored events to Pinpoint.
+     * @param drainBacklog if false, submit at most [defaultMaxSubmissionAllowed] batches one at a time. If true,
+     * submit every stored event, with up to [defaultMaxConcurrentSubmissions] batches in flight.
+     * @return the events which were submitted
+     */
+    internal suspend fun submitEvents(drainBacklog: Boolean = false): List<AnalyticsEvent> {
         return withContext(coroutineDispatcher) {
+            if (!isSyncInProgress.compareAndSet(false, true)) {
+                logger.info("Sync is already in progress, skipping")
+                return@withContext emptyList()
+            }
             val result = runCatching {
-                if (!isSyncInProgress) {
-                    isSyncInProgress = true
-                    processEvents()
-                } else {
-                    logger.info("Sync is already in progress, skipping")
-                    emptyList()
-                }
+                writePendingEvents()
+                if (drainBacklog) drainEvents() else processEvents()
             }
+            isSyncInProgress.set(false)
             when {
-                result.isSuccess -> {
-                    isSyncInProgress = false
-                    result.getOrNull() ?: emptyList()
-                }
+                result.isSuccess -> result.getOrNull() ?: emptyList()
                 else -> {
-                    isSyncInProgress = false
                     logger.error("Failed to submit events ${result.exceptionOrNull()}")
                     emptyList()
                 }
@@ -102,33 +167,29 @@ internal class EventRecorder(
     private suspend fun processEvents(): List<AnalyticsEvent> {
         val syncedAnalyticsEvents = mutableListOf<AnalyticsEvent>()
         val syncedPinpointEvents = mutableListOf<PinpointEvent>()
-        pinpointDatabase.queryAllEvents().use { cursor ->
-            var currentSubmissions = 0
-            val maxSubmissionsAllowed = defaultMaxSubmissionAllowed
-            do {
-                if (!cursor.moveToFirst())
-                    return emptyList()
+        var currentSubmissions = 0
+        val maxSubmissionsAllowed = defaultMaxSubmissionAllowed
+        var lastEventColumnId = 0
+        while (currentSubmissions < maxSubmissionsAllowed) {
+            val pinpointEvents = getNextBatchOfEvents(lastEventColumnId)
+            if (pinpointEvents.isEmpty()) break
+            lastEventColumnId = pinpointEvents.keys.maxOrNull() ?: lastEventColumnId
 
-                val pinpointEvents = getNextBatchOfEvents(cursor)
-                val eventToColumnIdMap = mutableMapOf<String, Int>()
-                pinpointEvents.forEach { (key, value) ->
-                    eventToColumnIdMap[value.eventId] = key
-                }
-                val submittedEvent = submitEventsAndProcessResponse(
-                    pinpointEvents,
-                    targetingClient.currentEndpoint()
-                )
-                syncedPinpointEvents.addAll(submittedEvent)
-                submittedEvent.forEach {
-                    eventToColumnIdMap[it.eventId]?.let { columnId ->
-                        // TODO: Replace with bulk delete
-                        if (pinpointDatabase.deleteEventById(columnId) > 0) {
-                            logger.info("Successfully submitted ${it.eventId}, deleted event from local database")
-                        }
-                    }
-                }
-                currentSubmissions++
-            } while (currentSubmissions < maxSubmissionsAllowed && !cursor.isClosed && cursor.moveToNext())
+            val eventToColumnIdMap = mutableMapOf<String, Int>()
+            pinpointEvents.forEach { (key, value) ->
+                eventToColumnIdMap[value.eventId] = key
+            }
+            val submittedEvent = submitEventsAndProcessResponse(
+                pinpointEvents,
+                targetingClient.currentEndpoint()
+            )
+            syncedPinpointEvents.addAll(submittedEvent)
+            val columnIdsToDelete = submittedEvent.mapNotNull { eventToColumnIdMap[it.eventId] }
+            val rowsDeleted = pinpointDatabase.deleteEventsByIds(columnIdsToDelete)
+            if (rowsDeleted > 0) {
+                logger.info("Successfully submitted $rowsDeleted events, deleted them from local database")
+            }
+            currentSubmissions++
         }
         syncedPinpointEvents.forEach { pinpointEvent ->
             syncedAnalyticsEvents.add(convertPinpointEventToAnalyticsEvent(pinpointEvent))
@@ -136,6 +197,87 @@ internal class EventRecorder(
         return syncedAnalyticsEvents
     }
 
+    /**
+     * Submit every stored event. Batches are read in row id order and submitted in rounds of concurrent requests.
+     * A round with failures that may succeed later, such as throttling, halves the concurrency and backs off before
+     * the next round. Batches whose request failed, and events which Pinpoint rejected with a retryable error, are
+     * read again in the next round. A round without any failures doubles the concurrency again, up to
+     * [defaultMaxConcurrentSubmissions].
+     */
+    private suspend fun drainEvents(): List<AnalyticsEvent> {
+        val startTime = System.currentTimeMillis()
+        val backlogSize = pinpointDatabase.getTotalEventCount()
+        val syncedPinpointEvents = mutableListOf<PinpointEvent>()
+        val endpointProfile = targetingClient.currentEndpoint()
+        var concurrency = defaultMaxConcurrentSubmissions
+        var backoffMillis = initialBackoffMillis
+        var consecutiveFailedRounds = 0
+        var lastEventColumnId = 0
+        while (consecutiveFailedRounds < maxConsecutiveFailedRounds) {
+            val batches = mutableListOf<Map<Int, PinpointEvent>>()
+            while (batches.size < concurrency) {
+                val batch = getNextBatchOfEvents(lastEventColumnId)
+                if (batch.isEmpty()) break
+                lastEventColumnId = batch.keys.maxOrNull() ?: lastEventColumnId
+                batches.add(batch)
+            }
+            if (batches.isEmpty()) break
+
+            val results = coroutineScope {
+                batches.map { batch ->
+                    async { runCatching { submitEventsAndProcessResponse(batch, endpointProfile) } }
+                }.awaitAll()
+            }
+            var hasRetryableFailures = false
+            var hasFatalFailure = false
+            batches.zip(results).forEach { (batch, result) ->
+                val submittedEvents = result.getOrElse { exception ->
+                    if (isRetryableError(exception::class.simpleName ?: "", 0)) {
+                        // Read the batch again in the next round.
+                        lastEventColumnId = minOf(lastEventColumnId, (batch.keys.minOrNull() ?: 1) - 1)
+                        hasRetryableFailures = true
+                    } else {
+                        logger.error("Failed to submit events $exception")
+                        hasFatalFailure = true
+                    }
+                    emptyList()
+                }
+                val submittedEventIds = submittedEvents.mapTo(mutableSetOf()) { it.eventId }
+                val rejectedColumnIds = batch.filterValues { it.eventId !in submittedEventIds }.keys
+                if (result.isSuccess && rejectedColumnIds.isNotEmpty()) {
+                    // Rejected with a retryable error, so still stored; read them again in the next round.
+                    lastEventColumnId = minOf(lastEventColumnId, rejectedColumnIds.minOf { it } - 1)
+                    hasRetryableFailures = true
+                }
+                val eventToColumnIdMap = batch.entries.associate { (columnId, event) -> event.eventId to columnId }
+                pinpointDatabase.deleteEventsByIds(submittedEvents.mapNotNull { eventToColumnIdMap[it.eventId] })
+                syncedPinpointEvents.addAll(submittedEvents)
+            }
+
+            if (hasFatalFailure) {
+                break
+            } else if (hasRetryableFailures) {
+                consecutiveFailedRounds++
+                concurrency = maxOf(1, concurrency / 2)
+                logger.info("Retryable failures while submitting events, backing off for $backoffMillis ms")
+                delay(backoffMillis)
+                backoffMillis = minOf(maxBackoffMillis, backoffMillis * 2)
+            } else {
+                consecutiveFailedRounds = 0
+                concurrency = minOf(defaultMaxConcurrentSubmissions, concurrency * 2)
+                backoffMillis = initialBackoffMillis
+            }
+        }
+
+        val metrics = FlushMetrics(backlogSize, syncedPinpointEvents.size, System.currentTimeMillis() - startTime)
+        lastFlushMetrics = metrics
+        logger.info(
+            "Submitted ${metrics.eventsSubmitted} of ${metrics.backlogSize} stored events in " +
+                "${metrics.durationMillis} ms (${metrics.eventsPerSecond} events/s)"
+        )
+        return syncedPinpointEvents.map { convertPinpointEventToAnalyticsEvent(it) }
+    }
+
     private suspend fun convertPinpointEventToAnalyticsEvent(pinpointEvent: PinpointEvent): AnalyticsEvent {
         val builder = AnalyticsEvent.builder().name(pinpointEvent.eventType)
         pinpointEvent.attributes.forEach { (t, u) ->
@@ -291,24 +433,61 @@ internal class EventRecorder(
         }
     }
 
-    private fun getNextBatchOfEvents(cursor: Cursor): Map<Int, PinpointEvent> {
+    /**
+     * Read the next batch of events with a row id greater than [afterColumnId]. Rows which can't be decoded are
+     * deleted, so that they can't stall the queue.
+     */
+    private suspend fun getNextBatchOfEvents(afterColumnId: Int): Map<Int, PinpointEvent> {
+        var lastColumnId = afterColumnId
+        while (true) {
+            val undecodableColumnIds = mutableListOf<Int>()
+            val batch = pinpointDatabase.queryEventsAfter(lastColumnId, serviceDefinedMaxEventsPerBatch)
+                .use { readBatchOfEvents(it, undecodableColumnIds) }
+            if (undecodableColumnIds.isEmpty()) return batch
+            logger.warn("Deleting ${undecodableColumnIds.size} stored events which can't be read")
+            pinpointDatabase.deleteEventsByIds(undecodableColumnIds)
+            if (batch.isNotEmpty()) return batch
+            lastColumnId = undecodableColumnIds.maxOf { it }
+        }
+    }
+
+    /**
+     * Decode events from the cursor until the batch reaches the service's size or count limit. Row sizes are read
+     * from [EventTable.COLUMN_SIZE] so that rows which don't fit are never decoded. The ids of rows which fail to
+     * decode are added to [undecodableColumnIds].
+     */
+    private fun readBatchOfEvents(cursor: Cursor, undecodableColumnIds: MutableList<Int>): Map<Int, PinpointEvent> {
         val result = mutableMapOf<Int, PinpointEvent>()
         var currentRequestSize = 0
         val maxRequestSize = defaultMaxSubmissionSize
-        cursor.use { it ->
-            do {
-                val rowId = it.getInt(EventTable.COLUMNINDEX.ID.index)
-                val rowSize = it.getInt(EventTable.COLUMNINDEX.SIZE.index)
-                val eventJsonString = it.getString(EventTable.COLUMNINDEX.JSON.index)
-                val pinpointEvent = PinpointEvent.fromJsonString(eventJsonString)
-                result.putIfAbsent(rowId, pinpointEvent)
-                currentRequestSize += eventJsonString.length
-            } while (
-                currentRequestSize <= maxRequestSize &&
-                result.size < serviceDefinedMaxEventsPerBatch &&
-                it.moveToNext()
-            )
+        while (result.size < serviceDefinedMaxEventsPerBatch && cursor.moveToNext()) {
+            val rowSize = cursor.getInt(EventTable.COLUMNINDEX.SIZE.index)
+            // Always take the first row, so that an oversized event can't stall the queue.
+            if (result.isNotEmpty() && currentRequestSize + rowSize > maxRequestSize) break
+            val rowId = cursor.getInt(EventTable.COLUMNINDEX.ID.index)
+            try {
+                result[rowId] = pinpointDatabase.readEvent(cursor)
+                currentRequestSize += rowSize
+            } catch (exception: Exception) {
+                logger.error("Failed to read stored event $rowId: $exception")
+                undecodableColumnIds.add(rowId)
+            }
         }
         return result
     }
 }
+
+/**
+ * Metrics of a flush of stored events.
+ * @param backlogSize number of stored events when the flush started
+ * @param eventsSubmitted number of events submitted by the flush
+ * @param durationMillis duration of the flush
+ */
+internal data class FlushMetrics(
+    val backlogSize: Long,
+    val eventsSubmitted: Int,
+    val durationMillis: Long
+) {
+    val eventsPerSecond: Double
+        get() = if (durationMillis > 0) eventsSubmitted * 1000.0 / durationMillis else eventsSubmitted.toDouble()
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.analytics.pinpoint.database
+
+import android.content.ContentValues
+import android.database.sqlite.SQLiteDatabase
+import com.amplifyframework.analytics.pinpoint.models.AndroidAppDetails
+import com.amplifyframework.analytics.pinpoint.models.AndroidDeviceDetails
+import com.amplifyframework.analytics.pinpoint.models.PinpointEvent
+import com.amplifyframework.analytics.pinpoint.models.PinpointSession
+import com.amplifyframework.analytics.pinpoint.models.SDKInfo
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.util.concurrent.ConcurrentHashMap
+import kotlinx.serialization.ExperimentalSerializationApi
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.decodeFromString
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+
+/**
+ * Encodes stored events in a compact binary format. Event types and attribute and metric names are replaced by ids
+ * from [EventKeyTable], and the details shared by the events of a session are stored once in [EventContextTable].
+ * An encoded event holds only its id, type, timestamp, attributes and metrics.
+ *
+ * Encoding may insert keys and contexts, so callers must serialize calls to [encode]. [decode] may be called
+ * concurrently. Ids inserted by [encode] are only cached once the caller reports with [commitPending] that its
+ * transaction committed, as a rolled back transaction lets SQLite hand the same ids to other keys and contexts.
+ */
+internal class CompactEventCodec(private val database: SQLiteDatabase) {
+
+    companion object {
+        private const val FORMAT_VERSION = 1
+        private const val MAX_CACHED_CONTEXTS = 32
+
+        // JSON of an event outside of its context, attributes and metrics: field names, quotes, braces, its id
+        // and timestamp.
+        private const val EVENT_JSON_OVERHEAD = 128
+
+        // Quotes, colon and comma around each attribute or metric.
+        private const val FIELD_JSON_OVERHEAD = 6
+
+        // A double as text is at most this much longer than its 8 bytes.
+        private const val METRIC_JSON_OVERHEAD = 16
+
+        @OptIn(ExperimentalSerializationApi::class)
+        private val json = Json {
+            encodeDefaults = true
+            explicitNulls = false
+        }
+    }
+
+    /**
+     * An encoded event, with an estimate of how many bytes it adds to a PutEvents request as JSON, which is not
+     * smaller than its actual size.
+     */
+    class EncodedEvent(val contextId: Long, val data: ByteArray, val estimatedJsonSize: Int)
+
+    private class CachedContext(val id: Long, val jsonSize: Int)
+
+    @Serializable
+    private data class EventContext(
+        val sdkInfo: SDKInfo,
+        val pinpointSession: PinpointSession,
+        val uniqueId: String,
+        val androidAppDetails: AndroidAppDetails,
+        val androidDeviceDetails: AndroidDeviceDetails
+    )
+
+    private val keyIds: MutableMap<String, Int> = ConcurrentHashMap()
+    private val keys: MutableMap<Int, String> = ConcurrentHashMap()
+    private val contextIds = mutableMapOf<EventContext, CachedContext>()
+    private val contexts: MutableMap<Long, EventContext> = ConcurrentHashMap()
+
+    // Keys and contexts inserted in the caller's transaction, which may still roll back.
+    private val pendingKeyIds = mutableMapOf<String, Int>()
+    private val pendingContextIds = mutableMapOf<EventContext, CachedContext>()
+
+    init {
+        database.query(EventKeyTable.TABLE_EVENT_KEY, null, null, null, null, null, null).use { cursor ->
+            val idIndex = cursor.getColumnIndexOrThrow(EventKeyTable.COLUMN_ID)
+            val keyIndex = cursor.getColumnIndexOrThrow(EventKeyTable.COLUMN_KEY)
+            while (cursor.moveToNext()) {
+                keyIds[cursor.getString(keyIndex)] = cursor.getInt(idIndex)
+                keys[cursor.getInt(idIndex)] = cursor.getString(keyIndex)
+            }
+        }
+    }
+
+    fun encode(event: PinpointEvent): EncodedEvent {
+        val context = cachedContextOf(
+            EventContext(
+                event.sdkInfo,
+                event.pinpointSession,
+                event.uniqueId,
+                event.androidAppDetails,
+                event.androidDeviceDetails
+            )
+        )
+        // Keys are stored by id, and escaped characters take more space as JSON than in the encoding.
+        var jsonOnlySize = jsonSize(event.eventType) + escapedSize(event.eventId)
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { output ->
+            output.writeByte(FORMAT_VERSION)
+            output.writeUTF(event.eventId)
+            output.writeVarInt(keyIdOf(event.eventType))
+            output.writeLong(event.eventTimestamp)
+            output.writeVarInt(event.attributes.size)
+            event.attributes.forEach { (name, value) ->
+                output.writeVarInt(keyIdOf(name))
+                output.writeUTF(value)
+                jsonOnlySize += jsonSize(name) + escapedSize(value)
+            }
+            output.writeVarInt(event.metrics.size)
+            event.metrics.forEach { (name, value) ->
+                output.writeVarInt(keyIdOf(name))
+                output.writeDouble(value)
+                jsonOnlySize += jsonSize(name)
+            }
+        }
+        val data = bytes.toByteArray()
+        val estimatedJsonSize = EVENT_JSON_OVERHEAD + context.jsonSize + data.size + jsonOnlySize +
+            FIELD_JSON_OVERHEAD * (event.attributes.size + event.metrics.size) +
+            METRIC_JSON_OVERHEAD * event.metrics.size
+        return EncodedEvent(context.id, data, estimatedJsonSize)
+    }
+
+    /**
+     * Cache the keys and contexts inserted by [encode] since the last call, once the transaction which inserted them
+     * has committed.
+     */
+    fun commitPending() {
+        pendingKeyIds.forEach { (key, id) ->
+            keys[id] = key
+            keyIds[key] = id
+        }
+        pendingKeyIds.clear()
+        pendingContextIds.forEach { (context, cachedContext) -> cacheContextId(context, cachedContext) }
+        pendingContextIds.clear()
+    }
+
+    /**
+     * Forget the keys and contexts inserted by [encode] since the last call, as the transaction which inserted them
+     * rolled back.
+     */
+    fun discardPending() {
+        pendingKeyIds.clear()
+        pendingContextIds.clear()
+    }
+
+    fun decode(contextId: Long, data: ByteArray): PinpointEvent {
+        val context = contextOf(contextId)
+        DataInputStream(ByteArrayInputStream(data)).use { input ->
+            val version = input.readUnsignedByte()
+            require(version == FORMAT_VERSION) { "Unknown event format version $version" }
+            val eventId = input.readUTF()
+            val eventType = keyOf(input.readVarInt())
+            val eventTimestamp = input.readLong()
+            val attributes = (0 until input.readVarInt()).associate { keyOf(input.readVarInt()) to input.readUTF() }
+            val metrics = (0 until input.readVarInt()).associate { keyOf(input.readVarInt()) to input.readDouble() }
+            return PinpointEvent(
+                eventId = eventId,
+                eventType = eventType,
+                attributes = attributes,
+                metrics = metrics,
+                sdkInfo = context.sdkInfo,
+                pinpointSession = context.pinpointSession,
+                eventTimestamp = eventTimestamp,
+                uniqueId = context.uniqueId,
+                androidAppDetails = context.androidAppDetails,
+                androidDeviceDetails = context.androidDeviceDetails
+            )
+        }
+    }
+
+    /**
+     * Ids of the contexts which [encode] may still refer to without reading the context table.
+     */
+    fun cachedContextIds(): Collection<Long> = contextIds.values.map { it.id }
+
+    private fun keyIdOf(key: String): Int {
+        return keyIds[key] ?: pendingKeyIds[key] ?: run {
+            val values = ContentValues()
+            values.put(EventKeyTable.COLUMN_KEY, key)
+            val id = database.insertOrThrow(EventKeyTable.TABLE_EVENT_KEY, null, values).toInt()
+            pendingKeyIds[key] = id
+            id
+        }
+    }
+
+    private fun keyOf(id: Int): String {
+        return keys[id] ?: run {
+            val key = database.query(
+                EventKeyTable.TABLE_EVENT_KEY,
+                arrayOf(EventKeyTable.COLUMN_KEY),
+                "${EventKeyTable.COLUMN_ID} = ?",
+                arrayOf(id.toString()),
+                null,
+                null,
+                null
+            ).use { cursor ->
+                if (cursor.moveToFirst()) cursor.getString(0) else null
+            } ?: throw IllegalStateException("Unknown event key $id")
+            key.also { keys[id] = it }
+        }
+    }
+
+    private fun cachedContextOf(context: EventContext): CachedContext {
+        contextIds[context]?.let { return it }
+        pendingContextIds[context]?.let { return it }
+        val contextJson = json.encodeToString(context)
+        val id = database.query(
+            EventContextTable.TABLE_EVENT_CONTEXT,
+            arrayOf(EventContextTable.COLUMN_ID),
+            "${EventContextTable.COLUMN_JSON} = ?",
+            arrayOf(contextJson),
+            null,
+            null,
+            null
+        ).use { cursor ->
+            if (cursor.moveToFirst()) cursor.getLong(0) else null
+        } ?: run {
+            val values = ContentValues()
+            values.put(EventContextTable.COLUMN_JSON, contextJson)
+            database.insertOrThrow(EventContextTable.TABLE_EVENT_CONTEXT, null, values)
+        }
+        return CachedContext(id, utf8Size(contextJson)).also { pendingContextIds[context] = it }
+    }
+
+    private fun cacheContextId(context: EventContext, cachedContext: CachedContext) {
+        // A session's events share a context, so only a few are live at a time.
+        if (contextIds.size >= MAX_CACHED_CONTEXTS) contextIds.clear()
+        contextIds[context] = cachedContext
+        cacheContext(cachedContext.id, context)
+    }
+
+    private fun contextOf(id: Long): EventContext {
+        return contexts[id] ?: run {
+            val contextJson = database.query(
+                EventContextTable.TABLE_EVENT_CONTEXT,
+                arrayOf(EventContextTable.COLUMN_JSON),
+                "${EventContextTable.COLUMN_ID} = ?",
+                arrayOf(id.toString()),
+                null,
+                null,
+                null
+            ).use { cursor ->
+                if (cursor.moveToFirst()) cursor.getString(0) else null
+            } ?: throw IllegalStateException("Unknown event context $id")
+            json.decodeFromString<EventContext>(contextJson).also { cacheContext(id, it) }
+        }
+    }
+
+    private fun cacheContext(id: Long, context: EventContext) {
+        // Decoding the events of old sessions must not grow the cache without bound either.
+        if (contexts.size >= MAX_CACHED_CONTEXTS) contexts.clear()
+        contexts[id] = context
+    }
+
+    /**
+     * Size of the string as escaped UTF-8 in JSON, without its quotes.
+     */
+    private fun jsonSize(value: String): Int = utf8Size(value) + escapedSize(value)
+
+    /**
+     * Bytes which escaping adds to the string in JSON.
+     */
+    private fun escapedSize(value: String): Int {
+        var size = 0
+        value.forEach { char ->
+            size += when {
+                char == '"' || char == '\\' -> 1
+                // Control characters are escaped at most as \uXXXX.
+                char.code < 0x20 -> 5
+                else -> 0
+            }
+        }
+        return size
+    }
+
+    private fun utf8Size(value: String): Int {
+        var size = 0
+        value.forEach { char ->
+            size += when {
+                char.code < 0x80 -> 1
+                char.code < 0x800 -> 2
+                // Each half of a surrogate pair counts half of the pair's 4 bytes.
+                Character.isSurrogate(char) -> 2
+                else -> 3
+            }
+        }
+        return size
+    }
+
+    private fun DataOutputStream.writeVarInt(value: Int) {
+        var remaining = value
+        while (remaining and 0x7F.inv() != 0) {
+            writeByte((remaining and 0x7F) or 0x80)
+            remaining = remaining ushr 7
+        }
+        writeByte(remaining)
+    }
+
+    private fun DataInputStream.readVarInt(): Int {
+        var value = 0
+        var shift = 0
+        while (true) {
+            val byte = readUnsignedByte()
+            value = value or ((byte and 0x7F) shl shift)
+            if (byte and 0x80 == 0) return value
+            shift += 7
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.analytics.pinpoint.database
+
+import android.database.sqlite.SQLiteDatabase
+
+/**
+ * Details shared by the events of a session: the session, SDK, app, device and unique id. Stored once as JSON, and
+ * referred to by id from each event.
+ */
+internal class EventContextTable {
+    companion object {
+        const val TABLE_EVENT_CONTEXT = "pinpointeventcontext"
+        const val COLUMN_ID = "context_id"
+        const val COLUMN_JSON = "context_json"
+
+        @JvmStatic
+        fun onCreate(db: SQLiteDatabase) {
+            db.execSQL(
+                "create table if not exists $TABLE_EVENT_CONTEXT(" +
+                    "$COLUMN_ID integer primary key autoincrement, " +
+                    "$COLUMN_JSON TEXT NOT NULL UNIQUE);"
+            )
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.analytics.pinpoint.database
+
+import android.database.sqlite.SQLiteDatabase
+
+/**
+ * Dictionary of event types and attribute and metric names, so that stored events refer to them by id.
+ */
+internal class EventKeyTable {
+    companion object {
+        const val TABLE_EVENT_KEY = "pinpointeventkey"
+        const val COLUMN_ID = "key_id"
+        const val COLUMN_KEY = "key"
+
+        @JvmStatic
+        fun onCreate(db: SQLiteDatabase) {
+            db.execSQL(
+                "create table if not exists $TABLE_EVENT_KEY(" +
+                    "$COLUMN_ID integer primary key autoincrement, " +
+                    "$COLUMN_KEY TEXT NOT NULL UNIQUE);"
+            )
+        }
+    }
+}
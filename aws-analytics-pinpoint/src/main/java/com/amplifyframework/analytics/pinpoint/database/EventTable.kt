@@ -15,19 +15,27 @@
 
 package com.amplifyframework.analytics.pinpoint.database
 
+import android.content.ContentValues
 import android.database.sqlite.SQLiteDatabase
+import com.amplifyframework.analytics.pinpoint.models.PinpointEvent
 
 internal class EventTable {
     companion object {
-        const val TABLE_EVENT = "pinpointevent1"
+        const val TABLE_EVENT = "pinpointevent2"
         const val COLUMN_ID = "event_id"
-        const val COLUMN_JSON = "event_json"
         const val COLUMN_SIZE = "event_size"
+        const val COLUMN_DATA = "event_data"
+        const val COLUMN_CONTEXT_ID = "event_context_id"
+        const val INDEX_CONTEXT_ID = "pinpointevent2_context_id"
+
+        // Version 1 stored each event as JSON.
+        const val TABLE_EVENT_V1 = "pinpointevent1"
+        const val COLUMN_JSON = "event_json"
 
         @JvmStatic
         fun onCreate(db: SQLiteDatabase?, version: Int) {
             val createTableQuery =
-                "create table if not exists $TABLE_EVENT(" +
+                "create table if not exists $TABLE_EVENT_V1(" +
                     "$COLUMN_ID integer primary key autoincrement, " +
                     "$COLUMN_SIZE INTEGER NOT NULL, " +
                     "$COLUMN_JSON TEXT NOT NULL);"
@@ -37,13 +45,59 @@ internal class EventTable {
 
         @JvmStatic
         fun onUpgrade(db: SQLiteDatabase?, oldVersion: Int, newVersion: Int) {
-            // Stub to add any future db upgrades
+            if (db == null) return
+            if (oldVersion < 2 && newVersion >= 2) {
+                upgradeToCompactEvents(db)
+            }
+        }
+
+        /**
+         * Move events from the JSON table to the compact table, keeping their order, and drop the JSON table.
+         */
+        private fun upgradeToCompactEvents(db: SQLiteDatabase) {
+            EventKeyTable.onCreate(db)
+            EventContextTable.onCreate(db)
+            db.execSQL(
+                "create table if not exists $TABLE_EVENT(" +
+                    "$COLUMN_ID integer primary key autoincrement, " +
+                    "$COLUMN_SIZE INTEGER NOT NULL, " +
+                    "$COLUMN_DATA BLOB NOT NULL, " +
+                    "$COLUMN_CONTEXT_ID INTEGER NOT NULL);"
+            )
+            // Looked up whenever events are deleted, to find contexts no event refers to anymore.
+            db.execSQL("create index if not exists $INDEX_CONTEXT_ID on $TABLE_EVENT($COLUMN_CONTEXT_ID);")
+            val codec = CompactEventCodec(db)
+            db.query(TABLE_EVENT_V1, null, null, null, null, null, "$COLUMN_ID ASC").use { cursor ->
+                val jsonIndex = cursor.getColumnIndexOrThrow(COLUMN_JSON)
+                while (cursor.moveToNext()) {
+                    val event = runCatching { PinpointEvent.fromJsonString(cursor.getString(jsonIndex)) }.getOrNull()
+                        ?: continue
+                    db.insertOrThrow(TABLE_EVENT, null, contentValuesOf(codec, event))
+                }
+            }
+            db.execSQL("drop table if exists $TABLE_EVENT_V1")
+        }
+
+        /**
+         * Encode an event into a row of the event table. The caller must hold the lock guarding [codec].
+         * The size column holds an estimate of the length of the event as JSON, which is what it adds to a PutEvents
+         * request, rather than the length of the compact encoding.
+         */
+        @JvmStatic
+        fun contentValuesOf(codec: CompactEventCodec, event: PinpointEvent): ContentValues {
+            val encodedEvent = codec.encode(event)
+            val values = ContentValues()
+            values.put(COLUMN_SIZE, encodedEvent.estimatedJsonSize)
+            values.put(COLUMN_DATA, encodedEvent.data)
+            values.put(COLUMN_CONTEXT_ID, encodedEvent.contextId)
+            return values
         }
     }
 
     enum class COLUMNINDEX(val index: Int) {
         ID(0),
         SIZE(1),
-        JSON(2);
+        DATA(2),
+        CONTEXT_ID(3);
     }
 }
@@ -15,10 +15,10 @@
 
 package com.amplifyframework.analytics.pinpoint.database
 
-import android.content.ContentValues
 import android.content.Context
 import android.content.UriMatcher
 import android.database.Cursor
+import android.database.DatabaseUtils
 import android.database.sqlite.SQLiteDatabase
 import android.database.sqlite.SQLiteQueryBuilder
 import android.net.Uri
@@ -35,8 +35,13 @@ internal class PinpointDatabase(
     private val events = 10
     private val eventsId = 20
     private val basePath = "events"
+    private val maxIdsPerDelete = 500
     private val databaseHelper = PinpointDatabaseHelper(context)
     private val database: SQLiteDatabase = databaseHelper.writableDatabase
+    private val codec = CompactEventCodec(database)
+
+    // Serializes writes, as encoding an event may write to the key and context tables.
+    private val writeLock = Any()
     private val contentUri: Uri
     private val uriMatcher: UriMatcher
 
@@ -56,7 +61,41 @@ internal class PinpointDatabase(
 
     suspend fun saveEvent(event: PinpointEvent): Uri {
         return withContext(coroutineDispatcher) {
-            insert(getContentUri(), generateContentValuesFromEvent(event))
+            val id = insertEvents(listOf(event)).first()
+            Uri.parse("$basePath/$id")
+        }
+    }
+
+    /**
+     * Save the events in a single transaction.
+     */
+    suspend fun saveEvents(events: List<PinpointEvent>) {
+        withContext(coroutineDispatcher) {
+            insertEvents(events)
+        }
+    }
+
+    /**
+     * Insert the events in a single transaction, and let the codec cache the keys and contexts it inserted only once
+     * the transaction committed.
+     */
+    private fun insertEvents(events: List<PinpointEvent>): List<Long> {
+        synchronized(writeLock) {
+            try {
+                database.beginTransaction()
+                val ids = try {
+                    events.map {
+                        database.insertOrThrow(EventTable.TABLE_EVENT, null, EventTable.contentValuesOf(codec, it))
+                    }.also { database.setTransactionSuccessful() }
+                } finally {
+                    database.endTransaction()
+                }
+                codec.commitPending()
+                return ids
+            } catch (exception: Exception) {
+                codec.discardPending()
+                throw exception
+            }
         }
     }
 
@@ -68,38 +107,95 @@ internal class PinpointDatabase(
 
     suspend fun deleteEventById(eventColumnId: Int): Int {
         return withContext(coroutineDispatcher) {
-            val uri = contentUri
             val whereClause = "${EventTable.COLUMN_ID}=$eventColumnId"
-            database.delete(
+            synchronized(writeLock) {
+                val rowsDeleted = database.delete(
+                    EventTable.TABLE_EVENT,
+                    whereClause,
+                    null
+                )
+                deleteUnusedContexts()
+                rowsDeleted
+            }
+        }
+    }
+
+    suspend fun getTotalEventCount(): Long {
+        return withContext(coroutineDispatcher) {
+            DatabaseUtils.queryNumEntries(database, EventTable.TABLE_EVENT)
+        }
+    }
+
+    /**
+     * Query up to [limit] events with a row id greater than [afterId], in row id order. Paging by the last row id seen
+     * keeps each query an index range scan however far into the table it is.
+     */
+    suspend fun queryEventsAfter(afterId: Int, limit: Int): Cursor {
+        return withContext(coroutineDispatcher) {
+            database.query(
                 EventTable.TABLE_EVENT,
-                whereClause,
-                null
+                null,
+                "${EventTable.COLUMN_ID} > ?",
+                arrayOf(afterId.toString()),
+                null,
+                null,
+                "${EventTable.COLUMN_ID} ASC",
+                limit.toString()
             )
         }
     }
 
-    private fun generateContentValuesFromEvent(event: PinpointEvent): ContentValues {
-        val values = ContentValues()
-        val eventJsonString = event.toJsonString()
-        values.put(EventTable.COLUMN_JSON, eventJsonString)
-        values.put(EventTable.COLUMN_SIZE, eventJsonString.length)
-        return values
+    /**
+     * Delete the events with the given row ids in a single transaction.
+     * @return the number of rows deleted
+     */
+    suspend fun deleteEventsByIds(eventColumnIds: Collection<Int>): Int {
+        if (eventColumnIds.isEmpty()) return 0
+        return withContext(coroutineDispatcher) {
+            var rowsDeleted = 0
+            synchronized(writeLock) {
+                database.beginTransaction()
+                try {
+                    // Ids are integers, so they are inlined. Chunks keep each statement within SQLite's length limits.
+                    eventColumnIds.chunked(maxIdsPerDelete).forEach { ids ->
+                        rowsDeleted += database.delete(
+                            EventTable.TABLE_EVENT,
+                            "${EventTable.COLUMN_ID} IN (${ids.joinToString(",")})",
+                            null
+                        )
+                    }
+                    deleteUnusedContexts()
+                    database.setTransactionSuccessful()
+                } finally {
+                    database.endTransaction()
+                }
+            }
+            rowsDeleted
+        }
     }
 
-    private fun getContentUri(): Uri = contentUri
+    /**
+     * Decode the event at the cursor's current row.
+     */
+    fun readEvent(cursor: Cursor): PinpointEvent {
+        return codec.decode(
+            cursor.getLong(EventTable.COLUMNINDEX.CONTEXT_ID.index),
+            cursor.getBlob(EventTable.COLUMNINDEX.DATA.index)
+        )
+    }
 
-    private fun insert(uri: Uri, values: ContentValues): Uri {
-        val uriType = uriMatcher.match(uri)
-        val id: Long
-        when (uriType) {
-            events -> {
-                id = database.insertOrThrow(EventTable.TABLE_EVENT, null, values)
-            }
-            else -> {
-                throw IllegalArgumentException("Unknown Uri: $uri")
-            }
+    /**
+     * Delete contexts which no stored event refers to and which the codec won't refer to without looking them up.
+     * Must be called holding [writeLock].
+     */
+    private fun deleteUnusedContexts() {
+        val cachedContextIds = codec.cachedContextIds()
+        var whereClause = "${EventContextTable.COLUMN_ID} NOT IN " +
+            "(SELECT ${EventTable.COLUMN_CONTEXT_ID} FROM ${EventTable.TABLE_EVENT})"
+        if (cachedContextIds.isNotEmpty()) {
+            whereClause += " AND ${EventContextTable.COLUMN_ID} NOT IN (${cachedContextIds.joinToString(",")})"
         }
-        return Uri.parse("$basePath/$id")
+        database.delete(EventContextTable.TABLE_EVENT_CONTEXT, whereClause, null)
     }
 
     /*@Synchronized
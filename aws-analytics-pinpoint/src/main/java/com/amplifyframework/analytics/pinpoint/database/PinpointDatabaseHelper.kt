@@ -24,7 +24,7 @@ internal class PinpointDatabaseHelper(context: Context) :
 
     companion object {
         private const val DATABASE_NAME = "awspinpoint1.db"
-        private const val DATABASE_VERSION = 1
+        private const val DATABASE_VERSION = 2
     }
 
     override fun onCreate(db: SQLiteDatabase?) {
@@ -15,7 +15,6 @@
 
 package com.amplifyframework.analytics.pinpoint
 
-import android.net.Uri
 import androidx.test.core.app.ApplicationProvider
 import aws.sdk.kotlin.services.pinpoint.PinpointClient
 import com.amplifyframework.analytics.pinpoint.database.PinpointDatabase
@@ -26,10 +25,13 @@ import com.amplifyframework.analytics.pinpoint.models.PinpointEvent
 import com.amplifyframework.analytics.pinpoint.models.PinpointSession
 import com.amplifyframework.analytics.pinpoint.models.SDKInfo
 import com.amplifyframework.analytics.pinpoint.targeting.TargetingClient
+import io.mockk.Runs
 import io.mockk.coEvery
 import io.mockk.coVerify
 import io.mockk.every
+import io.mockk.just
 import io.mockk.mockk
+import io.mockk.verify
 import java.util.UUID
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
@@ -88,7 +90,7 @@ class AnalyticsClientTest {
         val startTime = System.currentTimeMillis()
         every { sessionClient.session } answers { Session(sessionId, startTime, startTime) }
         every { sharedPrefsUniqueIdService.getUniqueId() } answers { "UNIQUE_ID" }
-        coEvery { eventRecorder.recordEvent(any()) } answers { Uri.EMPTY }
+        every { eventRecorder.recordEvent(any()) } just Runs
     }
 
     @Test
@@ -142,7 +144,7 @@ class AnalyticsClientTest {
             androidAppDetails = androidAppDetails
         )
         analyticsClient.recordEvent(pinpointEvent)
-        coVerify(exactly = 1) { eventRecorder.recordEvent(pinpointEvent) }
+        verify(exactly = 1) { eventRecorder.recordEvent(pinpointEvent) }
     }
 
     @Test
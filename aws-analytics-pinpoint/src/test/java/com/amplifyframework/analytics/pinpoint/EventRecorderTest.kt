@@ -15,6 +15,7 @@
 
 package com.amplifyframework.analytics.pinpoint
 
+import android.database.Cursor
 import android.database.MatrixCursor
 import androidx.test.core.app.ApplicationProvider
 import aws.sdk.kotlin.services.pinpoint.PinpointClient
@@ -34,13 +35,18 @@ import com.amplifyframework.analytics.pinpoint.targeting.TargetingClient
 import com.amplifyframework.analytics.pinpoint.targeting.endpointProfile.EndpointProfile
 import io.mockk.coEvery
 import io.mockk.coVerify
-import io.mockk.coVerifyOrder
+import io.mockk.every
 import io.mockk.mockk
 import java.util.UUID
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -98,40 +104,220 @@ class EventRecorderTest {
             androidDeviceDetails = mockk<AndroidDeviceDetails>()
         )
         eventRecorder.recordEvent(pinpointEvent)
-        coVerify(exactly = 1) { pinpointDatabaseMock.saveEvent(pinpointEvent) }
+        eventRecorder.writePendingEvents()
+        coVerify(exactly = 1) { pinpointDatabaseMock.saveEvents(listOf(pinpointEvent)) }
+    }
+
+    @Test
+    fun `test recorded events are written in groups`() = runTest {
+        val pinpointEvents = (1..120).map { getPinpointEvent("testEvent$it") }
+        pinpointEvents.forEach { eventRecorder.recordEvent(it) }
+        eventRecorder.writePendingEvents()
+
+        coVerify(exactly = 1) { pinpointDatabaseMock.saveEvents(pinpointEvents.subList(0, 50)) }
+        coVerify(exactly = 1) { pinpointDatabaseMock.saveEvents(pinpointEvents.subList(50, 100)) }
+        coVerify(exactly = 1) { pinpointDatabaseMock.saveEvents(pinpointEvents.subList(100, 120)) }
+        coVerify(exactly = 0) { pinpointDatabaseMock.saveEvent(any()) }
+    }
+
+    @Test
+    fun `test the caller writes events once too many are waiting to be stored`() = runTest {
+        val recorder = recorderOn(this)
+        val saved = mutableListOf<PinpointEvent>()
+        coEvery { pinpointDatabaseMock.saveEvents(any()) }.answers {
+            saved.addAll(firstArg())
+            Unit
+        }
+        val events = (1..1001).map { getPinpointEvent("testEvent$it") }
+
+        // Writes are only launched, and don't run until the test yields, so every event stays pending until one
+        // too many are recorded.
+        events.take(1000).forEach { recorder.recordEvent(it) }
+        assertTrue(saved.isEmpty())
+        recorder.recordEvent(events.last())
+
+        assertEquals(events, saved)
     }
 
     @Test
     fun `test submit events`() = runTest {
-        val pinpointEvent1 = getPinpointEvent("testEvent1")
-        val pinpointEvent2 = getPinpointEvent("testEvent2")
+        setupStoredEvents(getPinpointEvent("testEvent1"), getPinpointEvent("testEvent2"))
+
+        eventRecorder.submitEvents()
+        coVerify(exactly = 1) { pinpointDatabaseMock.deleteEventsByIds(listOf(1, 2)) }
+        coVerify(exactly = 0) { pinpointDatabaseMock.deleteEventById(any()) }
+    }
+
+    @Test
+    fun `test drain backlog`() = runTest {
+        setupStoredEvents(getPinpointEvent("testEvent1"), getPinpointEvent("testEvent2"))
+        coEvery { pinpointDatabaseMock.getTotalEventCount() } returns 2L
+
+        val syncedEvents = eventRecorder.submitEvents(drainBacklog = true)
+
+        assertEquals(2, syncedEvents.size)
+        coVerify(exactly = 1) { pinpointDatabaseMock.deleteEventsByIds(listOf(1, 2)) }
+        assertEquals(2L, eventRecorder.lastFlushMetrics?.backlogSize)
+        assertEquals(2, eventRecorder.lastFlushMetrics?.eventsSubmitted)
+    }
+
+    @Test
+    fun `test events rejected with a retryable error are read again`() = runTest {
+        val events = (1..150).map { getPinpointEvent("testEvent$it") }
+        val stored = setupEventStore(events)
+        val throttledEventId = events[9].eventId
+        var throttled = false
+        coEvery { pinpointClient.putEvents(any<PutEventsRequest>()) } coAnswers {
+            putEventsResponse(firstArg()) { eventId ->
+                if (eventId == throttledEventId && !throttled) {
+                    throttled = true
+                    THROTTLED
+                } else {
+                    ACCEPTED
+                }
+            }
+        }
+
+        val syncedEvents = recorderOn(this).submitEvents(drainBacklog = true)
+
+        assertEquals(150, syncedEvents.size)
+        assertTrue(stored.isEmpty())
+        coVerify(exactly = 3) { pinpointClient.putEvents(any<PutEventsRequest>()) }
+    }
+
+    @Test
+    fun `test throttling halves concurrency until a round succeeds`() = runTest {
+        setupEventStore((1..800).map { getPinpointEvent("testEvent$it") })
+        val roundStartTimes = mutableListOf<Long>()
+        coEvery { pinpointClient.putEvents(any<PutEventsRequest>()) } coAnswers {
+            val startTime = testScheduler.currentTime
+            roundStartTimes.add(startTime)
+            delay(REQUEST_MILLIS)
+            putEventsResponse(firstArg()) { if (startTime == 0L) THROTTLED else ACCEPTED }
+        }
+
+        recorderOn(this).submitEvents(drainBacklog = true)
+
+        // 4 batches are throttled, then 2 go out after backing off, then 4 again, then the last 2.
+        val rounds = roundStartTimes.groupingBy { it }.eachCount()
+        assertEquals(listOf(0L, 510L, 520L, 530L), rounds.keys.toList())
+        assertEquals(listOf(4, 2, 4, 2), rounds.values.toList())
+    }
+
+    @Test
+    fun `test throttling backs off exponentially and gives up`() = runTest {
+        val stored = setupEventStore((1..100).map { getPinpointEvent("testEvent$it") })
+        val roundStartTimes = mutableListOf<Long>()
+        coEvery { pinpointClient.putEvents(any<PutEventsRequest>()) } coAnswers {
+            roundStartTimes.add(testScheduler.currentTime)
+            delay(REQUEST_MILLIS)
+            putEventsResponse(firstArg()) { THROTTLED }
+        }
+
+        val syncedEvents = recorderOn(this).submitEvents(drainBacklog = true)
+
+        assertEquals(listOf(0L, 510L, 1520L), roundStartTimes)
+        assertTrue(syncedEvents.isEmpty())
+        assertEquals(100, stored.size)
+    }
+
+    @Test
+    fun `test stored events which can't be read are deleted`() = runTest {
+        val events = (1..150).map { getPinpointEvent("testEvent$it") }
+        val stored = setupEventStore(events)
+        val undecodableColumnIds = (1..100).toSet() + 120
+        every { pinpointDatabaseMock.readEvent(any()) }.answers {
+            val columnId = firstArg<Cursor>().getInt(EventTable.COLUMNINDEX.ID.index)
+            if (columnId in undecodableColumnIds) throw IllegalStateException("Unknown event key 1")
+            stored.getValue(columnId)
+        }
+        coEvery { pinpointClient.putEvents(any<PutEventsRequest>()) } coAnswers {
+            putEventsResponse(firstArg()) { ACCEPTED }
+        }
+
+        val syncedEvents = recorderOn(this).submitEvents(drainBacklog = true)
+
+        assertEquals(events.size - undecodableColumnIds.size, syncedEvents.size)
+        assertTrue(stored.isEmpty())
+    }
+
+    private fun recorderOn(testScope: TestScope) = EventRecorder(
+        ApplicationProvider.getApplicationContext(),
+        pinpointClient,
+        pinpointDatabaseMock,
+        targetingClient,
+        coroutineDispatcher = StandardTestDispatcher(testScope.testScheduler)
+    )
+
+    /**
+     * Backs the database mock with an in-memory table of the given events, with row ids from 1.
+     */
+    private fun setupEventStore(events: List<PinpointEvent>): MutableMap<Int, PinpointEvent> {
+        val stored = sortedMapOf<Int, PinpointEvent>()
+        events.forEachIndexed { index, event -> stored[index + 1] = event }
+        val columns = arrayOf(EventTable.COLUMN_ID, EventTable.COLUMN_SIZE, EventTable.COLUMN_DATA)
+        every { pinpointDatabaseMock.readEvent(any()) }.answers {
+            stored.getValue(firstArg<Cursor>().getInt(EventTable.COLUMNINDEX.ID.index))
+        }
+        coEvery { pinpointDatabaseMock.queryEventsAfter(any(), any()) }.answers {
+            val cursor = MatrixCursor(columns)
+            stored.tailMap(firstArg<Int>() + 1).entries.take(secondArg()).forEach { (id, _) ->
+                cursor.addRow(arrayOf(id, 1, ""))
+            }
+            cursor
+        }
+        coEvery { pinpointDatabaseMock.deleteEventsByIds(any()) }.answers {
+            firstArg<Collection<Int>>().count { stored.remove(it) != null }
+        }
+        coEvery { pinpointDatabaseMock.getTotalEventCount() }.answers { stored.size.toLong() }
+        coEvery { endpointProfile.endpointId }.answers { ENDPOINT_ID }
+        coEvery { targetingClient.currentEndpoint() }.answers { endpointProfile }
+        return stored
+    }
 
+    private fun putEventsResponse(request: PutEventsRequest, statusFor: (String) -> Int): PutEventsResponse {
+        val eventIds = request.eventsRequest?.batchItem?.get(ENDPOINT_ID)?.events?.keys.orEmpty()
+        return PutEventsResponse {
+            eventsResponse = EventsResponse {
+                results = mapOf(
+                    ENDPOINT_ID to ItemResponse {
+                        eventsItemResponse = eventIds.associateWith { eventId ->
+                            val status = statusFor(eventId)
+                            EventItemResponse {
+                                message = if (status == ACCEPTED) "Accepted" else "ThrottlingException"
+                                statusCode = status
+                            }
+                        }
+                    }
+                )
+            }
+        }
+    }
+
+    private fun setupStoredEvents(vararg events: PinpointEvent) {
         // setup database
-        val pinpointEvents = listOf(
-            arrayOf(1, pinpointEvent1.toJsonString().length, pinpointEvent1.toJsonString()),
-            arrayOf(2, pinpointEvent2.toJsonString().length, pinpointEvent2.toJsonString())
-        )
-        val matrixCursor = MatrixCursor(arrayOf(EventTable.COLUMN_ID, EventTable.COLUMN_SIZE, EventTable.COLUMN_JSON))
-        pinpointEvents.forEach {
-            matrixCursor.addRow(it)
+        val columns = arrayOf(EventTable.COLUMN_ID, EventTable.COLUMN_SIZE, EventTable.COLUMN_DATA)
+        val matrixCursor = MatrixCursor(columns)
+        events.forEachIndexed { index, event ->
+            matrixCursor.addRow(arrayOf(index + 1, event.toJsonString().length, event.toJsonString()))
+        }
+        every { pinpointDatabaseMock.readEvent(any()) }.answers {
+            PinpointEvent.fromJsonString(firstArg<Cursor>().getString(EventTable.COLUMNINDEX.DATA.index))
         }
-        coEvery { pinpointDatabaseMock.queryAllEvents() }.answers { matrixCursor }
+        coEvery { pinpointDatabaseMock.queryEventsAfter(0, any()) }.answers { matrixCursor }
+        coEvery { pinpointDatabaseMock.queryEventsAfter(events.size, any()) }.answers { MatrixCursor(columns) }
 
         // setup pinpoint client
         val endpointId = UUID.randomUUID().toString()
         coEvery { endpointProfile.endpointId }.answers { endpointId }
         coEvery { targetingClient.currentEndpoint() }.answers { endpointProfile }
         val itemResponse = ItemResponse {
-            eventsItemResponse = mapOf(
-                pinpointEvent1.eventId to EventItemResponse {
-                    message = "Accepted"
-                    statusCode = 202
-                },
-                pinpointEvent2.eventId to EventItemResponse {
+            eventsItemResponse = events.associate {
+                it.eventId to EventItemResponse {
                     message = "Accepted"
                     statusCode = 202
                 }
-            )
+            }
         }
         val putEventResponse = PutEventsResponse {
             eventsResponse = EventsResponse {
@@ -139,12 +325,6 @@ class EventRecorderTest {
             }
         }
         coEvery { pinpointClient.putEvents(any<PutEventsRequest>()) }.answers { putEventResponse }
-
-        eventRecorder.submitEvents()
-        coVerifyOrder {
-            pinpointDatabaseMock.deleteEventById(1)
-            pinpointDatabaseMock.deleteEventById(2)
-        }
     }
 
     private fun getPinpointEvent(eventType: String): PinpointEvent {
@@ -160,4 +340,11 @@ class EventRecorderTest {
             androidDeviceDetails = AndroidDeviceDetails("test")
         )
     }
+
+    companion object {
+        private const val ENDPOINT_ID = "endpoint"
+        private const val ACCEPTED = 202
+        private const val THROTTLED = 429
+        private const val REQUEST_MILLIS = 10L
+    }
 }
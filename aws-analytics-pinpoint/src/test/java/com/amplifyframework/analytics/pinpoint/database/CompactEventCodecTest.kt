@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.analytics.pinpoint.database
+
+import android.content.ContentValues
+import android.database.DatabaseUtils
+import android.database.sqlite.SQLiteDatabase
+import com.amplifyframework.analytics.pinpoint.models.AndroidAppDetails
+import com.amplifyframework.analytics.pinpoint.models.AndroidDeviceDetails
+import com.amplifyframework.analytics.pinpoint.models.PinpointEvent
+import com.amplifyframework.analytics.pinpoint.models.PinpointSession
+import com.amplifyframework.analytics.pinpoint.models.SDKInfo
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class CompactEventCodecTest {
+
+    private lateinit var database: SQLiteDatabase
+
+    @Before
+    fun setUp() {
+        database = SQLiteDatabase.create(null)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun `test encode and decode event`() {
+        EventTable.onCreate(database, 2)
+        val codec = CompactEventCodec(database)
+        val event = getPinpointEvent("testEventType")
+
+        val encodedEvent = codec.encode(event)
+
+        assertTrue(encodedEvent.data.size < event.toJsonString().length)
+        assertEquals(event.toJsonString(), codec.decode(encodedEvent.contextId, encodedEvent.data).toJsonString())
+        // A new codec reads keys and contexts back from the database.
+        val decodedEvent = CompactEventCodec(database).decode(encodedEvent.contextId, encodedEvent.data)
+        assertEquals(event.toJsonString(), decodedEvent.toJsonString())
+    }
+
+    @Test
+    fun `test events of a session share a context`() {
+        EventTable.onCreate(database, 2)
+        val codec = CompactEventCodec(database)
+
+        val first = codec.encode(getPinpointEvent("testEventType_1"))
+        val second = codec.encode(getPinpointEvent("testEventType_2"))
+
+        assertEquals(first.contextId, second.contextId)
+        assertEquals(1, DatabaseUtils.queryNumEntries(database, EventContextTable.TABLE_EVENT_CONTEXT))
+    }
+
+    @Test
+    fun `test row size is not less than the size of the event as JSON`() {
+        EventTable.onCreate(database, 2)
+        val codec = CompactEventCodec(database)
+        val event = PinpointEvent(
+            eventType = "testEventType",
+            attributes = mapOf("attribute" to "välue \"quoted\"\n\\ 😀", "other" to ""),
+            metrics = mapOf("metric" to 1.0, "small" to -1.2345678901234567E-300),
+            sdkInfo = SDKInfo("Test", "1.0"),
+            pinpointSession = PinpointSession("", 1L, 1L),
+            eventTimestamp = System.currentTimeMillis(),
+            uniqueId = "UNIQUE_ID",
+            androidAppDetails = AndroidAppDetails("com.test.app", "TestApp", "com.test.app", "1.0", "test"),
+            androidDeviceDetails = AndroidDeviceDetails("test")
+        )
+
+        val values = EventTable.contentValuesOf(codec, event)
+
+        assertTrue(values.getAsInteger(EventTable.COLUMN_SIZE) >= event.toJsonString().toByteArray().size)
+    }
+
+    @Test
+    fun `test keys of a rolled back transaction are not cached`() {
+        EventTable.onCreate(database, 2)
+        val codec = CompactEventCodec(database)
+        database.beginTransaction()
+        try {
+            codec.encode(getPinpointEvent("rolledBackEventType"))
+        } finally {
+            database.endTransaction()
+        }
+        codec.discardPending()
+
+        // SQLite hands the rolled back ids to the keys inserted next.
+        database.beginTransaction()
+        val encodedEvent = try {
+            codec.encode(getPinpointEvent("testEventType")).also { database.setTransactionSuccessful() }
+        } finally {
+            database.endTransaction()
+        }
+        codec.commitPending()
+
+        val decodedEvent = codec.decode(encodedEvent.contextId, encodedEvent.data)
+        assertEquals("testEventType", decodedEvent.eventType)
+        assertEquals(mapOf("attribute" to "value"), decodedEvent.attributes)
+        assertEquals(mapOf("metric" to 1.0), decodedEvent.metrics)
+    }
+
+    @Test
+    fun `test upgrade from JSON events`() {
+        EventTable.onCreate(database, 1)
+        val events = listOf(getPinpointEvent("testEventType_1"), getPinpointEvent("testEventType_2"))
+        events.forEach {
+            val values = ContentValues()
+            values.put(EventTable.COLUMN_JSON, it.toJsonString())
+            values.put(EventTable.COLUMN_SIZE, it.toJsonString().length)
+            database.insertOrThrow(EventTable.TABLE_EVENT_V1, null, values)
+        }
+
+        EventTable.onUpgrade(database, 1, 2)
+
+        val codec = CompactEventCodec(database)
+        database.query(EventTable.TABLE_EVENT, null, null, null, null, null, EventTable.COLUMN_ID).use { cursor ->
+            assertEquals(events.size, cursor.count)
+            events.forEach {
+                cursor.moveToNext()
+                val decodedEvent = codec.decode(
+                    cursor.getLong(EventTable.COLUMNINDEX.CONTEXT_ID.index),
+                    cursor.getBlob(EventTable.COLUMNINDEX.DATA.index)
+                )
+                assertEquals(it.toJsonString(), decodedEvent.toJsonString())
+            }
+        }
+    }
+
+    private fun getPinpointEvent(eventType: String): PinpointEvent {
+        return PinpointEvent(
+            eventType = eventType,
+            attributes = mapOf("attribute" to "value"),
+            metrics = mapOf("metric" to 1.0),
+            sdkInfo = SDKInfo("Test", "1.0"),
+            pinpointSession = PinpointSession("", 1L, 1L),
+            eventTimestamp = System.currentTimeMillis(),
+            uniqueId = "UNIQUE_ID",
+            androidAppDetails = AndroidAppDetails("com.test.app", "TestApp", "com.test.app", "1.0", "test"),
+            androidDeviceDetails = AndroidDeviceDetails("test")
+        )
+    }
+}
@@ -57,7 +57,7 @@ class PinpointDatabaseTest {
         val cursor = pinpointDatabase.queryAllEvents()
         assertEquals(1, cursor.count)
         val resultPinpointJson = takeIf { cursor.moveToFirst() }.let {
-            cursor.getString(EventTable.COLUMNINDEX.JSON.index)
+            pinpointDatabase.readEvent(cursor).toJsonString()
         }
         assertEquals(pinpointEvent.toJsonString(), resultPinpointJson)
     }
@@ -78,7 +78,7 @@ class PinpointDatabaseTest {
         pinpointEventList.forEach {
             var dbEvent: String? = null
             if (cursor.moveToNext()) {
-                dbEvent = cursor.getString(EventTable.COLUMNINDEX.JSON.index)
+                dbEvent = pinpointDatabase.readEvent(cursor).toJsonString()
             }
             assertEquals(it.toJsonString(), dbEvent)
         }
@@ -105,6 +105,85 @@ class PinpointDatabaseTest {
         assertEquals(0, pinpointDatabase.queryAllEvents().count)
     }
 
+    @OptIn(ExperimentalCoroutinesApi::class)
+    @Test
+    public fun `test query events after ID`() = runTest {
+        val pinpointEventList = listOf<PinpointEvent>(
+            getPinpointEvent("testEventType_1"),
+            getPinpointEvent("testEventType_2"),
+            getPinpointEvent("testEventType_3")
+        )
+        pinpointEventList.forEach {
+            pinpointDatabase.saveEvent(it)
+        }
+        val firstId = pinpointDatabase.queryEventsAfter(0, 1).use { cursor ->
+            assertEquals(1, cursor.count)
+            cursor.moveToFirst()
+            assertEquals(pinpointEventList[0].toJsonString(), pinpointDatabase.readEvent(cursor).toJsonString())
+            cursor.getInt(EventTable.COLUMNINDEX.ID.index)
+        }
+        pinpointDatabase.queryEventsAfter(firstId, 10).use { cursor ->
+            assertEquals(2, cursor.count)
+            pinpointEventList.drop(1).forEach {
+                cursor.moveToNext()
+                assertEquals(it.toJsonString(), pinpointDatabase.readEvent(cursor).toJsonString())
+            }
+        }
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    @Test
+    public fun `test delete events by IDs`() = runTest {
+        repeat(3) {
+            pinpointDatabase.saveEvent(getPinpointEvent("testEventType_$it"))
+        }
+        val ids = mutableListOf<Int>()
+        pinpointDatabase.queryAllEvents().use { cursor ->
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getInt(EventTable.COLUMNINDEX.ID.index))
+            }
+        }
+        assertEquals(2, pinpointDatabase.deleteEventsByIds(ids.take(2)))
+        assertEquals(1, pinpointDatabase.queryAllEvents().count)
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    @Test
+    public fun `test save events in one transaction`() = runTest {
+        val events = (1..120).map { getPinpointEvent("testEventType_$it") }
+
+        events.chunked(50).forEach { pinpointDatabase.saveEvents(it) }
+
+        val savedTypes = mutableListOf<String>()
+        pinpointDatabase.queryAllEvents().use { cursor ->
+            while (cursor.moveToNext()) {
+                savedTypes.add(pinpointDatabase.readEvent(cursor).eventType)
+            }
+        }
+        assertEquals(events.map { it.eventType }, savedTypes)
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    @Test
+    public fun `test events per second with group commit`() = runTest {
+        val eventCount = 1000
+        val events = (1..eventCount).map { getPinpointEvent("testEventType_$it") }
+
+        var start = System.nanoTime()
+        events.forEach { pinpointDatabase.saveEvent(it) }
+        val singleInsertNanos = System.nanoTime() - start
+
+        start = System.nanoTime()
+        events.chunked(50).forEach { pinpointDatabase.saveEvents(it) }
+        val groupCommitNanos = System.nanoTime() - start
+
+        assertEquals(eventCount * 2, pinpointDatabase.queryAllEvents().use { it.count })
+        println(
+            "Recorded ${eventCount * 1_000_000_000L / singleInsertNanos} events/s one per transaction, " +
+                "${eventCount * 1_000_000_000L / groupCommitNanos} events/s 50 per transaction"
+        )
+    }
+
     @After
     public fun tearDown() {
         pinpointDatabase.closeDB()
@@ -51,6 +51,8 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
     private final Map<String, String> variableTypes;
     private final AuthorizationType authorizationType;
     private final AuthModeStrategyType authModeStrategyType;
+    private final ResponseCachePolicy cachePolicy;
+    private volatile String query;
 
     /**
      * Constructor for AppSyncGraphQLRequest.
@@ -64,6 +66,7 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
         this.variableTypes = Immutable.of(builder.variableTypes);
         this.authorizationType = builder.authorizationType;
         this.authModeStrategyType = builder.authModeStrategyType;
+        this.cachePolicy = builder.cachePolicy;
     }
 
     /**
@@ -87,6 +90,22 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
         return Immutable.of(variables);
     }
 
+    /**
+     * Returns the GraphQL type of each variable of this request, by variable name.
+     * @return the GraphQL type of each variable of this request.
+     */
+    public Map<String, String> getVariableTypes() {
+        return Immutable.of(variableTypes);
+    }
+
+    /**
+     * Returns the {@link SelectionSet} for this request.
+     * @return the {@link SelectionSet} for this request.
+     */
+    public SelectionSet getSelectionSet() {
+        return selectionSet;
+    }
+
     /**
      * Returns the {@link AuthorizationType} for this request.
      * @return the {@link AuthorizationType} for this request.
@@ -103,6 +122,15 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
         return authModeStrategyType;
     }
 
+    /**
+     * Returns the {@link ResponseCachePolicy} for this request, or null if the API plugin's
+     * default policy applies.
+     * @return the {@link ResponseCachePolicy} for this request.
+     */
+    public ResponseCachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
     /**
      * Returns the {@link ModelOperation} for this request. This is used to during
      * auth rule evaluation.
@@ -138,6 +166,16 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
      */
     @Override
     public String getQuery() {
+        // The request is immutable, and its document is needed every time its content is read.
+        String document = query;
+        if (document == null) {
+            document = buildQuery();
+            query = document;
+        }
+        return document;
+    }
+
+    private String buildQuery() {
         String inputTypeString = "";
         String inputParameterString = "";
         if (variableTypes.size() > 0) {
@@ -255,6 +293,7 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
         private Type responseType;
         private SelectionSet selectionSet;
         private AuthorizationType authorizationType;
+        private ResponseCachePolicy cachePolicy;
         private final Map<String, Object> variables;
         private final Map<String, String> variableTypes;
 
@@ -272,6 +311,7 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
             this.variableTypes = new HashMap<>(request.variableTypes);
             this.authorizationType = request.authorizationType;
             this.authModeStrategyType = request.authModeStrategyType;
+            this.cachePolicy = request.cachePolicy;
         }
 
         /**
@@ -355,6 +395,17 @@ public final class AppSyncGraphQLRequest<R> extends GraphQLRequest<R> {
             return Builder.this;
         }
 
+        /**
+         * Sets how the request uses the API plugin's response cache. If not set,
+         * the plugin's default policy is used.
+         * @param cachePolicy the desired cache policy.
+         * @return this builder instance.
+         */
+        public Builder cachePolicy(@NonNull ResponseCachePolicy cachePolicy) {
+            this.cachePolicy = Objects.requireNonNull(cachePolicy);
+            return Builder.this;
+        }
+
         /**
          * Sets a variable and returns this builder.
          * @param key the variable key.
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+/**
+ * Describes how a GraphQL query uses the API plugin's response cache, when one is configured.
+ */
+public enum ResponseCachePolicy {
+    /**
+     * Returns a fresh cached response if there is one. Otherwise, queries the network,
+     * and caches the response.
+     */
+    CACHE_FIRST,
+
+    /**
+     * Always queries the network. The response is still cached, for the benefit of later
+     * queries which do use the cache.
+     */
+    NETWORK_ONLY,
+
+    /**
+     * Returns a cached response if there is one, even if it has outlived its time-to-live.
+     * A stale response is refreshed from the network in the background, so that the next
+     * query finds a fresh one. Queries the network if nothing is cached.
+     */
+    STALE_WHILE_REVALIDATE
+}
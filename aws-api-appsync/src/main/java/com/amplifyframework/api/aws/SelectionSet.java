@@ -48,16 +48,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class representing a node of a SelectionSet for use in a GraphQLDocument.
  * A root SelectionSet node will have a null value.
+ *
+ * A SelectionSet is immutable once built, so the same instance may be shared by many
+ * requests, and its rendered text is computed only once per margin.
  */
 public final class SelectionSet {
     private static final String INDENT = "  ";
 
     private final String value;
     private final Set<SelectionSet> nodes;
+    private volatile Rendering rendering;
 
     /**
      * Copy constructor.
@@ -66,6 +71,7 @@ public final class SelectionSet {
     @SuppressWarnings("CopyConstructorMissesField") // It is cloned, by recursion
     public SelectionSet(SelectionSet selectionSet) {
         this(selectionSet.value, new HashSet<>(selectionSet.nodes));
+        this.rendering = selectionSet.rendering;
     }
 
     /**
@@ -88,11 +94,11 @@ public final class SelectionSet {
 
     /**
      * Returns child nodes.
-     * @return child nodes
+     * @return child nodes, which may not be modified
      */
     @NonNull
     public Set<SelectionSet> getNodes() {
-        return nodes;
+        return Collections.unmodifiableSet(nodes);
     }
 
     /**
@@ -122,6 +128,16 @@ public final class SelectionSet {
      * @return String value of the SelectionSet for a GraphQL query document.
      */
     public String toString(String margin) {
+        Rendering memo = rendering;
+        if (memo != null && memo.margin.equals(margin)) {
+            return memo.text;
+        }
+        String text = render(margin);
+        rendering = new Rendering(margin, text);
+        return text;
+    }
+
+    private String render(String margin) {
         List<String> fieldsList = new ArrayList<>();
         StringBuilder builder = new StringBuilder();
 
@@ -168,10 +184,28 @@ public final class SelectionSet {
         return new Builder();
     }
 
+    /**
+     * The rendered text of a selection set, at a given margin.
+     */
+    private static final class Rendering {
+        private final String margin;
+        private final String text;
+
+        Rendering(String margin, String text) {
+            this.margin = margin;
+            this.text = text;
+        }
+    }
+
     /**
      * Factory class for creating and serializing a selection set within a GraphQL document.
      */
     static final class Builder {
+        // Selection sets built from model classes, which only depend on the class and on the
+        // options below. Building one walks the model's fields reflectively, and DataStore asks
+        // for the same few sets over and over.
+        private static final Map<TemplateKey, SelectionSet> TEMPLATES = new ConcurrentHashMap<>();
+
         private Class<? extends Model> modelClass;
         private Operation operation;
         private GraphQLRequestOptions requestOptions;
@@ -210,6 +244,20 @@ public final class SelectionSet {
                         "Provide either a modelClass or a modelSchema to build the selection set");
             }
             Objects.requireNonNull(this.operation);
+            if (modelClass == null || SerializedModel.class == modelClass) {
+                // Schema-based selection sets depend on the SchemaRegistry, which may change; don't memoize them.
+                return buildSelectionSet();
+            }
+            TemplateKey key = new TemplateKey(modelClass, operation, requestOptions);
+            SelectionSet template = TEMPLATES.get(key);
+            if (template == null) {
+                template = buildSelectionSet();
+                TEMPLATES.put(key, template);
+            }
+            return template;
+        }
+
+        private SelectionSet buildSelectionSet() throws AmplifyException {
             SelectionSet node = new SelectionSet(null,
                     SerializedModel.class == modelClass
                             ? getModelFields(modelSchema, requestOptions.maxDepth(), operation)
@@ -433,5 +481,54 @@ public final class SelectionSet {
 
             return result;
         }
+
+        /**
+         * Everything a selection set built from a model class depends on. The class determines the
+         * model's fields, associations and auth rules; the options determine depth, leaf serialization
+         * and the list and metadata fields.
+         */
+        private static final class TemplateKey {
+            private final Class<? extends Model> modelClass;
+            private final Operation operation;
+            private final int maxDepth;
+            private final LeafSerializationBehavior leafSerializationBehavior;
+            private final String listField;
+            private final List<String> paginationFields;
+            private final List<String> modelMetaFields;
+
+            TemplateKey(Class<? extends Model> modelClass, Operation operation, GraphQLRequestOptions requestOptions) {
+                this.modelClass = modelClass;
+                this.operation = operation;
+                this.maxDepth = requestOptions.maxDepth();
+                this.leafSerializationBehavior = requestOptions.leafSerializationBehavior();
+                this.listField = requestOptions.listField();
+                this.paginationFields = new ArrayList<>(requestOptions.paginationFields());
+                this.modelMetaFields = new ArrayList<>(requestOptions.modelMetaFields());
+            }
+
+            @Override
+            public boolean equals(Object object) {
+                if (this == object) {
+                    return true;
+                }
+                if (object == null || getClass() != object.getClass()) {
+                    return false;
+                }
+                TemplateKey that = (TemplateKey) object;
+                return maxDepth == that.maxDepth &&
+                        ObjectsCompat.equals(modelClass, that.modelClass) &&
+                        ObjectsCompat.equals(operation, that.operation) &&
+                        ObjectsCompat.equals(leafSerializationBehavior, that.leafSerializationBehavior) &&
+                        ObjectsCompat.equals(listField, that.listField) &&
+                        ObjectsCompat.equals(paginationFields, that.paginationFields) &&
+                        ObjectsCompat.equals(modelMetaFields, that.modelMetaFields);
+            }
+
+            @Override
+            public int hashCode() {
+                return ObjectsCompat.hash(modelClass, operation, maxDepth, leafSerializationBehavior,
+                        listField, paginationFields, modelMetaFields);
+            }
+        }
     }
 }
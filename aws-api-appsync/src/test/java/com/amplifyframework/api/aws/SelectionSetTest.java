@@ -43,6 +43,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 
 @RunWith(RobolectricTestRunner.class)
 public class SelectionSetTest {
@@ -60,6 +62,34 @@ public class SelectionSetTest {
         assertEquals(Resources.readAsString("selection-set-post.txt"), selectionSet.toString() + "\n");
     }
 
+    /**
+     * Selection sets built from the same model class, operation and options are built once and shared,
+     * while a change to the options yields a different selection set.
+     * @throws AmplifyException if a ModelSchema can't be derived from Post.class
+     */
+    @Test
+    public void selectionSetIsReusedForSameModelAndOptions() throws AmplifyException {
+        SelectionSet first = SelectionSet.builder()
+                .modelClass(Post.class)
+                .operation(QueryType.SYNC)
+                .requestOptions(new DefaultGraphQLRequestOptions())
+                .build();
+        SelectionSet second = SelectionSet.builder()
+                .modelClass(Post.class)
+                .operation(QueryType.SYNC)
+                .requestOptions(new DefaultGraphQLRequestOptions())
+                .build();
+        SelectionSet justIds = SelectionSet.builder()
+                .modelClass(Post.class)
+                .operation(QueryType.SYNC)
+                .requestOptions(new JustIDGraphQLRequestOptions())
+                .build();
+
+        assertSame(first, second);
+        assertSame(first.toString("  "), second.toString("  "));
+        assertNotEquals(first.toString(), justIds.toString());
+    }
+
     /**
      * Test that custom type selection set serialization works as expected.
      * @throws AmplifyException if a ModelSchema can't be derived from Post.class
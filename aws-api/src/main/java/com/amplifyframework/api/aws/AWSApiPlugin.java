@@ -41,6 +41,7 @@ import com.amplifyframework.core.Action;
 import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.Consumer;
 import com.amplifyframework.hub.HubChannel;
+import com.amplifyframework.hub.SubscriptionToken;
 import com.amplifyframework.util.Immutable;
 import com.amplifyframework.util.UserAgent;
 
@@ -57,6 +58,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import okhttp3.Call;
@@ -73,10 +75,16 @@ import okhttp3.Protocol;
 public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
     private final Map<String, ClientDetails> apiDetails;
     private final Map<String, OkHttpConfigurator> apiConfigurators;
-    private final GraphQLResponse.Factory gqlResponseFactory;
+    private final GsonGraphQLResponseFactory gqlResponseFactory;
     private final ApiAuthProviders authProvider;
     private final ExecutorService executorService;
     private final AuthRuleRequestDecorator requestDecorator;
+    private final int subscriptionReconnectAttempts;
+    @Nullable
+    private final GraphQLQueryCoalescer queryCoalescer;
+    @Nullable
+    private final GraphQLResponseCache responseCache;
+    private final AtomicReference<SubscriptionToken> authEventsToken;
 
     private final Set<String> restApis;
     private final Set<String> gqlApis;
@@ -99,14 +107,27 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
     }
 
     private AWSApiPlugin(@NonNull Builder builder) {
+        final GsonGraphQLResponseFactory gsonResponseFactory = new GsonGraphQLResponseFactory();
         this.apiDetails = new HashMap<>();
-        this.gqlResponseFactory = new GsonGraphQLResponseFactory();
+        this.gqlResponseFactory = gsonResponseFactory;
         this.authProvider = builder.apiAuthProviders;
         this.restApis = new HashSet<>();
         this.gqlApis = new HashSet<>();
         this.executorService = Executors.newCachedThreadPool();
         this.requestDecorator = new AuthRuleRequestDecorator(authProvider);
         this.apiConfigurators = Immutable.of(builder.apiConfigurators);
+        this.subscriptionReconnectAttempts = builder.subscriptionReconnectAttempts;
+        this.responseCache = builder.responseCacheOptions != null
+            ? new GraphQLResponseCache(builder.responseCacheOptions) : null;
+        this.authEventsToken = new AtomicReference<>();
+        this.queryCoalescer = builder.coalesceQueries ? new GraphQLQueryCoalescer(
+            this::dispatchCoalescedQuery,
+            gsonResponseFactory,
+            responseCache,
+            GraphQLQueryCoalescer.sharedScheduler(),
+            builder.queryBatchWindowMs,
+            GraphQLQueryCoalescer.DEFAULT_MAX_BATCH_SIZE
+        ) : null;
     }
 
     /**
@@ -175,7 +196,8 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
                 final SubscriptionAuthorizer subscriptionAuthorizer =
                     new SubscriptionAuthorizer(apiConfiguration, authProvider);
                 final SubscriptionEndpoint subscriptionEndpoint =
-                    new SubscriptionEndpoint(apiConfiguration, gqlResponseFactory, subscriptionAuthorizer);
+                    new SubscriptionEndpoint(apiConfiguration, gqlResponseFactory, subscriptionAuthorizer,
+                        subscriptionReconnectAttempts);
                 clientDetails = new ClientDetails(apiConfiguration,
                                                   okHttpClientBuilder.build(),
                                                   subscriptionEndpoint,
@@ -186,6 +208,17 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
                 apiDetails.put(apiName, clientDetails);
             }
         }
+
+        if (responseCache != null) {
+            // Which user is signed in decides which cached responses may be served. Configuring again
+            // replaces the subscription, rather than adding another.
+            SubscriptionToken token =
+                Amplify.Hub.subscribe(HubChannel.AUTH, event -> responseCache.onAuthEvent(event.getName()));
+            SubscriptionToken previous = authEventsToken.getAndSet(token);
+            if (previous != null) {
+                Amplify.Hub.unsubscribe(previous);
+            }
+        }
     }
 
     @NonNull
@@ -227,9 +260,43 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
             @NonNull GraphQLRequest<R> graphQLRequest,
             @NonNull Consumer<GraphQLResponse<R>> onResponse,
             @NonNull Consumer<ApiException> onFailure) {
-        try {
+        if (responseCache != null && GraphQLResponseCache.isCacheable(graphQLRequest)) {
+            final GraphQLOperation<R> operation = new CachedGraphQLOperation<>(
+                apiName,
+                graphQLRequest,
+                responseCache,
+                gqlResponseFactory,
+                (onNetworkResponse, onNetworkFailure) ->
+                    startNetworkQuery(apiName, graphQLRequest, onNetworkResponse, onNetworkFailure),
+                executorService,
+                onResponse,
+                onFailure
+            );
+            operation.start();
+            return operation;
+        }
+        return startNetworkQuery(apiName, graphQLRequest, onResponse, onFailure);
+    }
+
+    @Nullable
+    private <R> GraphQLOperation<R> startNetworkQuery(
+            @NonNull String apiName,
+            @NonNull GraphQLRequest<R> graphQLRequest,
+            @NonNull Consumer<GraphQLResponse<R>> onResponse,
+            @NonNull Consumer<ApiException> onFailure) {
+        if (queryCoalescer != null && GraphQLQueryCoalescer.canCoalesce(graphQLRequest) &&
+                AuthModeStrategyType.DEFAULT.equals(getAuthModeStrategyType(graphQLRequest))) {
             final GraphQLOperation<R> operation =
-                    buildAppSyncGraphQLOperation(apiName, graphQLRequest, onResponse, onFailure);
+                    queryCoalescer.query(apiName, graphQLRequest, onResponse, onFailure);
+            operation.start();
+            return operation;
+        }
+        // Responses to queries populate the cache, if there is one.
+        final GraphQLResponse.Factory responseFactory = responseCache != null
+            ? responseCache.populating(apiName, gqlResponseFactory) : gqlResponseFactory;
+        try {
+            final GraphQLOperation<R> operation = buildAppSyncGraphQLOperation(
+                    apiName, graphQLRequest, responseFactory, onResponse, onFailure);
             operation.start();
             return operation;
         } catch (ApiException exception) {
@@ -262,8 +329,9 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
             @NonNull Consumer<GraphQLResponse<R>> onResponse,
             @NonNull Consumer<ApiException> onFailure) {
         try {
-            final GraphQLOperation<R> operation =
-                    buildAppSyncGraphQLOperation(apiName, graphQLRequest, onResponse, onFailure);
+            final GraphQLOperation<R> operation = buildAppSyncGraphQLOperation(
+                    apiName, graphQLRequest, gqlResponseFactory, invalidating(apiName, graphQLRequest, onResponse),
+                    onFailure);
             operation.start();
             return operation;
         } catch (ApiException exception) {
@@ -310,7 +378,9 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
             GraphQLOperation<R> operation = buildSubscriptionOperation(apiName,
                                                                        graphQLRequest,
                                                                        onSubscriptionEstablished,
-                                                                       onNextResponse,
+                                                                       invalidating(apiName,
+                                                                                    graphQLRequest,
+                                                                                    onNextResponse),
                                                                        onSubscriptionFailure,
                                                                        onSubscriptionComplete);
             operation.start();
@@ -321,6 +391,32 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
         }
     }
 
+    /**
+     * Wraps a consumer of mutation responses or subscription events, so that the cached
+     * query responses they affect are invalidated before the consumer sees them.
+     */
+    private <R> Consumer<GraphQLResponse<R>> invalidating(
+            String apiName, GraphQLRequest<R> graphQLRequest, Consumer<GraphQLResponse<R>> onResponse) {
+        if (responseCache == null) {
+            return onResponse;
+        }
+        return response -> {
+            if (response.hasData()) {
+                responseCache.invalidate(apiName, graphQLRequest, response.getData());
+            }
+            onResponse.accept(response);
+        };
+    }
+
+    /**
+     * Gets a snapshot of the GraphQL response cache's counters.
+     * @return Response cache metrics, or null if the response cache is not enabled
+     */
+    @Nullable
+    public ResponseCacheMetrics getResponseCacheMetrics() {
+        return responseCache != null ? responseCache.getMetrics() : null;
+    }
+
     private <R> AuthModeStrategyType getAuthModeStrategyType(GraphQLRequest<R> graphQLRequest) {
         // If it's an AppSyncGraphQLRequest AND
         // No authorizationType is set on the request AND
@@ -645,6 +741,7 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
     private <R> GraphQLOperation<R> buildAppSyncGraphQLOperation(
             @NonNull String apiName,
             @NonNull GraphQLRequest<R> graphQLRequest,
+            @NonNull GraphQLResponse.Factory responseFactory,
             @NonNull Consumer<GraphQLResponse<R>> onResponse,
             @NonNull Consumer<ApiException> onFailure)
             throws ApiException {
@@ -664,7 +761,7 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
                 .client(clientDetails.getOkHttpClient())
                 .request(graphQLRequest)
                 .apiRequestDecoratorFactory(clientDetails.getApiRequestDecoratorFactory())
-                .responseFactory(gqlResponseFactory)
+                .responseFactory(responseFactory)
                 .onResponse(onResponse)
                 .onFailure(onFailure)
                 .executorService(executorService)
@@ -676,11 +773,42 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
             .client(clientDetails.getOkHttpClient())
             .request(graphQLRequest)
             .apiRequestDecoratorFactory(clientDetails.getApiRequestDecoratorFactory())
-            .responseFactory(gqlResponseFactory)
+            .responseFactory(responseFactory)
+            .executorService(executorService)
+            .onResponse(onResponse)
+            .onFailure(onFailure)
+            .build();
+    }
+
+    private <R> GraphQLOperation<R> dispatchCoalescedQuery(
+            @NonNull String apiName,
+            @NonNull GraphQLRequest<R> graphQLRequest,
+            @Nullable AuthorizationType authorizationType,
+            @NonNull GraphQLResponse.Factory responseFactory,
+            @NonNull Consumer<GraphQLResponse<R>> onResponse,
+            @NonNull Consumer<ApiException> onFailure)
+            throws ApiException {
+        final ClientDetails clientDetails = apiDetails.get(apiName);
+        if (clientDetails == null) {
+            throw new ApiException(
+                    "No client information for API named " + apiName,
+                    "Check your amplify configuration to make sure there " +
+                            "is a correctly configured section for " + apiName
+            );
+        }
+        final GraphQLOperation<R> operation = AppSyncGraphQLOperation.<R>builder()
+            .endpoint(clientDetails.getApiConfiguration().getEndpoint())
+            .client(clientDetails.getOkHttpClient())
+            .request(graphQLRequest)
+            .apiRequestDecoratorFactory(clientDetails.getApiRequestDecoratorFactory())
+            .authorizationType(authorizationType)
+            .responseFactory(responseFactory)
             .executorService(executorService)
             .onResponse(onResponse)
             .onFailure(onFailure)
             .build();
+        operation.start();
+        return operation;
     }
 
     /**
@@ -705,51 +833,42 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
                             "is a correctly configured section for " + apiName
             );
         }
-        RestOperationRequest operationRequest;
+        if (options.hasData() && options.hasStreamingBody()) {
+            throw new ApiException("Request options have both a data object and a streaming body.",
+                    "Send either the data or the streaming body, but not both.");
+        }
+        final byte[] data;
         switch (type) {
             // These ones are special, they don't use any data.
             case HEAD:
             case GET:
-                if (options.hasData()) {
+                if (options.hasData() || options.hasStreamingBody()) {
                     throw new ApiException("HTTP method does not support data object! " + type,
                             "Try sending the request without any data in the options.");
                 }
-                operationRequest = new RestOperationRequest(
-                        type,
-                        options.getPath(),
-                        options.getHeaders(),
-                        options.getQueryParameters());
+                data = null;
                 break;
             case DELETE:
-                if (options.hasData()) {
-                    operationRequest = new RestOperationRequest(
-                            type,
-                            options.getPath(),
-                            options.getData(),
-                            options.getHeaders(),
-                            options.getQueryParameters());
-                } else {
-                    operationRequest = new RestOperationRequest(
-                            type,
-                            options.getPath(),
-                            options.getHeaders(),
-                            options.getQueryParameters());
-                }
+                data = options.hasData() ? options.getData() : null;
                 break;
             case PUT:
             case POST:
             case PATCH:
-                operationRequest = new RestOperationRequest(
-                        type,
-                        options.getPath(),
-                        options.getData() == null ? new byte[0] : options.getData(),
-                        options.getHeaders(),
-                        options.getQueryParameters());
+                data = options.getData() == null && !options.hasStreamingBody() ? new byte[0] : options.getData();
                 break;
             default:
                 throw new ApiException("Unknown REST operation type: " + type,
                         "Send support type for the request.");
         }
+        RestOperationRequest operationRequest = new RestOperationRequest(
+                type,
+                options.getPath(),
+                data,
+                options.getStreamingBody(),
+                options.getHeaders(),
+                options.getQueryParameters(),
+                options.getResponseFile(),
+                options.getProgressListener());
         AWSRestOperation operation = new AWSRestOperation(operationRequest,
                 clientDetails.apiConfiguration.getEndpoint(),
                 clientDetails.okHttpClient,
@@ -870,10 +989,15 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
     public static final class Builder {
         private ApiAuthProviders apiAuthProviders;
         private final Map<String, OkHttpConfigurator> apiConfigurators;
+        private int subscriptionReconnectAttempts;
+        private boolean coalesceQueries;
+        private long queryBatchWindowMs;
+        private ResponseCacheOptions responseCacheOptions;
 
         private Builder() {
             this.apiAuthProviders = ApiAuthProviders.noProviderOverrides();
             this.apiConfigurators = new HashMap<>();
+            this.subscriptionReconnectAttempts = SubscriptionEndpoint.DEFAULT_MAX_RECONNECT_ATTEMPTS;
         }
 
         /**
@@ -904,6 +1028,58 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
             return this;
         }
 
+        /**
+         * Sets how many times a lost subscription connection is re-established, with exponential
+         * backoff, before active subscriptions are failed. Subscriptions that were active when
+         * the connection was lost are started again after each successful reconnect.
+         * Pass 0 to fail subscriptions as soon as the connection is lost.
+         * @param maxAttempts Maximum number of consecutive reconnect attempts
+         * @return A builder instance, to continue chaining configurations
+         */
+        @NonNull
+        public Builder subscriptionReconnectAttempts(int maxAttempts) {
+            if (maxAttempts < 0) {
+                throw new IllegalArgumentException("maxAttempts must not be negative.");
+            }
+            this.subscriptionReconnectAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Enables coalescing of GraphQL queries. Queries identical to one that is already in flight
+         * share its response instead of being sent again. GET-by-id queries for the same model that
+         * are issued within the batch window are merged into a single request, and the results are
+         * fanned back out to each caller. Mutations, subscriptions and multi-auth queries are never
+         * coalesced.
+         * @param batchWindow How long to hold GET queries while waiting for others to batch with them;
+         *                    0 de-duplicates identical queries without batching
+         * @param timeUnit Unit of the batch window
+         * @return A builder instance, to continue chaining configurations
+         */
+        @NonNull
+        public Builder queryCoalescing(long batchWindow, @NonNull TimeUnit timeUnit) {
+            if (batchWindow < 0) {
+                throw new IllegalArgumentException("batchWindow must not be negative.");
+            }
+            this.coalesceQueries = true;
+            this.queryBatchWindowMs = Objects.requireNonNull(timeUnit).toMillis(batchWindow);
+            return this;
+        }
+
+        /**
+         * Enables a normalized cache of GraphQL query responses. Queries are answered from the
+         * cache according to their {@link ResponseCachePolicy}; models returned by mutations and
+         * subscriptions invalidate the cached responses that include them. Multi-auth queries
+         * are never cached.
+         * @param responseCacheOptions Size, time-to-live, default policy and disk tier of the cache
+         * @return A builder instance, to continue chaining configurations
+         */
+        @NonNull
+        public Builder responseCache(@NonNull ResponseCacheOptions responseCacheOptions) {
+            this.responseCacheOptions = Objects.requireNonNull(responseCacheOptions);
+            return this;
+        }
+
         /**
          * Builds an {@link AWSApiPlugin}.
          * @return An AWSApiPlugin
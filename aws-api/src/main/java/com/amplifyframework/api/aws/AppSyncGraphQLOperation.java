@@ -60,6 +60,8 @@ public final class AppSyncGraphQLOperation<R> extends GraphQLOperation<R> {
     private final Consumer<ApiException> onFailure;
     private final ExecutorService executorService;
     private final ApiRequestDecoratorFactory apiRequestDecoratorFactory;
+    @Nullable
+    private final AuthorizationType authorizationType;
 
     @Nullable
     private Call ongoingCall;
@@ -76,6 +78,7 @@ public final class AppSyncGraphQLOperation<R> extends GraphQLOperation<R> {
         this.executorService = Objects.requireNonNull(builder.executorService);
         this.onResponse = Objects.requireNonNull(builder.onResponse);
         this.onFailure = Objects.requireNonNull(builder.onFailure);
+        this.authorizationType = builder.authorizationType;
     }
 
     @Override
@@ -90,7 +93,9 @@ public final class AppSyncGraphQLOperation<R> extends GraphQLOperation<R> {
     private void dispatchRequest() {
         try {
             LOG.debug("Request: " + getRequest().getContent());
-            RequestDecorator requestDecorator = apiRequestDecoratorFactory.fromGraphQLRequest(getRequest());
+            RequestDecorator requestDecorator = authorizationType != null
+                ? apiRequestDecoratorFactory.forAuthType(authorizationType)
+                : apiRequestDecoratorFactory.fromGraphQLRequest(getRequest());
             Request okHttpRequest = new Request.Builder()
                 .url(endpoint)
                 .addHeader("accept", CONTENT_TYPE)
@@ -174,6 +179,7 @@ public final class AppSyncGraphQLOperation<R> extends GraphQLOperation<R> {
         private Consumer<GraphQLResponse<R>> onResponse;
         private Consumer<ApiException> onFailure;
         private ExecutorService executorService;
+        private AuthorizationType authorizationType;
 
         Builder<R> endpoint(@NonNull String endpoint) {
             this.endpoint = Objects.requireNonNull(endpoint);
@@ -215,6 +221,12 @@ public final class AppSyncGraphQLOperation<R> extends GraphQLOperation<R> {
             return this;
         }
 
+        // Overrides the authorization type that would otherwise be derived from the request.
+        Builder<R> authorizationType(@Nullable AuthorizationType authorizationType) {
+            this.authorizationType = authorizationType;
+            return this;
+        }
+
         @SuppressLint("SyntheticAccessor")
         AppSyncGraphQLOperation<R> build() {
             return new AppSyncGraphQLOperation<>(this);
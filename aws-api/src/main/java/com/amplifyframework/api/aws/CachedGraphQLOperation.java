@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.graphql.GraphQLOperation;
+import com.amplifyframework.api.graphql.GraphQLRequest;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.logging.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A query which consults the {@link GraphQLResponseCache} before going to the network,
+ * according to its {@link ResponseCachePolicy}.
+ * @param <R> Type of data in the response
+ */
+final class CachedGraphQLOperation<R> extends GraphQLOperation<R> {
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-api");
+
+    private final String apiName;
+    private final GraphQLResponseCache cache;
+    private final GsonGraphQLResponseFactory responseFactory;
+    private final NetworkQuery<R> networkQuery;
+    private final ExecutorService executorService;
+    private final Consumer<GraphQLResponse<R>> onResponse;
+    private final Consumer<ApiException> onFailure;
+    private final AtomicBoolean started;
+    private final AtomicBoolean canceled;
+    @Nullable
+    private volatile GraphQLOperation<R> networkOperation;
+
+    @SuppressWarnings("checkstyle:ParameterNumber") // Internal class; all of it is needed.
+    CachedGraphQLOperation(
+            @NonNull String apiName,
+            @NonNull GraphQLRequest<R> request,
+            @NonNull GraphQLResponseCache cache,
+            @NonNull GsonGraphQLResponseFactory responseFactory,
+            @NonNull NetworkQuery<R> networkQuery,
+            @NonNull ExecutorService executorService,
+            @NonNull Consumer<GraphQLResponse<R>> onResponse,
+            @NonNull Consumer<ApiException> onFailure) {
+        super(request, responseFactory);
+        this.apiName = Objects.requireNonNull(apiName);
+        this.cache = Objects.requireNonNull(cache);
+        this.responseFactory = Objects.requireNonNull(responseFactory);
+        this.networkQuery = Objects.requireNonNull(networkQuery);
+        this.executorService = Objects.requireNonNull(executorService);
+        this.onResponse = Objects.requireNonNull(onResponse);
+        this.onFailure = Objects.requireNonNull(onFailure);
+        this.started = new AtomicBoolean(false);
+        this.canceled = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            // The lookup may touch the disk, so keep it off the caller's thread.
+            executorService.submit(this::run);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        canceled.set(true);
+        GraphQLOperation<R> operation = networkOperation;
+        if (operation != null) {
+            operation.cancel();
+        }
+    }
+
+    private void run() {
+        if (canceled.get()) {
+            return;
+        }
+        final ResponseCachePolicy policy = cache.policyFor(getRequest());
+        if (!ResponseCachePolicy.NETWORK_ONLY.equals(policy)) {
+            final boolean acceptStale = ResponseCachePolicy.STALE_WHILE_REVALIDATE.equals(policy);
+            final GraphQLResponseCache.CachedResponse cached = cache.lookup(apiName, getRequest(), acceptStale);
+            if (cached != null && deliverCached(cached)) {
+                if (cached.isStale()) {
+                    // The caller already has its response; this only refreshes the cache.
+                    networkQuery.start(
+                        response -> LOG.verbose("Revalidated a stale cached response."),
+                        error -> LOG.warn("Failed to revalidate a stale cached response.", error)
+                    );
+                }
+                return;
+            }
+        }
+        networkOperation = networkQuery.start(onResponse, onFailure);
+        if (canceled.get()) {
+            cancel();
+        }
+    }
+
+    private boolean deliverCached(GraphQLResponseCache.CachedResponse cached) {
+        final GraphQLResponse<R> response;
+        try {
+            response = responseFactory.buildResponse(getRequest(), cached.getBody());
+        } catch (ApiException exception) {
+            LOG.warn("Unable to use cached response; querying the network instead.", exception);
+            return false;
+        }
+        if (!canceled.get()) {
+            onResponse.accept(response);
+        }
+        return true;
+    }
+
+    /**
+     * Starts a query over the network, whose response also populates the cache.
+     * @param <R> Type of data in the response
+     */
+    interface NetworkQuery<R> {
+        /**
+         * Starts the query.
+         * @param onResponse Invoked with the response
+         * @param onFailure Invoked if no response is available
+         * @return The started operation, or null if it couldn't be started
+         */
+        @Nullable
+        GraphQLOperation<R> start(
+                @NonNull Consumer<GraphQLResponse<R>> onResponse,
+                @NonNull Consumer<ApiException> onFailure);
+    }
+}
@@ -0,0 +1,668 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.graphql.GraphQLOperation;
+import com.amplifyframework.api.graphql.GraphQLRequest;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.QueryType;
+import com.amplifyframework.api.graphql.SimpleGraphQLRequest;
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.logging.Logger;
+import com.amplifyframework.util.Casing;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces GraphQL queries before they go out over the network.
+ *
+ * Two things happen here. First, a query that is identical to one already in flight
+ * (same API, document, variables, and authorization type) is not sent again; the caller
+ * is attached to the in-flight request and receives the same response. Second, GET-by-id
+ * queries for the same model and selection set that are issued within a short window
+ * are merged into a single document, with each query under its own alias:
+ *
+ *     query CoalescedGetTodo($q0_id: ID!, $q1_id: ID!) {
+ *       q0: getTodo(id: $q0_id) { ... }
+ *       q1: getTodo(id: $q1_id) { ... }
+ *     }
+ *
+ * The response is then split by alias and delivered to each caller as if its query had
+ * been sent on its own.
+ */
+final class GraphQLQueryCoalescer {
+    static final int DEFAULT_MAX_BATCH_SIZE = 20;
+
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-api");
+    private static final String ALIAS_PREFIX = "q";
+    private static final String DATA_KEY = "data";
+    private static final String ERRORS_KEY = "errors";
+    private static final String PATH_KEY = "path";
+    private static final long SCHEDULER_KEEP_ALIVE_SECONDS = 30;
+
+    private final Dispatcher dispatcher;
+    private final GsonGraphQLResponseFactory responseFactory;
+    @Nullable
+    private final GraphQLResponseCache responseCache;
+    private final ScheduledExecutorService scheduler;
+    private final long batchWindowMs;
+    private final int maxBatchSize;
+    private final Map<String, Flight<?>> flights;
+    private final Map<String, Batch> openBatches;
+
+    /**
+     * Constructs a new GraphQLQueryCoalescer.
+     * @param dispatcher Sends requests over the network, on behalf of the coalescer
+     * @param responseFactory Converts the response for each caller into its requested type
+     * @param responseCache Populated with the response for each caller, if not null
+     * @param scheduler Used to close batches once their window elapses
+     * @param batchWindowMs How long to wait for more GET queries before sending a batch;
+     *                      0 disables batching, but keeps de-duplication of identical queries
+     * @param maxBatchSize Largest number of queries to merge into a single document
+     */
+    GraphQLQueryCoalescer(
+            @NonNull Dispatcher dispatcher,
+            @NonNull GsonGraphQLResponseFactory responseFactory,
+            @Nullable GraphQLResponseCache responseCache,
+            @NonNull ScheduledExecutorService scheduler,
+            long batchWindowMs,
+            int maxBatchSize) {
+        this.dispatcher = Objects.requireNonNull(dispatcher);
+        this.responseFactory = Objects.requireNonNull(responseFactory);
+        this.responseCache = responseCache;
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.flights = new HashMap<>();
+        this.openBatches = new HashMap<>();
+    }
+
+    /**
+     * Gets the scheduler shared by the coalescers of every plugin instance. Its one daemon thread
+     * exits once idle, so the scheduler never needs to be shut down, and doesn't keep the
+     * process alive.
+     * @return The shared scheduler
+     */
+    @NonNull
+    static ScheduledExecutorService sharedScheduler() {
+        return SharedSchedulerHolder.SCHEDULER;
+    }
+
+    private static final class SharedSchedulerHolder {
+        private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "amplify-query-coalescer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setKeepAliveTime(SCHEDULER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+            scheduler.allowCoreThreadTimeOut(true);
+            // Timers of batches which filled up early are canceled; dropping them lets the thread go idle.
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    /**
+     * Checks whether a request can be coalesced. Only queries are eligible; mutations and
+     * subscriptions have side effects or lifecycles of their own, and always go out as-is.
+     * @param request A GraphQL request
+     * @return true if the request is a query which may be coalesced
+     */
+    static boolean canCoalesce(@NonNull GraphQLRequest<?> request) {
+        if (request instanceof AppSyncGraphQLRequest<?>) {
+            return ((AppSyncGraphQLRequest<?>) request).getOperation() instanceof QueryType;
+        }
+        String document = request.getQuery().trim();
+        return document.startsWith("query") || document.startsWith("{");
+    }
+
+    /**
+     * Creates an operation which sends its request through the coalescer once started.
+     * @param apiName Name of the API against which to query
+     * @param request A GraphQL query
+     * @param onResponse Invoked with the response to this caller's query
+     * @param onFailure Invoked if no response is available for this caller's query
+     * @param <R> Type of data in the response
+     * @return An operation which may be started and canceled like any other
+     */
+    @NonNull
+    <R> GraphQLOperation<R> query(
+            @NonNull String apiName,
+            @NonNull GraphQLRequest<R> request,
+            @NonNull Consumer<GraphQLResponse<R>> onResponse,
+            @NonNull Consumer<ApiException> onFailure) {
+        return new CoalescedOperation<>(apiName, request, new Caller<>(onResponse, onFailure));
+    }
+
+    private <R> void enroll(String apiName, GraphQLRequest<R> request, CoalescedOperation<R> operation) {
+        final AuthorizationType authType = request instanceof AppSyncGraphQLRequest<?>
+            ? ((AppSyncGraphQLRequest<?>) request).getAuthorizationType() : null;
+        final String flightKey = apiName + '\n' + authType + '\n' + request.getResponseType() + '\n' +
+            request.getContent();
+        List<Flight<?>> batchToSend = null;
+        Flight<R> flightToSend = null;
+        synchronized (this) {
+            @SuppressWarnings("unchecked") // Same key implies same request, which implies same response type.
+            Flight<R> flight = (Flight<R>) flights.get(flightKey);
+            if (flight != null) {
+                LOG.verbose("Joining an identical query that is already in flight.");
+                flight.callers.add(operation.caller);
+                operation.flight = flight;
+                return;
+            }
+            flight = new Flight<>(flightKey, apiName, authType, request,
+                responseCache != null ? responseCache.getGeneration() : 0);
+            flight.callers.add(operation.caller);
+            operation.flight = flight;
+            flights.put(flightKey, flight);
+
+            if (!isBatchable(request)) {
+                flightToSend = flight;
+            } else {
+                final String batchKey = apiName + '\n' + authType + '\n' + request.getResponseType() + '\n' +
+                    request.getQuery();
+                Batch batch = openBatches.get(batchKey);
+                if (batch == null) {
+                    batch = new Batch(batchKey);
+                    openBatches.put(batchKey, batch);
+                    final Batch newBatch = batch;
+                    batch.timer = scheduler.schedule(() -> onBatchWindowElapsed(newBatch),
+                        batchWindowMs, TimeUnit.MILLISECONDS);
+                }
+                batch.members.add(flight);
+                flight.batch = batch;
+                if (batch.members.size() >= maxBatchSize) {
+                    batchToSend = closeBatch(batch);
+                }
+            }
+        }
+        if (flightToSend != null) {
+            sendSingle(flightToSend);
+        } else if (batchToSend != null) {
+            sendBatch(batchToSend);
+        }
+    }
+
+    /**
+     * Only GET queries built by the SDK, from a model, are batched. Their batch document is built
+     * from the same model, so a hand-written document is never rewritten.
+     */
+    private boolean isBatchable(GraphQLRequest<?> request) {
+        if (batchWindowMs <= 0 || maxBatchSize <= 1 || !(request instanceof AppSyncGraphQLRequest<?>)) {
+            return false;
+        }
+        final AppSyncGraphQLRequest<?> appSyncRequest = (AppSyncGraphQLRequest<?>) request;
+        return QueryType.GET.equals(appSyncRequest.getOperation()) &&
+            appSyncRequest.getModelSchema() != null &&
+            appSyncRequest.getSelectionSet() != null &&
+            appSyncRequest.getVariableTypes().keySet().equals(appSyncRequest.getVariables().keySet());
+    }
+
+    private void onBatchWindowElapsed(Batch batch) {
+        List<Flight<?>> members;
+        synchronized (this) {
+            if (openBatches.get(batch.key) != batch) {
+                // Already sent, because it filled up before the window elapsed.
+                return;
+            }
+            members = closeBatch(batch);
+        }
+        sendBatch(members);
+    }
+
+    // Must be called while holding the lock.
+    private List<Flight<?>> closeBatch(Batch batch) {
+        openBatches.remove(batch.key);
+        batch.closed = true;
+        if (batch.timer != null) {
+            batch.timer.cancel(false);
+        }
+        return new ArrayList<>(batch.members);
+    }
+
+    private void sendBatch(List<Flight<?>> members) {
+        if (members.isEmpty()) {
+            return;
+        } else if (members.size() == 1) {
+            sendSingle(members.get(0));
+            return;
+        }
+        final Flight<?> first = members.get(0);
+        final BatchDocument document = BatchDocument.merge(members);
+        final GraphQLRequest<JsonObject> batchRequest = new SimpleGraphQLRequest<>(
+            document.query, document.variables, JsonObject.class, new GsonVariablesSerializer()
+        );
+        LOG.debug("Coalesced " + members.size() + " queries into a single request.");
+        try {
+            GraphQLOperation<JsonObject> operation = dispatcher.dispatch(
+                first.apiName,
+                batchRequest,
+                first.authType,
+                new RawResponseFactory(),
+                response -> onBatchResponse(members, document.fieldName, response.getData()),
+                error -> {
+                    for (Flight<?> member : members) {
+                        fail(member, error);
+                    }
+                }
+            );
+            final boolean abandoned;
+            synchronized (this) {
+                first.batch.operation = operation;
+                abandoned = first.batch.isAbandoned();
+            }
+            if (abandoned) {
+                operation.cancel();
+            }
+        } catch (ApiException exception) {
+            for (Flight<?> member : members) {
+                fail(member, exception);
+            }
+        }
+    }
+
+    private <R> void sendSingle(Flight<R> flight) {
+        try {
+            GraphQLOperation<R> operation = dispatcher.dispatch(
+                flight.apiName,
+                flight.request,
+                null, // Let the operation use the request's own authorization type.
+                responseCache != null
+                    ? responseCache.populating(flight.apiName, responseFactory, flight.cacheGeneration)
+                    : responseFactory,
+                response -> succeed(flight, response),
+                error -> fail(flight, error)
+            );
+            final boolean abandoned;
+            synchronized (this) {
+                flight.operation = operation;
+                abandoned = flight.callers.isEmpty();
+            }
+            if (abandoned) {
+                operation.cancel();
+            }
+        } catch (ApiException exception) {
+            fail(flight, exception);
+        }
+    }
+
+    private void onBatchResponse(List<Flight<?>> members, String fieldName, JsonObject body) {
+        final JsonElement data = body.get(DATA_KEY);
+        final JsonElement errors = body.get(ERRORS_KEY);
+        for (int index = 0; index < members.size(); index++) {
+            final String alias = ALIAS_PREFIX + index;
+            final JsonObject memberBody = new JsonObject();
+            if (data != null && data.isJsonObject()) {
+                JsonObject memberData = new JsonObject();
+                JsonElement aliased = data.getAsJsonObject().get(alias);
+                memberData.add(fieldName, aliased != null ? aliased : JsonNull.INSTANCE);
+                memberBody.add(DATA_KEY, memberData);
+            } else {
+                memberBody.add(DATA_KEY, JsonNull.INSTANCE);
+            }
+            if (errors != null && errors.isJsonArray()) {
+                memberBody.add(ERRORS_KEY, errorsFor(errors.getAsJsonArray(), alias, fieldName));
+            }
+            deliver(members.get(index), memberBody);
+        }
+    }
+
+    private <R> void deliver(Flight<R> flight, JsonObject body) {
+        if (responseCache != null) {
+            responseCache.store(flight.apiName, flight.request, body, flight.cacheGeneration);
+        }
+        final GraphQLResponse<R> response;
+        try {
+            response = responseFactory.buildResponse(flight.request, body);
+        } catch (ApiException exception) {
+            fail(flight, exception);
+            return;
+        }
+        succeed(flight, response);
+    }
+
+    /**
+     * Picks out the errors that belong to one aliased query, and rewrites their paths so that
+     * they look like they came from the un-aliased query. Errors without a path apply to every
+     * query in the batch.
+     */
+    private static JsonArray errorsFor(JsonArray errors, String alias, String fieldName) {
+        final JsonArray filtered = new JsonArray();
+        for (JsonElement error : errors) {
+            if (!error.isJsonObject()) {
+                continue;
+            }
+            JsonElement path = error.getAsJsonObject().get(PATH_KEY);
+            if (path == null || !path.isJsonArray() || path.getAsJsonArray().size() == 0) {
+                filtered.add(error);
+                continue;
+            }
+            JsonArray pathArray = path.getAsJsonArray();
+            JsonElement root = pathArray.get(0);
+            if (root.isJsonPrimitive() && alias.equals(root.getAsString())) {
+                JsonObject rewritten = error.getAsJsonObject().deepCopy();
+                JsonArray rewrittenPath = pathArray.deepCopy();
+                rewrittenPath.set(0, new JsonPrimitive(fieldName));
+                rewritten.add(PATH_KEY, rewrittenPath);
+                filtered.add(rewritten);
+            }
+        }
+        return filtered;
+    }
+
+    private <R> void succeed(Flight<R> flight, GraphQLResponse<R> response) {
+        for (Caller<R> caller : finish(flight)) {
+            caller.onResponse.accept(response);
+        }
+    }
+
+    private <R> void fail(Flight<R> flight, ApiException error) {
+        for (Caller<R> caller : finish(flight)) {
+            caller.onFailure.accept(error);
+        }
+    }
+
+    private synchronized <R> List<Caller<R>> finish(Flight<R> flight) {
+        if (flight.completed) {
+            return new ArrayList<>();
+        }
+        flight.completed = true;
+        if (flights.get(flight.key) == flight) {
+            flights.remove(flight.key);
+        }
+        return new ArrayList<>(flight.callers);
+    }
+
+    private <R> void leave(Flight<R> flight, Caller<R> caller) {
+        GraphQLOperation<?> toCancel = null;
+        synchronized (this) {
+            if (flight.completed || !flight.callers.remove(caller) || !flight.callers.isEmpty()) {
+                return;
+            }
+            // Nobody is waiting on this query anymore.
+            flight.completed = true;
+            if (flights.get(flight.key) == flight) {
+                flights.remove(flight.key);
+            }
+            final Batch batch = flight.batch;
+            if (batch == null) {
+                toCancel = flight.operation;
+            } else if (!batch.closed) {
+                batch.members.remove(flight);
+                if (batch.members.isEmpty()) {
+                    closeBatch(batch);
+                }
+            } else if (batch.isAbandoned()) {
+                toCancel = batch.operation;
+            }
+        }
+        if (toCancel != null) {
+            toCancel.cancel();
+        }
+    }
+
+    /**
+     * Sends a request over the network. Implemented by the plugin, which knows how to reach each API.
+     */
+    interface Dispatcher {
+        /**
+         * Builds and starts an operation for a request.
+         * @param apiName Name of the API to which the request is sent
+         * @param request Request to send
+         * @param authorizationType Authorization type with which to send the request, or null to
+         *                          use the one specified by the request, or the API's default
+         * @param responseFactory Converts the raw response into a typed response
+         * @param onResponse Invoked with the response
+         * @param onFailure Invoked if no response is available
+         * @param <R> Type of data in the response
+         * @return The started operation
+         * @throws ApiException If the operation can't be started
+         */
+        <R> GraphQLOperation<R> dispatch(
+                @NonNull String apiName,
+                @NonNull GraphQLRequest<R> request,
+                @Nullable AuthorizationType authorizationType,
+                @NonNull GraphQLResponse.Factory responseFactory,
+                @NonNull Consumer<GraphQLResponse<R>> onResponse,
+                @NonNull Consumer<ApiException> onFailure) throws ApiException;
+    }
+
+    /**
+     * The operation handed back to each caller. Starting it enrolls the caller's query with
+     * the coalescer; canceling it detaches only this caller, and cancels the underlying network
+     * request once nobody else is waiting on it.
+     */
+    private final class CoalescedOperation<R> extends GraphQLOperation<R> {
+        private final String apiName;
+        private final Caller<R> caller;
+        private Flight<R> flight;
+        private boolean started;
+
+        CoalescedOperation(String apiName, GraphQLRequest<R> request, Caller<R> caller) {
+            super(request, responseFactory);
+            this.apiName = apiName;
+            this.caller = caller;
+        }
+
+        @Override
+        public void start() {
+            synchronized (GraphQLQueryCoalescer.this) {
+                if (started) {
+                    return;
+                }
+                started = true;
+            }
+            enroll(apiName, getRequest(), this);
+        }
+
+        @Override
+        public void cancel() {
+            final Flight<R> current;
+            synchronized (GraphQLQueryCoalescer.this) {
+                current = flight;
+            }
+            if (current != null) {
+                leave(current, caller);
+            }
+        }
+    }
+
+    /**
+     * A query which has been, or is about to be, sent over the network, and the callers waiting for it.
+     */
+    private static final class Flight<R> {
+        private final String key;
+        private final String apiName;
+        private final AuthorizationType authType;
+        private final GraphQLRequest<R> request;
+        private final List<Caller<R>> callers;
+        // Generation of the response cache when the flight started, so a response can't be cached once stale.
+        private final long cacheGeneration;
+        private Batch batch;
+        private GraphQLOperation<R> operation;
+        private boolean completed;
+
+        Flight(String key, String apiName, AuthorizationType authType, GraphQLRequest<R> request,
+                long cacheGeneration) {
+            this.key = key;
+            this.apiName = apiName;
+            this.authType = authType;
+            this.request = request;
+            this.callers = new ArrayList<>();
+            this.cacheGeneration = cacheGeneration;
+        }
+    }
+
+    /**
+     * A group of GET queries, which will go out together as one aliased document.
+     */
+    private static final class Batch {
+        private final String key;
+        private final List<Flight<?>> members;
+        private ScheduledFuture<?> timer;
+        private GraphQLOperation<?> operation;
+        private boolean closed;
+
+        Batch(String key) {
+            this.key = key;
+            this.members = new ArrayList<>();
+        }
+
+        boolean isAbandoned() {
+            for (Flight<?> member : members) {
+                if (!member.callers.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Caller<R> {
+        private final Consumer<GraphQLResponse<R>> onResponse;
+        private final Consumer<ApiException> onFailure;
+
+        Caller(Consumer<GraphQLResponse<R>> onResponse, Consumer<ApiException> onFailure) {
+            this.onResponse = onResponse;
+            this.onFailure = onFailure;
+        }
+    }
+
+    /**
+     * A single document containing several GET queries, each under its own alias.
+     */
+    private static final class BatchDocument {
+        private final String query;
+        private final Map<String, Object> variables;
+        private final String fieldName;
+
+        private BatchDocument(String query, Map<String, Object> variables, String fieldName) {
+            this.query = query;
+            this.variables = variables;
+            this.fieldName = fieldName;
+        }
+
+        /**
+         * Merges queries into one document. Every member of a batch is a GET query for the
+         * same model and selection set, differing only in its variables, so the document is
+         * built from the model of the first member. Nothing is parsed out of the members'
+         * documents, so any text in them can't change the shape of the batch.
+         */
+        static BatchDocument merge(List<Flight<?>> members) {
+            final AppSyncGraphQLRequest<?> template = (AppSyncGraphQLRequest<?>) members.get(0).request;
+            final String modelName = Casing.capitalizeFirst(template.getModelSchema().getName());
+            final String operation = template.getOperation().toString();
+            final String operationName = Casing.from(Casing.CaseType.SCREAMING_SNAKE_CASE)
+                .to(Casing.CaseType.PASCAL_CASE)
+                .convert(operation) + modelName;
+            final String fieldName = Casing.from(Casing.CaseType.SCREAMING_SNAKE_CASE)
+                .to(Casing.CaseType.CAMEL_CASE)
+                .convert(operation) + modelName;
+            final List<String> variableNames = new ArrayList<>(template.getVariableTypes().keySet());
+            Collections.sort(variableNames);
+
+            final List<String> declarations = new ArrayList<>();
+            final StringBuilder selections = new StringBuilder();
+            final Map<String, Object> variables = new HashMap<>();
+            for (int index = 0; index < members.size(); index++) {
+                final String alias = ALIAS_PREFIX + index;
+                final AppSyncGraphQLRequest<?> member = (AppSyncGraphQLRequest<?>) members.get(index).request;
+                final List<String> arguments = new ArrayList<>();
+                for (String name : variableNames) {
+                    final String batchName = alias + "_" + name;
+                    declarations.add("$" + batchName + ": " + template.getVariableTypes().get(name));
+                    arguments.add(name + ": $" + batchName);
+                    variables.put(batchName, member.getVariables().get(name));
+                }
+                selections.append("  ")
+                    .append(alias)
+                    .append(": ")
+                    .append(fieldName);
+                if (!arguments.isEmpty()) {
+                    selections.append('(').append(String.join(", ", arguments)).append(')');
+                }
+                selections.append(template.getSelectionSet().toString("  ")).append('\n');
+            }
+
+            final StringBuilder query = new StringBuilder("query Coalesced").append(operationName);
+            if (!declarations.isEmpty()) {
+                query.append('(').append(String.join(", ", declarations)).append(')');
+            }
+            query.append(" {\n").append(selections).append("}\n");
+            return new BatchDocument(query.toString(), variables, fieldName);
+        }
+    }
+
+    /**
+     * Hands back the whole response body as a JSON object, so that it can be split up by alias.
+     */
+    private static final class RawResponseFactory implements GraphQLResponse.Factory {
+        @SuppressWarnings("unchecked") // Only used for batch requests, whose response type is JsonObject.
+        @Override
+        public <T> GraphQLResponse<T> buildResponse(GraphQLRequest<T> request, String responseJson)
+                throws ApiException {
+            if (responseJson == null) {
+                throw new ApiException(
+                    "Got an empty response to coalesced queries.",
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+                );
+            }
+            final JsonElement body;
+            try {
+                body = JsonParser.parseString(responseJson);
+            } catch (JsonParseException exception) {
+                throw new ApiException(
+                    "Amplify encountered an error while deserializing an object.",
+                    exception,
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+                );
+            }
+            if (!body.isJsonObject()) {
+                throw new ApiException(
+                    "Expected a JSON object in response to coalesced queries, but got: " + responseJson,
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+                );
+            }
+            return new GraphQLResponse<>((T) body.getAsJsonObject(), null);
+        }
+    }
+}
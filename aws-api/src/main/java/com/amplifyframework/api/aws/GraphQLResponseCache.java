@@ -0,0 +1,780 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.graphql.GraphQLRequest;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.QueryType;
+import com.amplifyframework.auth.AuthChannelEventName;
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.SerializedModel;
+import com.amplifyframework.datastore.appsync.ModelWithMetadata;
+import com.amplifyframework.logging.Logger;
+import com.amplifyframework.util.Time;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A normalized cache of GraphQL query responses.
+ *
+ * Only GET and LIST queries are cached; SYNC queries, which DataStore uses to catch up with
+ * the backend, always go to the network. Each response is stored against its request (API,
+ * document, variables, authorization type and response type) and the identity of the
+ * signed-in user, so that one user is never served a response fetched for another. Model
+ * objects found at the root of a response, either on their own or as the items of a list,
+ * are normalized: they are stored once per API, authorization type and identity, keyed by
+ * their type name and id, and the response holds a reference to them. A later response for
+ * the same model updates the shared record, so every cached query that includes it sees the
+ * update.
+ *
+ * Responses are invalidated when a mutation or subscription reports a change to a model they
+ * include. Lists of a model type are invalidated by any change to that type, since membership
+ * of the list may have changed. A response to a query which was in flight while its API was
+ * invalidated, or while the user changed, is not stored, since it may predate the change.
+ *
+ * The in-memory tier holds a bounded number of responses, and evicts the least recently
+ * used. An optional {@link GraphQLResponseDiskCache} persists responses across restarts.
+ * Everything is cleared when the user signs out, or their account is deleted.
+ */
+final class GraphQLResponseCache {
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-api");
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final String DATA_KEY = "data";
+    private static final String ERRORS_KEY = "errors";
+    private static final String ID_KEY = "id";
+    private static final String ITEMS_KEY = "items";
+    private static final String TYPENAME_KEY = "__typename";
+    private static final String REF_KEY = "__ref";
+
+    private final int maxEntries;
+    private final long timeToLiveMs;
+    private final ResponseCachePolicy defaultPolicy;
+    @Nullable
+    private final GraphQLResponseDiskCache diskCache;
+    private final IdentityProvider identityProvider;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, Record> records;
+    private final Map<String, Long> invalidatedAtGeneration;
+    private String identity;
+    private boolean identityKnown;
+    private long identityGeneration;
+    private long generation;
+    private long clearedAtGeneration;
+    private long hitCount;
+    private long staleHitCount;
+    private long missCount;
+    private long evictionCount;
+
+    GraphQLResponseCache(@NonNull ResponseCacheOptions options) {
+        this(options, options.getDiskDirectory() == null ? null :
+            new GraphQLResponseDiskCache(options.getDiskDirectory(), options.getMaxDiskEntries()));
+    }
+
+    GraphQLResponseCache(@NonNull ResponseCacheOptions options, @Nullable GraphQLResponseDiskCache diskCache) {
+        this(options, diskCache, new SignedInUserIdentityProvider());
+    }
+
+    GraphQLResponseCache(
+            @NonNull ResponseCacheOptions options,
+            @Nullable GraphQLResponseDiskCache diskCache,
+            @NonNull IdentityProvider identityProvider) {
+        this.maxEntries = options.getMaxEntries();
+        this.timeToLiveMs = options.getTimeToLiveMs();
+        this.defaultPolicy = options.getDefaultPolicy();
+        this.diskCache = diskCache;
+        this.identityProvider = Objects.requireNonNull(identityProvider);
+        this.entries = new LinkedHashMap<>(maxEntries, LOAD_FACTOR, true);
+        this.records = new HashMap<>();
+        this.invalidatedAtGeneration = new HashMap<>();
+    }
+
+    /**
+     * Checks whether responses to a request may be cached. Only GET and LIST queries for a
+     * model are cached. SYNC queries are not, since DataStore relies on them to see the latest
+     * changes, and neither are hand-written documents, whose kind can't be told. Queries which
+     * use multi-auth are not cached either, since their response may depend on which
+     * authorization type ends up being used.
+     * @param request A GraphQL request
+     * @return true if the request's response may be cached
+     */
+    static boolean isCacheable(@NonNull GraphQLRequest<?> request) {
+        if (!(request instanceof AppSyncGraphQLRequest<?>)) {
+            return false;
+        }
+        AppSyncGraphQLRequest<?> appSyncRequest = (AppSyncGraphQLRequest<?>) request;
+        return (QueryType.GET.equals(appSyncRequest.getOperation()) ||
+                QueryType.LIST.equals(appSyncRequest.getOperation())) &&
+            !AuthModeStrategyType.MULTIAUTH.equals(appSyncRequest.getAuthModeStrategyType());
+    }
+
+    /**
+     * Gets the cache policy that applies to a request.
+     * @param request A GraphQL request
+     * @return The request's own cache policy, or the default one
+     */
+    @NonNull
+    ResponseCachePolicy policyFor(@NonNull GraphQLRequest<?> request) {
+        if (request instanceof AppSyncGraphQLRequest<?>) {
+            ResponseCachePolicy policy = ((AppSyncGraphQLRequest<?>) request).getCachePolicy();
+            if (policy != null) {
+                return policy;
+            }
+        }
+        return defaultPolicy;
+    }
+
+    /**
+     * Looks up a cached response to a request, first in memory, then on disk. This may
+     * touch the disk, so should not be called from the main thread.
+     * @param apiName Name of the API against which the request is made
+     * @param request A GraphQL query
+     * @param acceptStale Whether a response which has outlived its time-to-live is acceptable
+     * @return The cached response, or null if there is no acceptable one
+     */
+    @Nullable
+    CachedResponse lookup(@NonNull String apiName, @NonNull GraphQLRequest<?> request, boolean acceptStale) {
+        final String scope = scopeFor(apiName, request);
+        final String key = keyFor(scope, request);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                JsonElement data = denormalize(entry.normalizedData);
+                if (data != null) {
+                    return hitOrMiss(wrap(data), entry.storedAt, acceptStale);
+                }
+                // One of its records has been invalidated.
+                removeEntry(key);
+            }
+        }
+        if (diskCache != null) {
+            GraphQLResponseDiskCache.Persisted persisted = diskCache.read(key);
+            if (persisted != null) {
+                synchronized (this) {
+                    // Promote to memory, so the next lookup doesn't touch the disk.
+                    putEntry(key, scope, persisted.getMetadata(), persisted.getBody().getAsJsonObject(DATA_KEY),
+                        persisted.getStoredAt());
+                    return hitOrMiss(persisted.getBody(), persisted.getStoredAt(), acceptStale);
+                }
+            }
+        }
+        synchronized (this) {
+            missCount++;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the cache's generation, which advances whenever responses are invalidated or the user
+     * changes. Taken before a query is sent, so that its response can be dropped rather than
+     * stored if it may have been fetched before an invalidation.
+     * @return The current generation
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Wraps a response factory so that every response it builds is also stored in the cache,
+     * unless the cache has been invalidated since the factory was created.
+     * @param apiName Name of the API against which requests are made
+     * @param delegate Builds the typed response
+     * @return A response factory which populates the cache
+     */
+    @NonNull
+    GraphQLResponse.Factory populating(@NonNull String apiName, @NonNull GsonGraphQLResponseFactory delegate) {
+        return populating(apiName, delegate, getGeneration());
+    }
+
+    /**
+     * Wraps a response factory so that every response it builds is also stored in the cache,
+     * unless the cache has been invalidated since the given generation.
+     * @param apiName Name of the API against which requests are made
+     * @param delegate Builds the typed response
+     * @param requestGeneration Generation of the cache when the request was sent
+     * @return A response factory which populates the cache
+     */
+    @NonNull
+    GraphQLResponse.Factory populating(
+            @NonNull String apiName, @NonNull GsonGraphQLResponseFactory delegate, long requestGeneration) {
+        return new GraphQLResponse.Factory() {
+            @Override
+            public <T> GraphQLResponse<T> buildResponse(GraphQLRequest<T> request, String responseJson)
+                    throws ApiException {
+                if (responseJson == null) {
+                    return delegate.buildResponse(request, responseJson);
+                }
+                final JsonElement body;
+                try {
+                    body = JsonParser.parseString(responseJson);
+                } catch (JsonParseException exception) {
+                    throw new ApiException(
+                        "Amplify encountered an error while deserializing an object.",
+                        exception,
+                        AmplifyException.TODO_RECOVERY_SUGGESTION
+                    );
+                }
+                store(apiName, request, body, requestGeneration);
+                return delegate.buildResponse(request, body);
+            }
+        };
+    }
+
+    /**
+     * Stores a response. Responses with errors, or without data, are not stored.
+     * @param apiName Name of the API against which the request was made
+     * @param request The request
+     * @param body The full response body, as returned by the API
+     */
+    void store(@NonNull String apiName, @NonNull GraphQLRequest<?> request, @Nullable JsonElement body) {
+        store(apiName, request, body, getGeneration());
+    }
+
+    /**
+     * Stores a response, unless responses from its API have been invalidated since the request
+     * was sent. Responses with errors, or without data, are not stored.
+     * @param apiName Name of the API against which the request was made
+     * @param request The request
+     * @param body The full response body, as returned by the API
+     * @param requestGeneration Generation of the cache when the request was sent
+     */
+    void store(@NonNull String apiName, @NonNull GraphQLRequest<?> request, @Nullable JsonElement body,
+            long requestGeneration) {
+        if (body == null || !body.isJsonObject() || !isCacheable(request)) {
+            return;
+        }
+        JsonObject response = body.getAsJsonObject();
+        JsonElement errors = response.get(ERRORS_KEY);
+        JsonElement data = response.get(DATA_KEY);
+        if ((errors != null && errors.isJsonArray() && errors.getAsJsonArray().size() > 0) ||
+                data == null || !data.isJsonObject()) {
+            return;
+        }
+
+        final String scope = scopeFor(apiName, request);
+        final String key = keyFor(scope, request);
+        final long storedAt = Time.now();
+        final Metadata metadata;
+        synchronized (this) {
+            Long invalidatedAt = invalidatedAtGeneration.get(apiName);
+            if (clearedAtGeneration > requestGeneration ||
+                    (invalidatedAt != null && invalidatedAt > requestGeneration)) {
+                LOG.verbose("Not caching a response which may predate an invalidation.");
+                return;
+            }
+            metadata = putEntry(key, scope, metadataFor(apiName, request), data.getAsJsonObject(), storedAt);
+        }
+        if (diskCache != null) {
+            diskCache.write(key, metadata, wrap(data), storedAt);
+        }
+    }
+
+    /**
+     * Invalidates cached responses affected by a change to a model, as reported by a
+     * mutation response or subscription event. If the model can't be identified, every
+     * response from the API is invalidated.
+     * @param apiName Name of the API against which the mutation or subscription was made
+     * @param request The mutation or subscription request
+     * @param data Data of the response to that request
+     */
+    void invalidate(@NonNull String apiName, @NonNull GraphQLRequest<?> request, @Nullable Object data) {
+        String typename = request instanceof AppSyncGraphQLRequest<?>
+            ? ((AppSyncGraphQLRequest<?>) request).getModelSchema().getName() : null;
+        String id = null;
+        Object model = data instanceof ModelWithMetadata<?> ? ((ModelWithMetadata<?>) data).getModel() : data;
+        if (model instanceof Model) {
+            id = idOf((Model) model);
+            if (id == null) {
+                LOG.debug("Unable to identify changed model; invalidating every response of its type.");
+            }
+        }
+        invalidate(apiName, typename, id);
+    }
+
+    /**
+     * Invalidates cached responses affected by a change to a model.
+     * @param apiName Name of the API on which the model changed
+     * @param typename Type name of the model, or null to invalidate every response from the API
+     * @param id Id of the model, or null to invalidate every response which includes its type
+     */
+    void invalidate(@NonNull String apiName, @Nullable String typename, @Nullable String id) {
+        synchronized (this) {
+            invalidatedAtGeneration.put(apiName, ++generation);
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next().getValue();
+                if (entry.metadata.isAffectedBy(apiName, typename, id)) {
+                    iterator.remove();
+                    releaseRecords(entry);
+                }
+            }
+        }
+        if (diskCache != null) {
+            diskCache.removeIf(metadata -> metadata.isAffectedBy(apiName, typename, id));
+        }
+    }
+
+    /**
+     * Removes every cached response, from memory and from disk.
+     */
+    void clear() {
+        synchronized (this) {
+            clearedAtGeneration = ++generation;
+            entries.clear();
+            records.clear();
+        }
+        if (diskCache != null) {
+            diskCache.clear();
+        }
+    }
+
+    /**
+     * Reacts to an event published by the Auth category. Any event may mean that a different
+     * user is now signed in, so the identity is looked up again before the next use. Signing
+     * out, or deleting the account, also clears the cache, so that nothing fetched for that
+     * user is left in memory or on disk.
+     * @param eventName Name of the event published on the Auth channel
+     */
+    void onAuthEvent(@NonNull String eventName) {
+        synchronized (this) {
+            identityGeneration++;
+            identityKnown = false;
+            identity = null;
+            // A query in flight may have been sent on behalf of the previous user.
+            clearedAtGeneration = ++generation;
+        }
+        if (AuthChannelEventName.SIGNED_OUT.toString().equals(eventName) ||
+                AuthChannelEventName.USER_DELETED.toString().equals(eventName)) {
+            clear();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the cache's counters.
+     * @return Cache metrics
+     */
+    @NonNull
+    synchronized ResponseCacheMetrics getMetrics() {
+        return new ResponseCacheMetrics(hitCount, staleHitCount, missCount, evictionCount, entries.size());
+    }
+
+    private CachedResponse hitOrMiss(JsonObject body, long storedAt, boolean acceptStale) {
+        boolean stale = Time.now() - storedAt >= timeToLiveMs;
+        if (stale && !acceptStale) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        if (stale) {
+            staleHitCount++;
+        }
+        return new CachedResponse(body, stale);
+    }
+
+    // Must be called while holding the lock.
+    private Metadata putEntry(String key, String scope, Metadata metadata, JsonObject data, long storedAt) {
+        removeEntry(key);
+
+        final Set<String> recordKeys = new HashSet<>();
+        final Set<String> entityKeys = new HashSet<>();
+        final JsonObject normalized = new JsonObject();
+        for (Map.Entry<String, JsonElement> field : data.entrySet()) {
+            normalized.add(field.getKey(),
+                normalize(scope, field.getValue(), metadata.typename, recordKeys, entityKeys));
+        }
+        for (String recordKey : recordKeys) {
+            Objects.requireNonNull(records.get(recordKey)).referenceCount++;
+        }
+
+        Metadata complete = new Metadata(metadata.apiName, metadata.typename, metadata.isList, entityKeys);
+        entries.put(key, new Entry(complete, normalized, recordKeys, storedAt));
+        while (entries.size() > maxEntries) {
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            releaseRecords(evicted);
+            evictionCount++;
+        }
+        return complete;
+    }
+
+    // Must be called while holding the lock.
+    private void removeEntry(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            releaseRecords(entry);
+        }
+    }
+
+    // Must be called while holding the lock.
+    private void releaseRecords(Entry entry) {
+        for (String recordKey : entry.recordKeys) {
+            Record record = records.get(recordKey);
+            if (record != null && --record.referenceCount <= 0) {
+                records.remove(recordKey);
+            }
+        }
+    }
+
+    /**
+     * Replaces models at the root of a response, or in the items of a root-level list, with
+     * references to shared records. Models nested deeper than that are left in place, but are
+     * still noted, so that a change to them invalidates the response. Records are shared only
+     * within a scope, which is the API, authorization type and identity of the response.
+     */
+    private JsonElement normalize(
+            String scope, JsonElement value, String typename, Set<String> recordKeys, Set<String> entityKeys) {
+        if (value.isJsonArray()) {
+            JsonArray normalized = new JsonArray();
+            for (JsonElement item : value.getAsJsonArray()) {
+                normalized.add(normalize(scope, item, typename, recordKeys, entityKeys));
+            }
+            return normalized;
+        } else if (!value.isJsonObject()) {
+            return value;
+        }
+        JsonObject object = value.getAsJsonObject();
+        String entityKey = entityKeyOf(object, typename);
+        if (entityKey != null) {
+            String recordKey = scope + '\n' + entityKey;
+            Record record = records.get(recordKey);
+            if (record == null) {
+                record = new Record();
+                records.put(recordKey, record);
+            }
+            // Newer fields win; fields that this response didn't select are kept.
+            for (Map.Entry<String, JsonElement> field : object.entrySet()) {
+                record.fields.add(field.getKey(), field.getValue());
+                collectEntityKeys(field.getValue(), entityKeys);
+            }
+            recordKeys.add(recordKey);
+            entityKeys.add(entityKey);
+            JsonObject reference = new JsonObject();
+            reference.addProperty(REF_KEY, recordKey);
+            return reference;
+        }
+        // A list, such as { items: [...], nextToken: "..." }.
+        JsonObject normalized = new JsonObject();
+        for (Map.Entry<String, JsonElement> field : object.entrySet()) {
+            if (ITEMS_KEY.equals(field.getKey())) {
+                normalized.add(ITEMS_KEY, normalize(scope, field.getValue(), typename, recordKeys, entityKeys));
+            } else {
+                normalized.add(field.getKey(), field.getValue());
+            }
+        }
+        return normalized;
+    }
+
+    private static void collectEntityKeys(JsonElement value, Set<String> entityKeys) {
+        if (value.isJsonArray()) {
+            for (JsonElement item : value.getAsJsonArray()) {
+                collectEntityKeys(item, entityKeys);
+            }
+        } else if (value.isJsonObject()) {
+            JsonObject object = value.getAsJsonObject();
+            String entityKey = entityKeyOf(object, null);
+            if (entityKey != null) {
+                entityKeys.add(entityKey);
+            }
+            for (Map.Entry<String, JsonElement> field : object.entrySet()) {
+                collectEntityKeys(field.getValue(), entityKeys);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds response data from its normalized form. Returns null if a record it refers
+     * to has since been invalidated. Records are copied, so that later updates to them can't
+     * change data that has already been handed out. Must be called while holding the lock.
+     */
+    @Nullable
+    private JsonElement denormalize(JsonElement value) {
+        if (value.isJsonArray()) {
+            JsonArray denormalized = new JsonArray();
+            for (JsonElement item : value.getAsJsonArray()) {
+                JsonElement denormalizedItem = denormalize(item);
+                if (denormalizedItem == null) {
+                    return null;
+                }
+                denormalized.add(denormalizedItem);
+            }
+            return denormalized;
+        } else if (!value.isJsonObject()) {
+            return value;
+        }
+        JsonObject object = value.getAsJsonObject();
+        JsonElement reference = object.get(REF_KEY);
+        if (reference != null) {
+            Record record = records.get(reference.getAsString());
+            return record != null ? record.fields.deepCopy() : null;
+        }
+        JsonObject denormalized = new JsonObject();
+        for (Map.Entry<String, JsonElement> field : object.entrySet()) {
+            JsonElement denormalizedField = denormalize(field.getValue());
+            if (denormalizedField == null) {
+                return null;
+            }
+            denormalized.add(field.getKey(), denormalizedField);
+        }
+        return denormalized;
+    }
+
+    @Nullable
+    private static String entityKeyOf(JsonObject object, @Nullable String expectedTypename) {
+        JsonElement declaredTypename = object.get(TYPENAME_KEY);
+        String typename = declaredTypename != null && declaredTypename.isJsonPrimitive()
+            ? declaredTypename.getAsString() : expectedTypename;
+        JsonElement id = object.get(ID_KEY);
+        if (typename == null || id == null || !id.isJsonPrimitive()) {
+            return null;
+        }
+        return entityKey(typename, id.getAsString());
+    }
+
+    /**
+     * Gets the id of a changed model, as found in the id field of responses, since that is
+     * what the responses which include it are keyed by. A model's primary key may be made of
+     * other fields, so {@link Model#getPrimaryKeyString()} is not used.
+     */
+    @Nullable
+    private static String idOf(Model model) {
+        final Object id;
+        if (model instanceof SerializedModel) {
+            id = ((SerializedModel) model).getSerializedData().get(ID_KEY);
+        } else {
+            try {
+                id = model.getClass().getMethod("getId").invoke(model);
+            } catch (ReflectiveOperationException exception) {
+                return null;
+            }
+        }
+        return id != null ? id.toString() : null;
+    }
+
+    private static String entityKey(String typename, String id) {
+        return typename + ':' + id;
+    }
+
+    private static JsonObject wrap(JsonElement data) {
+        JsonObject body = new JsonObject();
+        body.add(DATA_KEY, data);
+        return body;
+    }
+
+    private static Metadata metadataFor(String apiName, GraphQLRequest<?> request) {
+        if (request instanceof AppSyncGraphQLRequest<?>) {
+            AppSyncGraphQLRequest<?> appSyncRequest = (AppSyncGraphQLRequest<?>) request;
+            return new Metadata(apiName, appSyncRequest.getModelSchema().getName(),
+                !QueryType.GET.equals(appSyncRequest.getOperation()), Collections.emptySet());
+        }
+        return new Metadata(apiName, null, true, Collections.emptySet());
+    }
+
+    /**
+     * Gets the scope of a request's response: its API, the authorization type it is sent with,
+     * and the identity of the signed-in user. A request without an authorization type of its
+     * own is always sent with the API's default one, so the API name stands in for it.
+     */
+    private String scopeFor(String apiName, GraphQLRequest<?> request) {
+        final AuthorizationType authType = request instanceof AppSyncGraphQLRequest<?>
+            ? ((AppSyncGraphQLRequest<?>) request).getAuthorizationType() : null;
+        return apiName + '\n' + authType + '\n' + currentIdentity();
+    }
+
+    private static String keyFor(String scope, GraphQLRequest<?> request) {
+        return scope + '\n' + request.getResponseType() + '\n' + request.getContent();
+    }
+
+    /**
+     * Gets the identity of the signed-in user, looking it up only once per Auth event. The
+     * lookup may block, so it is done without holding the lock; an Auth event during the
+     * lookup means its result may already be out of date, so it is not kept.
+     */
+    @Nullable
+    private String currentIdentity() {
+        final long generation;
+        synchronized (this) {
+            if (identityKnown) {
+                return identity;
+            }
+            generation = identityGeneration;
+        }
+        final String resolved = identityProvider.getIdentity();
+        synchronized (this) {
+            if (generation == identityGeneration) {
+                identity = resolved;
+                identityKnown = true;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Identifies the user on whose behalf requests are made.
+     */
+    interface IdentityProvider {
+        /**
+         * Gets the identity of the signed-in user. May block, but is never called on the main thread.
+         * @return An identifier of the signed-in user, or null if nobody is signed in
+         */
+        @Nullable
+        String getIdentity();
+    }
+
+    /**
+     * Identifies the user signed in through the Auth category, if any.
+     */
+    static final class SignedInUserIdentityProvider implements IdentityProvider {
+        private static final long TIMEOUT_SECONDS = 5;
+
+        @Nullable
+        @Override
+        public String getIdentity() {
+            final AtomicReference<String> userId = new AtomicReference<>();
+            final CountDownLatch latch = new CountDownLatch(1);
+            try {
+                Amplify.Auth.getCurrentUser(user -> {
+                    userId.set(user.getUserId());
+                    latch.countDown();
+                }, error -> latch.countDown());
+                if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    LOG.warn("Timed out looking up the signed-in user; caching responses as anonymous.");
+                }
+            } catch (IllegalStateException exception) {
+                // The Auth category is not configured, so nobody can be signed in.
+                return null;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return userId.get();
+        }
+    }
+
+    /**
+     * A response found in the cache.
+     */
+    static final class CachedResponse {
+        private final JsonObject body;
+        private final boolean stale;
+
+        CachedResponse(JsonObject body, boolean stale) {
+            this.body = body;
+            this.stale = stale;
+        }
+
+        JsonObject getBody() {
+            return body;
+        }
+
+        boolean isStale() {
+            return stale;
+        }
+    }
+
+    /**
+     * What a cached response depends on, which decides when it is invalidated.
+     */
+    static final class Metadata {
+        private final String apiName;
+        private final String typename;
+        private final boolean isList;
+        private final Set<String> entityKeys;
+
+        Metadata(String apiName, @Nullable String typename, boolean isList, Set<String> entityKeys) {
+            this.apiName = apiName;
+            this.typename = typename;
+            this.isList = isList;
+            this.entityKeys = entityKeys;
+        }
+
+        String getApiName() {
+            return apiName;
+        }
+
+        @Nullable
+        String getTypename() {
+            return typename;
+        }
+
+        boolean isList() {
+            return isList;
+        }
+
+        Set<String> getEntityKeys() {
+            return entityKeys;
+        }
+
+        boolean isAffectedBy(String changedApiName, @Nullable String changedTypename, @Nullable String changedId) {
+            if (!apiName.equals(changedApiName)) {
+                return false;
+            } else if (changedTypename == null || typename == null) {
+                return true;
+            } else if (changedTypename.equals(typename) && (isList || entityKeys.isEmpty())) {
+                // Lists may have gained or lost a member; un-normalized responses can't be told apart.
+                return true;
+            } else if (changedId != null) {
+                return entityKeys.contains(entityKey(changedTypename, changedId));
+            }
+            String prefix = entityKey(changedTypename, "");
+            for (String entityKey : entityKeys) {
+                if (entityKey.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return changedTypename.equals(typename);
+        }
+    }
+
+    private static final class Entry {
+        private final Metadata metadata;
+        private final JsonObject normalizedData;
+        private final Set<String> recordKeys;
+        private final long storedAt;
+
+        Entry(Metadata metadata, JsonObject normalizedData, Set<String> recordKeys, long storedAt) {
+            this.metadata = metadata;
+            this.normalizedData = normalizedData;
+            this.recordKeys = recordKeys;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private static final class Record {
+        private final JsonObject fields = new JsonObject();
+        private int referenceCount;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.logging.Logger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Persists GraphQL responses to a directory, one file per request, so that the
+ * {@link GraphQLResponseCache} can survive process restarts.
+ *
+ * Each file holds the full response, along with the metadata needed to invalidate it.
+ * An index of the metadata is kept in memory, so that invalidation doesn't need to read
+ * every file. The index is built on first use, by reading the directory. When more than
+ * the maximum number of responses are persisted, the oldest are deleted.
+ */
+final class GraphQLResponseDiskCache {
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-api");
+    private static final String FILE_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String KEY_KEY = "key";
+    private static final String STORED_AT_KEY = "storedAt";
+    private static final String API_NAME_KEY = "apiName";
+    private static final String TYPENAME_KEY = "typename";
+    private static final String LIST_KEY = "list";
+    private static final String ENTITIES_KEY = "entities";
+    private static final String BODY_KEY = "body";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int HEX_RADIX = 16;
+
+    private final File directory;
+    private final int maxEntries;
+    private Map<String, IndexEntry> index;
+
+    GraphQLResponseDiskCache(@NonNull File directory, int maxEntries) {
+        this.directory = Objects.requireNonNull(directory);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Reads a persisted response.
+     * @param key Cache key of the request
+     * @return The persisted response, or null if there isn't one
+     */
+    @Nullable
+    synchronized Persisted read(@NonNull String key) {
+        ensureIndexed();
+        final String fileName = fileNameFor(key);
+        if (!index.containsKey(fileName)) {
+            return null;
+        }
+        Persisted persisted = readFile(new File(directory, fileName));
+        if (persisted == null || !key.equals(persisted.key)) {
+            // Unreadable, or a different request whose key hashed to the same name.
+            return null;
+        }
+        return persisted;
+    }
+
+    /**
+     * Persists a response, replacing any previously persisted response to the same request.
+     * @param key Cache key of the request
+     * @param metadata What the response depends on
+     * @param body The full response
+     * @param storedAt When the response was received, in ms since the epoch
+     */
+    synchronized void write(
+            @NonNull String key,
+            @NonNull GraphQLResponseCache.Metadata metadata,
+            @NonNull JsonObject body,
+            long storedAt) {
+        ensureIndexed();
+        JsonArray entities = new JsonArray();
+        for (String entityKey : metadata.getEntityKeys()) {
+            entities.add(entityKey);
+        }
+        JsonObject contents = new JsonObject();
+        contents.addProperty(KEY_KEY, key);
+        contents.addProperty(STORED_AT_KEY, storedAt);
+        contents.addProperty(API_NAME_KEY, metadata.getApiName());
+        contents.addProperty(TYPENAME_KEY, metadata.getTypename());
+        contents.addProperty(LIST_KEY, metadata.isList());
+        contents.add(ENTITIES_KEY, entities);
+        contents.add(BODY_KEY, body);
+
+        final String fileName = fileNameFor(key);
+        final File temp = new File(directory, fileName + TEMP_SUFFIX);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            writer.write(contents.toString());
+        } catch (IOException exception) {
+            LOG.warn("Unable to persist a GraphQL response.", exception);
+            deleteFile(temp);
+            return;
+        }
+        if (!temp.renameTo(new File(directory, fileName))) {
+            LOG.warn("Unable to persist a GraphQL response.");
+            deleteFile(temp);
+            return;
+        }
+        index.remove(fileName);
+        index.put(fileName, new IndexEntry(metadata, storedAt));
+        trim();
+    }
+
+    /**
+     * Deletes every persisted response.
+     */
+    synchronized void clear() {
+        ensureIndexed();
+        for (String fileName : index.keySet()) {
+            deleteFile(new File(directory, fileName));
+        }
+        index.clear();
+    }
+
+    /**
+     * Deletes every persisted response whose metadata matches a condition.
+     * @param condition Condition on the metadata of a persisted response
+     */
+    synchronized void removeIf(@NonNull Condition condition) {
+        ensureIndexed();
+        Iterator<Map.Entry<String, IndexEntry>> iterator = index.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, IndexEntry> entry = iterator.next();
+            if (condition.matches(entry.getValue().metadata)) {
+                deleteFile(new File(directory, entry.getKey()));
+                iterator.remove();
+            }
+        }
+    }
+
+    // Must be called while holding the lock.
+    private void ensureIndexed() {
+        if (index != null) {
+            return;
+        }
+        // Insertion-ordered, oldest first, so that trim() deletes the oldest responses.
+        index = new LinkedHashMap<>();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOG.warn("Unable to create GraphQL response cache directory " + directory);
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<Map.Entry<String, IndexEntry>> found = new ArrayList<>();
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                // Left behind by an interrupted write.
+                deleteFile(file);
+                continue;
+            } else if (!file.getName().endsWith(FILE_SUFFIX)) {
+                continue;
+            }
+            Persisted persisted = readFile(file);
+            if (persisted == null) {
+                deleteFile(file);
+                continue;
+            }
+            found.add(new AbstractMap.SimpleEntry<>(file.getName(),
+                new IndexEntry(persisted.metadata, persisted.storedAt)));
+        }
+        Collections.sort(found, (one, two) -> Long.compare(one.getValue().storedAt, two.getValue().storedAt));
+        for (Map.Entry<String, IndexEntry> entry : found) {
+            index.put(entry.getKey(), entry.getValue());
+        }
+        trim();
+    }
+
+    // Must be called while holding the lock.
+    private void trim() {
+        Iterator<Map.Entry<String, IndexEntry>> iterator = index.entrySet().iterator();
+        while (index.size() > maxEntries && iterator.hasNext()) {
+            deleteFile(new File(directory, iterator.next().getKey()));
+            iterator.remove();
+        }
+    }
+
+    @Nullable
+    private static Persisted readFile(File file) {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            JsonObject contents = JsonParser.parseReader(reader).getAsJsonObject();
+            Set<String> entityKeys = new HashSet<>();
+            for (JsonElement entityKey : contents.getAsJsonArray(ENTITIES_KEY)) {
+                entityKeys.add(entityKey.getAsString());
+            }
+            JsonElement typename = contents.get(TYPENAME_KEY);
+            GraphQLResponseCache.Metadata metadata = new GraphQLResponseCache.Metadata(
+                contents.get(API_NAME_KEY).getAsString(),
+                typename == null || typename.isJsonNull() ? null : typename.getAsString(),
+                contents.get(LIST_KEY).getAsBoolean(),
+                entityKeys
+            );
+            return new Persisted(
+                contents.get(KEY_KEY).getAsString(),
+                metadata,
+                contents.getAsJsonObject(BODY_KEY),
+                contents.get(STORED_AT_KEY).getAsLong()
+            );
+        } catch (IOException | JsonParseException | IllegalStateException | NullPointerException exception) {
+            LOG.warn("Unable to read persisted GraphQL response from " + file.getName(), exception);
+            return null;
+        }
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            LOG.warn("Unable to delete " + file);
+        }
+    }
+
+    /**
+     * Names the file of a request after a digest of its key, so that neither the request nor the
+     * identity of the user it was made for can be read from the name, and two requests are all but
+     * certain never to share a file.
+     */
+    private static String fileNameFor(String key) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Android and Java runtime is required to support SHA-256.
+            throw new IllegalStateException(exception);
+        }
+        final StringBuilder name = new StringBuilder();
+        for (byte value : digest) {
+            name.append(Character.forDigit((value >> 4) & 0xF, HEX_RADIX))
+                .append(Character.forDigit(value & 0xF, HEX_RADIX));
+        }
+        return name.append(FILE_SUFFIX).toString();
+    }
+
+    /**
+     * A condition on the metadata of a persisted response.
+     */
+    interface Condition {
+        /**
+         * Checks whether the metadata matches the condition.
+         * @param metadata Metadata of a persisted response
+         * @return true if it matches
+         */
+        boolean matches(@NonNull GraphQLResponseCache.Metadata metadata);
+    }
+
+    /**
+     * A response read back from disk.
+     */
+    static final class Persisted {
+        private final String key;
+        private final GraphQLResponseCache.Metadata metadata;
+        private final JsonObject body;
+        private final long storedAt;
+
+        Persisted(String key, GraphQLResponseCache.Metadata metadata, JsonObject body, long storedAt) {
+            this.key = key;
+            this.metadata = metadata;
+            this.body = body;
+            this.storedAt = storedAt;
+        }
+
+        GraphQLResponseCache.Metadata getMetadata() {
+            return metadata;
+        }
+
+        JsonObject getBody() {
+            return body;
+        }
+
+        long getStoredAt() {
+            return storedAt;
+        }
+    }
+
+    private static final class IndexEntry {
+        private final GraphQLResponseCache.Metadata metadata;
+        private final long storedAt;
+
+        IndexEntry(GraphQLResponseCache.Metadata metadata, long storedAt) {
+            this.metadata = metadata;
+            this.storedAt = storedAt;
+        }
+    }
+}
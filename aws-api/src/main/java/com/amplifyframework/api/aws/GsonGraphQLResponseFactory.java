@@ -59,10 +59,7 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
             throws ApiException {
         Type responseType = TypeMaker.getParameterizedType(GraphQLResponse.class, request.getResponseType());
         try {
-            Gson responseGson = gson.newBuilder()
-                .registerTypeHierarchyAdapter(Iterable.class, new IterableDeserializer<>(request))
-                .create();
-            return responseGson.fromJson(responseJson, responseType);
+            return responseGson(request).fromJson(responseJson, responseType);
         } catch (JsonSyntaxException jsonSyntaxException) {
             throw new ApiException(
                 "Amplify encountered an error while deserializing an object.",
@@ -72,6 +69,36 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
         }
     }
 
+    /**
+     * Builds a response from a JSON tree that has already been parsed, such as the payload
+     * of a subscription message. This avoids serializing the tree back into a String only
+     * to parse it again.
+     * @param request The request which resulted in this response
+     * @param responseJson Already-parsed response JSON
+     * @param <T> The type of data in the response
+     * @return A response object
+     * @throws ApiException If the JSON could not be deserialized into the requested type
+     */
+    <T> GraphQLResponse<T> buildResponse(GraphQLRequest<T> request, JsonElement responseJson)
+            throws ApiException {
+        Type responseType = TypeMaker.getParameterizedType(GraphQLResponse.class, request.getResponseType());
+        try {
+            return responseGson(request).fromJson(responseJson, responseType);
+        } catch (JsonParseException jsonParseException) {
+            throw new ApiException(
+                "Amplify encountered an error while deserializing an object.",
+                jsonParseException,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+    }
+
+    private <T> Gson responseGson(GraphQLRequest<T> request) {
+        return gson.newBuilder()
+            .registerTypeHierarchyAdapter(Iterable.class, new IterableDeserializer<>(request))
+            .create();
+    }
+
     static final class IterableDeserializer<R> implements JsonDeserializer<Iterable<Object>> {
         private static final String ITEMS_KEY = "items";
         private static final String NEXT_TOKEN_KEY = "nextToken";
@@ -50,7 +50,11 @@ final class MutiAuthSubscriptionOperation<T> extends GraphQLOperation<T> {
     private final AuthRuleRequestDecorator requestDecorator;
 
     private AuthorizationTypeIterator authTypes;
+    // Guarded by this operation.
     private String subscriptionId;
+    private String pendingSubscriptionId;
+    private int attempt;
+    private boolean attemptEnded;
     private Future<?> subscriptionFuture;
 
     private MutiAuthSubscriptionOperation(Builder<T> builder) {
@@ -85,6 +89,14 @@ final class MutiAuthSubscriptionOperation<T> extends GraphQLOperation<T> {
     }
 
     private void dispatchRequest() {
+        final int thisAttempt;
+        synchronized (this) {
+            if (canceled.get()) {
+                return;
+            }
+            thisAttempt = ++attempt;
+            attemptEnded = false;
+        }
         LOG.debug("Processing subscription request: " + getRequest().getContent());
         // If the auth types iterator still has items to return;
         if (authTypes.hasNext()) {
@@ -110,13 +122,10 @@ final class MutiAuthSubscriptionOperation<T> extends GraphQLOperation<T> {
                     return;
                 }
             }
-            subscriptionEndpoint.requestSubscription(
+            String requestedId = subscriptionEndpoint.requestSubscription(
                 request,
                 authorizationType,
-                subscriptionId -> {
-                    MutiAuthSubscriptionOperation.this.subscriptionId = subscriptionId;
-                    onSubscriptionStart.accept(subscriptionId);
-                },
+                this::onSubscriptionStarted,
                 response -> {
                     if (response.hasErrors() && hasAuthRelatedErrors(response) && authTypes.hasNext()) {
                         // If there are auth-related errors, dispatch an ApiAuthException
@@ -129,6 +138,7 @@ final class MutiAuthSubscriptionOperation<T> extends GraphQLOperation<T> {
                 },
                 apiException -> {
                     LOG.warn("A subscription error occurred.", apiException);
+                    endAttempt(thisAttempt);
                     if (apiException instanceof ApiAuthException && authTypes.hasNext()) {
                         executorService.submit(this::dispatchRequest);
                     } else {
@@ -137,6 +147,7 @@ final class MutiAuthSubscriptionOperation<T> extends GraphQLOperation<T> {
                 },
                 onSubscriptionComplete
             );
+            onSubscriptionRequested(thisAttempt, requestedId);
         } else {
             emitErrorAndCancelSubscription(new ApiException("Unable to establish subscription connection.",
                                                         AmplifyException.TODO_RECOVERY_SUGGESTION));
@@ -144,25 +155,74 @@ final class MutiAuthSubscriptionOperation<T> extends GraphQLOperation<T> {
 
     }
 
+    private void onSubscriptionStarted(String subscriptionId) {
+        synchronized (this) {
+            this.subscriptionId = subscriptionId;
+            pendingSubscriptionId = null;
+        }
+        onSubscriptionStart.accept(subscriptionId);
+    }
+
+    private synchronized void endAttempt(int endedAttempt) {
+        if (endedAttempt == attempt) {
+            attemptEnded = true;
+            pendingSubscriptionId = null;
+        }
+    }
+
+    // The callbacks may run before requestSubscription returns, on this thread or another one, so the returned id
+    // only becomes the pending one if its attempt is still the current one and unanswered. A cancel that came in
+    // meanwhile found no id to release, so the id is released here instead.
+    private synchronized void onSubscriptionRequested(int requestedAttempt, String requestedId) {
+        if (requestedAttempt != attempt || attemptEnded || subscriptionId != null) {
+            return;
+        }
+        if (canceled.get()) {
+            releasePendingSubscription(requestedId);
+        } else {
+            pendingSubscriptionId = requestedId;
+        }
+    }
+
     @Override
     public synchronized void cancel() {
-        if (subscriptionId != null && !canceled.get()) {
-            canceled.set(true);
+        if (canceled.getAndSet(true)) {
+            LOG.debug("Nothing to cancel. Subscription already cancelled.");
+            return;
+        }
+        if (subscriptionId != null) {
+            final String activeId = subscriptionId;
             executorService.execute(() -> {
                 try {
-                    LOG.debug("Cancelling subscription: " + subscriptionId);
-                    subscriptionEndpoint.releaseSubscription(subscriptionId);
+                    LOG.debug("Cancelling subscription: " + activeId);
+                    subscriptionEndpoint.releaseSubscription(activeId);
                 } catch (ApiException exception) {
                     onSubscriptionError.accept(exception);
                 }
             });
-        } else if (subscriptionFuture != null && subscriptionFuture.cancel(true)) {
+        } else if (pendingSubscriptionId != null) {
+            // Registered with the endpoint, but not yet acknowledged by AppSync.
+            releasePendingSubscription(pendingSubscriptionId);
+            pendingSubscriptionId = null;
+        } else if (subscriptionFuture != null && subscriptionFuture.cancel(false)) {
+            // If the request is being made right now, its id is released as soon as it is returned.
             LOG.debug("Subscription attempt was canceled.");
         } else {
-            LOG.debug("Nothing to cancel. Subscription not yet created, or already cancelled.");
+            LOG.debug("Nothing to cancel. Subscription not yet created.");
         }
     }
 
+    private void releasePendingSubscription(String pendingId) {
+        executorService.execute(() -> {
+            try {
+                LOG.debug("Cancelling pending subscription: " + pendingId);
+                subscriptionEndpoint.releaseSubscription(pendingId);
+            } catch (ApiException exception) {
+                LOG.debug("Pending subscription had already ended: " + pendingId);
+            }
+        });
+    }
+
     private boolean hasAuthRelatedErrors(GraphQLResponse<T> response) {
         for (GraphQLResponse.Error error : response.getErrors()) {
             if (!Empty.check(error.getExtensions())) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A point-in-time snapshot of the GraphQL response cache's counters.
+ */
+public final class ResponseCacheMetrics {
+    private final long hitCount;
+    private final long staleHitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int entryCount;
+
+    ResponseCacheMetrics(long hitCount, long staleHitCount, long missCount, long evictionCount, int entryCount) {
+        this.hitCount = hitCount;
+        this.staleHitCount = staleHitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Gets the number of queries answered from the cache, including stale responses.
+     * @return Number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of queries answered with a stale response, which was then revalidated.
+     * @return Number of stale cache hits
+     */
+    public long getStaleHitCount() {
+        return staleHitCount;
+    }
+
+    /**
+     * Gets the number of queries which consulted the cache, but had to go to the network.
+     * @return Number of cache misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of responses evicted from memory to make room for others.
+     * @return Number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the number of query responses currently held in memory.
+     * @return Number of in-memory entries
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ResponseCacheMetrics{" +
+            "hitCount=" + hitCount +
+            ", staleHitCount=" + staleHitCount +
+            ", missCount=" + missCount +
+            ", evictionCount=" + evictionCount +
+            ", entryCount=" + entryCount +
+            '}';
+    }
+}
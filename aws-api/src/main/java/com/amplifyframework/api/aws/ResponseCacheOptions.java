@@ -0,0 +1,182 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the GraphQL response cache of the {@link AWSApiPlugin}.
+ */
+public final class ResponseCacheOptions {
+    private static final int DEFAULT_MAX_ENTRIES = 100;
+    private static final long DEFAULT_TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final int maxEntries;
+    private final long timeToLiveMs;
+    private final ResponseCachePolicy defaultPolicy;
+    private final File diskDirectory;
+    private final int maxDiskEntries;
+
+    private ResponseCacheOptions(Builder builder) {
+        this.maxEntries = builder.maxEntries;
+        this.timeToLiveMs = builder.timeToLiveMs;
+        this.defaultPolicy = builder.defaultPolicy;
+        this.diskDirectory = builder.diskDirectory;
+        this.maxDiskEntries = builder.maxDiskEntries;
+    }
+
+    /**
+     * Begins construction of a new ResponseCacheOptions instance.
+     * @return A builder for response cache options
+     */
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the maximum number of query responses held in memory.
+     * @return Maximum number of in-memory entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets how long a cached response is considered fresh.
+     * @return Time-to-live, in milliseconds
+     */
+    public long getTimeToLiveMs() {
+        return timeToLiveMs;
+    }
+
+    /**
+     * Gets the cache policy used for requests that don't specify one.
+     * @return Default cache policy
+     */
+    @NonNull
+    public ResponseCachePolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Gets the directory in which responses are also persisted, if any.
+     * @return Disk cache directory, or null if responses are only cached in memory
+     */
+    @Nullable
+    public File getDiskDirectory() {
+        return diskDirectory;
+    }
+
+    /**
+     * Gets the maximum number of query responses persisted to disk.
+     * @return Maximum number of on-disk entries
+     */
+    public int getMaxDiskEntries() {
+        return maxDiskEntries;
+    }
+
+    /**
+     * Builds {@link ResponseCacheOptions}.
+     */
+    public static final class Builder {
+        private int maxEntries;
+        private long timeToLiveMs;
+        private ResponseCachePolicy defaultPolicy;
+        private File diskDirectory;
+        private int maxDiskEntries;
+
+        private Builder() {
+            this.maxEntries = DEFAULT_MAX_ENTRIES;
+            this.timeToLiveMs = DEFAULT_TIME_TO_LIVE_MS;
+            this.defaultPolicy = ResponseCachePolicy.CACHE_FIRST;
+            this.maxDiskEntries = DEFAULT_MAX_ENTRIES;
+        }
+
+        /**
+         * Sets the maximum number of query responses held in memory. When full,
+         * the least recently used response is evicted.
+         * @param maxEntries Maximum number of in-memory entries
+         * @return Current builder instance, for fluent construction
+         */
+        @NonNull
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("maxEntries must be positive.");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets how long a cached response is considered fresh.
+         * @param timeToLive Time-to-live
+         * @param timeUnit Unit of the time-to-live
+         * @return Current builder instance, for fluent construction
+         */
+        @NonNull
+        public Builder timeToLive(long timeToLive, @NonNull TimeUnit timeUnit) {
+            if (timeToLive < 0) {
+                throw new IllegalArgumentException("timeToLive must not be negative.");
+            }
+            this.timeToLiveMs = Objects.requireNonNull(timeUnit).toMillis(timeToLive);
+            return this;
+        }
+
+        /**
+         * Sets the cache policy used for requests that don't specify one.
+         * @param defaultPolicy Default cache policy
+         * @return Current builder instance, for fluent construction
+         */
+        @NonNull
+        public Builder defaultPolicy(@NonNull ResponseCachePolicy defaultPolicy) {
+            this.defaultPolicy = Objects.requireNonNull(defaultPolicy);
+            return this;
+        }
+
+        /**
+         * Persists cached responses in a directory, in addition to memory, so that they
+         * survive process restarts. The directory should be private to the app, and used for
+         * nothing else; a sub-directory of {@code Context#getCacheDir()} is a good choice.
+         * @param diskDirectory Directory in which to persist responses
+         * @param maxDiskEntries Maximum number of responses persisted to disk
+         * @return Current builder instance, for fluent construction
+         */
+        @NonNull
+        public Builder diskCache(@NonNull File diskDirectory, int maxDiskEntries) {
+            if (maxDiskEntries < 1) {
+                throw new IllegalArgumentException("maxDiskEntries must be positive.");
+            }
+            this.diskDirectory = Objects.requireNonNull(diskDirectory);
+            this.maxDiskEntries = maxDiskEntries;
+            return this;
+        }
+
+        /**
+         * Builds {@link ResponseCacheOptions}.
+         * @return Response cache options
+         */
+        @NonNull
+        public ResponseCacheOptions build() {
+            return new ResponseCacheOptions(this);
+        }
+    }
+}
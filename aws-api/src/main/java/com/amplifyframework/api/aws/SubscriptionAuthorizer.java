@@ -20,7 +20,7 @@ import android.net.Uri;
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.ApiException;
 import com.amplifyframework.api.ApiException.ApiAuthException;
-import com.amplifyframework.api.aws.auth.CognitoCredentialsProvider;
+import com.amplifyframework.api.aws.auth.CachingCredentialsProvider;
 import com.amplifyframework.api.aws.auth.IamRequestDecorator;
 import com.amplifyframework.api.aws.sigv4.ApiKeyAuthProvider;
 import com.amplifyframework.api.aws.sigv4.AppSyncV4Signer;
@@ -49,6 +49,7 @@ final class SubscriptionAuthorizer {
 
     private final ApiConfiguration configuration;
     private final ApiAuthProviders authProviders;
+    private final CredentialsProvider iamCredentialsProvider;
 
     SubscriptionAuthorizer(ApiConfiguration configuration) {
         this(configuration, ApiAuthProviders.noProviderOverrides());
@@ -57,6 +58,9 @@ final class SubscriptionAuthorizer {
     SubscriptionAuthorizer(ApiConfiguration configuration, ApiAuthProviders authProviders) {
         this.configuration = configuration;
         this.authProviders = authProviders;
+        this.iamCredentialsProvider = authProviders.getAWSCredentialsProvider() != null
+            ? new CachingCredentialsProvider(authProviders.getAWSCredentialsProvider())
+            : CachingCredentialsProvider.forCognito();
     }
 
     /**
@@ -86,11 +90,7 @@ final class SubscriptionAuthorizer {
                 }
                 return forApiKey(keyProvider);
             case AWS_IAM:
-                CredentialsProvider credentialsProvider = authProviders.getAWSCredentialsProvider();
-                if (credentialsProvider == null) {
-                    credentialsProvider = new CognitoCredentialsProvider();
-                }
-                return forIam(credentialsProvider, request, connectionFlag);
+                return forIam(iamCredentialsProvider, request, connectionFlag);
             case AMAZON_COGNITO_USER_POOLS:
                 CognitoUserPoolsAuthProvider cognitoProvider = authProviders.getCognitoUserPoolsAuthProvider();
                 if (cognitoProvider == null) {
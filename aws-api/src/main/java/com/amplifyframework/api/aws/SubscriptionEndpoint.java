@@ -18,33 +18,40 @@ package com.amplifyframework.api.aws;
 import android.net.Uri;
 import android.util.Base64;
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.util.ObjectsCompat;
 
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.ApiException;
-import com.amplifyframework.api.ApiException.ApiAuthException;
+import com.amplifyframework.api.events.ApiChannelEventName;
 import com.amplifyframework.api.graphql.GraphQLRequest;
 import com.amplifyframework.api.graphql.GraphQLResponse;
 import com.amplifyframework.core.Action;
 import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.Consumer;
+import com.amplifyframework.hub.HubChannel;
+import com.amplifyframework.hub.HubEvent;
 import com.amplifyframework.logging.Logger;
 import com.amplifyframework.util.UserAgent;
 
+import com.google.gson.JsonElement;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.lang.reflect.Type;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -57,55 +64,112 @@ import okhttp3.WebSocketListener;
 /**
  * Manages the lifecycle of a single WebSocket connection,
  * and multiple GraphQL subscriptions that work on top of it.
+ *
+ * Subscription registration never blocks the calling thread. A request is
+ * queued against the connection's readiness future, its start message is sent
+ * once the connection is acknowledged, and the outcome is reported through the
+ * caller's callbacks when AppSync acknowledges (or rejects) the subscription.
+ *
+ * If the connection is lost while subscriptions are live, the endpoint reconnects with
+ * jittered exponential backoff and starts those subscriptions again, under their original
+ * ids. Subscribers only see an error once the reconnect budget is exhausted. A
+ * {@link ApiChannelEventName#SUBSCRIPTION_CONNECTION_RESUMED} Hub event is published
+ * after each successful reconnect, so that interested parties can catch up on anything
+ * published while the connection was down.
  */
 final class SubscriptionEndpoint {
+    static final int DEFAULT_MAX_RECONNECT_ATTEMPTS = 5;
     private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-api");
     private static final int CONNECTION_ACKNOWLEDGEMENT_TIMEOUT = 30 /* seconds */;
     private static final int NORMAL_CLOSURE_STATUS = 1000;
     private static final String UNAUTHORIZED_EXCEPTION = "UnauthorizedException";
+    private static final long RECONNECT_BASE_DELAY_MS = 1_000;
+    private static final long RECONNECT_MAX_DELAY_MS = 30_000;
+    private static final int RECONNECT_MAX_EXPONENT = 5;
 
     private final ApiConfiguration apiConfiguration;
     private final SubscriptionAuthorizer authorizer;
     private final Map<String, Subscription<?>> subscriptions;
     private final GraphQLResponse.Factory responseFactory;
     private final TimeoutWatchdog timeoutWatchdog;
-    private final Set<String> pendingSubscriptionIds;
     private final OkHttpClient okHttpClient;
+    private final int maxReconnectAttempts;
+    private final long reconnectBaseDelayMs;
+    // Created with the first connection, and shut down once there is no connection or reconnect left to time.
+    private ScheduledThreadPoolExecutor timeoutScheduler;
     private WebSocket webSocket;
     private AmplifyWebSocketListener webSocketListener;
+    private AuthorizationType connectionAuthType;
+    private boolean reconnecting;
+    private int reconnectAttempt;
 
     SubscriptionEndpoint(
             @NonNull ApiConfiguration apiConfiguration,
             @NonNull GraphQLResponse.Factory responseFactory,
             @NonNull SubscriptionAuthorizer authorizer
     ) throws ApiException {
+        this(apiConfiguration, responseFactory, authorizer, DEFAULT_MAX_RECONNECT_ATTEMPTS);
+    }
+
+    SubscriptionEndpoint(
+            @NonNull ApiConfiguration apiConfiguration,
+            @NonNull GraphQLResponse.Factory responseFactory,
+            @NonNull SubscriptionAuthorizer authorizer,
+            int maxReconnectAttempts
+    ) throws ApiException {
+        this(apiConfiguration, responseFactory, authorizer, maxReconnectAttempts, new OkHttpClient(),
+            RECONNECT_BASE_DELAY_MS);
+    }
+
+    @VisibleForTesting
+    SubscriptionEndpoint(
+            @NonNull ApiConfiguration apiConfiguration,
+            @NonNull GraphQLResponse.Factory responseFactory,
+            @NonNull SubscriptionAuthorizer authorizer,
+            int maxReconnectAttempts,
+            @NonNull OkHttpClient baseClient,
+            long reconnectBaseDelayMs
+    ) {
         this.apiConfiguration = Objects.requireNonNull(apiConfiguration);
         this.subscriptions = new ConcurrentHashMap<>();
         this.responseFactory = Objects.requireNonNull(responseFactory);
         this.authorizer = Objects.requireNonNull(authorizer);
         this.timeoutWatchdog = new TimeoutWatchdog();
-        this.pendingSubscriptionIds = Collections.synchronizedSet(new HashSet<>());
-        this.okHttpClient = new OkHttpClient.Builder()
+        this.okHttpClient = baseClient.newBuilder()
             .addNetworkInterceptor(UserAgentInterceptor.using(UserAgent::string))
             .retryOnConnectionFailure(true)
             .build();
+        this.maxReconnectAttempts = maxReconnectAttempts;
+        this.reconnectBaseDelayMs = reconnectBaseDelayMs;
     }
 
-    synchronized <T> void requestSubscription(
+    <T> String requestSubscription(
         @NonNull GraphQLRequest<T> request,
         @NonNull Consumer<String> onSubscriptionStarted,
         @NonNull Consumer<GraphQLResponse<T>> onNextItem,
         @NonNull Consumer<ApiException> onSubscriptionError,
         @NonNull Action onSubscriptionComplete) {
-        requestSubscription(request,
-                            apiConfiguration.getAuthorizationType(),
-                            onSubscriptionStarted,
-                            onNextItem,
-                            onSubscriptionError,
-                            onSubscriptionComplete);
+        return requestSubscription(request,
+                                   apiConfiguration.getAuthorizationType(),
+                                   onSubscriptionStarted,
+                                   onNextItem,
+                                   onSubscriptionError,
+                                   onSubscriptionComplete);
     }
 
-    synchronized <T> void requestSubscription(
+    /**
+     * Registers a subscription, without waiting for the connection or for AppSync's acknowledgement.
+     * The outcome is delivered to the provided callbacks.
+     * @param request Subscription request
+     * @param authType Authorization type to use for the connection and the subscription
+     * @param onSubscriptionStarted Invoked with the subscription ID once AppSync acknowledges the subscription
+     * @param onNextItem Invoked for each item of subscription data
+     * @param onSubscriptionError Invoked if the subscription fails to start, or fails later on
+     * @param onSubscriptionComplete Invoked when the subscription completes
+     * @param <T> Type of data in the subscription responses
+     * @return The ID assigned to the subscription; may be used to release it, even before it has started
+     */
+    <T> String requestSubscription(
             @NonNull GraphQLRequest<T> request,
             @NonNull AuthorizationType authType,
             @NonNull Consumer<String> onSubscriptionStarted,
@@ -118,80 +182,293 @@ final class SubscriptionEndpoint {
         Objects.requireNonNull(onSubscriptionError);
         Objects.requireNonNull(onSubscriptionComplete);
 
-        // The first call to subscribe OR a disconnected websocket listener will
-        // force a new connection to be created.
-        if (webSocketListener == null || webSocketListener.isDisconnectedState()) {
-            webSocketListener = new AmplifyWebSocketListener();
+        final String subscriptionId = UUID.randomUUID().toString();
+        final String startMessage;
+        try {
+            startMessage = buildStartMessage(subscriptionId, request, authType);
+        } catch (ApiException exception) {
+            onSubscriptionError.accept(exception);
+            return subscriptionId;
+        }
+
+        Subscription<T> subscription = new Subscription<>(
+            subscriptionId, authType, onSubscriptionStarted, onNextItem, onSubscriptionError,
+            onSubscriptionComplete, responseFactory, request
+        );
+        subscription.setStartMessage(startMessage);
+        final AmplifyWebSocketListener listener;
+        synchronized (this) {
             try {
-                webSocket = okHttpClient.newWebSocket(new Request.Builder()
-                    .url(buildConnectionRequestUrl(authType))
-                    .addHeader("Sec-WebSocket-Protocol", "graphql-ws")
-                    .build(), webSocketListener);
+                listener = ensureConnection(authType);
             } catch (ApiException apiException) {
                 onSubscriptionError.accept(apiException);
-                return;
+                return subscriptionId;
             }
-
+            subscriptions.put(subscriptionId, subscription);
         }
-        final String subscriptionId = UUID.randomUUID().toString();
-        pendingSubscriptionIds.add(subscriptionId);
-        // Every request waits here for the connection to be ready.
-        Connection connection = webSocketListener.waitForConnectionReady();
-        if (connection.hasFailure()) {
-            // If the latch didn't count all the way down
-            if (pendingSubscriptionIds.remove(subscriptionId)) {
-                // The subscription was pending, so we need to emit an error.
-                onSubscriptionError.accept(
-                    new ApiException(connection.getFailureReason(), AmplifyException.TODO_RECOVERY_SUGGESTION));
-                return;
+
+        // Flushed as soon as the connection is acknowledged, or immediately if it already was.
+        listener.getConnectionReady().whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                startSubscription(listener, subscription);
+            } else {
+                failQueuedSubscription(subscription, failure);
             }
-        }
+        });
+        return subscriptionId;
+    }
 
+    private String buildStartMessage(String subscriptionId, GraphQLRequest<?> request, AuthorizationType authType)
+            throws ApiException {
         try {
-            webSocket.send(new JSONObject()
+            return new JSONObject()
                 .put("id", subscriptionId)
                 .put("type", "start")
                 .put("payload", new JSONObject()
                 .put("data", request.getContent())
                 .put("extensions", new JSONObject()
                 .put("authorization", authorizer.createHeadersForSubscription(request, authType))))
-                .toString()
+                .toString();
+        } catch (JSONException jsonException) {
+            throw new ApiException(
+                "Failed to construct subscription registration message.",
+                jsonException,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
             );
-        } catch (JSONException | ApiException exception) {
-            // If the subscriptionId was still pending, then we can call the onSubscriptionError
-            if (pendingSubscriptionIds.remove(subscriptionId)) {
-                if (exception instanceof ApiAuthException) {
-                    // Don't wrap it if it's an ApiAuthException.
-                    onSubscriptionError.accept((ApiAuthException) exception);
-                } else {
-                    onSubscriptionError.accept(new ApiException(
-                        "Failed to construct subscription registration message.",
-                        exception,
-                        AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
+        }
+    }
+
+    // The first call to subscribe OR a disconnected websocket listener will
+    // force a new connection to be created. Must be called while holding the lock on this.
+    private AmplifyWebSocketListener ensureConnection(AuthorizationType authType) throws ApiException {
+        if (webSocketListener == null || webSocketListener.isDisconnectedState()) {
+            AmplifyWebSocketListener listener = new AmplifyWebSocketListener();
+            webSocket = okHttpClient.newWebSocket(new Request.Builder()
+                .url(buildConnectionRequestUrl(authType))
+                .addHeader("Sec-WebSocket-Protocol", "graphql-ws")
+                .build(), listener);
+            listener.socket = webSocket;
+            webSocketListener = listener;
+            connectionAuthType = authType;
+            schedule(listener::onConnectionTimeout, CONNECTION_ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS);
+        }
+        return webSocketListener;
+    }
+
+    private synchronized ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        if (timeoutScheduler == null) {
+            timeoutScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "amplify-subscription-timeouts");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Timers left at shutdown belong to the connection being torn down, so they are dropped with it.
+            timeoutScheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        return timeoutScheduler.schedule(task, delay, unit);
+    }
+
+    // Called once the connection is finally torn down. Must be called while holding the lock on this.
+    private void shutDownScheduler() {
+        if (timeoutScheduler != null) {
+            timeoutScheduler.shutdown();
+            timeoutScheduler = null;
+        }
+    }
+
+    @VisibleForTesting
+    synchronized boolean isTimeoutSchedulerRunning() {
+        return timeoutScheduler != null;
+    }
+
+    private void startSubscription(AmplifyWebSocketListener listener, Subscription<?> subscription) {
+        // If the subscription was released or failed while it was queued, there is nothing to start.
+        if (!subscription.transition(Subscription.State.QUEUED, Subscription.State.STARTING)) {
+            return;
+        }
+        subscription.setAcknowledgementTimer(schedule(
+            () -> onStartAcknowledgementTimeout(subscription), Subscription.ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS
+        ));
+        listener.send(subscription.getStartMessage());
+    }
+
+    private void failQueuedSubscription(Subscription<?> subscription, Throwable failure) {
+        // While reconnecting, queued subscriptions stay queued; they'll be started on the next connection.
+        if (isReconnecting()) {
+            return;
+        }
+        if (!subscription.transition(Subscription.State.QUEUED, Subscription.State.FAILED)) {
+            return;
+        }
+        removeSubscription(subscription);
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ?
+            failure.getCause() : failure;
+        if (cause instanceof ApiException) {
+            subscription.dispatchError((ApiException) cause);
+        } else {
+            subscription.dispatchError(new ApiException(
+                "Subscription connection failed.", cause, AmplifyException.TODO_RECOVERY_SUGGESTION
+            ));
+        }
+    }
+
+    private synchronized boolean isReconnecting() {
+        return reconnecting;
+    }
+
+    /**
+     * Called when a connection is lost. If there are live subscriptions and reconnect attempts remain,
+     * the live subscriptions are queued again and a reconnect is scheduled.
+     * @param listener The listener whose connection was lost
+     * @param mayReconnect Whether the loss is of a kind that a reconnect could fix
+     * @return What will be done about the loss
+     */
+    private synchronized ConnectionLoss onConnectionLost(AmplifyWebSocketListener listener, boolean mayReconnect) {
+        if (listener != webSocketListener) {
+            // Either this endpoint closed the connection itself, or a newer connection has replaced it.
+            return ConnectionLoss.STALE;
+        }
+        webSocketListener = null;
+        webSocket = null;
+        timeoutWatchdog.stop();
+
+        boolean hasLiveSubscriptions = false;
+        for (Subscription<?> subscription : subscriptions.values()) {
+            if (!Subscription.State.RELEASING.equals(subscription.getState()) &&
+                    !Subscription.State.FAILED.equals(subscription.getState())) {
+                hasLiveSubscriptions = true;
+                break;
+            }
+        }
+        if (!mayReconnect || !hasLiveSubscriptions || reconnectAttempt >= maxReconnectAttempts) {
+            reconnecting = false;
+            reconnectAttempt = 0;
+            shutDownScheduler();
+            return ConnectionLoss.FINAL;
+        }
+
+        reconnecting = true;
+        for (Subscription<?> subscription : subscriptions.values()) {
+            if (subscription.transition(Subscription.State.ACTIVE, Subscription.State.QUEUED) ||
+                    subscription.transition(Subscription.State.STARTING, Subscription.State.QUEUED)) {
+                subscription.cancelAcknowledgementTimer();
+            } else if (Subscription.State.RELEASING.equals(subscription.getState())) {
+                // The stop can't be acknowledged on a dead connection; there is nothing left to do.
+                subscription.cancelAcknowledgementTimer();
+                subscriptions.remove(subscription.getId(), subscription);
+            }
+        }
+        long delayMs = jitteredReconnectDelayMs(reconnectAttempt++);
+        LOG.info("Subscription connection lost. Reconnect attempt " + reconnectAttempt + " of " +
+            maxReconnectAttempts + " in " + delayMs + "ms.");
+        schedule(this::reconnect, delayMs, TimeUnit.MILLISECONDS);
+        return ConnectionLoss.RECONNECTING;
+    }
+
+    private long jitteredReconnectDelayMs(int attempt) {
+        long exponential = reconnectBaseDelayMs << Math.min(attempt, RECONNECT_MAX_EXPONENT);
+        long ceiling = Math.min(RECONNECT_MAX_DELAY_MS, exponential);
+        // "Equal jitter": half of the window is fixed, the other half is random.
+        return ceiling / 2 + (long) (Math.random() * (ceiling / 2));
+    }
+
+    private void reconnect() {
+        final List<Subscription<?>> queued = new ArrayList<>();
+        synchronized (this) {
+            if (!reconnecting) {
+                return;
+            }
+            for (Subscription<?> subscription : subscriptions.values()) {
+                if (Subscription.State.QUEUED.equals(subscription.getState())) {
+                    queued.add(subscription);
                 }
+            }
+            if (queued.isEmpty()) {
+                // Everything was released while we were waiting.
+                reconnecting = false;
+                reconnectAttempt = 0;
+                shutDownScheduler();
+                return;
+            }
+        }
 
+        // Authorization in the original start messages may have expired by now, so build them again.
+        for (Subscription<?> subscription : queued) {
+            try {
+                subscription.setStartMessage(buildStartMessage(
+                    subscription.getId(), subscription.getRequest(), subscription.getAuthType()
+                ));
+            } catch (ApiException exception) {
+                LOG.warn("Unable to refresh start message for subscription " + subscription.getId(), exception);
             }
-            return;
         }
 
-        Subscription<T> subscription = new Subscription<>(
-            onNextItem, onSubscriptionError, onSubscriptionComplete,
-            responseFactory, request.getResponseType(), request
-        );
-        subscriptions.put(subscriptionId, subscription);
-        if (subscription.awaitSubscriptionReady()) {
-            pendingSubscriptionIds.remove(subscriptionId);
-            onSubscriptionStarted.accept(subscriptionId);
+        final AmplifyWebSocketListener listener;
+        synchronized (this) {
+            try {
+                listener = ensureConnection(connectionAuthType);
+            } catch (ApiException exception) {
+                reconnecting = false;
+                reconnectAttempt = 0;
+                shutDownScheduler();
+                for (Subscription<?> subscription : queued) {
+                    failQueuedSubscription(subscription, exception);
+                }
+                return;
+            }
+        }
+
+        listener.getConnectionReady().whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                // Either the next attempt has been scheduled, or the budget is spent and this fails them.
+                for (Subscription<?> subscription : queued) {
+                    failQueuedSubscription(subscription, failure);
+                }
+                return;
+            }
+            synchronized (SubscriptionEndpoint.this) {
+                reconnecting = false;
+                reconnectAttempt = 0;
+            }
+            for (Subscription<?> subscription : queued) {
+                startSubscription(listener, subscription);
+            }
+            LOG.info("Subscription connection resumed; restarted " + queued.size() + " subscription(s).");
+            Amplify.Hub.publish(HubChannel.API, HubEvent.create(ApiChannelEventName.SUBSCRIPTION_CONNECTION_RESUMED));
+        });
+    }
+
+    private void onStartAcknowledgementTimeout(Subscription<?> subscription) {
+        if (subscription.transition(Subscription.State.STARTING, Subscription.State.FAILED)) {
+            removeSubscription(subscription);
+            subscription.dispatchError(new ApiException(
+                "Timed out waiting for subscription start_ack.",
+                "Check your Internet connection. Is your device online?"
+            ));
+        }
+    }
+
+    private void onCompletionAcknowledgementTimeout(Subscription<?> subscription) {
+        if (Subscription.State.RELEASING.equals(subscription.getState()) &&
+                subscriptions.remove(subscription.getId(), subscription)) {
+            subscription.dispatchError(new ApiException(
+                "Subscription completion not acknowledged.",
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            ));
+            closeIfIdle();
         }
     }
 
     private void notifySubscriptionAcknowledged(final String subscriptionId) throws ApiException {
         Subscription<?> subscription = subscriptions.get(subscriptionId);
-        // If the subscription is still present (and it should also be pending if it hasn't been canceled),
+        // If the subscription is still present and still starting (it hasn't been canceled),
         // then invoke the callback
-        if (subscription != null && pendingSubscriptionIds.remove(subscriptionId)) {
-            subscription.acknowledgeSubscriptionReady();
+        if (subscription != null && subscription.transition(Subscription.State.STARTING, Subscription.State.ACTIVE)) {
+            subscription.cancelAcknowledgementTimer();
+            subscription.dispatchStarted();
+        } else if (subscription != null && Subscription.State.RELEASING.equals(subscription.getState())) {
+            // Released while starting. A stop message was already sent; wait for its completion.
+            LOG.debug("Acknowledgement for a subscription that is being released: " + subscriptionId);
         } else {
             throw new ApiException(
                 "Acknowledgement for unknown subscription: " + subscriptionId,
@@ -202,8 +479,9 @@ final class SubscriptionEndpoint {
 
     private void notifySubscriptionFailure(final String subscriptionId) {
         Subscription<?> subscription = subscriptions.get(subscriptionId);
-        if (subscription != null && pendingSubscriptionIds.remove(subscriptionId)) {
-            subscription.acknowledgeSubscriptionFailure();
+        if (subscription != null && subscription.transition(Subscription.State.STARTING, Subscription.State.FAILED)) {
+            subscription.cancelAcknowledgementTimer();
+            removeSubscription(subscription);
         }
     }
 
@@ -225,11 +503,34 @@ final class SubscriptionEndpoint {
         }
 
         dispatcher.dispatchCompleted();
-        dispatcher.acknowledgeSubscriptionCompleted();
+        if (Subscription.State.RELEASING.equals(dispatcher.getState())) {
+            dispatcher.cancelAcknowledgementTimer();
+            removeSubscription(dispatcher);
+        }
     }
 
     private void notifyError(Throwable error) {
         for (Subscription<?> dispatcher : new HashSet<>(subscriptions.values())) {
+            switch (dispatcher.getState()) {
+                case STARTING:
+                    // Started, but never acknowledged; it will not be, now.
+                    if (!dispatcher.transition(Subscription.State.STARTING, Subscription.State.FAILED)) {
+                        continue;
+                    }
+                    dispatcher.cancelAcknowledgementTimer();
+                    subscriptions.remove(dispatcher.getId(), dispatcher);
+                    break;
+                case RELEASING:
+                    // Already released by its owner, so there is no one to tell.
+                    dispatcher.cancelAcknowledgementTimer();
+                    subscriptions.remove(dispatcher.getId(), dispatcher);
+                    continue;
+                case ACTIVE:
+                    break;
+                default:
+                    // Queued subscriptions are failed by the connection future.
+                    continue;
+            }
             dispatcher.dispatchError(new ApiException(
                 "Subscription failed.", error,
                 "Check your Internet connection. Is your device online?"
@@ -237,7 +538,7 @@ final class SubscriptionEndpoint {
         }
     }
 
-    private void notifySubscriptionData(String subscriptionId, String data) throws ApiException {
+    private void notifySubscriptionData(String subscriptionId, JsonElement data) throws ApiException {
         final Subscription<?> dispatcher = subscriptions.get(subscriptionId);
         if (dispatcher == null) {
             throw new ApiException(
@@ -248,45 +549,79 @@ final class SubscriptionEndpoint {
         dispatcher.dispatchNextMessage(data);
     }
 
-    synchronized void releaseSubscription(String subscriptionId) throws ApiException {
-        // First thing we should do is remove it from the pending subscription collection so
-        // the other methods can't grab a hold of the subscription.
+    /**
+     * Releases a subscription. If the subscription was started, a stop message is sent and the
+     * subscription is removed once AppSync completes it. This method does not wait for that to happen.
+     * @param subscriptionId ID of a subscription, as returned from requestSubscription
+     * @throws ApiException If there is no such subscription, or the stop message can't be built
+     */
+    void releaseSubscription(String subscriptionId) throws ApiException {
         final Subscription<?> subscription = subscriptions.get(subscriptionId);
-        boolean wasSubscriptionPending = pendingSubscriptionIds.remove(subscriptionId);
-        // If the subscription was not in the either of the subscriptions collections.
-        if (subscription == null && !wasSubscriptionPending) {
+        if (subscription == null) {
             throw new ApiException(
                 "No existing subscription with the given id.",
                 AmplifyException.TODO_RECOVERY_SUGGESTION
             );
         }
 
-        // Only do this if the subscription was NOT pending.
-        // Otherwise it would probably fail since it was never established in the first place.
+        // Mark it first, so that the other methods can't move it along any further.
+        final Subscription.State previousState = subscription.markReleasing();
+        if (Subscription.State.RELEASING.equals(previousState)) {
+            return;
+        }
+        subscription.cancelAcknowledgementTimer();
+
+        final AmplifyWebSocketListener listener;
+        synchronized (this) {
+            listener = webSocketListener;
+        }
+        boolean wasStartSent = Subscription.State.STARTING.equals(previousState) ||
+            Subscription.State.ACTIVE.equals(previousState);
 
-        if (!wasSubscriptionPending && !webSocketListener.isDisconnectedState()) {
+        // Only send a stop if a start was sent. Otherwise it would probably fail since
+        // it was never established in the first place.
+        if (wasStartSent && listener != null && !listener.isDisconnectedState()) {
+            final String stopMessage;
             try {
-                webSocket.send(new JSONObject()
+                stopMessage = new JSONObject()
                     .put("type", "stop")
                     .put("id", subscriptionId)
-                    .toString());
+                    .toString();
             } catch (JSONException jsonException) {
+                removeSubscription(subscription);
                 throw new ApiException(
                     "Failed to construct subscription release message.",
                     jsonException,
                     AmplifyException.TODO_RECOVERY_SUGGESTION
                 );
             }
-            subscription.awaitSubscriptionCompleted();
+            subscription.setAcknowledgementTimer(schedule(
+                () -> onCompletionAcknowledgementTimeout(subscription),
+                Subscription.ACKNOWLEDGEMENT_TIMEOUT,
+                TimeUnit.SECONDS
+            ));
+            listener.send(stopMessage);
+            return;
         }
 
-        subscriptions.remove(subscriptionId);
+        removeSubscription(subscription);
+    }
+
+    private void removeSubscription(Subscription<?> subscription) {
+        if (subscriptions.remove(subscription.getId(), subscription)) {
+            closeIfIdle();
+        }
+    }
 
+    private synchronized void closeIfIdle() {
         // If we have zero subscriptions, close the WebSocket
-        if (subscriptions.size() == 0) {
+        if (subscriptions.isEmpty() && webSocket != null) {
             LOG.info("No more active subscriptions. Closing web socket.");
             timeoutWatchdog.stop();
             webSocket.close(NORMAL_CLOSURE_STATUS, "No active subscriptions");
+            webSocket = null;
+            webSocketListener = null;
+            shutDownScheduler();
         }
     }
 
@@ -337,92 +672,105 @@ final class SubscriptionEndpoint {
     }
 
     static final class Subscription<T> {
-        private static final int ACKNOWLEDGEMENT_TIMEOUT = 10 /* seconds */;
+        static final int ACKNOWLEDGEMENT_TIMEOUT = 10 /* seconds */;
 
+        private final String id;
+        private final AuthorizationType authType;
+        private final Consumer<String> onSubscriptionStarted;
         private final Consumer<GraphQLResponse<T>> onNextItem;
         private final Consumer<ApiException> onSubscriptionError;
         private final Action onSubscriptionComplete;
         private final GraphQLResponse.Factory responseFactory;
         private final Type responseType;
         private final GraphQLRequest<T> request;
-        private final CountDownLatch subscriptionReadyAcknowledgment;
-        private final CountDownLatch subscriptionCompletionAcknowledgement;
-        private boolean failed;
+        private final AtomicReference<State> state;
+        private volatile String startMessage;
+        private volatile ScheduledFuture<?> acknowledgementTimer;
+        private volatile boolean started;
 
         Subscription(
+                String id,
+                AuthorizationType authType,
+                Consumer<String> onSubscriptionStarted,
                 Consumer<GraphQLResponse<T>> onNextItem,
                 Consumer<ApiException> onSubscriptionError,
                 Action onSubscriptionComplete,
                 GraphQLResponse.Factory responseFactory,
-                Type responseType,
                 GraphQLRequest<T> request) {
+            this.id = id;
+            this.authType = authType;
+            this.onSubscriptionStarted = onSubscriptionStarted;
             this.onNextItem = onNextItem;
             this.onSubscriptionError = onSubscriptionError;
             this.onSubscriptionComplete = onSubscriptionComplete;
             this.responseFactory = responseFactory;
-            this.responseType = responseType;
+            this.responseType = request.getResponseType();
             this.request = request;
-            this.subscriptionReadyAcknowledgment = new CountDownLatch(1);
-            this.subscriptionCompletionAcknowledgement = new CountDownLatch(1);
-            this.failed = false;
+            this.state = new AtomicReference<>(State.QUEUED);
         }
 
-        void acknowledgeSubscriptionReady() {
-            subscriptionReadyAcknowledgment.countDown();
+        String getId() {
+            return id;
         }
 
-        void acknowledgeSubscriptionFailure() {
-            failed = true;
-            subscriptionReadyAcknowledgment.countDown();
+        String getStartMessage() {
+            return startMessage;
         }
 
-        boolean awaitSubscriptionReady() {
-            try {
-                if (!subscriptionReadyAcknowledgment.await(ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS)) {
-                    dispatchError(new ApiException(
-                        "Timed out waiting for subscription start_ack.",
-                        "Check your Internet connection. Is your device online?"
-                    ));
-                    return false;
-                } else if (failed) {
-                    // An error was already dispatched at the time of failure, so don't dispatch a second one.
-                    return false;
-                }
-            } catch (InterruptedException interruptedException) {
-                // Triggered when the Future created in SubscriptionOperation is cancelled, which happens when the
-                // subscription Observable is disposed, which happens when a SUBSCRIPTION_ERROR occurs.  Don't dispatch
-                // any error because the caller has likely already been disposed.
-                LOG.warn("Thread interrupted awaiting subscription acknowledgement.", interruptedException);
-                return false;
-            }
+        void setStartMessage(String startMessage) {
+            this.startMessage = startMessage;
+        }
 
-            return true;
+        AuthorizationType getAuthType() {
+            return authType;
         }
 
-        void acknowledgeSubscriptionCompleted() {
-            subscriptionCompletionAcknowledgement.countDown();
+        GraphQLRequest<T> getRequest() {
+            return request;
         }
 
-        void awaitSubscriptionCompleted() {
-            try {
-                if (!subscriptionCompletionAcknowledgement.await(ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS)) {
-                    dispatchError(new ApiException(
-                        "Subscription completion not acknowledged.",
-                        AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
-                }
-            } catch (InterruptedException interruptedException) {
-                dispatchError(new ApiException(
-                    "Thread interrupted awaiting subscription completion.",
-                    interruptedException,
-                    AmplifyException.TODO_RECOVERY_SUGGESTION
-                ));
+        State getState() {
+            return state.get();
+        }
+
+        boolean transition(State expected, State next) {
+            return state.compareAndSet(expected, next);
+        }
+
+        State markReleasing() {
+            return state.getAndSet(State.RELEASING);
+        }
+
+        void setAcknowledgementTimer(ScheduledFuture<?> timer) {
+            cancelAcknowledgementTimer();
+            acknowledgementTimer = timer;
+        }
+
+        void cancelAcknowledgementTimer() {
+            ScheduledFuture<?> timer = acknowledgementTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+
+        void dispatchStarted() {
+            // A subscription that was restarted after a reconnect has already been reported as started.
+            if (!started) {
+                started = true;
+                onSubscriptionStarted.accept(id);
             }
         }
 
-        void dispatchNextMessage(String message) {
+        void dispatchNextMessage(JsonElement message) {
             try {
-                onNextItem.accept(responseFactory.buildResponse(request, message));
+                final GraphQLResponse<T> response;
+                if (responseFactory instanceof GsonGraphQLResponseFactory) {
+                    // Deserialize the already-parsed payload directly, without a second parse.
+                    response = ((GsonGraphQLResponseFactory) responseFactory).buildResponse(request, message);
+                } else {
+                    response = responseFactory.buildResponse(request, String.valueOf(message));
+                }
+                onNextItem.accept(response);
             } catch (ApiException exception) {
                 dispatchError(exception);
             }
@@ -447,6 +795,9 @@ final class SubscriptionEndpoint {
 
             Subscription<?> that = (Subscription<?>) thatObject;
 
+            if (!ObjectsCompat.equals(id, that.id)) {
+                return false;
+            }
             if (!ObjectsCompat.equals(onNextItem, that.onNextItem)) {
                 return false;
             }
@@ -459,47 +810,45 @@ final class SubscriptionEndpoint {
             if (!ObjectsCompat.equals(responseFactory, that.responseFactory)) {
                 return false;
             }
-            if (!ObjectsCompat.equals(responseType, that.responseType)) {
-                return false;
-            }
-            if (!ObjectsCompat.equals(subscriptionReadyAcknowledgment, that.subscriptionReadyAcknowledgment)) {
-                return false;
-            }
-            return ObjectsCompat.equals(
-                    subscriptionCompletionAcknowledgement,
-                    that.subscriptionCompletionAcknowledgement
-            );
+            return ObjectsCompat.equals(responseType, that.responseType);
         }
 
         @Override
         public int hashCode() {
-            int result = onNextItem.hashCode();
+            int result = id.hashCode();
+            result = 31 * result + onNextItem.hashCode();
             result = 31 * result + onSubscriptionError.hashCode();
             result = 31 * result + onSubscriptionComplete.hashCode();
             result = 31 * result + responseFactory.hashCode();
             result = 31 * result + responseType.hashCode();
-            result = 31 * result + subscriptionReadyAcknowledgment.hashCode();
-            result = 31 * result + subscriptionCompletionAcknowledgement.hashCode();
             return result;
         }
+
+        /**
+         * Lifecycle of a subscription, from the endpoint's point of view.
+         */
+        enum State {
+            QUEUED,
+            STARTING,
+            ACTIVE,
+            RELEASING,
+            FAILED
+        }
     }
 
     final class AmplifyWebSocketListener extends WebSocketListener {
-        private final CountDownLatch connectionResponse;
+        private final CompletableFuture<Void> connectionReady;
         private final AtomicReference<EndpointStatus> endpointStatus;
-        private OkHttpClient okHttpClient;
+        private volatile WebSocket socket;
 
         AmplifyWebSocketListener() {
-            this(new CountDownLatch(1));
-        }
-
-        AmplifyWebSocketListener(CountDownLatch latch) {
-            this.connectionResponse = latch;
-            this.endpointStatus = new AtomicReference<>(EndpointStatus.DISCONNECTED);
+            this.connectionReady = new CompletableFuture<>();
+            this.endpointStatus = new AtomicReference<>(EndpointStatus.CONNECTING);
         }
 
         @Override
         public void onOpen(@NonNull final WebSocket webSocket, @NonNull final Response response) {
+            this.socket = webSocket;
             sendConnectionInit(webSocket);
         }
 
@@ -514,7 +863,11 @@ final class SubscriptionEndpoint {
 
         @Override
         public void onClosing(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
-            notifyAllSubscriptionsCompleted();
+            ConnectionLoss connectionLoss = onConnectionLost(this, true);
+            failConnection("WebSocket closed before the connection was acknowledged.");
+            if (ConnectionLoss.FINAL.equals(connectionLoss)) {
+                notifyAllSubscriptionsCompleted();
+            }
         }
 
         @Override
@@ -522,10 +875,15 @@ final class SubscriptionEndpoint {
             LOG.warn("Websocket connection failed.", failure);
             endpointStatus.set(EndpointStatus.CONNECTION_FAILED);
             webSocket.cancel();
-            // This will free up any pending subscriptions that haven't been established yet.
-            connectionResponse.countDown();
+            ConnectionLoss connectionLoss = onConnectionLost(this, true);
+            // This will fail any queued subscriptions that haven't been started yet, unless reconnecting.
+            connectionReady.completeExceptionally(
+                new ApiException("Connection failed.", failure, AmplifyException.TODO_RECOVERY_SUGGESTION)
+            );
             // This will broadcast the error to all subscriptions
-            notifyError(failure);
+            if (ConnectionLoss.FINAL.equals(connectionLoss)) {
+                notifyError(failure);
+            }
         }
 
         @Override
@@ -538,21 +896,44 @@ final class SubscriptionEndpoint {
             return endpointStatus.get().isDisconnectedState();
         }
 
-        public Connection waitForConnectionReady() {
-            try {
-                if (!connectionResponse.await(CONNECTION_ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS)) {
-                    LOG.warn("Timed out waiting for connection acknowledgement.");
-                    return new Connection("Timed out waiting for connection acknowledgement.");
+        /**
+         * Gets a future which completes when the connection is acknowledged, or fails
+         * if the connection can't be established.
+         * @return Connection readiness future
+         */
+        CompletableFuture<Void> getConnectionReady() {
+            return connectionReady;
+        }
+
+        void send(String message) {
+            WebSocket current = socket;
+            if (current == null || !current.send(message)) {
+                LOG.warn("Unable to send message over subscription WebSocket.");
+            }
+        }
+
+        void onConnectionTimeout() {
+            if (endpointStatus.compareAndSet(EndpointStatus.CONNECTING, EndpointStatus.CONNECTION_FAILED)) {
+                LOG.warn("Timed out waiting for connection acknowledgement.");
+                // Decide whether to reconnect before failing the queue, so queued subscriptions are kept if so.
+                onConnectionLost(this, true);
+                connectionReady.completeExceptionally(new ApiException(
+                    "Timed out waiting for connection acknowledgement.",
+                    "Check your Internet connection. Is your device online?"
+                ));
+                WebSocket current = socket;
+                if (current != null) {
+                    current.cancel();
                 }
-            } catch (InterruptedException exception) {
-                LOG.warn("Thread interrupted waiting for connection acknowledgement");
-                return new Connection("Thread interrupted waiting for connection acknowledgement");
             }
-            LOG.debug("Current endpoint status: " + endpointStatus.get());
-            if (EndpointStatus.CONNECTION_FAILED.equals(endpointStatus.get())) {
-                return new Connection("Connection failed.");
+        }
+
+        private void failConnection(String reason) {
+            if (endpointStatus.compareAndSet(EndpointStatus.CONNECTING, EndpointStatus.CONNECTION_FAILED)) {
+                connectionReady.completeExceptionally(
+                    new ApiException(reason, AmplifyException.TODO_RECOVERY_SUGGESTION)
+                );
             }
-            return new Connection();
         }
 
         private void sendConnectionInit(WebSocket webSocket) {
@@ -566,52 +947,58 @@ final class SubscriptionEndpoint {
         }
 
         private void processJsonMessage(WebSocket webSocket, String message) throws ApiException {
+            final SubscriptionMessage subscriptionMessage = SubscriptionMessage.decode(message);
+            final SubscriptionMessageType subscriptionMessageType = subscriptionMessage.getType();
+
+            switch (subscriptionMessageType) {
+                case CONNECTION_ACK:
+                    timeoutWatchdog.start(() -> webSocket.close(
+                            NORMAL_CLOSURE_STATUS,
+                            "WebSocket closed due to timeout."
+                        ),
+                        parseConnectionTimeout(subscriptionMessage)
+                    );
+                    endpointStatus.set(EndpointStatus.CONNECTED);
+                    LOG.debug("Current endpoint status: " + endpointStatus.get());
+                    // Flushes every subscription that was queued while the connection was pending.
+                    connectionReady.complete(null);
+                    break;
+                case CONNECTION_ERROR:
+                    LOG.warn("Websocket listener received a CONNECTION_ERROR event. " + message);
+                    // The service rejected the connection itself, which a retry won't fix.
+                    onConnectionLost(this, false);
+                    webSocket.cancel();
+                    failConnection("Connection failed.");
+                    break;
+                case SUBSCRIPTION_ACK:
+                    notifySubscriptionAcknowledged(subscriptionMessage.requireId());
+                    break;
+                case SUBSCRIPTION_COMPLETE:
+                    notifySubscriptionCompleted(subscriptionMessage.requireId());
+                    break;
+                case CONNECTION_KEEP_ALIVE:
+                    timeoutWatchdog.reset();
+                    break;
+                case SUBSCRIPTION_ERROR:
+                    notifySubscriptionData(subscriptionMessage.requireId(), subscriptionMessage.getPayload());
+                    notifySubscriptionFailure(subscriptionMessage.requireId());
+                    break;
+                case SUBSCRIPTION_DATA:
+                    notifySubscriptionData(subscriptionMessage.requireId(), subscriptionMessage.getPayload());
+                    break;
+                default:
+                    notifyError(new ApiException(
+                        "Got unknown message type: " + subscriptionMessageType,
+                        AmplifyException.TODO_RECOVERY_SUGGESTION
+                    ));
+            }
+        }
+
+        private int parseConnectionTimeout(SubscriptionMessage subscriptionMessage) throws ApiException {
+            JsonElement connectionTimeout = subscriptionMessage.requirePayloadObject().get("connectionTimeoutMs");
             try {
-                final JSONObject jsonMessage = new JSONObject(message);
-                final SubscriptionMessageType subscriptionMessageType =
-                    SubscriptionMessageType.from(jsonMessage.getString("type"));
-
-                switch (subscriptionMessageType) {
-                    case CONNECTION_ACK:
-                        timeoutWatchdog.start(() -> webSocket.close(
-                                NORMAL_CLOSURE_STATUS,
-                                "WebSocket closed due to timeout."
-                            ),
-                            Integer.parseInt(
-                                jsonMessage.getJSONObject("payload").getString("connectionTimeoutMs")
-                            )
-                        );
-                        endpointStatus.set(EndpointStatus.CONNECTED);
-                        connectionResponse.countDown();
-                        break;
-                    case CONNECTION_ERROR:
-                        endpointStatus.set(EndpointStatus.CONNECTION_FAILED);
-                        LOG.warn("Websocket listener received a CONNECTION_ERROR event. " + message);
-                        connectionResponse.countDown();
-                        break;
-                    case SUBSCRIPTION_ACK:
-                        notifySubscriptionAcknowledged(jsonMessage.getString("id"));
-                        break;
-                    case SUBSCRIPTION_COMPLETE:
-                        notifySubscriptionCompleted(jsonMessage.getString("id"));
-                        break;
-                    case CONNECTION_KEEP_ALIVE:
-                        timeoutWatchdog.reset();
-                        break;
-                    case SUBSCRIPTION_ERROR:
-                        notifySubscriptionFailure(jsonMessage.getString("id"));
-                        notifySubscriptionData(jsonMessage.getString("id"), jsonMessage.getString("payload"));
-                        break;
-                    case SUBSCRIPTION_DATA:
-                        notifySubscriptionData(jsonMessage.getString("id"), jsonMessage.getString("payload"));
-                        break;
-                    default:
-                        notifyError(new ApiException(
-                            "Got unknown message type: " + subscriptionMessageType,
-                            AmplifyException.TODO_RECOVERY_SUGGESTION
-                        ));
-                }
-            } catch (JSONException exception) {
+                return connectionTimeout.getAsInt();
+            } catch (RuntimeException exception) {
                 throw new ApiException(
                     "Error processing Json message in subscription endpoint.",
                     exception,
@@ -621,24 +1008,24 @@ final class SubscriptionEndpoint {
         }
     }
 
-    static final class Connection {
-        private final String failureReason;
-
-        Connection() {
-            this.failureReason = null;
-        }
-
-        Connection(String failureReason) {
-            this.failureReason = failureReason;
-        }
-
-        public String getFailureReason() {
-            return failureReason;
-        }
-
-        public boolean hasFailure() {
-            return failureReason != null;
-        }
+    /**
+     * What becomes of the subscriptions when a connection is lost.
+     */
+    enum ConnectionLoss {
+        /**
+         * The connection was no longer the endpoint's current connection; nothing to do.
+         */
+        STALE,
+
+        /**
+         * A reconnect has been scheduled; subscriptions will be started again.
+         */
+        RECONNECTING,
+
+        /**
+         * No reconnect will be attempted; subscriptions must be told.
+         */
+        FINAL
     }
 
     enum EndpointStatus {
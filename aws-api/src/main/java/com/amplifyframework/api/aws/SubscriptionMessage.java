@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.ApiException;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * A single frame received over the subscription WebSocket, decoded in one pass.
+ *
+ * The envelope ({@code type} and {@code id}) is read with a streaming {@link JsonReader}.
+ * The {@code payload} is materialized once as a Gson {@link JsonElement}, so that it can
+ * be handed straight to the {@link GsonGraphQLResponseFactory} without being re-serialized
+ * to a String and parsed a second time. Keep-alive frames are recognized as soon as their
+ * type is read, and do not allocate a tree at all.
+ */
+final class SubscriptionMessage {
+    private static final SubscriptionMessage KEEP_ALIVE =
+        new SubscriptionMessage(SubscriptionMessageType.CONNECTION_KEEP_ALIVE, null, null);
+
+    private final SubscriptionMessageType type;
+    private final String id;
+    private final JsonElement payload;
+
+    private SubscriptionMessage(SubscriptionMessageType type, String id, JsonElement payload) {
+        this.type = type;
+        this.id = id;
+        this.payload = payload;
+    }
+
+    /**
+     * Decodes a raw WebSocket frame into a subscription message.
+     * @param frame Text of a WebSocket frame, as received from AppSync
+     * @return A decoded subscription message
+     * @throws ApiException If the frame is not a well-formed subscription message
+     */
+    @NonNull
+    static SubscriptionMessage decode(@NonNull String frame) throws ApiException {
+        SubscriptionMessageType type = null;
+        String id = null;
+        JsonElement payload = null;
+        try (JsonReader reader = new JsonReader(new StringReader(frame))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "type":
+                        type = SubscriptionMessageType.from(reader.nextString());
+                        if (SubscriptionMessageType.CONNECTION_KEEP_ALIVE.equals(type)) {
+                            // Nothing else in a keep-alive frame is of interest.
+                            return KEEP_ALIVE;
+                        }
+                        break;
+                    case "id":
+                        if (JsonToken.NULL.equals(reader.peek())) {
+                            reader.nextNull();
+                        } else {
+                            id = reader.nextString();
+                        }
+                        break;
+                    case "payload":
+                        payload = JsonParser.parseReader(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | IllegalArgumentException | JsonParseException exception) {
+            throw new ApiException(
+                "Error processing Json message in subscription endpoint.",
+                exception,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        if (type == null) {
+            throw new ApiException(
+                "Subscription message did not contain a type.",
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        return new SubscriptionMessage(type, id, payload);
+    }
+
+    /**
+     * Gets the type of the message.
+     * @return Message type
+     */
+    @NonNull
+    SubscriptionMessageType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the subscription to which this message pertains.
+     * @return Subscription ID
+     * @throws ApiException If the message did not contain an ID
+     */
+    @NonNull
+    String requireId() throws ApiException {
+        if (id == null) {
+            throw new ApiException(
+                "Subscription message of type " + type + " did not contain an id.",
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        return id;
+    }
+
+    /**
+     * Gets the payload of the message, if there was one.
+     * @return Message payload, possibly null
+     */
+    @Nullable
+    JsonElement getPayload() {
+        return payload;
+    }
+
+    /**
+     * Gets the payload of the message as a JSON object.
+     * @return Payload object
+     * @throws ApiException If the message had no payload, or the payload was not an object
+     */
+    @NonNull
+    JsonObject requirePayloadObject() throws ApiException {
+        if (payload == null || !payload.isJsonObject()) {
+            throw new ApiException(
+                "Subscription message of type " + type + " did not contain a payload object.",
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        return payload.getAsJsonObject();
+    }
+}
@@ -43,7 +43,10 @@ final class SubscriptionOperation<T> extends GraphQLOperation<T> {
     private final AtomicBoolean canceled;
     private final AuthorizationType authorizationType;
 
+    // Guarded by this operation.
     private String subscriptionId;
+    private String pendingSubscriptionId;
+    private boolean requestEnded;
     private Future<?> subscriptionFuture;
 
     private SubscriptionOperation(Builder<T> builder) {
@@ -73,43 +76,92 @@ final class SubscriptionOperation<T> extends GraphQLOperation<T> {
         }
 
         subscriptionFuture = executorService.submit(() -> {
+            synchronized (this) {
+                if (canceled.get()) {
+                    return;
+                }
+            }
             LOG.debug("Requesting subscription: " + getRequest().getContent());
-            subscriptionEndpoint.requestSubscription(
+            String requestedId = subscriptionEndpoint.requestSubscription(
                 getRequest(),
                 authorizationType,
-                subscriptionId -> {
-                    SubscriptionOperation.this.subscriptionId = subscriptionId;
-                    onSubscriptionStart.accept(subscriptionId);
-                },
+                this::onSubscriptionStarted,
                 onNextItem,
                 apiException -> {
+                    synchronized (this) {
+                        requestEnded = true;
+                        pendingSubscriptionId = null;
+                    }
                     cancel();
                     onSubscriptionError.accept(apiException);
                 },
                 onSubscriptionComplete
             );
+            onSubscriptionRequested(requestedId);
         });
     }
 
+    private void onSubscriptionStarted(String subscriptionId) {
+        synchronized (this) {
+            this.subscriptionId = subscriptionId;
+            pendingSubscriptionId = null;
+        }
+        onSubscriptionStart.accept(subscriptionId);
+    }
+
+    // The callbacks may run before requestSubscription returns, on this thread or another one, so the returned id
+    // only becomes the pending one if the request is still unanswered. A cancel that came in meanwhile found no id
+    // to release, so the id is released here instead.
+    private synchronized void onSubscriptionRequested(String requestedId) {
+        if (requestEnded || subscriptionId != null) {
+            return;
+        }
+        if (canceled.get()) {
+            releasePendingSubscription(requestedId);
+        } else {
+            pendingSubscriptionId = requestedId;
+        }
+    }
+
     @Override
     public synchronized void cancel() {
-        if (subscriptionId != null && !canceled.get()) {
-            canceled.set(true);
+        if (canceled.getAndSet(true)) {
+            LOG.debug("Nothing to cancel. Subscription already cancelled.");
+            return;
+        }
+        if (subscriptionId != null) {
+            final String activeId = subscriptionId;
             executorService.execute(() -> {
                 try {
-                    LOG.debug("Cancelling subscription: " + subscriptionId);
-                    subscriptionEndpoint.releaseSubscription(subscriptionId);
+                    LOG.debug("Cancelling subscription: " + activeId);
+                    subscriptionEndpoint.releaseSubscription(activeId);
                 } catch (ApiException exception) {
                     onSubscriptionError.accept(exception);
                 }
             });
-        } else if (subscriptionFuture != null && subscriptionFuture.cancel(true)) {
+        } else if (pendingSubscriptionId != null) {
+            // Registered with the endpoint, but not yet acknowledged by AppSync.
+            releasePendingSubscription(pendingSubscriptionId);
+            pendingSubscriptionId = null;
+        } else if (subscriptionFuture != null && subscriptionFuture.cancel(false)) {
+            // If the request is being made right now, its id is released as soon as it is returned.
             LOG.debug("Subscription attempt was canceled.");
         } else {
-            LOG.debug("Nothing to cancel. Subscription not yet created, or already cancelled.");
+            LOG.debug("Nothing to cancel. Subscription not yet created.");
         }
     }
 
+    private void releasePendingSubscription(String pendingId) {
+        executorService.execute(() -> {
+            try {
+                LOG.debug("Cancelling pending subscription: " + pendingId);
+                subscriptionEndpoint.releaseSubscription(pendingId);
+            } catch (ApiException exception) {
+                LOG.debug("Pending subscription had already ended: " + pendingId);
+            }
+        });
+    }
+
     static final class Builder<T> {
         private SubscriptionEndpoint subscriptionEndpoint;
         private GraphQLRequest<T> graphQlRequest;
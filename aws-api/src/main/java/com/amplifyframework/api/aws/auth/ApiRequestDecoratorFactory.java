@@ -59,6 +59,7 @@ public final class ApiRequestDecoratorFactory {
     private final AuthorizationType defaultAuthorizationType;
     private final String apiKey;
     private final EndpointType endpointType;
+    private final CredentialsProvider iamCredentialsProvider;
 
     /**
      * Constructor that accepts the API auth providers to be used with their respective request decorator.
@@ -78,6 +79,10 @@ public final class ApiRequestDecoratorFactory {
         this.region = Objects.requireNonNull(region);
         this.endpointType = Objects.requireNonNull(endpointType);
         this.apiKey = apiKey;
+        // Shared by every IAM request to this API, so credentials aren't looked up for each one.
+        this.iamCredentialsProvider = apiAuthProviders.getAWSCredentialsProvider() != null
+                ? new CachingCredentialsProvider(apiAuthProviders.getAWSCredentialsProvider())
+                : CachingCredentialsProvider.forCognito();
     }
 
     /**
@@ -171,10 +176,6 @@ public final class ApiRequestDecoratorFactory {
                                                 "plugin initialization.");
                 }
             case AWS_IAM:
-                CredentialsProvider credentialsProvider = apiAuthProviders.getAWSCredentialsProvider() != null
-                        ? apiAuthProviders.getAWSCredentialsProvider()
-                        : new CognitoCredentialsProvider();
-
                 final AWS4Signer signer;
                 final String serviceName;
                 if (endpointType == EndpointType.GRAPHQL) {
@@ -185,7 +186,7 @@ public final class ApiRequestDecoratorFactory {
                     serviceName = API_GATEWAY_SERVICE_NAME;
                 }
 
-                return new IamRequestDecorator(signer, credentialsProvider, serviceName);
+                return new IamRequestDecorator(signer, iamCredentialsProvider, serviceName);
             case NONE:
             default:
                 return NO_OP_REQUEST_DECORATOR;
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws.auth
+
+import aws.smithy.kotlin.runtime.auth.awscredentials.Credentials
+import aws.smithy.kotlin.runtime.auth.awscredentials.CredentialsProvider
+import aws.smithy.kotlin.runtime.time.Instant
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.hub.HubChannel
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.minutes
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+
+/**
+ * Holds on to the credentials of another [CredentialsProvider] until shortly before they expire,
+ * so that signing a request doesn't have to wait on a credentials lookup every time.
+ *
+ * Once the credentials are within [refreshWindow] of expiring, new ones are fetched in the
+ * background while the current ones keep being handed out. Callers only wait for new credentials
+ * when there are none, or when the current ones are within [expiryBuffer] of expiring. Concurrent
+ * callers share a single fetch. Credentials without an expiration are never held, since there's
+ * no telling when the delegate might replace them.
+ */
+internal class CachingCredentialsProvider @JvmOverloads constructor(
+    private val delegate: CredentialsProvider,
+    private val refreshWindow: Duration = DEFAULT_REFRESH_WINDOW,
+    private val expiryBuffer: Duration = DEFAULT_EXPIRY_BUFFER
+) : CredentialsProvider {
+    private val logger = Amplify.Logging.forNamespace("amplify:aws-api")
+    private val refreshLock = Mutex()
+    private val refreshScope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+    private val generation = AtomicLong()
+
+    @Volatile
+    private var cached: Credentials? = null
+
+    override suspend fun getCredentials(): Credentials {
+        val current = cached
+        if (current == null || expiresWithin(current, expiryBuffer)) {
+            return refresh()
+        }
+        if (expiresWithin(current, refreshWindow) && !refreshLock.isLocked) {
+            refreshScope.launch {
+                try {
+                    refresh()
+                } catch (error: Exception) {
+                    logger.warn("Failed to refresh AWS credentials ahead of their expiration.", error)
+                }
+            }
+        }
+        return current
+    }
+
+    /**
+     * Discards the held credentials, so that the next request fetches new ones. Credentials
+     * already being fetched when this is called are handed to their callers, but not kept.
+     */
+    fun invalidate() {
+        generation.incrementAndGet()
+        cached = null
+    }
+
+    private suspend fun refresh(): Credentials = refreshLock.withLock {
+        // Another caller may have refreshed them while this one waited for the lock.
+        cached?.takeUnless { expiresWithin(it, refreshWindow) }?.let { return it }
+        val fetchedGeneration = generation.get()
+        val fresh = delegate.getCredentials()
+        if (generation.get() == fetchedGeneration) {
+            cached = fresh
+        }
+        fresh
+    }
+
+    private fun expiresWithin(credentials: Credentials, window: Duration): Boolean {
+        val expiration = credentials.expiration ?: return true
+        return Instant.now().plus(window) >= expiration
+    }
+
+    companion object {
+        private val DEFAULT_REFRESH_WINDOW = 5.minutes
+        private val DEFAULT_EXPIRY_BUFFER = 1.minutes
+
+        private val cognito: CachingCredentialsProvider by lazy {
+            val provider = CachingCredentialsProvider(CognitoCredentialsProvider())
+            // Signing in or out, or a session expiring, changes which credentials should be used.
+            Amplify.Hub.subscribe(HubChannel.AUTH) { provider.invalidate() }
+            provider
+        }
+
+        /**
+         * Gets the process-wide cache over credentials from the Auth category. It is
+         * invalidated whenever Auth publishes an event, such as signing in or out.
+         */
+        @JvmStatic
+        fun forCognito(): CachingCredentialsProvider = cognito
+    }
+}
@@ -17,8 +17,8 @@ package com.amplifyframework.api.aws.auth;
 
 import com.amplifyframework.api.ApiException.ApiAuthException;
 import com.amplifyframework.api.aws.sigv4.AWS4Signer;
+import com.amplifyframework.api.aws.utils.StreamingRequestBody;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +39,7 @@ import okio.Buffer;
 public class IamRequestDecorator implements RequestDecorator {
     private static final String CONTENT_TYPE = "application/json";
     private static final MediaType JSON_MEDIA_TYPE = MediaType.parse(CONTENT_TYPE);
+    private static final byte[] EMPTY_BODY = new byte[0];
     private final CredentialsProvider credentialsProvider;
     private final AWS4Signer v4Signer;
     private final String serviceName;
@@ -65,7 +66,8 @@ public class IamRequestDecorator implements RequestDecorator {
      */
     public final okhttp3.Request decorate(okhttp3.Request req) throws ApiAuthException {
         //set the request body
-        final byte[] bodyBytes = getBytes(req.body());
+        final boolean streaming = req.body() instanceof StreamingRequestBody;
+        final byte[] bodyBytes = streaming ? EMPTY_BODY : getBytes(req.body());
         ByteArrayContent body2 = new ByteArrayContent(bodyBytes);
 
         HttpMethod method = HttpMethod.Companion.parse(req.method());
@@ -81,7 +83,14 @@ public class IamRequestDecorator implements RequestDecorator {
 
         HttpRequest req2 = new HttpRequest(method, url, headers, body2);
 
-        HttpRequest request = v4Signer.signBlocking(req2, credentialsProvider, serviceName).getOutput();
+        final HttpRequest request;
+        if (streaming) {
+            // Streamed bodies aren't held in memory; sign their hash instead, if it can be known up front.
+            final String payloadHash = getPayloadHash((StreamingRequestBody) req.body());
+            request = v4Signer.signBlocking(req2, credentialsProvider, serviceName, payloadHash).getOutput();
+        } else {
+            request = v4Signer.signBlocking(req2, credentialsProvider, serviceName).getOutput();
+        }
 
         //Copy the signed/credentialed request back into an OKHTTP Request object.
         okhttp3.Request.Builder okReqBuilder = new okhttp3.Request.Builder();
@@ -93,8 +102,8 @@ public class IamRequestDecorator implements RequestDecorator {
         //Set the URL and Method
         okReqBuilder.url(req.url());
         final RequestBody requestBody;
-        if (req.body() == null) {
-            requestBody = null;
+        if (req.body() == null || streaming) {
+            requestBody = req.body();
         } else {
             requestBody = RequestBody.create(bodyBytes, JSON_MEDIA_TYPE);
         }
@@ -105,23 +114,25 @@ public class IamRequestDecorator implements RequestDecorator {
         return okReqBuilder.build();
     }
 
+    private String getPayloadHash(StreamingRequestBody body) throws ApiAuthException {
+        try {
+            return body.sha256Hex();
+        } catch (IOException exception) {
+            throw new ApiAuthException("Unable to calculate SigV4 signature for the request",
+                    exception,
+                    "Check that the streaming body can be read.");
+        }
+    }
+
     private byte[] getBytes(RequestBody body) throws ApiAuthException {
         if (body == null) {
-            return "".getBytes();
+            return EMPTY_BODY;
         }
 
-        final int BUFFER_SIZE = 1024 * 4;
-        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
-            //write the body to a byte array.
-            final Buffer buffer = new Buffer();
+        // The same bytes are hashed by the signer and then sent, so read the body exactly once.
+        try (Buffer buffer = new Buffer()) {
             body.writeTo(buffer);
-
-            final byte[] bytes = new byte[BUFFER_SIZE];
-            int n = 0;
-            while ((n = buffer.inputStream().read(bytes)) != -1) {
-                output.write(bytes, 0, n);
-            }
-            return output.toByteArray();
+            return buffer.readByteArray();
         } catch (IOException exception) {
             throw new ApiAuthException("Unable to calculate SigV4 signature for the request",
                     exception,
@@ -22,11 +22,14 @@ import androidx.annotation.NonNull;
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.ApiException;
 import com.amplifyframework.api.aws.utils.RestRequestFactory;
+import com.amplifyframework.api.aws.utils.StreamingRequestBody;
 import com.amplifyframework.api.rest.RestOperation;
 import com.amplifyframework.api.rest.RestOperationRequest;
+import com.amplifyframework.api.rest.RestProgressListener;
 import com.amplifyframework.api.rest.RestResponse;
 import com.amplifyframework.core.Consumer;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.HashMap;
@@ -40,12 +43,17 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
 
 /**
  * An operation to enqueue a REST HTTP request to OkHttp client.
  */
 @SuppressLint("SyntheticAccessor")
 public final class AWSRestOperation extends RestOperation {
+    private static final long SEGMENT_SIZE = 8 * 1024;
 
     private final String endpoint;
     private final OkHttpClient client;
@@ -85,10 +93,18 @@ public final class AWSRestOperation extends RestOperation {
             URL url = RestRequestFactory.createURL(endpoint,
                     getRequest().getPath(),
                     getRequest().getQueryParameters());
-            Request request = RestRequestFactory.createRequest(url,
-                    getRequest().getData(),
-                    getRequest().getHeaders(),
-                    getRequest().getHttpMethod());
+            final Request request;
+            if (getRequest().getStreamingBody() != null) {
+                request = RestRequestFactory.createStreamingRequest(url,
+                        new StreamingRequestBody(getRequest().getStreamingBody(), getRequest().getProgressListener()),
+                        getRequest().getHeaders(),
+                        getRequest().getHttpMethod());
+            } else {
+                request = RestRequestFactory.createRequest(url,
+                        getRequest().getData(),
+                        getRequest().getHeaders(),
+                        getRequest().getHttpMethod());
+            }
             ongoingCall = client.newCall(request);
             ongoingCall.enqueue(new AWSRestOperation.OkHttpCallback());
         } catch (Exception error) {
@@ -114,8 +130,19 @@ public final class AWSRestOperation extends RestOperation {
     private final class OkHttpCallback implements Callback {
         @Override
         public void onResponse(@NonNull Call call,
-                               @NonNull Response response) throws IOException {
-            final ResponseBody responseBody = response.body();
+                               @NonNull Response response) {
+            final RestResponse restResponse;
+            try (ResponseBody responseBody = response.body()) {
+                restResponse = toRestResponse(response, responseBody);
+            } catch (IOException ioe) {
+                // The body is read as it arrives, so canceling part-way through ends up here.
+                onFailure(call, ioe);
+                return;
+            }
+            onResponse.accept(restResponse);
+        }
+
+        private RestResponse toRestResponse(Response response, ResponseBody responseBody) throws IOException {
             final int statusCode = response.code();
             final Map<String, String> headersMap = new HashMap<>();
             final Map<String, List<String>> headersMultiMap = response.headers().toMultimap();
@@ -125,15 +152,37 @@ public final class AWSRestOperation extends RestOperation {
                     headersMap.put(key, TextUtils.join(",", value));
                 }
             }
-            RestResponse restResponse;
-            if (responseBody != null) {
-                final byte[] data = responseBody.bytes();
-                restResponse = new RestResponse(statusCode, headersMap, data);
-            } else {
-                restResponse = new RestResponse(statusCode, headersMap);
+            final File responseFile = getRequest().getResponseFile();
+            final RestProgressListener progressListener = getRequest().getProgressListener();
+            if (responseBody == null) {
+                return new RestResponse(statusCode, headersMap);
+            } else if (responseFile != null) {
+                try (BufferedSink sink = Okio.buffer(Okio.sink(responseFile))) {
+                    copy(responseBody, sink, progressListener);
+                }
+                return RestResponse.fromFile(statusCode, headersMap, responseFile);
+            } else if (progressListener != null) {
+                Buffer buffer = new Buffer();
+                copy(responseBody, buffer, progressListener);
+                return new RestResponse(statusCode, headersMap, buffer.readByteArray());
             }
+            return new RestResponse(statusCode, headersMap, responseBody.bytes());
+        }
 
-            onResponse.accept(restResponse);
+        private void copy(ResponseBody responseBody, BufferedSink sink, RestProgressListener progressListener)
+                throws IOException {
+            final long totalBytes = responseBody.contentLength();
+            final BufferedSource source = responseBody.source();
+            long bytesReceived = 0;
+            long read;
+            while ((read = source.read(sink.getBuffer(), SEGMENT_SIZE)) != -1) {
+                sink.emitCompleteSegments();
+                bytesReceived += read;
+                if (progressListener != null) {
+                    progressListener.onDownloadProgress(bytesReceived, totalBytes);
+                }
+            }
+            sink.flush();
         }
 
         @Override
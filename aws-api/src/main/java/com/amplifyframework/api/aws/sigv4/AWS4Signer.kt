@@ -20,6 +20,7 @@ import aws.smithy.kotlin.runtime.auth.awssigning.AwsSignedBodyHeader
 import aws.smithy.kotlin.runtime.auth.awssigning.AwsSigningConfig
 import aws.smithy.kotlin.runtime.auth.awssigning.AwsSigningResult
 import aws.smithy.kotlin.runtime.auth.awssigning.DefaultAwsSigner
+import aws.smithy.kotlin.runtime.auth.awssigning.HashSpecification
 import aws.smithy.kotlin.runtime.http.request.HttpRequest
 import kotlinx.coroutines.runBlocking
 
@@ -59,6 +60,43 @@ abstract class AWS4Signer(private val regionName: String) {
             sign(httpRequest, credentialsProvider, serviceName)
         }
     }
+
+    /**
+     * Async signing of a request whose body is streamed, and so isn't part of [httpRequest].
+     * The signature covers [payloadHash], the hex-encoded SHA-256 of the body, or if that is null,
+     * an unsigned payload. Either way, the value used is sent in the x-amz-content-sha256 header.
+     */
+    suspend fun sign(
+        httpRequest: HttpRequest,
+        credentialsProvider: CredentialsProvider,
+        serviceName: String,
+        payloadHash: String?
+    ): AwsSigningResult<HttpRequest> {
+        val signingConfig = AwsSigningConfig.invoke {
+            region = regionName
+            useDoubleUriEncode = true
+            service = serviceName
+            this.credentialsProvider = credentialsProvider
+            signedBodyHeader = AwsSignedBodyHeader.X_AMZ_CONTENT_SHA256
+            hashSpecification = payloadHash?.let { HashSpecification.Precalculated(it) }
+                ?: HashSpecification.UnsignedPayload
+        }
+        return DefaultAwsSigner.sign(httpRequest, signingConfig)
+    }
+
+    /**
+     * Sign a request with a streamed body synchronously
+     */
+    fun signBlocking(
+        httpRequest: HttpRequest,
+        credentialsProvider: CredentialsProvider,
+        serviceName: String,
+        payloadHash: String?
+    ): AwsSigningResult<HttpRequest> {
+        return runBlocking {
+            sign(httpRequest, credentialsProvider, serviceName, payloadHash)
+        }
+    }
 }
 
 /**
@@ -95,6 +95,31 @@ public final class RestRequestFactory {
             @Nullable byte[] requestData,
             @Nullable Map<String, String> headers,
             @NonNull HttpMethod type) {
+        return buildRequest(url, requestData == null ? null : RequestBody.create(requestData), headers, type);
+    }
+
+    /**
+     * Constructs the ok http request, with a body which is streamed as it is sent.
+     * @param url         URL endpoint to make the request
+     * @param requestBody Streaming body for the request
+     * @param headers     Header map for th request
+     * @param type        Rest operation type
+     * @return Returns the request
+     */
+    @NonNull
+    public static Request createStreamingRequest(
+            @NonNull URL url,
+            @NonNull StreamingRequestBody requestBody,
+            @Nullable Map<String, String> headers,
+            @NonNull HttpMethod type) {
+        return buildRequest(url, Objects.requireNonNull(requestBody), headers, type);
+    }
+
+    private static Request buildRequest(
+            URL url,
+            RequestBody body,
+            Map<String, String> headers,
+            HttpMethod type) {
         Objects.requireNonNull(url);
         Objects.requireNonNull(type);
         Request.Builder requestBuilder = new Request.Builder()
@@ -104,31 +129,27 @@ public final class RestRequestFactory {
                 requestBuilder.get();
                 break;
             case PUT:
-                populateBody(
-                        requestBuilder,
-                        requestData, (builder, data) -> builder.put(RequestBody.create(data))
-                );
+                if (body != null) {
+                    requestBuilder.put(body);
+                }
                 break;
             case POST:
-                populateBody(
-                        requestBuilder,
-                        requestData, (builder, data) -> builder.post(RequestBody.create(data))
-                );
+                if (body != null) {
+                    requestBuilder.post(body);
+                }
                 break;
             case HEAD:
                 requestBuilder.head();
                 break;
             case PATCH:
-                populateBody(
-                        requestBuilder,
-                        requestData, (builder, data) -> builder.patch(RequestBody.create(data))
-                );
+                if (body != null) {
+                    requestBuilder.patch(body);
+                }
                 break;
             case DELETE:
-                populateBody(
-                        requestBuilder,
-                        requestData, (builder, data) -> builder.delete(RequestBody.create(data))
-                );
+                if (body != null) {
+                    requestBuilder.delete(body);
+                }
                 break;
             default:
                 break;
@@ -139,27 +160,10 @@ public final class RestRequestFactory {
         return requestBuilder.build();
     }
 
-    private static void populateBody(
-            Request.Builder builder,
-            byte[] data,
-            BodyCreationStrategy strategy
-    ) {
-        if (data != null) {
-            strategy.buildRequest(builder, data);
-        }
-    }
-
     // Segment separator can be either '/' or '\'.
     // HttpUrl.Builder assumes an empty URL if path segments
     // begin with either character. Strip them before appending.
     private static String stripLeadingSlashes(final String path) {
         return path.replaceAll("^[\\\\/]+", "");
     }
-
-    /**
-     * A strategy to add data to a request.
-     */
-    interface BodyCreationStrategy {
-        void buildRequest(Request.Builder builder, byte[] data);
-    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.api.rest.RestProgressListener;
+import com.amplifyframework.api.rest.RestStreamingBody;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.HashingSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * An OkHttp {@link RequestBody} which reads a {@link RestStreamingBody} as it is written to the
+ * connection, so that only a small buffer of it is in memory at a time. Canceling the call
+ * closes the connection, which stops the write part-way through.
+ */
+public final class StreamingRequestBody extends RequestBody {
+    private static final long SEGMENT_SIZE = 8 * 1024;
+
+    private final RestStreamingBody body;
+    private final RestProgressListener progressListener;
+
+    /**
+     * Constructs a request body which streams a {@link RestStreamingBody}.
+     * @param body The body to stream
+     * @param progressListener Notified as the body is written, if not null
+     */
+    public StreamingRequestBody(@NonNull RestStreamingBody body, @Nullable RestProgressListener progressListener) {
+        this.body = Objects.requireNonNull(body);
+        this.progressListener = progressListener;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        // Like the in-memory bodies, leave the Content-Type to the request's headers.
+        return null;
+    }
+
+    @Override
+    public long contentLength() {
+        return body.getContentLength();
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return !body.isRepeatable();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        final long totalBytes = body.getContentLength();
+        long bytesSent = 0;
+        try (Source source = Okio.source(body.open())) {
+            long read;
+            while ((read = source.read(sink.getBuffer(), SEGMENT_SIZE)) != -1) {
+                sink.emit();
+                bytesSent += read;
+                if (progressListener != null) {
+                    progressListener.onUploadProgress(bytesSent, totalBytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of a repeatable body, reading it in a single pass without
+     * holding it in memory.
+     * @return Hex-encoded SHA-256 hash of the body, or null if the body can only be read once
+     * @throws IOException If the body can't be read
+     */
+    @Nullable
+    public String sha256Hex() throws IOException {
+        if (!body.isRepeatable()) {
+            return null;
+        }
+        try (HashingSink hashingSink = HashingSink.sha256(Okio.blackhole());
+             BufferedSink sink = Okio.buffer(hashingSink);
+             Source source = Okio.source(body.open())) {
+            sink.writeAll(source);
+            sink.flush();
+            ByteString hash = hashingSink.hash();
+            return hash.hex();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.graphql.GraphQLOperation;
+import com.amplifyframework.api.graphql.GraphQLPathSegment;
+import com.amplifyframework.api.graphql.GraphQLRequest;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SimpleGraphQLRequest;
+import com.amplifyframework.api.graphql.model.ModelMutation;
+import com.amplifyframework.api.graphql.model.ModelQuery;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the {@link GraphQLQueryCoalescer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public final class GraphQLQueryCoalescerTest {
+    private static final long LONG_WINDOW_MS = TimeUnit.HOURS.toMillis(1);
+
+    private ScheduledExecutorService scheduler;
+    private GsonGraphQLResponseFactory responseFactory;
+    private List<Dispatch<?>> dispatches;
+
+    /**
+     * Sets up the coalescer's dependencies, with a dispatcher that records what it is asked to send.
+     */
+    @Before
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        responseFactory = new GsonGraphQLResponseFactory();
+        dispatches = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    /**
+     * Stops the scheduler created in {@link #setup()}.
+     */
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Identical queries issued while one is already in flight share a single request and response.
+     * @throws ApiException On failure to build the response
+     */
+    @Test
+    public void identicalQueriesShareOneRequest() throws ApiException {
+        GraphQLQueryCoalescer coalescer = coalescer(0, GraphQLQueryCoalescer.DEFAULT_MAX_BATCH_SIZE);
+        List<GraphQLResponse<BlogOwner>> responses = new ArrayList<>();
+
+        coalescer.query("api", ModelQuery.get(BlogOwner.class, "a"), responses::add, this::unexpected).start();
+        coalescer.query("api", ModelQuery.get(BlogOwner.class, "a"), responses::add, this::unexpected).start();
+
+        assertEquals(1, dispatches.size());
+        dispatches.get(0).respond("{\"data\":{\"getBlogOwner\":{\"id\":\"a\",\"name\":\"Curly\"}}}");
+
+        assertEquals(2, responses.size());
+        assertEquals("Curly", responses.get(0).getData().getName());
+        assertSame(responses.get(0), responses.get(1));
+    }
+
+    /**
+     * Once a response has been delivered, an identical query goes out over the network again.
+     * @throws ApiException On failure to build the response
+     */
+    @Test
+    public void completedQueryIsNotShared() throws ApiException {
+        GraphQLQueryCoalescer coalescer = coalescer(0, GraphQLQueryCoalescer.DEFAULT_MAX_BATCH_SIZE);
+        List<GraphQLResponse<BlogOwner>> responses = new ArrayList<>();
+
+        coalescer.query("api", ModelQuery.get(BlogOwner.class, "a"), responses::add, this::unexpected).start();
+        dispatches.get(0).respond("{\"data\":{\"getBlogOwner\":{\"id\":\"a\",\"name\":\"Curly\"}}}");
+        coalescer.query("api", ModelQuery.get(BlogOwner.class, "a"), responses::add, this::unexpected).start();
+
+        assertEquals(2, dispatches.size());
+    }
+
+    /**
+     * GET queries for the same model are merged into one aliased document, and the response,
+     * including any errors, is split back up for each caller.
+     * @throws ApiException On failure to build the response
+     */
+    @Test
+    public void getQueriesAreBatchedAndFannedOut() throws ApiException {
+        GraphQLQueryCoalescer coalescer = coalescer(LONG_WINDOW_MS, 2);
+        List<GraphQLResponse<BlogOwner>> first = new ArrayList<>();
+        List<GraphQLResponse<BlogOwner>> second = new ArrayList<>();
+
+        coalescer.query("api", ModelQuery.get(BlogOwner.class, "a"), first::add, this::unexpected).start();
+        assertTrue(dispatches.isEmpty());
+        coalescer.query("api", ModelQuery.get(BlogOwner.class, "b"), second::add, this::unexpected).start();
+
+        assertEquals(1, dispatches.size());
+        GraphQLRequest<?> batch = dispatches.get(0).request;
+        assertTrue(batch.getQuery().startsWith("query CoalescedGetBlogOwner($q0_id: ID!, $q1_id: ID!) {"));
+        assertTrue(batch.getQuery().contains("q0: getBlogOwner(id: $q0_id)"));
+        assertTrue(batch.getQuery().contains("q1: getBlogOwner(id: $q1_id)"));
+        assertEquals("a", batch.getVariables().get("q0_id"));
+        assertEquals("b", batch.getVariables().get("q1_id"));
+
+        dispatches.get(0).respond("{\"data\":{\"q0\":{\"id\":\"a\",\"name\":\"Curly\"},\"q1\":null}," +
+            "\"errors\":[{\"message\":\"Not found\",\"path\":[\"q1\"]}]}");
+
+        assertEquals("Curly", first.get(0).getData().getName());
+        assertFalse(first.get(0).hasErrors());
+        assertNull(second.get(0).getData());
+        assertEquals(1, second.get(0).getErrors().size());
+        assertEquals(
+            Collections.singletonList(new GraphQLPathSegment("getBlogOwner")),
+            second.get(0).getErrors().get(0).getPath()
+        );
+    }
+
+    /**
+     * Hand-written queries are never merged into a batch, even when their documents are the same, so
+     * that text such as a {@code $} in a string literal or a brace in an argument default is sent as written.
+     */
+    @Test
+    public void handWrittenQueriesAreNotBatched() {
+        GraphQLQueryCoalescer coalescer = coalescer(LONG_WINDOW_MS, 2);
+        String document = "query GetPrice($id: ID!, $filter: PriceFilter = {currency: \"$USD\"}) " +
+            "{ getPrice(id: $id, filter: $filter) { amount } }";
+
+        coalescer.query("api", simpleRequest(document, "a"), response -> { }, this::unexpected).start();
+        coalescer.query("api", simpleRequest(document, "b"), response -> { }, this::unexpected).start();
+
+        assertEquals(2, dispatches.size());
+        assertEquals(document, dispatches.get(0).request.getQuery());
+        assertEquals(document, dispatches.get(1).request.getQuery());
+    }
+
+    /**
+     * A batch that closes with a single query in it sends that query as-is.
+     * @throws InterruptedException If interrupted while waiting for the batch window to elapse
+     */
+    @Test
+    public void singleQueryBatchIsSentUnchanged() throws InterruptedException {
+        GraphQLQueryCoalescer coalescer = coalescer(1, GraphQLQueryCoalescer.DEFAULT_MAX_BATCH_SIZE);
+        GraphQLRequest<BlogOwner> request = ModelQuery.get(BlogOwner.class, "a");
+
+        coalescer.query("api", request, response -> { }, this::unexpected).start();
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+
+        assertEquals(1, dispatches.size());
+        assertSame(request, dispatches.get(0).request);
+    }
+
+    /**
+     * Canceling one caller does not cancel a request that another caller is still waiting on,
+     * but the request is canceled once every caller has gone away.
+     */
+    @Test
+    public void sharedRequestIsCanceledOnlyWhenAllCallersCancel() {
+        GraphQLQueryCoalescer coalescer = coalescer(0, GraphQLQueryCoalescer.DEFAULT_MAX_BATCH_SIZE);
+        GraphQLOperation<BlogOwner> first =
+            coalescer.query("api", ModelQuery.get(BlogOwner.class, "a"), response -> { }, this::unexpected);
+        GraphQLOperation<BlogOwner> second =
+            coalescer.query("api", ModelQuery.get(BlogOwner.class, "a"), response -> { }, this::unexpected);
+        first.start();
+        second.start();
+
+        first.cancel();
+        verify(dispatches.get(0).operation, never()).cancel();
+        second.cancel();
+        verify(dispatches.get(0).operation).cancel();
+    }
+
+    /**
+     * Mutations are never coalesced.
+     */
+    @Test
+    public void mutationsAreNotCoalesced() {
+        BlogOwner owner = BlogOwner.builder().name("Curly").build();
+        assertFalse(GraphQLQueryCoalescer.canCoalesce(ModelMutation.create(owner)));
+        assertTrue(GraphQLQueryCoalescer.canCoalesce(ModelQuery.get(BlogOwner.class, "a")));
+    }
+
+    private static GraphQLRequest<String> simpleRequest(String document, String id) {
+        return new SimpleGraphQLRequest<>(
+            document, Collections.<String, Object>singletonMap("id", id), String.class, new GsonVariablesSerializer()
+        );
+    }
+
+    private GraphQLQueryCoalescer coalescer(long batchWindowMs, int maxBatchSize) {
+        return new GraphQLQueryCoalescer(
+            this::dispatch,
+            responseFactory,
+            null,
+            scheduler,
+            batchWindowMs,
+            maxBatchSize
+        );
+    }
+
+    @SuppressWarnings("unchecked") // Mocking a generic type.
+    private <R> GraphQLOperation<R> dispatch(
+            String apiName,
+            GraphQLRequest<R> request,
+            AuthorizationType authorizationType,
+            GraphQLResponse.Factory factory,
+            Consumer<GraphQLResponse<R>> onResponse,
+            Consumer<ApiException> onFailure) {
+        GraphQLOperation<R> operation = mock(GraphQLOperation.class);
+        dispatches.add(new Dispatch<>(request, factory, onResponse, operation));
+        return operation;
+    }
+
+    private void unexpected(ApiException exception) {
+        throw new AssertionError(exception);
+    }
+
+    private static final class Dispatch<R> {
+        private final GraphQLRequest<R> request;
+        private final GraphQLResponse.Factory factory;
+        private final Consumer<GraphQLResponse<R>> onResponse;
+        private final GraphQLOperation<R> operation;
+
+        Dispatch(GraphQLRequest<R> request,
+                 GraphQLResponse.Factory factory,
+                 Consumer<GraphQLResponse<R>> onResponse,
+                 GraphQLOperation<R> operation) {
+            this.request = request;
+            this.factory = factory;
+            this.onResponse = onResponse;
+            this.operation = operation;
+        }
+
+        void respond(String json) throws ApiException {
+            onResponse.accept(factory.buildResponse(request, json));
+        }
+    }
+}
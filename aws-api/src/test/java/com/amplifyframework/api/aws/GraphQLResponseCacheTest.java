@@ -0,0 +1,327 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.graphql.GraphQLRequest;
+import com.amplifyframework.api.graphql.PaginatedResult;
+import com.amplifyframework.api.graphql.QueryType;
+import com.amplifyframework.api.graphql.model.ModelMutation;
+import com.amplifyframework.api.graphql.model.ModelQuery;
+import com.amplifyframework.auth.AuthChannelEventName;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link GraphQLResponseCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public final class GraphQLResponseCacheTest {
+    private static final String API_NAME = "blogApi";
+
+    /**
+     * Provides a directory for the disk tier.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * A stored query response is found by a later lookup of the same request, and counted as a hit.
+     */
+    @Test
+    public void storedResponseIsReturned() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder().build());
+        GraphQLRequest<BlogOwner> request = ModelQuery.get(BlogOwner.class, "owner-1");
+
+        assertNull(cache.lookup(API_NAME, request, false));
+        cache.store(API_NAME, request, getOwnerBody("owner-1", "Tabitha"));
+
+        GraphQLResponseCache.CachedResponse cached = cache.lookup(API_NAME, request, false);
+        assertNotNull(cached);
+        assertFalse(cached.isStale());
+        assertEquals(getOwnerBody("owner-1", "Tabitha"), cached.getBody());
+        assertEquals(1, cache.getMetrics().getHitCount());
+        assertEquals(1, cache.getMetrics().getMissCount());
+    }
+
+    /**
+     * Responses with errors are not stored.
+     */
+    @Test
+    public void responsesWithErrorsAreNotStored() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder().build());
+        GraphQLRequest<BlogOwner> request = ModelQuery.get(BlogOwner.class, "owner-1");
+        JsonObject body = getOwnerBody("owner-1", "Tabitha");
+        body.add("errors", JsonParser.parseString("[{\"message\": \"Unauthorized\"}]"));
+
+        cache.store(API_NAME, request, body);
+
+        assertNull(cache.lookup(API_NAME, request, false));
+    }
+
+    /**
+     * A model returned by a later query updates the record shared by every cached response
+     * which includes it.
+     */
+    @Test
+    public void modelsAreNormalizedAcrossResponses() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder().build());
+        GraphQLRequest<PaginatedResult<BlogOwner>> listRequest = ModelQuery.list(BlogOwner.class);
+        GraphQLRequest<BlogOwner> getRequest = ModelQuery.get(BlogOwner.class, "owner-1");
+
+        cache.store(API_NAME, listRequest, listOwnersBody("owner-1", "Tabitha"));
+        cache.store(API_NAME, getRequest, getOwnerBody("owner-1", "Tabby"));
+
+        GraphQLResponseCache.CachedResponse cached = cache.lookup(API_NAME, listRequest, false);
+        assertNotNull(cached);
+        assertEquals(listOwnersBody("owner-1", "Tabby"), cached.getBody());
+    }
+
+    /**
+     * A response which has outlived its time-to-live is only returned to lookups that accept stale responses.
+     */
+    @Test
+    public void staleResponseIsOnlyReturnedWhenAccepted() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder()
+            .timeToLive(0, TimeUnit.MILLISECONDS)
+            .build());
+        GraphQLRequest<BlogOwner> request = ModelQuery.get(BlogOwner.class, "owner-1");
+        cache.store(API_NAME, request, getOwnerBody("owner-1", "Tabitha"));
+
+        assertNull(cache.lookup(API_NAME, request, false));
+        GraphQLResponseCache.CachedResponse cached = cache.lookup(API_NAME, request, true);
+        assertNotNull(cached);
+        assertTrue(cached.isStale());
+        assertEquals(1, cache.getMetrics().getStaleHitCount());
+    }
+
+    /**
+     * When the cache is full, the least recently used response is evicted.
+     */
+    @Test
+    public void leastRecentlyUsedResponseIsEvicted() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder()
+            .maxEntries(2)
+            .build());
+        GraphQLRequest<BlogOwner> first = ModelQuery.get(BlogOwner.class, "owner-1");
+        GraphQLRequest<BlogOwner> second = ModelQuery.get(BlogOwner.class, "owner-2");
+        GraphQLRequest<BlogOwner> third = ModelQuery.get(BlogOwner.class, "owner-3");
+
+        cache.store(API_NAME, first, getOwnerBody("owner-1", "Tabitha"));
+        cache.store(API_NAME, second, getOwnerBody("owner-2", "Jameson"));
+        assertNotNull(cache.lookup(API_NAME, first, false));
+        cache.store(API_NAME, third, getOwnerBody("owner-3", "Kim"));
+
+        assertNotNull(cache.lookup(API_NAME, first, false));
+        assertNull(cache.lookup(API_NAME, second, false));
+        assertNotNull(cache.lookup(API_NAME, third, false));
+        assertEquals(1, cache.getMetrics().getEvictionCount());
+        assertEquals(2, cache.getMetrics().getEntryCount());
+    }
+
+    /**
+     * A change to a model invalidates the responses which include it, and every list of its type,
+     * but not responses for other models of that type.
+     */
+    @Test
+    public void changeInvalidatesAffectedResponses() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder().build());
+        GraphQLRequest<BlogOwner> changed = ModelQuery.get(BlogOwner.class, "owner-1");
+        GraphQLRequest<BlogOwner> unchanged = ModelQuery.get(BlogOwner.class, "owner-2");
+        GraphQLRequest<PaginatedResult<BlogOwner>> list = ModelQuery.list(BlogOwner.class);
+        cache.store(API_NAME, changed, getOwnerBody("owner-1", "Tabitha"));
+        cache.store(API_NAME, unchanged, getOwnerBody("owner-2", "Jameson"));
+        cache.store(API_NAME, list, listOwnersBody("owner-2", "Jameson"));
+
+        cache.invalidate(API_NAME, "BlogOwner", "owner-1");
+
+        assertNull(cache.lookup(API_NAME, changed, false));
+        assertNull(cache.lookup(API_NAME, list, false));
+        assertNotNull(cache.lookup(API_NAME, unchanged, false));
+    }
+
+    /**
+     * A mutation's response invalidates the responses which include the changed model, found by
+     * the model's id, as responses are.
+     */
+    @Test
+    public void mutationInvalidatesResponsesIncludingItsModel() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder().build());
+        GraphQLRequest<BlogOwner> changed = ModelQuery.get(BlogOwner.class, "owner-1");
+        GraphQLRequest<BlogOwner> unchanged = ModelQuery.get(BlogOwner.class, "owner-2");
+        cache.store(API_NAME, changed, getOwnerBody("owner-1", "Tabitha"));
+        cache.store(API_NAME, unchanged, getOwnerBody("owner-2", "Jameson"));
+        BlogOwner owner = BlogOwner.builder().name("Tabby").id("owner-1").build();
+
+        cache.invalidate(API_NAME, ModelMutation.update(owner), owner);
+
+        assertNull(cache.lookup(API_NAME, changed, false));
+        assertNotNull(cache.lookup(API_NAME, unchanged, false));
+    }
+
+    /**
+     * A response to a query which was in flight while its API was invalidated may predate the
+     * change, so it is not stored. Responses to queries sent afterwards are.
+     */
+    @Test
+    public void responseInFlightDuringInvalidationIsNotStored() {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder().build());
+        GraphQLRequest<BlogOwner> request = ModelQuery.get(BlogOwner.class, "owner-1");
+        long sentAt = cache.getGeneration();
+
+        cache.invalidate(API_NAME, "BlogOwner", "owner-1");
+        cache.store(API_NAME, request, getOwnerBody("owner-1", "Tabitha"), sentAt);
+        assertNull(cache.lookup(API_NAME, request, true));
+
+        cache.store(API_NAME, request, getOwnerBody("owner-1", "Tabby"), cache.getGeneration());
+        assertNotNull(cache.lookup(API_NAME, request, true));
+    }
+
+    /**
+     * Responses persisted by the disk tier are found by a new cache, as after a process restart.
+     * @throws IOException If the temporary directory can't be created
+     */
+    @Test
+    public void diskTierSurvivesRestart() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        ResponseCacheOptions options = ResponseCacheOptions.builder()
+            .diskCache(directory, 10)
+            .build();
+        GraphQLRequest<BlogOwner> request = ModelQuery.get(BlogOwner.class, "owner-1");
+        new GraphQLResponseCache(options).store(API_NAME, request, getOwnerBody("owner-1", "Tabitha"));
+
+        GraphQLResponseCache restarted = new GraphQLResponseCache(options);
+        GraphQLResponseCache.CachedResponse cached = restarted.lookup(API_NAME, request, false);
+        assertNotNull(cached);
+        assertEquals(getOwnerBody("owner-1", "Tabitha"), cached.getBody());
+
+        restarted.invalidate(API_NAME, "BlogOwner", "owner-1");
+        assertNull(new GraphQLResponseCache(options).lookup(API_NAME, request, false));
+    }
+
+    /**
+     * SYNC queries are never cached, since DataStore needs the latest changes; GET and LIST queries are.
+     * @throws AmplifyException If the SYNC request can't be built
+     */
+    @Test
+    public void syncQueriesAreNotCached() throws AmplifyException {
+        GraphQLResponseCache cache = new GraphQLResponseCache(ResponseCacheOptions.builder().build());
+        GraphQLRequest<BlogOwner> request = ((AppSyncGraphQLRequest<BlogOwner>) ModelQuery.get(BlogOwner.class, "a"))
+            .newBuilder()
+            .operation(QueryType.SYNC)
+            .build();
+
+        assertFalse(GraphQLResponseCache.isCacheable(request));
+        assertTrue(GraphQLResponseCache.isCacheable(ModelQuery.get(BlogOwner.class, "owner-1")));
+        assertTrue(GraphQLResponseCache.isCacheable(ModelQuery.list(BlogOwner.class)));
+
+        cache.store(API_NAME, request, getOwnerBody("owner-1", "Tabitha"));
+        assertNull(cache.lookup(API_NAME, request, true));
+    }
+
+    /**
+     * A response fetched for one user is not served to another, and models in the responses of
+     * different users are not merged into the same record.
+     */
+    @Test
+    public void responsesAreNotSharedBetweenUsers() {
+        AtomicReference<String> user = new AtomicReference<>("user-1");
+        GraphQLResponseCache cache =
+            new GraphQLResponseCache(ResponseCacheOptions.builder().build(), null, user::get);
+        GraphQLRequest<PaginatedResult<BlogOwner>> listRequest = ModelQuery.list(BlogOwner.class);
+        GraphQLRequest<BlogOwner> getRequest = ModelQuery.get(BlogOwner.class, "owner-1");
+        cache.store(API_NAME, listRequest, listOwnersBody("owner-1", "Tabitha"));
+
+        user.set("user-2");
+        cache.onAuthEvent(AuthChannelEventName.SIGNED_IN.toString());
+        assertNull(cache.lookup(API_NAME, listRequest, true));
+        cache.store(API_NAME, getRequest, getOwnerBody("owner-1", "Tabby"));
+
+        user.set("user-1");
+        cache.onAuthEvent(AuthChannelEventName.SIGNED_IN.toString());
+        GraphQLResponseCache.CachedResponse cached = cache.lookup(API_NAME, listRequest, false);
+        assertNotNull(cached);
+        assertEquals(listOwnersBody("owner-1", "Tabitha"), cached.getBody());
+    }
+
+    /**
+     * Signing out removes every cached response, from memory and from disk.
+     * @throws IOException If the temporary directory can't be created
+     */
+    @Test
+    public void signOutClearsEveryTier() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        ResponseCacheOptions options = ResponseCacheOptions.builder()
+            .diskCache(directory, 10)
+            .build();
+        GraphQLResponseCache cache = new GraphQLResponseCache(options);
+        GraphQLRequest<BlogOwner> request = ModelQuery.get(BlogOwner.class, "owner-1");
+        cache.store(API_NAME, request, getOwnerBody("owner-1", "Tabitha"));
+
+        cache.onAuthEvent(AuthChannelEventName.SIGNED_OUT.toString());
+
+        assertNull(cache.lookup(API_NAME, request, true));
+        assertNull(new GraphQLResponseCache(options).lookup(API_NAME, request, true));
+        assertEquals(0, Objects.requireNonNull(directory.list()).length);
+    }
+
+    private static JsonObject getOwnerBody(String id, String name) {
+        JsonObject data = new JsonObject();
+        data.add("getBlogOwner", owner(id, name));
+        JsonObject body = new JsonObject();
+        body.add("data", data);
+        return body;
+    }
+
+    private static JsonObject listOwnersBody(String id, String name) {
+        JsonObject list = new JsonObject();
+        list.add("items", JsonParser.parseString("[" + owner(id, name) + "]"));
+        list.add("nextToken", null);
+        JsonObject data = new JsonObject();
+        data.add("listBlogOwners", list);
+        JsonObject body = new JsonObject();
+        body.add("data", data);
+        return body;
+    }
+
+    private static JsonElement owner(String id, String name) {
+        JsonObject owner = new JsonObject();
+        owner.addProperty("id", id);
+        owner.addProperty("name", name);
+        owner.addProperty("__typename", "BlogOwner");
+        return owner;
+    }
+}
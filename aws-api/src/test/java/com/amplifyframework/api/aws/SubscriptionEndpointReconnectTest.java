@@ -0,0 +1,258 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.events.ApiChannelEventName;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SimpleGraphQLRequest;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.hub.HubChannel;
+import com.amplifyframework.testutils.HubAccumulator;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests how the {@link SubscriptionEndpoint} reconnects its WebSocket and starts live subscriptions
+ * again, against a fake AppSync real-time endpoint.
+ */
+@RunWith(RobolectricTestRunner.class)
+public final class SubscriptionEndpointReconnectTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long RECONNECT_BASE_DELAY_MS = 10;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private BlockingQueue<ApiException> errors;
+
+    /**
+     * Starts the fake AppSync endpoint, and routes the WebSocket connections of the endpoint to it.
+     * @throws IOException If the server fails to start
+     */
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+            .addInterceptor(chain -> {
+                HttpUrl url = chain.request().url().newBuilder()
+                    .scheme("http")
+                    .host(server.getHostName())
+                    .port(server.getPort())
+                    .build();
+                return chain.proceed(chain.request().newBuilder().url(url).build());
+            })
+            .build();
+        errors = new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Stops the fake AppSync endpoint.
+     * @throws IOException If the server fails to stop
+     */
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * When the connection drops, a live subscription is started again on a new connection under its
+     * original id, its subscriber is not told it started a second time, and a
+     * {@link ApiChannelEventName#SUBSCRIPTION_CONNECTION_RESUMED} event is published.
+     * @throws Exception If the subscription can't be started or released
+     */
+    @Test
+    public void liveSubscriptionIsReplayedAfterReconnect() throws Exception {
+        FakeAppSync firstConnection = new FakeAppSync();
+        FakeAppSync secondConnection = new FakeAppSync();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(firstConnection));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(secondConnection));
+        SubscriptionEndpoint endpoint = buildEndpoint(SubscriptionEndpoint.DEFAULT_MAX_RECONNECT_ATTEMPTS);
+        HubAccumulator resumedEvents =
+            HubAccumulator.create(HubChannel.API, ApiChannelEventName.SUBSCRIPTION_CONNECTION_RESUMED, 1).start();
+        List<String> startedIds = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+
+        String subscriptionId = requestSubscription(endpoint, id -> {
+            startedIds.add(id);
+            started.countDown();
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        firstConnection.drop();
+        assertNotNull(resumedEvents.awaitFirst((int) TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(subscriptionId, secondConnection.awaitStart());
+        assertEquals(1, startedIds.size());
+        assertTrue(errors.isEmpty());
+
+        endpoint.releaseSubscription(subscriptionId);
+        secondConnection.awaitStop();
+        awaitSchedulerShutdown(endpoint);
+    }
+
+    /**
+     * When the reconnect attempts run out, the subscriber gets an error, and the endpoint stops its
+     * timeout scheduler.
+     * @throws Exception If the subscription can't be started
+     */
+    @Test
+    public void subscriptionFailsOnceReconnectAttemptsRunOut() throws Exception {
+        FakeAppSync firstConnection = new FakeAppSync();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(firstConnection));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        SubscriptionEndpoint endpoint = buildEndpoint(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        requestSubscription(endpoint, id -> started.countDown());
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        firstConnection.drop();
+
+        assertNotNull(errors.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertFalse(endpoint.isTimeoutSchedulerRunning());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private SubscriptionEndpoint buildEndpoint(int maxReconnectAttempts) {
+        ApiConfiguration configuration = ApiConfiguration.builder()
+            .endpoint("https://abcdefghijklmnopqrstuvwxyz.appsync-api.us-east-1.amazonaws.com/graphql")
+            .region("us-east-1")
+            .authorizationType(AuthorizationType.API_KEY)
+            .build();
+        ApiAuthProviders authProviders = ApiAuthProviders.builder()
+            .apiKeyAuthProvider(() -> "api-key")
+            .build();
+        return new SubscriptionEndpoint(
+            configuration,
+            new GsonGraphQLResponseFactory(),
+            new SubscriptionAuthorizer(configuration, authProviders),
+            maxReconnectAttempts,
+            client,
+            RECONNECT_BASE_DELAY_MS
+        );
+    }
+
+    private String requestSubscription(SubscriptionEndpoint endpoint, Consumer<String> onStarted) {
+        return endpoint.requestSubscription(
+            new SimpleGraphQLRequest<String>(
+                "subscription OnCreateTodo { onCreateTodo { id } }", String.class, new GsonVariablesSerializer()
+            ),
+            AuthorizationType.API_KEY,
+            onStarted,
+            (Consumer<GraphQLResponse<String>>) response -> { },
+            errors::add,
+            () -> { }
+        );
+    }
+
+    private static void awaitSchedulerShutdown(SubscriptionEndpoint endpoint) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        while (endpoint.isTimeoutSchedulerRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(endpoint.isTimeoutSchedulerRunning());
+    }
+
+    /**
+     * Server side of one WebSocket connection, which acknowledges the connection and every
+     * subscription, and completes every stopped subscription.
+     */
+    private static final class FakeAppSync extends WebSocketListener {
+        private final BlockingQueue<String> startedIds = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> stoppedIds = new LinkedBlockingQueue<>();
+        private volatile WebSocket socket;
+
+        @Override
+        public void onOpen(@NonNull WebSocket webSocket, @NonNull Response response) {
+            socket = webSocket;
+        }
+
+        @Override
+        public void onMessage(@NonNull WebSocket webSocket, @NonNull String text) {
+            try {
+                JSONObject message = new JSONObject(text);
+                switch (message.getString("type")) {
+                    case "connection_init":
+                        webSocket.send(new JSONObject()
+                            .put("type", "connection_ack")
+                            .put("payload", new JSONObject().put("connectionTimeoutMs", 300_000))
+                            .toString());
+                        break;
+                    case "start":
+                        startedIds.add(message.getString("id"));
+                        webSocket.send(new JSONObject()
+                            .put("type", "start_ack")
+                            .put("id", message.getString("id"))
+                            .toString());
+                        break;
+                    case "stop":
+                        stoppedIds.add(message.getString("id"));
+                        webSocket.send(new JSONObject()
+                            .put("type", "complete")
+                            .put("id", message.getString("id"))
+                            .toString());
+                        break;
+                    default:
+                        break;
+                }
+            } catch (JSONException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+
+        void drop() {
+            socket.cancel();
+        }
+
+        String awaitStart() throws InterruptedException {
+            return startedIds.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        String awaitStop() throws InterruptedException {
+            return stoppedIds.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+}
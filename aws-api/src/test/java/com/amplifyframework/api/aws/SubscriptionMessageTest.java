@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import com.amplifyframework.api.ApiException;
+
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the {@link SubscriptionMessage} decoder.
+ */
+public final class SubscriptionMessageTest {
+    /**
+     * A data frame is decoded into its type, id, and an already-parsed payload.
+     * @throws ApiException On failure to decode the frame
+     */
+    @Test
+    public void dataFrameIsDecoded() throws ApiException {
+        String frame = "{\"id\":\"abc\",\"type\":\"data\",\"payload\":{\"data\":{\"onCreate\":{\"id\":\"1\"}}}}";
+
+        SubscriptionMessage message = SubscriptionMessage.decode(frame);
+
+        assertEquals(SubscriptionMessageType.SUBSCRIPTION_DATA, message.getType());
+        assertEquals("abc", message.requireId());
+        JsonObject payload = message.requirePayloadObject();
+        assertEquals("1", payload.getAsJsonObject("data").getAsJsonObject("onCreate").get("id").getAsString());
+    }
+
+    /**
+     * Keep-alive frames are recognized without decoding the rest of the frame.
+     * @throws ApiException On failure to decode the frame
+     */
+    @Test
+    public void keepAliveFrameIsShared() throws ApiException {
+        SubscriptionMessage first = SubscriptionMessage.decode("{\"type\":\"ka\"}");
+        SubscriptionMessage second = SubscriptionMessage.decode("{\"type\":\"ka\",\"payload\":{}}");
+
+        assertEquals(SubscriptionMessageType.CONNECTION_KEEP_ALIVE, first.getType());
+        assertNull(first.getPayload());
+        assertSame(first, second);
+    }
+
+    /**
+     * The connection timeout is available from a connection_ack payload,
+     * whether the service encodes it as a number or as a string.
+     * @throws ApiException On failure to decode the frame
+     */
+    @Test
+    public void connectionAckPayloadIsAvailable() throws ApiException {
+        String prefix = "{\"type\":\"connection_ack\",\"payload\":{\"connectionTimeoutMs\":";
+        SubscriptionMessage numeric = SubscriptionMessage.decode(prefix + "300000}}");
+        SubscriptionMessage quoted = SubscriptionMessage.decode(prefix + "\"300000\"}}");
+
+        assertEquals(300000, numeric.requirePayloadObject().get("connectionTimeoutMs").getAsInt());
+        assertEquals(300000, quoted.requirePayloadObject().get("connectionTimeoutMs").getAsInt());
+    }
+
+    /**
+     * Unknown top-level fields are skipped.
+     * @throws ApiException On failure to decode the frame
+     */
+    @Test
+    public void unknownFieldsAreSkipped() throws ApiException {
+        SubscriptionMessage message =
+            SubscriptionMessage.decode("{\"extra\":[1,{\"a\":2}],\"type\":\"start_ack\",\"id\":\"xyz\"}");
+
+        assertEquals(SubscriptionMessageType.SUBSCRIPTION_ACK, message.getType());
+        assertEquals("xyz", message.requireId());
+    }
+
+    /**
+     * Malformed frames are surfaced as an {@link ApiException}.
+     * @throws ApiException Expected
+     */
+    @Test(expected = ApiException.class)
+    public void malformedFrameThrows() throws ApiException {
+        SubscriptionMessage.decode("{\"type\":");
+    }
+
+    /**
+     * Frames with an unrecognized type are surfaced as an {@link ApiException}.
+     * @throws ApiException Expected
+     */
+    @Test(expected = ApiException.class)
+    public void unknownTypeThrows() throws ApiException {
+        SubscriptionMessage.decode("{\"type\":\"bogus\"}");
+    }
+
+    /**
+     * Frames that require an id, but do not have one, are rejected when the id is requested.
+     * @throws ApiException Expected
+     */
+    @Test(expected = ApiException.class)
+    public void missingIdThrows() throws ApiException {
+        SubscriptionMessage.decode("{\"type\":\"data\",\"payload\":{}}").requireId();
+    }
+}
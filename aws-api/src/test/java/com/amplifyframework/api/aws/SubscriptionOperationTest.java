@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SimpleGraphQLRequest;
+import com.amplifyframework.core.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests how the {@link SubscriptionOperation} keeps track of the id of its subscription
+ * while the endpoint is registering it.
+ */
+@RunWith(RobolectricTestRunner.class)
+public final class SubscriptionOperationTest {
+    private static final String SUBSCRIPTION_ID = "subscription-id";
+
+    private SubscriptionEndpoint endpoint;
+    private ExecutorService executorService;
+    private List<ApiException> errors;
+
+    /**
+     * Sets up a mock endpoint and a single-threaded executor for the operation.
+     */
+    @Before
+    public void setup() {
+        endpoint = mock(SubscriptionEndpoint.class);
+        executorService = Executors.newSingleThreadExecutor();
+        errors = new ArrayList<>();
+    }
+
+    /**
+     * Stops the executor.
+     */
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * A subscription canceled after it was registered, but before AppSync acknowledged it,
+     * is released with the endpoint.
+     * @throws Exception If the executor fails
+     */
+    @Test
+    public void cancelBeforeAcknowledgementReleasesSubscription() throws Exception {
+        doAnswer(invocation -> SUBSCRIPTION_ID)
+            .when(endpoint).requestSubscription(any(), any(), any(), any(), any(), any());
+        SubscriptionOperation<String> operation = buildOperation();
+
+        operation.start();
+        flushExecutor();
+        operation.cancel();
+        flushExecutor();
+
+        verify(endpoint).releaseSubscription(SUBSCRIPTION_ID);
+    }
+
+    /**
+     * A subscription canceled while the endpoint is still registering it, so before its id is known,
+     * is released as soon as the endpoint returns the id.
+     * @throws Exception If the executor fails
+     */
+    @Test
+    public void cancelWhileRequestingReleasesSubscriptionOnceRequested() throws Exception {
+        List<SubscriptionOperation<String>> operations = new ArrayList<>();
+        doAnswer(invocation -> {
+            operations.get(0).cancel();
+            return SUBSCRIPTION_ID;
+        }).when(endpoint).requestSubscription(any(), any(), any(), any(), any(), any());
+        operations.add(buildOperation());
+
+        operations.get(0).start();
+        flushExecutor();
+        flushExecutor();
+
+        verify(endpoint).releaseSubscription(SUBSCRIPTION_ID);
+    }
+
+    /**
+     * When the endpoint fails the subscription before returning its id, the id is not
+     * kept, so that nothing tries to release a registration the endpoint no longer has.
+     * @throws Exception If the executor fails
+     */
+    @Test
+    public void synchronousFailureIsNotOverwrittenByReturnedId() throws Exception {
+        ApiException failure = new ApiException("Connection failed.", "Try again.");
+        doAnswer(invocation -> {
+            Consumer<ApiException> onError = invocation.getArgument(4);
+            onError.accept(failure);
+            return SUBSCRIPTION_ID;
+        }).when(endpoint).requestSubscription(any(), any(), any(), any(), any(), any());
+        SubscriptionOperation<String> operation = buildOperation();
+
+        operation.start();
+        flushExecutor();
+        operation.cancel();
+        flushExecutor();
+
+        assertEquals(1, errors.size());
+        assertEquals(failure, errors.get(0));
+        verify(endpoint, never()).releaseSubscription(anyString());
+    }
+
+    private SubscriptionOperation<String> buildOperation() {
+        return SubscriptionOperation.<String>builder()
+            .subscriptionEndpoint(endpoint)
+            .graphQlRequest(new SimpleGraphQLRequest<>(
+                "subscription OnCreateTodo { onCreateTodo { id } }", String.class, new GsonVariablesSerializer()
+            ))
+            .responseFactory(new GsonGraphQLResponseFactory())
+            .executorService(executorService)
+            .onSubscriptionStart(id -> { })
+            .onNextItem((Consumer<GraphQLResponse<String>>) response -> { })
+            .onSubscriptionError(errors::add)
+            .onSubscriptionComplete(() -> { })
+            .authorizationType(AuthorizationType.API_KEY)
+            .build();
+    }
+
+    private void flushExecutor() throws Exception {
+        executorService.submit(() -> { }).get();
+    }
+}
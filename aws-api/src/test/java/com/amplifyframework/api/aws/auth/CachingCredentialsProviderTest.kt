@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws.auth
+
+import aws.smithy.kotlin.runtime.auth.awscredentials.Credentials
+import aws.smithy.kotlin.runtime.auth.awscredentials.CredentialsProvider
+import aws.smithy.kotlin.runtime.time.Instant
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.seconds
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class CachingCredentialsProviderTest {
+    private val fetches = AtomicInteger()
+
+    @Test
+    fun `credentials are fetched once while fresh`() = runBlocking {
+        val provider = CachingCredentialsProvider(expiringIn(1.hours))
+
+        val first = provider.getCredentials()
+        val second = provider.getCredentials()
+
+        assertSame(first, second)
+        assertEquals(1, fetches.get())
+    }
+
+    @Test
+    fun `concurrent callers share a single fetch`() = runBlocking {
+        val provider = CachingCredentialsProvider(expiringIn(1.hours))
+
+        (1..10).map { async { provider.getCredentials() } }.awaitAll()
+
+        assertEquals(1, fetches.get())
+    }
+
+    @Test
+    fun `credentials about to expire are fetched again`() = runBlocking {
+        val provider = CachingCredentialsProvider(expiringIn(30.seconds))
+
+        provider.getCredentials()
+        provider.getCredentials()
+
+        assertEquals(2, fetches.get())
+    }
+
+    @Test
+    fun `invalidated credentials are fetched again`() = runBlocking {
+        val provider = CachingCredentialsProvider(expiringIn(1.hours))
+
+        provider.getCredentials()
+        provider.invalidate()
+        provider.getCredentials()
+
+        assertEquals(2, fetches.get())
+    }
+
+    private fun expiringIn(lifetime: Duration) = object : CredentialsProvider {
+        override suspend fun getCredentials(): Credentials {
+            val count = fetches.incrementAndGet()
+            return Credentials(
+                accessKeyId = "accessKeyId$count",
+                secretAccessKey = "secretAccessKey",
+                sessionToken = "sessionToken",
+                expiration = Instant.now().plus(lifetime)
+            )
+        }
+    }
+}
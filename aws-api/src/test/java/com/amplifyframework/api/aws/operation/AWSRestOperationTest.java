@@ -18,28 +18,39 @@ package com.amplifyframework.api.aws.operation;
 import com.amplifyframework.api.ApiException;
 import com.amplifyframework.api.rest.HttpMethod;
 import com.amplifyframework.api.rest.RestOperationRequest;
+import com.amplifyframework.api.rest.RestProgressListener;
 import com.amplifyframework.api.rest.RestResponse;
+import com.amplifyframework.api.rest.RestStreamingBody;
 import com.amplifyframework.testutils.Await;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 
 import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
@@ -49,6 +60,12 @@ import static org.junit.Assert.assertTrue;
  */
 @RunWith(RobolectricTestRunner.class)
 public final class AWSRestOperationTest {
+    /**
+     * Provides files for streamed request and response bodies.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private MockWebServer server;
     private HttpUrl baseUrl;
     private OkHttpClient client;
@@ -132,6 +149,55 @@ public final class AWSRestOperationTest {
         );
     }
 
+    /**
+     * A streaming body is sent from its file, and when a response file is requested, the
+     * response body is written to it instead of being held in memory. Progress is reported
+     * for both.
+     * @throws ApiException
+     *         A possible outcome of the operation. This is not
+     *         expected, and would constitute a test failure.
+     * @throws IOException On failure to arrange the request file
+     * @throws InterruptedException If interrupted while waiting for the recorded request
+     */
+    @Test
+    public void streamingBodiesAreSentAndReceivedThroughFiles()
+            throws ApiException, IOException, InterruptedException {
+        byte[] requestData = "streamed request body".getBytes(StandardCharsets.UTF_8);
+        File requestFile = temporaryFolder.newFile();
+        try (OutputStream stream = new FileOutputStream(requestFile)) {
+            stream.write(requestData);
+        }
+        File responseFile = temporaryFolder.newFile();
+        AtomicLong bytesSent = new AtomicLong();
+        AtomicLong bytesReceived = new AtomicLong();
+        RestProgressListener progressListener = new RestProgressListener() {
+            @Override
+            public void onUploadProgress(long sent, long totalBytes) {
+                bytesSent.set(sent);
+            }
+
+            @Override
+            public void onDownloadProgress(long received, long totalBytes) {
+                bytesReceived.set(received);
+            }
+        };
+        RestOperationRequest request = new RestOperationRequest(HttpMethod.POST, baseUrl.uri().getPath(),
+            null, RestStreamingBody.fromFile(requestFile), emptyMap(), emptyMap(), responseFile, progressListener);
+
+        RestResponse response = Await.<RestResponse, ApiException>result((onResult, onError) -> {
+            AWSRestOperation operation =
+                new AWSRestOperation(request, baseUrl.url().toString(), client, onResult, onError);
+            operation.start();
+        });
+
+        RecordedRequest recorded = server.takeRequest();
+        assertArrayEquals(requestData, recorded.getBody().readByteArray());
+        assertEquals(requestData.length, bytesSent.get());
+        assertEquals(responseFile, response.getBodyFile());
+        assertEquals(21, responseFile.length());
+        assertEquals(21, bytesReceived.get());
+    }
+
     private void assertTimedOut(Callable<RestResponse> action) {
         RuntimeException exception = assertThrows(RuntimeException.class, action::call);
         assertTrue(exception.getMessage().startsWith("Failed to count down latch"));
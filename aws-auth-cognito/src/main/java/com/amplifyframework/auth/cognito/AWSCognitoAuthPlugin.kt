@@ -119,11 +119,15 @@ class AWSCognitoAuthPlugin : AuthPlugin<AWSCognitoAuthService>() {
             )
 
             val authStateMachine = AuthStateMachine(authEnvironment)
+            if (this::realPlugin.isInitialized) {
+                realPlugin.close()
+            }
             realPlugin = RealAWSCognitoAuthPlugin(
                 configuration,
                 authEnvironment,
                 authStateMachine,
-                logger
+                logger,
+                configuration.sessionRefreshMargin
             )
         } catch (exception: Exception) {
             throw ConfigurationException(
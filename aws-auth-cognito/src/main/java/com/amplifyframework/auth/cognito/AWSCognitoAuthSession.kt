@@ -27,6 +27,7 @@ import com.amplifyframework.auth.result.AuthSessionResult
 import com.amplifyframework.statemachine.codegen.data.AWSCredentials as CognitoCredentials
 import com.amplifyframework.statemachine.codegen.data.AmplifyCredential
 import com.amplifyframework.statemachine.codegen.data.CognitoUserPoolTokens
+import java.time.Instant
 
 /**
  * Cognito extension of AuthSession containing AWS Cognito specific tokens.
@@ -90,6 +91,23 @@ internal fun AmplifyCredential.isValid(): Boolean {
     }
 }
 
+/**
+ * Returns when the first of the tokens and AWS credentials in this credential expires.
+ * @return The expiration, or null if this credential has nothing which expires, or an unknown expiration
+ */
+internal fun AmplifyCredential.getExpiration(): Instant? {
+    val userPoolExpiration = (this as? AmplifyCredential.UserPoolTypeCredential)?.let {
+        val tokens = it.signedInData.cognitoUserPoolTokens
+        val idTokenExpiration = tokens.idToken?.let(SessionHelper::getExpiration) ?: return null
+        val accessTokenExpiration = tokens.accessToken?.let(SessionHelper::getExpiration) ?: return null
+        minOf(idTokenExpiration, accessTokenExpiration)
+    }
+    val credentialsExpiration = (this as? AmplifyCredential.IdentityPoolTypeCredential)?.let {
+        Instant.ofEpochSecond(it.credentials.expiration ?: return null)
+    }
+    return listOfNotNull(userPoolExpiration, credentialsExpiration).minOrNull()
+}
+
 internal fun AmplifyCredential.getCognitoSession(
     exception: AuthException = SignedOutException()
 ): AWSCognitoAuthSession {
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.auth.cognito
+
+import com.amplifyframework.auth.AuthException
+import com.amplifyframework.auth.AuthSession
+import com.amplifyframework.auth.exceptions.UnknownException
+import com.amplifyframework.core.Consumer
+import com.amplifyframework.statemachine.codegen.data.AmplifyCredential
+import com.amplifyframework.statemachine.codegen.states.AuthorizationState
+import java.time.Instant
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.minutes
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+
+/**
+ * Keeps an immutable snapshot of the established session, so that fetching an unexpired session
+ * doesn't have to wait on the auth state machine.
+ *
+ * The snapshot is replaced whenever the state machine establishes a session, kept while that session
+ * is being refreshed, and dropped on any other change, such as signing out. The state machine reports
+ * changes asynchronously, so the plugin also calls [invalidate] as soon as the signed in user may change,
+ * and the snapshot stays empty until the state machine has moved on from the session it had established
+ * then. A refresh of the session
+ * is started [refreshMargin] before it expires, so that callers don't have to wait on one. Callers
+ * which do need a refresh share a single one, rather than each waiting on the state machine. If that
+ * refresh hasn't completed within [refreshTimeout], its callers get an error instead of waiting forever.
+ *
+ * @param refreshMargin How long before the session expires to start refreshing it
+ * @param refreshTimeout How long callers wait on a refresh before they get an error
+ * @param onRefreshDue Called when the session should be refreshed in the background
+ */
+internal class AuthSessionCache(
+    private val refreshMargin: Duration = DEFAULT_REFRESH_MARGIN,
+    private val refreshTimeout: Duration = DEFAULT_REFRESH_TIMEOUT,
+    private val onRefreshDue: () -> Unit
+) {
+    private val refreshScope = CoroutineScope(Dispatchers.Default + SupervisorJob())
+    private val waiters = mutableListOf<Waiter>()
+    private var refreshGeneration = 0L
+    private var refreshTimeoutJob: Job? = null
+    private var scheduledRefresh: Job? = null
+    private var awaitingNewSession = false
+
+    @Volatile
+    private var snapshot: Snapshot? = null
+
+    /**
+     * Gets the established session, if it hasn't expired.
+     * @return The session, or null if the state machine has to be consulted
+     */
+    fun getValidSession(): AWSCognitoAuthSession? {
+        val current = snapshot ?: return null
+        return current.session.takeIf { Instant.now() < current.expiresAt }
+    }
+
+    /**
+     * Updates the snapshot from a new authorization state. Called by the state machine, in order.
+     * @param authZState The new authorization state
+     */
+    @Synchronized
+    fun onStateChanged(authZState: AuthorizationState?) {
+        when (authZState) {
+            // May still be the session of the user from before [invalidate] was called.
+            is AuthorizationState.SessionEstablished -> if (!awaitingNewSession) update(authZState.amplifyCredential)
+            // The signed in user doesn't change while their session is refreshed.
+            is AuthorizationState.FetchingAuthSession,
+            is AuthorizationState.RefreshingSession,
+            is AuthorizationState.StoringCredentials -> awaitingNewSession = false
+            else -> {
+                awaitingNewSession = false
+                update(null)
+            }
+        }
+    }
+
+    /**
+     * Drops the snapshot right away, as the signed in user is about to change, such as when signing in or
+     * out. The session the state machine had established is not cached again; the next one is.
+     */
+    @Synchronized
+    fun invalidate() {
+        awaitingNewSession = true
+        update(null)
+    }
+
+    /**
+     * Waits on a session refresh, which only the first of concurrent callers starts. Every caller is
+     * notified once the refresh completes, fails, throws from [startRefresh], or runs past [refreshTimeout].
+     * A refresh that completes after it timed out is ignored, as it may no longer be the latest one.
+     * @param onSuccess Called with the refreshed session
+     * @param onError Called if the session couldn't be refreshed
+     * @param startRefresh Starts the refresh, and reports its outcome to one of the given callbacks
+     */
+    fun refresh(
+        onSuccess: Consumer<AuthSession>,
+        onError: Consumer<AuthException>,
+        startRefresh: (onRefreshed: Consumer<AuthSession>, onFailed: Consumer<AuthException>) -> Unit
+    ) {
+        val generation = synchronized(waiters) {
+            waiters.add(Waiter(onSuccess, onError))
+            if (waiters.size > 1) {
+                return
+            }
+            val generation = ++refreshGeneration
+            refreshTimeoutJob = refreshScope.launch {
+                delay(refreshTimeout)
+                fail(generation, UnknownException("Timed out waiting for the auth session to be refreshed."))
+            }
+            generation
+        }
+        try {
+            startRefresh(
+                Consumer { session -> drainWaiters(generation).forEach { it.onSuccess.accept(session) } },
+                Consumer { error -> fail(generation, error) }
+            )
+        } catch (error: Exception) {
+            fail(generation, error as? AuthException ?: UnknownException(cause = error))
+        }
+    }
+
+    /**
+     * Stops refreshing the session in the background, and fails any caller still waiting on a refresh.
+     * Called once this cache is no longer used.
+     */
+    fun close() {
+        refreshScope.cancel()
+        val generation = synchronized(waiters) { refreshGeneration }
+        fail(generation, UnknownException("The auth session refresh was abandoned, as Auth was reconfigured."))
+    }
+
+    private fun fail(generation: Long, error: AuthException) =
+        drainWaiters(generation).forEach { it.onError.accept(error) }
+
+    private fun drainWaiters(generation: Long): List<Waiter> = synchronized(waiters) {
+        if (generation != refreshGeneration) {
+            return emptyList()
+        }
+        refreshTimeoutJob?.cancel()
+        refreshTimeoutJob = null
+        val drained = waiters.toList()
+        waiters.clear()
+        drained
+    }
+
+    private fun update(credential: AmplifyCredential?) {
+        val expiresAt = credential?.getExpiration()
+        val updated = expiresAt?.let { Snapshot(credential.getCognitoSession(), it) }
+        if (updated == snapshot) {
+            return
+        }
+        snapshot = updated
+        scheduledRefresh?.cancel()
+        scheduledRefresh = expiresAt?.let { scheduleRefresh(it) }
+    }
+
+    private fun scheduleRefresh(expiresAt: Instant): Job? {
+        val delayMillis = expiresAt.toEpochMilli() - refreshMargin.inWholeMilliseconds - System.currentTimeMillis()
+        // A session which is already within the margin is refreshed by the next caller, rather than
+        // here, so that sessions which never outlive the margin don't keep refreshing.
+        if (delayMillis <= 0) {
+            return null
+        }
+        return refreshScope.launch {
+            delay(delayMillis)
+            onRefreshDue()
+        }
+    }
+
+    private data class Snapshot(val session: AWSCognitoAuthSession, val expiresAt: Instant)
+
+    private class Waiter(val onSuccess: Consumer<AuthSession>, val onError: Consumer<AuthException>)
+
+    companion object {
+        val DEFAULT_REFRESH_MARGIN = 5.minutes
+        val DEFAULT_REFRESH_TIMEOUT = 1.minutes
+    }
+}
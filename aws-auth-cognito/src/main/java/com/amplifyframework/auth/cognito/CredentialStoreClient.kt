@@ -27,6 +27,9 @@ import com.amplifyframework.statemachine.codegen.events.CredentialStoreEvent
 import com.amplifyframework.statemachine.codegen.states.CredentialStoreState
 import kotlin.coroutines.resumeWithException
 import kotlin.coroutines.suspendCoroutine
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.GlobalScope
+import kotlinx.coroutines.launch
 
 internal interface StoreClientBehavior {
     suspend fun loadCredentials(credentialType: CredentialType): AmplifyCredential
@@ -43,12 +46,27 @@ internal class CredentialStoreClient(configuration: AuthConfiguration, context:
         context: Context
     ): CredentialStoreStateMachine {
         val awsCognitoAuthCredentialStore = AWSCognitoAuthCredentialStore(context.applicationContext, configuration)
+        warmUp(awsCognitoAuthCredentialStore)
         val legacyCredentialStore = AWSCognitoLegacyCredentialStore(context.applicationContext, configuration)
         val credentialStoreEnvironment =
             CredentialStoreEnvironment(awsCognitoAuthCredentialStore, legacyCredentialStore, logger)
         return CredentialStoreStateMachine(credentialStoreEnvironment)
     }
 
+    /**
+     * Open the encrypted store and decode the stored credential in the background, which is otherwise done on the
+     * first credential load. A failure here is retried by that load.
+     */
+    private fun warmUp(credentialStore: AWSCognitoAuthCredentialStore) {
+        GlobalScope.launch(Dispatchers.IO) {
+            try {
+                credentialStore.warmUp()
+            } catch (e: Exception) {
+                logger.warn("Failed to warm up the credential store.", e)
+            }
+        }
+    }
+
     private fun listenForResult(
         event: CredentialStoreEvent,
         onSuccess: (Result<AmplifyCredential>) -> Unit,
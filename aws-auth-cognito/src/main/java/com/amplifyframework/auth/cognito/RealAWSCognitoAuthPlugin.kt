@@ -144,6 +144,7 @@ import java.util.concurrent.atomic.AtomicReference
 import kotlin.coroutines.resume
 import kotlin.coroutines.resumeWithException
 import kotlin.coroutines.suspendCoroutine
+import kotlin.time.Duration
 import kotlinx.coroutines.DelicateCoroutinesApi
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.async
@@ -153,11 +154,20 @@ internal class RealAWSCognitoAuthPlugin(
     private val configuration: AuthConfiguration,
     private val authEnvironment: AuthEnvironment,
     private val authStateMachine: AuthStateMachine,
-    private val logger: Logger
+    private val logger: Logger,
+    sessionRefreshMargin: Duration = AuthSessionCache.DEFAULT_REFRESH_MARGIN
 ) : AuthCategoryBehavior {
 
     private val lastPublishedHubEventName = AtomicReference<String>()
 
+    private val sessionCache = AuthSessionCache(sessionRefreshMargin) {
+        fetchAuthSession(
+            AuthFetchSessionOptions.builder().forceRefresh(true).build(),
+            Consumer { logger.verbose("Refreshed auth session ahead of its expiration.") },
+            Consumer { logger.warn("Failed to refresh auth session ahead of its expiration.", it) }
+        )
+    }
+
     init {
         addAuthStateChangeListener()
         configureAuthStates()
@@ -165,6 +175,11 @@ internal class RealAWSCognitoAuthPlugin(
 
     fun escapeHatch() = authEnvironment.cognitoAuthService
 
+    /**
+     * Stops the background work of this instance, once the plugin has been configured with a new one.
+     */
+    fun close() = sessionCache.close()
+
     @WorkerThread
     @Throws(AmplifyException::class)
     fun initialize() {
@@ -507,6 +522,8 @@ internal class RealAWSCognitoAuthPlugin(
         onSuccess: Consumer<AuthSignInResult>,
         onError: Consumer<AuthException>
     ) {
+        // The signed in user is about to change, so the cached session must not be served anymore.
+        sessionCache.invalidate()
         val token = StateChangeListenerToken()
         authStateMachine.listen(
             token,
@@ -760,6 +777,7 @@ internal class RealAWSCognitoAuthPlugin(
         onError: Consumer<AuthException>,
         provider: AuthProvider? = null
     ) {
+        sessionCache.invalidate()
         val token = StateChangeListenerToken()
         authStateMachine.listen(
             token,
@@ -910,53 +928,30 @@ internal class RealAWSCognitoAuthPlugin(
         onError: Consumer<AuthException>
     ) {
         val forceRefresh = options.forceRefresh
+        if (!forceRefresh) {
+            // Unexpired sessions don't need the state machine, so callers don't queue up behind it.
+            sessionCache.getValidSession()?.let {
+                onSuccess.accept(it)
+                return
+            }
+        }
         authStateMachine.getCurrentState { authState ->
             when (val authZState = authState.authZState) {
                 is AuthorizationState.Configured -> {
-                    authStateMachine.send(AuthorizationEvent(AuthorizationEvent.EventType.FetchUnAuthSession))
-                    _fetchAuthSession(onSuccess, onError)
+                    refreshAuthSession(onSuccess, onError) {
+                        authStateMachine.send(AuthorizationEvent(AuthorizationEvent.EventType.FetchUnAuthSession))
+                    }
                 }
                 is AuthorizationState.SessionEstablished -> {
                     val credential = authZState.amplifyCredential
                     if (!credential.isValid() || forceRefresh) {
-                        if (credential is AmplifyCredential.IdentityPoolFederated) {
-                            authStateMachine.send(
-                                AuthorizationEvent(
-                                    AuthorizationEvent.EventType.StartFederationToIdentityPool(
-                                        credential.federatedToken,
-                                        credential.identityId,
-                                        credential
-                                    )
-                                )
-                            )
-                        } else {
-                            authStateMachine.send(
-                                AuthorizationEvent(AuthorizationEvent.EventType.RefreshSession(credential))
-                            )
-                        }
-                        _fetchAuthSession(onSuccess, onError)
+                        refreshAuthSession(onSuccess, onError) { sendRefreshSessionEvent(credential) }
                     } else onSuccess.accept(credential.getCognitoSession())
                 }
                 is AuthorizationState.Error -> {
                     val error = authZState.exception
                     if (error is SessionError) {
-                        val amplifyCredential = error.amplifyCredential
-                        if (amplifyCredential is AmplifyCredential.IdentityPoolFederated) {
-                            authStateMachine.send(
-                                AuthorizationEvent(
-                                    AuthorizationEvent.EventType.StartFederationToIdentityPool(
-                                        amplifyCredential.federatedToken,
-                                        amplifyCredential.identityId,
-                                        amplifyCredential
-                                    )
-                                )
-                            )
-                        } else {
-                            authStateMachine.send(
-                                AuthorizationEvent(AuthorizationEvent.EventType.RefreshSession(amplifyCredential))
-                            )
-                        }
-                        _fetchAuthSession(onSuccess, onError)
+                        refreshAuthSession(onSuccess, onError) { sendRefreshSessionEvent(error.amplifyCredential) }
                     } else {
                         onError.accept(InvalidStateException())
                     }
@@ -966,6 +961,36 @@ internal class RealAWSCognitoAuthPlugin(
         }
     }
 
+    /**
+     * Waits on a refresh of the session, starting one unless another caller already has.
+     */
+    private fun refreshAuthSession(
+        onSuccess: Consumer<AuthSession>,
+        onError: Consumer<AuthException>,
+        startRefresh: () -> Unit
+    ) {
+        sessionCache.refresh(onSuccess, onError) { onRefreshed, onFailed ->
+            startRefresh()
+            _fetchAuthSession(onRefreshed, onFailed)
+        }
+    }
+
+    private fun sendRefreshSessionEvent(credential: AmplifyCredential) {
+        if (credential is AmplifyCredential.IdentityPoolFederated) {
+            authStateMachine.send(
+                AuthorizationEvent(
+                    AuthorizationEvent.EventType.StartFederationToIdentityPool(
+                        credential.federatedToken,
+                        credential.identityId,
+                        credential
+                    )
+                )
+            )
+        } else {
+            authStateMachine.send(AuthorizationEvent(AuthorizationEvent.EventType.RefreshSession(credential)))
+        }
+    }
+
     private fun _fetchAuthSession(
         onSuccess: Consumer<AuthSession>,
         onError: Consumer<AuthException>
@@ -1010,7 +1035,8 @@ internal class RealAWSCognitoAuthPlugin(
                     else -> Unit
                 }
             },
-            null
+            null,
+            AuthState::authZState
         )
     }
 
@@ -1632,6 +1658,7 @@ internal class RealAWSCognitoAuthPlugin(
     }
 
     private fun _signOut(sendHubEvent: Boolean = true, onComplete: Consumer<AuthSignOutResult>) {
+        sessionCache.invalidate()
         val token = StateChangeListenerToken()
         authStateMachine.listen(
             token,
@@ -1707,6 +1734,7 @@ internal class RealAWSCognitoAuthPlugin(
     }
 
     private fun _deleteUser(token: String, onSuccess: Action, onError: Consumer<AuthException>) {
+        sessionCache.invalidate()
         val listenerToken = StateChangeListenerToken()
         authStateMachine.listen(
             listenerToken,
@@ -1755,7 +1783,10 @@ internal class RealAWSCognitoAuthPlugin(
     private fun addAuthStateChangeListener() {
         authStateMachine.listen(
             StateChangeListenerToken(),
-            { authState -> logger.verbose("Auth State Change: $authState") },
+            { authState ->
+                logger.verbose("Auth State Change: $authState")
+                sessionCache.onStateChanged(authState.authZState)
+            },
             null
         )
     }
@@ -1833,6 +1864,7 @@ internal class RealAWSCognitoAuthPlugin(
         onSuccess: Consumer<FederateToIdentityPoolResult>,
         onError: Consumer<AuthException>
     ) {
+        sessionCache.invalidate()
         val token = StateChangeListenerToken()
         authStateMachine.listen(
             token,
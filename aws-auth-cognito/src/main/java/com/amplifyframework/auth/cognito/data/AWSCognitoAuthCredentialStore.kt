@@ -41,45 +41,81 @@ internal class AWSCognitoAuthCredentialStore(
     private var keyValue: KeyValueRepository =
         keyValueRepoFactory.create(context, awsKeyValueStoreIdentifier, isPersistenceEnabled)
 
+    /**
+     * Decoded values by key. Reading the encrypted store decrypts and decodes on every call, so values are cached
+     * here once read, and written through on save and delete. Guarded by this store's monitor.
+     */
+    private val decodedValues = mutableMapOf<String, Any>()
+
     //region Save Credentials
-    override fun saveCredential(credential: AmplifyCredential) = keyValue.put(
+    override fun saveCredential(credential: AmplifyCredential) = put(
         generateKey(Key_Session),
+        credential,
         serializeCredential(credential)
     )
 
-    override fun saveDeviceMetadata(username: String, deviceMetadata: DeviceMetadata) = keyValue.put(
+    override fun saveDeviceMetadata(username: String, deviceMetadata: DeviceMetadata) = put(
         generateKey("$username.$Key_DeviceMetadata"),
+        deviceMetadata,
         serializeMetaData(deviceMetadata)
     )
 
-    override fun saveASFDevice(device: AmplifyCredential.ASFDevice) = keyValue.put(
+    override fun saveASFDevice(device: AmplifyCredential.ASFDevice) = put(
         generateKey(Key_ASFDevice),
+        device,
         serializeASFDevice(device)
     )
     //endregion
 
     //region Retrieve Credentials
-    override fun retrieveCredential(): AmplifyCredential = deserializeCredential(keyValue.get(generateKey(Key_Session)))
+    override fun retrieveCredential(): AmplifyCredential = get(generateKey(Key_Session), ::deserializeCredential)
 
-    override fun retrieveDeviceMetadata(username: String): DeviceMetadata = deserializeMetadata(
-        keyValue.get(generateKey("$username.$Key_DeviceMetadata"))
+    override fun retrieveDeviceMetadata(username: String): DeviceMetadata = get(
+        generateKey("$username.$Key_DeviceMetadata"),
+        ::deserializeMetadata
     )
 
-    override fun retrieveASFDevice(): AmplifyCredential.ASFDevice = deserializeASFDevice(
-        keyValue.get(generateKey(Key_ASFDevice))
+    override fun retrieveASFDevice(): AmplifyCredential.ASFDevice = get(
+        generateKey(Key_ASFDevice),
+        ::deserializeASFDevice
     )
     //endregion
 
     //region Delete Credentials
-    override fun deleteCredential() = keyValue.remove(generateKey(Key_Session))
+    override fun deleteCredential() = remove(generateKey(Key_Session))
 
-    override fun deleteDeviceKeyCredential(username: String) = keyValue.remove(
+    override fun deleteDeviceKeyCredential(username: String) = remove(
         generateKey("$username.$Key_DeviceMetadata")
     )
 
-    override fun deleteASFDevice() = keyValue.remove(generateKey(Key_ASFDevice))
+    override fun deleteASFDevice() = remove(generateKey(Key_ASFDevice))
     //endregion
 
+    /**
+     * Opens the underlying store and decodes the stored credential, so that the first credential load doesn't pay
+     * for it. Intended to be called off the main thread.
+     */
+    fun warmUp() {
+        retrieveCredential()
+    }
+
+    @Synchronized
+    private fun put(key: String, value: Any, encodedValue: String) {
+        keyValue.put(key, encodedValue)
+        decodedValues[key] = value
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    @Synchronized
+    private fun <T : Any> get(key: String, decode: (String?) -> T): T =
+        decodedValues.getOrPut(key) { decode(keyValue.get(key)) } as T
+
+    @Synchronized
+    private fun remove(key: String) {
+        keyValue.remove(key)
+        decodedValues.remove(key)
+    }
+
     private fun generateKey(keySuffix: String): String {
         var prefix = "amplify"
 
@@ -16,6 +16,7 @@
 package com.amplifyframework.statemachine
 
 import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineExceptionHandler
 import kotlinx.coroutines.Dispatchers
@@ -26,6 +27,11 @@ import kotlinx.coroutines.newFixedThreadPoolContext
 
 internal typealias OnSubscribedCallback = () -> Unit
 
+/**
+ * Selects the part of a state which a listener depends on.
+ */
+internal typealias StateSelector<StateType> = (StateType) -> Any?
+
 internal class StateChangeListenerToken private constructor(val uuid: UUID) {
     constructor() : this(UUID.randomUUID())
     override fun equals(other: Any?) = other is StateChangeListenerToken && other.uuid == uuid
@@ -72,10 +78,16 @@ internal open class StateMachine<StateType : State, EnvironmentType : Environmen
      */
     private val stateMachineScope = Job() + operationQueue // + exceptionHandler
 
-    // weak wrapper ??
-    private val subscribers: MutableMap<StateChangeListenerToken, (StateType) -> Unit>
+    /**
+     * Listeners, indexed by the part of the state they select, so that a selection which didn't change skips all of
+     * its listeners at once. Listeners without a selector are under the null key. Copy-on-write: the maps are replaced
+     * rather than changed, and only on the operation queue, so notifying listeners never races with (un)subscribing.
+     */
+    private var subscribers: Map<StateSelector<StateType>?, Map<StateChangeListenerToken, (StateType) -> Unit>>
+
+    private var subscriberSelectors: Map<StateChangeListenerToken, StateSelector<StateType>?>
 
-    // atomic value ??
+    // Added to from any thread by cancel().
     private val pendingCancellations: MutableSet<StateChangeListenerToken>
 
     init {
@@ -83,8 +95,9 @@ internal open class StateMachine<StateType : State, EnvironmentType : Environmen
         dispatcherQueue = resolvedQueue
         this.executor = executor ?: ConcurrentEffectExecutor(resolvedQueue)
 
-        subscribers = mutableMapOf()
-        pendingCancellations = mutableSetOf()
+        subscribers = emptyMap()
+        subscriberSelectors = emptyMap()
+        pendingCancellations = ConcurrentHashMap.newKeySet()
     }
 
     /**
@@ -92,11 +105,18 @@ internal open class StateMachine<StateType : State, EnvironmentType : Environmen
      * Both `listener` and `onSubscribe` will be invoked on a background queue.
      * @param listener listener to be invoked on state changes
      * @param onSubscribe callback to invoke when subscription is complete
+     * @param selector if set, the listener is only invoked on state changes which change the selected part of the
+     * state. Listeners sharing an equal selector, such as the same property reference, are checked together.
      * @return token that can be used to unsubscribe the listener
      */
-    fun listen(token: StateChangeListenerToken, listener: (StateType) -> Unit, onSubscribe: OnSubscribedCallback?) {
+    fun listen(
+        token: StateChangeListenerToken,
+        listener: (StateType) -> Unit,
+        onSubscribe: OnSubscribedCallback?,
+        selector: StateSelector<StateType>? = null
+    ) {
         GlobalScope.launch(stateMachineScope) {
-            addSubscription(token, listener, onSubscribe)
+            addSubscription(token, listener, onSubscribe, selector)
         }
     }
 
@@ -127,15 +147,19 @@ internal open class StateMachine<StateType : State, EnvironmentType : Environmen
      * @param token token, which will be retained in the subscribers map
      * @param listener listener to invoke when the state has changed
      * @param onSubscribe callback to invoke when subscription is complete
+     * @param selector part of the state the listener depends on, if any
      */
     private fun addSubscription(
         token: StateChangeListenerToken,
         listener: (StateType) -> Unit,
-        onSubscribe: OnSubscribedCallback?
+        onSubscribe: OnSubscribedCallback?,
+        selector: StateSelector<StateType>?
     ) {
         if (pendingCancellations.contains(token)) return
         val currentState = this.currentState
-        subscribers[token] = listener
+        removeListener(token)
+        subscribers = subscribers + (selector to (subscribers[selector].orEmpty() + (token to listener)))
+        subscriberSelectors = subscriberSelectors + (token to selector)
         onSubscribe?.invoke()
         GlobalScope.launch(dispatcherQueue) {
             listener.invoke(currentState)
@@ -148,7 +172,15 @@ internal open class StateMachine<StateType : State, EnvironmentType : Environmen
      */
     private fun removeSubscription(token: StateChangeListenerToken) {
         pendingCancellations.remove(token)
-        subscribers.remove(token)
+        removeListener(token)
+    }
+
+    private fun removeListener(token: StateChangeListenerToken) {
+        if (!subscriberSelectors.containsKey(token)) return
+        val selector = subscriberSelectors[token]
+        val remaining = subscribers[selector].orEmpty() - token
+        subscribers = if (remaining.isEmpty()) subscribers - selector else subscribers + (selector to remaining)
+        subscriberSelectors = subscriberSelectors - token
     }
 
     /**
@@ -162,19 +194,23 @@ internal open class StateMachine<StateType : State, EnvironmentType : Environmen
     }
 
     /**
-     * Notify all the listeners with the new state.
-     * @param subscriber pair containing the subscriber token and listener
+     * Notify the listeners whose selected part of the state changed with the new state.
+     * @param oldState state before the change
      * @param newState new state to be sent
-     * @return true if the subscriber was notified, false if the token was null or a cancellation was pending
      */
-    private fun notifySubscribers(
-        subscriber: Map.Entry<StateChangeListenerToken, (StateType) -> Unit>,
-        newState: StateType
-    ): Boolean {
-        val token = subscriber.key
-        if (pendingCancellations.contains(token)) return false
-        subscriber.value(newState)
-        return true
+    private fun notifySubscribers(oldState: StateType, newState: StateType) {
+        val cancelled = mutableListOf<StateChangeListenerToken>()
+        for ((selector, listeners) in subscribers) {
+            if (selector != null && selector(oldState) == selector(newState)) continue
+            for ((token, listener) in listeners) {
+                if (pendingCancellations.contains(token)) {
+                    cancelled.add(token)
+                } else {
+                    listener(newState)
+                }
+            }
+        }
+        cancelled.forEach(::removeListener)
     }
 
     /**
@@ -187,9 +223,9 @@ internal open class StateMachine<StateType : State, EnvironmentType : Environmen
     private fun process(event: StateMachineEvent) {
         val resolution = resolver.resolve(currentState, event)
         if (currentState != resolution.newState) {
+            val oldState = currentState
             currentState = resolution.newState
-            val subscribersToRemove = subscribers.filter { !notifySubscribers(it, resolution.newState) }
-            subscribersToRemove.forEach { subscribers.remove(it.key) }
+            notifySubscribers(oldState, resolution.newState)
         }
         execute(resolution.actions)
     }
@@ -15,17 +15,22 @@
 
 package com.amplifyframework.statemachine.codegen.data
 
+import com.amplifyframework.auth.cognito.AuthSessionCache
 import com.amplifyframework.auth.cognito.options.AuthFlowType
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
 import org.json.JSONObject
 
 /**
  * Configuration options for [AWSCognitoAuthPlugin].
+ * @param sessionRefreshMargin How long before the auth session expires to refresh it in the background
  */
 internal data class AuthConfiguration internal constructor(
     val userPool: UserPoolConfiguration?,
     val identityPool: IdentityPoolConfiguration?,
     val oauth: OauthConfiguration?,
     val authFlowType: AuthFlowType,
+    val sessionRefreshMargin: Duration = AuthSessionCache.DEFAULT_REFRESH_MARGIN
 ) {
 
     companion object {
@@ -55,7 +60,12 @@ internal data class AuthConfiguration internal constructor(
                     pluginJson.optJSONObject("Auth")
                         ?.optJSONObject(configName)
                         ?.optString("authenticationFlowType")
-                )
+                ),
+                sessionRefreshMargin = pluginJson.optJSONObject("Auth")
+                    ?.optJSONObject(configName)
+                    ?.takeIf { it.has("sessionRefreshMarginSeconds") }
+                    ?.getLong("sessionRefreshMarginSeconds")?.seconds
+                    ?: AuthSessionCache.DEFAULT_REFRESH_MARGIN
             )
         }
         private fun getAuthenticationFlowType(authType: String?): AuthFlowType {
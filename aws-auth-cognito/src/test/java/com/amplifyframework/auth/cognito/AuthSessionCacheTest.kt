@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.auth.cognito
+
+import com.amplifyframework.auth.AuthException
+import com.amplifyframework.auth.AuthSession
+import com.amplifyframework.auth.exceptions.UnknownException
+import com.amplifyframework.core.Consumer
+import com.amplifyframework.statemachine.codegen.data.AWSCredentials
+import com.amplifyframework.statemachine.codegen.data.AmplifyCredential
+import com.amplifyframework.statemachine.codegen.states.AuthorizationState
+import com.amplifyframework.statemachine.codegen.states.RefreshSessionState
+import io.mockk.mockk
+import io.mockk.verify
+import java.time.Instant
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.minutes
+import org.junit.Test
+
+class AuthSessionCacheTest {
+    private val sessionCache = AuthSessionCache(5.minutes) { }
+
+    @Test
+    fun `established session is served until signing out`() {
+        val credential = identityPoolCredential(Instant.now().plusSeconds(3600))
+
+        sessionCache.onStateChanged(AuthorizationState.SessionEstablished(credential))
+        assertEquals("identityId", sessionCache.getValidSession()?.identityIdResult?.value)
+
+        sessionCache.onStateChanged(
+            AuthorizationState.RefreshingSession(credential, RefreshSessionState.NotStarted())
+        )
+        assertNotNull(sessionCache.getValidSession())
+
+        sessionCache.onStateChanged(AuthorizationState.SigningOut(credential))
+        assertNull(sessionCache.getValidSession())
+    }
+
+    @Test
+    fun `session of the previous user is not served once the user starts to change`() {
+        val credential = identityPoolCredential(Instant.now().plusSeconds(3600))
+        sessionCache.onStateChanged(AuthorizationState.SessionEstablished(credential))
+
+        sessionCache.invalidate()
+        assertNull(sessionCache.getValidSession())
+
+        // The state machine reports the previous session before it gets to the sign in.
+        sessionCache.onStateChanged(AuthorizationState.SessionEstablished(credential))
+        assertNull(sessionCache.getValidSession())
+
+        sessionCache.onStateChanged(AuthorizationState.SigningIn())
+        sessionCache.onStateChanged(AuthorizationState.SessionEstablished(credential))
+        assertNotNull(sessionCache.getValidSession())
+    }
+
+    @Test
+    fun `expired session is not served`() {
+        val credential = identityPoolCredential(Instant.now().minusSeconds(60))
+
+        sessionCache.onStateChanged(AuthorizationState.SessionEstablished(credential))
+
+        assertNull(sessionCache.getValidSession())
+    }
+
+    @Test
+    fun `concurrent callers share a single refresh`() {
+        val session = mockk<AuthSession>()
+        val onSuccess = List(3) { mockk<Consumer<AuthSession>>(relaxed = true) }
+        val onError = mockk<Consumer<AuthException>>(relaxed = true)
+        val refreshes = mutableListOf<Consumer<AuthSession>>()
+
+        onSuccess.forEach { callback ->
+            sessionCache.refresh(callback, onError) { onRefreshed, _ -> refreshes.add(onRefreshed) }
+        }
+        refreshes.single().accept(session)
+
+        onSuccess.forEach { verify(exactly = 1) { it.accept(session) } }
+        sessionCache.refresh(onSuccess.first(), onError) { onRefreshed, _ -> refreshes.add(onRefreshed) }
+        assertEquals(2, refreshes.size)
+    }
+
+    @Test
+    fun `refresh that throws fails every waiter`() {
+        val onSuccess = mockk<Consumer<AuthSession>>(relaxed = true)
+        val onError = List(2) { mockk<Consumer<AuthException>>(relaxed = true) }
+
+        sessionCache.refresh(onSuccess, onError[0]) { _, _ ->
+            // Another caller joins the refresh before it throws.
+            sessionCache.refresh(onSuccess, onError[1]) { _, _ -> }
+            throw IllegalStateException("State machine is gone")
+        }
+
+        onError.forEach { verify(exactly = 1) { it.accept(any<UnknownException>()) } }
+        verify(exactly = 0) { onSuccess.accept(any()) }
+    }
+
+    @Test
+    fun `refresh that never completes times out`() {
+        val cache = AuthSessionCache(5.minutes, 100.milliseconds) { }
+        val failed = CountDownLatch(1)
+        var lateCallback: Consumer<AuthSession>? = null
+        val onSuccess = mockk<Consumer<AuthSession>>(relaxed = true)
+
+        cache.refresh(onSuccess, Consumer { failed.countDown() }) { onRefreshed, _ -> lateCallback = onRefreshed }
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS))
+        lateCallback?.accept(mockk())
+        verify(exactly = 0) { onSuccess.accept(any()) }
+    }
+
+    @Test
+    fun `session is refreshed ahead of its expiration`() {
+        val refreshed = CountDownLatch(1)
+        val cache = AuthSessionCache(1.hours) { refreshed.countDown() }
+
+        cache.onStateChanged(
+            AuthorizationState.SessionEstablished(identityPoolCredential(Instant.now().plusSeconds(3601)))
+        )
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS))
+    }
+
+    @Test
+    fun `session within the margin is not refreshed in the background`() {
+        val refreshed = CountDownLatch(1)
+        val cache = AuthSessionCache(1.hours) { refreshed.countDown() }
+
+        cache.onStateChanged(
+            AuthorizationState.SessionEstablished(identityPoolCredential(Instant.now().plusSeconds(60)))
+        )
+
+        assertFalse(refreshed.await(2, TimeUnit.SECONDS))
+    }
+
+    private fun identityPoolCredential(expiration: Instant) = AmplifyCredential.IdentityPool(
+        "identityId",
+        AWSCredentials("accessKeyId", "secretAccessKey", "sessionToken", expiration.epochSecond)
+    )
+}
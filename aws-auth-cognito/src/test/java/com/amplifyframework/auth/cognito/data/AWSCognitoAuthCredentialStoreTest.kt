@@ -134,6 +134,41 @@ class AWSCognitoAuthCredentialStoreTest {
         verify(mockKeyValue, times(1)).remove(KEY_WITH_USER_POOL)
     }
 
+    @Test
+    fun testRetrieveCredentialReadsStoreOnce() {
+        setupUserPoolConfig()
+        persistentStore = AWSCognitoAuthCredentialStore(mockContext, mockConfig, true, mockFactory)
+
+        persistentStore.retrieveCredential()
+        val actual = persistentStore.retrieveCredential()
+
+        Assert.assertEquals(getCredential(), actual)
+        verify(mockKeyValue, times(1)).get(KEY_WITH_USER_POOL)
+    }
+
+    @Test
+    fun testRetrieveCredentialAfterSaveDoesNotReadStore() {
+        setupUserPoolConfig()
+        persistentStore = AWSCognitoAuthCredentialStore(mockContext, mockConfig, true, mockFactory)
+
+        persistentStore.saveCredential(AmplifyCredential.Empty)
+
+        Assert.assertEquals(AmplifyCredential.Empty, persistentStore.retrieveCredential())
+        verify(mockKeyValue, times(0)).get(KEY_WITH_USER_POOL)
+    }
+
+    @Test
+    fun testRetrieveCredentialAfterDeleteReadsStore() {
+        setupUserPoolConfig()
+        persistentStore = AWSCognitoAuthCredentialStore(mockContext, mockConfig, true, mockFactory)
+
+        persistentStore.retrieveCredential()
+        persistentStore.deleteCredential()
+        persistentStore.retrieveCredential()
+
+        verify(mockKeyValue, times(2)).get(KEY_WITH_USER_POOL)
+    }
+
     @Test
     fun testInMemoryCredentialStore() {
         val store = AWSCognitoAuthCredentialStore(mockContext, mockConfig, false)
@@ -22,6 +22,7 @@ import com.amplifyframework.statemachine.state.CounterEnvironment
 import com.amplifyframework.statemachine.state.CounterStateMachine
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertTrue
@@ -146,4 +147,57 @@ class StateMachineListenerTests {
         stateMachine.send(Counter.Event("2", eventType = Increment))
         assertFalse { listenLatch.await(5, TimeUnit.SECONDS) }
     }
+
+    @Test
+    fun testNoNotifyUnchangedSelection() {
+        val notifications = AtomicInteger()
+        val subscribeLatch = CountDownLatch(1)
+        stateMachine.listen(
+            StateChangeListenerToken(),
+            { notifications.incrementAndGet() },
+            { subscribeLatch.countDown() },
+            { it.value >= 3 }
+        )
+        assertTrue { subscribeLatch.await(5, TimeUnit.SECONDS) }
+
+        val changedLatch = CountDownLatch(1)
+        stateMachine.listen(
+            StateChangeListenerToken(),
+            { if (it.value == 3) changedLatch.countDown() },
+            null
+        )
+        repeat(3) { stateMachine.send(Counter.Event("$it", eventType = Increment)) }
+        assertTrue { changedLatch.await(5, TimeUnit.SECONDS) }
+
+        // Once on subscribing, and once when the value reached 3.
+        assertEquals(2, notifications.get())
+    }
+
+    @Test
+    fun testNotifyManySubscribers() {
+        val subscriberCount = 500
+        val eventCount = 1000
+        val subscribeLatch = CountDownLatch(subscriberCount)
+        val notifyLatch = CountDownLatch(subscriberCount)
+        val outOfOrder = AtomicInteger()
+        repeat(subscriberCount) {
+            val lastSeen = AtomicInteger(-1)
+            stateMachine.listen(
+                StateChangeListenerToken(),
+                {
+                    if (it.value <= lastSeen.getAndSet(it.value)) outOfOrder.incrementAndGet()
+                    if (it.value == eventCount) notifyLatch.countDown()
+                },
+                { subscribeLatch.countDown() },
+                Counter::value
+            )
+        }
+        assertTrue { subscribeLatch.await(5, TimeUnit.SECONDS) }
+
+        repeat(eventCount) { stateMachine.send(Counter.Event("$it", eventType = Increment)) }
+
+        // Every subscriber sees the final state, and never sees an older state after a newer one.
+        assertTrue { notifyLatch.await(10, TimeUnit.SECONDS) }
+        assertEquals(0, outOfOrder.get())
+    }
 }
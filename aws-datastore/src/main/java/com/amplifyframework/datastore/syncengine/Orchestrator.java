@@ -20,6 +20,7 @@ import androidx.annotation.NonNull;
 import androidx.core.util.Supplier;
 
 import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.events.ApiChannelEventName;
 import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.model.ModelProvider;
 import com.amplifyframework.core.model.SchemaRegistry;
@@ -32,6 +33,7 @@ import com.amplifyframework.datastore.events.NetworkStatusEvent;
 import com.amplifyframework.datastore.storage.LocalStorageAdapter;
 import com.amplifyframework.hub.HubChannel;
 import com.amplifyframework.hub.HubEvent;
+import com.amplifyframework.hub.SubscriptionToken;
 import com.amplifyframework.logging.Logger;
 
 import org.json.JSONObject;
@@ -39,6 +41,7 @@ import org.json.JSONObject;
 import java.util.Objects;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.reactivex.rxjava3.core.Completable;
@@ -63,6 +66,8 @@ public final class Orchestrator {
     private final MutationOutbox mutationOutbox;
     private final CompositeDisposable disposables;
     private final Semaphore startStopSemaphore;
+    private final AtomicBoolean syncInProgress;
+    private final AtomicReference<SubscriptionToken> connectionResumedToken;
 
     /**
      * Constructs a new Orchestrator.
@@ -137,6 +142,8 @@ public final class Orchestrator {
         this.disposables = new CompositeDisposable();
 
         this.startStopSemaphore = new Semaphore(1);
+        this.syncInProgress = new AtomicBoolean(false);
+        this.connectionResumedToken = new AtomicReference<>();
 
     }
 
@@ -293,6 +300,8 @@ public final class Orchestrator {
     private void startApiSync() {
         LOG.info("Setting currentState to SYNC_VIA_API");
         currentState.set(State.SYNC_VIA_API);
+        syncInProgress.set(true);
+        observeSubscriptionConnectionResumed();
         disposables.add(
             Completable.create(emitter -> {
                 LOG.info("Starting API synchronization mode.");
@@ -333,6 +342,8 @@ public final class Orchestrator {
                         emitter.onComplete();
                     }
                     return;
+                } finally {
+                    syncInProgress.set(false);
                 }
 
                 LOG.debug("Draining outbox...");
@@ -353,6 +364,48 @@ public final class Orchestrator {
         );
     }
 
+    /**
+     * When the API re-establishes a lost subscription connection, its subscriptions are started
+     * again, but anything published while it was down was missed. Rather than restarting the whole
+     * sync engine, run one sync (a delta sync, in the usual case) to catch up.
+     */
+    private void observeSubscriptionConnectionResumed() {
+        SubscriptionToken token = Amplify.Hub.subscribe(HubChannel.API,
+            event -> ApiChannelEventName.SUBSCRIPTION_CONNECTION_RESUMED.toString().equals(event.getName()),
+            event -> onSubscriptionConnectionResumed()
+        );
+        SubscriptionToken previous = connectionResumedToken.getAndSet(token);
+        if (previous != null) {
+            Amplify.Hub.unsubscribe(previous);
+        }
+    }
+
+    private void stopObservingSubscriptionConnectionResumed() {
+        SubscriptionToken token = connectionResumedToken.getAndSet(null);
+        if (token != null) {
+            Amplify.Hub.unsubscribe(token);
+        }
+    }
+
+    private void onSubscriptionConnectionResumed() {
+        if (!State.SYNC_VIA_API.equals(currentState.get())) {
+            return;
+        }
+        // If a sync is already running (e.g., the initial one), it will pick up the missed changes.
+        if (!syncInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        LOG.info("Subscription connection resumed. Syncing changes that may have been missed.");
+        disposables.add(syncProcessor.hydrate()
+            .doFinally(() -> syncInProgress.set(false))
+            .subscribeOn(Schedulers.io())
+            .subscribe(
+                () -> LOG.info("Caught up on changes missed while the subscription connection was down."),
+                this::onApiSyncFailure
+            )
+        );
+    }
+
     private void publishNetworkStatusEvent(boolean active) {
         Amplify.Hub.publish(HubChannel.DATASTORE,
                 HubEvent.create(DataStoreChannelEventName.NETWORK_STATUS, new NetworkStatusEvent(active)));
@@ -381,6 +434,8 @@ public final class Orchestrator {
         LOG.info("Setting currentState to LOCAL_ONLY");
         currentState.set(State.LOCAL_ONLY);
         disposables.clear();
+        stopObservingSubscriptionConnectionResumed();
+        syncInProgress.set(false);
         subscriptionProcessor.stopAllSubscriptionActivity();
         mutationProcessor.stopDrainingMutationOutbox();
     }
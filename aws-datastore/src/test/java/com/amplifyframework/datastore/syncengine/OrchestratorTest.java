@@ -16,6 +16,7 @@
 package com.amplifyframework.datastore.syncengine;
 
 import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.events.ApiChannelEventName;
 import com.amplifyframework.api.graphql.GraphQLBehavior;
 import com.amplifyframework.api.graphql.MutationType;
 import com.amplifyframework.core.Amplify;
@@ -174,4 +175,27 @@ public final class OrchestratorTest {
 
         assertTrue(orchestrator.stop().blockingAwait(5, TimeUnit.SECONDS));
     }
+
+    /**
+     * When the API reports that a lost subscription connection has been re-established,
+     * the orchestrator runs one more sync to catch up, without restarting.
+     */
+    @Test
+    public void syncsAgainWhenSubscriptionConnectionResumes() {
+        // Arrange: orchestrator is running, and has completed its initial sync.
+        orchestrator.start().test();
+        orchestratorInitObserver.await(10, TimeUnit.SECONDS);
+        HubAccumulator catchUpObserver =
+            HubAccumulator.create(HubChannel.DATASTORE, DataStoreChannelEventName.SYNC_QUERIES_READY, 1)
+                          .start();
+
+        // Act: the API reports that the subscription connection has resumed.
+        Amplify.Hub.publish(HubChannel.API, HubEvent.create(ApiChannelEventName.SUBSCRIPTION_CONNECTION_RESUMED));
+
+        // Assert: one more sync was performed.
+        catchUpObserver.await(10, TimeUnit.SECONDS);
+        verify(mockApi, times(2)).query(any(), any(), any());
+
+        assertTrue(orchestrator.stop().blockingAwait(5, TimeUnit.SECONDS));
+    }
 }
@@ -20,6 +20,7 @@ import android.content.Context
 import android.net.Uri
 import androidx.test.core.app.ApplicationProvider
 import com.amplifyframework.storage.ObjectMetadata
+import com.amplifyframework.storage.TransferState
 import java.io.File
 import java.sql.Date
 import java.time.Instant
@@ -178,6 +179,66 @@ open class TransferDBTest {
         Assert.assertEquals(result, 2)
     }
 
+    @Test
+    fun testUpdateStatesTransitionsAllGivenRecords() {
+        val ids = (1..3).map { insertUpload() }
+
+        val updated = transferDB.updateStates(ids.take(2), TransferState.PAUSED)
+
+        Assert.assertEquals(2, updated)
+        Assert.assertEquals(TransferState.PAUSED, transferDB.getTransferRecordById(ids[0])?.state)
+        Assert.assertEquals(TransferState.PAUSED, transferDB.getTransferRecordById(ids[1])?.state)
+        Assert.assertEquals(TransferState.WAITING, transferDB.getTransferRecordById(ids[2])?.state)
+    }
+
+    @Test
+    fun testUnscheduledTransfersExcludeThoseHandedToWorkManager() {
+        val unscheduled = insertUpload()
+        val scheduled = insertUpload()
+        val paused = insertUpload()
+        transferDB.updateWorkManagerRequestId(scheduled, UUID.randomUUID().toString())
+        transferDB.updateState(paused, TransferState.PAUSED)
+
+        val ids = transferDB.queryUnscheduledTransfers().map { it.id }
+
+        Assert.assertTrue(ids.contains(unscheduled))
+        Assert.assertFalse(ids.contains(scheduled))
+        Assert.assertFalse(ids.contains(paused))
+    }
+
+    @Test
+    fun testPruneDeletesOnlyFinishedTransfersUpdatedBeforeCutoff() {
+        val completed = insertUpload()
+        val failed = insertUpload()
+        val inProgress = insertUpload()
+        transferDB.updateState(completed, TransferState.COMPLETED)
+        transferDB.updateState(failed, TransferState.FAILED)
+        transferDB.updateState(inProgress, TransferState.IN_PROGRESS)
+        val cutoff = System.currentTimeMillis() + 1
+        val recent = insertUpload()
+        transferDB.updateState(recent, TransferState.COMPLETED)
+
+        val pruned = transferDB.pruneTerminalTransfers(cutoff)
+
+        Assert.assertTrue(pruned >= 2)
+        Assert.assertNull(transferDB.getTransferRecordById(completed))
+        Assert.assertNull(transferDB.getTransferRecordById(failed))
+        Assert.assertNotNull(transferDB.getTransferRecordById(inProgress))
+    }
+
+    private fun insertUpload(): Int {
+        val uri = transferDB.insertSingleTransferRecord(
+            UUID.randomUUID().toString(),
+            TransferType.UPLOAD,
+            bucketName,
+            fileKey,
+            tempFile,
+            null,
+            null
+        )
+        return uri.lastPathSegment!!.toInt()
+    }
+
     private fun getInsertedRecord(uri: Uri): TransferRecord? {
         val queryResult = transferDB.queryTransferById(uri.lastPathSegment?.toInt() ?: 0)
         var resultRecord: TransferRecord? = null
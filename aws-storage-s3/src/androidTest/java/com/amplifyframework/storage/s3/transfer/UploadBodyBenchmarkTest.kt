@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.transfer
+
+import android.os.Debug
+import android.util.Log
+import aws.smithy.kotlin.runtime.content.ByteStream
+import aws.smithy.kotlin.runtime.io.SdkByteReadChannel
+import aws.smithy.kotlin.runtime.io.readChannel
+import aws.smithy.kotlin.runtime.util.InternalApi
+import com.amplifyframework.testutils.random.RandomTempFile
+import java.io.File
+import java.nio.ByteBuffer
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Measures the CPU time spent reading upload bodies, in milliseconds per GB, with FileChannelByteStream and with the
+ * body it replaced, which wrapped the file channel of the SDK to report progress. Run it on a device and compare the
+ * logged figures; it asserts nothing.
+ */
+class UploadBodyBenchmarkTest {
+    companion object {
+        private const val TAG = "UPLOAD_BODY_BENCHMARK"
+        private const val FILE_SIZE = 256 * 1024 * 1024L
+        private const val PART_SIZE = 8 * 1024 * 1024L
+        private const val SINK_SIZE = 8 * 1024
+        private const val BYTES_PER_GB = 1024 * 1024 * 1024.0
+    }
+
+    private lateinit var file: File
+    private val progressListener = object : ProgressListener {
+        var bytesTransferred = 0L
+        override fun progressChanged(bytesTransferred: Long) {
+            this.bytesTransferred += bytesTransferred
+        }
+    }
+
+    @Before
+    fun setUp() {
+        file = RandomTempFile(FILE_SIZE)
+    }
+
+    @After
+    fun tearDown() {
+        file.delete()
+    }
+
+    @Test
+    fun benchmarkFileChannelByteStream() {
+        measure("FileChannelByteStream") { start, length ->
+            FileChannelByteStream(file, start, length, progressListener).use { drain(it.readFrom()) }
+        }
+    }
+
+    @Test
+    fun benchmarkPreviousBody() {
+        measure("Previous body") { start, length ->
+            drain(PreviousProgressByteStream(file, start, length, progressListener).readFrom())
+        }
+    }
+
+    private fun measure(name: String, readPart: suspend (start: Long, length: Long) -> Long) {
+        // A first pass warms up the page cache and the JIT, so that the measured pass only counts reading costs.
+        repeat(2) { pass ->
+            val startCpuNanos = Debug.threadCpuTimeNanos()
+            val bytesRead = runBlocking {
+                (0 until FILE_SIZE step PART_SIZE).sumOf { readPart(it, minOf(PART_SIZE, FILE_SIZE - it)) }
+            }
+            val cpuMillis = (Debug.threadCpuTimeNanos() - startCpuNanos) / 1_000_000.0
+            if (pass == 1) {
+                Log.i(TAG, "$name: %.1f CPU ms per GB".format(cpuMillis * BYTES_PER_GB / bytesRead))
+            }
+        }
+    }
+
+    /**
+     * The upload body FileChannelByteStream replaced: the file channel of the SDK, opened for each part, behind a
+     * delegate which reports progress.
+     */
+    @OptIn(InternalApi::class)
+    private class PreviousProgressByteStream(
+        private val file: File,
+        private val start: Long,
+        length: Long,
+        private val progressListener: ProgressListener
+    ) : ByteStream.OneShotStream() {
+        override val contentLength: Long = length
+
+        override fun readFrom(): SdkByteReadChannel {
+            val oneShotStream = file.readChannel(start, start + contentLength - 1)
+            return object : SdkByteReadChannel by oneShotStream {
+                override suspend fun readAvailable(sink: ByteBuffer): Int {
+                    return oneShotStream.readAvailable(sink).also {
+                        if (it > 0) {
+                            progressListener.progressChanged(it.toLong())
+                        }
+                    }
+                }
+
+                override suspend fun readAvailable(sink: ByteArray, offset: Int, length: Int): Int {
+                    return oneShotStream.readAvailable(sink, offset, length).also {
+                        if (it > 0) {
+                            progressListener.progressChanged(it.toLong())
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private suspend fun drain(channel: SdkByteReadChannel): Long {
+        val sink = ByteArray(SINK_SIZE)
+        var total = 0L
+        while (true) {
+            val readBytes = channel.readAvailable(sink, 0, sink.size)
+            if (readBytes == -1) break
+            total += readBytes
+        }
+        return total
+    }
+}
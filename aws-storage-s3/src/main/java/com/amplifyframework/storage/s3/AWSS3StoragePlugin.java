@@ -17,6 +17,7 @@ package com.amplifyframework.storage.s3;
 
 import android.content.Context;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.amplifyframework.auth.AuthCredentialsProvider;
@@ -29,6 +30,7 @@ import com.amplifyframework.storage.TransferState;
 import com.amplifyframework.storage.operation.StorageDownloadFileOperation;
 import com.amplifyframework.storage.operation.StorageGetUrlOperation;
 import com.amplifyframework.storage.operation.StorageListOperation;
+import com.amplifyframework.storage.operation.StorageRemoveManyOperation;
 import com.amplifyframework.storage.operation.StorageRemoveOperation;
 import com.amplifyframework.storage.operation.StorageTransferOperation;
 import com.amplifyframework.storage.operation.StorageUploadFileOperation;
@@ -42,6 +44,7 @@ import com.amplifyframework.storage.options.StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.result.StorageDownloadFileResult;
 import com.amplifyframework.storage.result.StorageGetUrlResult;
 import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.result.StorageRemoveManyResult;
 import com.amplifyframework.storage.result.StorageRemoveResult;
 import com.amplifyframework.storage.result.StorageTransferProgress;
 import com.amplifyframework.storage.result.StorageTransferResult;
@@ -52,14 +55,17 @@ import com.amplifyframework.storage.s3.credentials.CognitoCredentialsProvider;
 import com.amplifyframework.storage.s3.operation.AWSS3StorageDownloadFileOperation;
 import com.amplifyframework.storage.s3.operation.AWSS3StorageGetPresignedUrlOperation;
 import com.amplifyframework.storage.s3.operation.AWSS3StorageListOperation;
+import com.amplifyframework.storage.s3.operation.AWSS3StorageRemoveManyOperation;
 import com.amplifyframework.storage.s3.operation.AWSS3StorageRemoveOperation;
 import com.amplifyframework.storage.s3.operation.AWSS3StorageUploadFileOperation;
 import com.amplifyframework.storage.s3.operation.AWSS3StorageUploadInputStreamOperation;
+import com.amplifyframework.storage.s3.options.AWSS3StorageDownloadFileOptions;
 import com.amplifyframework.storage.s3.options.AWSS3StorageUploadFileOptions;
 import com.amplifyframework.storage.s3.options.AWSS3StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.s3.request.AWSS3StorageDownloadFileRequest;
 import com.amplifyframework.storage.s3.request.AWSS3StorageGetPresignedUrlRequest;
 import com.amplifyframework.storage.s3.request.AWSS3StorageListRequest;
+import com.amplifyframework.storage.s3.request.AWSS3StorageRemoveManyRequest;
 import com.amplifyframework.storage.s3.request.AWSS3StorageRemoveRequest;
 import com.amplifyframework.storage.s3.request.AWSS3StorageUploadRequest;
 import com.amplifyframework.storage.s3.service.AWSS3StorageService;
@@ -74,6 +80,7 @@ import org.json.JSONObject;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -121,16 +128,7 @@ public final class AWSS3StoragePlugin extends StoragePlugin<S3Client> {
 
     @VisibleForTesting
     AWSS3StoragePlugin(AuthCredentialsProvider authCredentialsProvider) {
-        this((context, region, bucket) ->
-                new AWSS3StorageService(
-                    context,
-                    region,
-                    bucket,
-                    authCredentialsProvider,
-                    AWS_S3_STORAGE_PLUGIN_KEY
-                ),
-            authCredentialsProvider,
-            new AWSS3StoragePluginConfiguration.Builder().build());
+        this(authCredentialsProvider, new AWSS3StoragePluginConfiguration.Builder().build());
     }
 
     @VisibleForTesting
@@ -142,7 +140,13 @@ public final class AWSS3StoragePlugin extends StoragePlugin<S3Client> {
                     region,
                     bucket,
                     authCredentialsProvider,
-                    AWS_S3_STORAGE_PLUGIN_KEY
+                    AWS_S3_STORAGE_PLUGIN_KEY,
+                    awss3StoragePluginConfiguration.getMaxConcurrentUploadParts(),
+                    awss3StoragePluginConfiguration.getMaxConcurrentUploadPartsPerTransfer(),
+                    awss3StoragePluginConfiguration.getMaxProgressUpdatesPerSecond(),
+                    awss3StoragePluginConfiguration.getDownloadCacheSizeBytes(),
+                    awss3StoragePluginConfiguration.getTransferRecordRetentionMillis(),
+                    awss3StoragePluginConfiguration.getMaxConcurrentTransfers()
                 ),
             authCredentialsProvider,
             awss3StoragePluginConfiguration);
@@ -319,7 +323,13 @@ public final class AWSS3StoragePlugin extends StoragePlugin<S3Client> {
             options.getAccessLevel() != null
                 ? options.getAccessLevel()
                 : defaultAccessLevel,
-            options.getTargetIdentityId()
+            options.getTargetIdentityId(),
+            options instanceof AWSS3StorageDownloadFileOptions
+                ? ((AWSS3StorageDownloadFileOptions) options).getMultipartDownloadThreshold()
+                : 0L,
+            options instanceof AWSS3StorageDownloadFileOptions
+                ? ((AWSS3StorageDownloadFileOptions) options).getPriority()
+                : TransferPriority.NORMAL
         );
 
         AWSS3StorageDownloadFileOperation operation = new AWSS3StorageDownloadFileOperation(
@@ -382,7 +392,11 @@ public final class AWSS3StoragePlugin extends StoragePlugin<S3Client> {
             options instanceof AWSS3StorageUploadFileOptions
                 ? ((AWSS3StorageUploadFileOptions) options).getServerSideEncryption()
                 : ServerSideEncryption.NONE,
-            options.getMetadata()
+            options.getMetadata(),
+            false,
+            options instanceof AWSS3StorageUploadFileOptions
+                ? ((AWSS3StorageUploadFileOptions) options).getPriority()
+                : TransferPriority.NORMAL
         );
 
         AWSS3StorageUploadFileOperation operation = new AWSS3StorageUploadFileOperation(
@@ -445,7 +459,12 @@ public final class AWSS3StoragePlugin extends StoragePlugin<S3Client> {
             options instanceof AWSS3StorageUploadInputStreamOptions
                 ? ((AWSS3StorageUploadInputStreamOptions) options).getServerSideEncryption()
                 : ServerSideEncryption.NONE,
-            options.getMetadata()
+            options.getMetadata(),
+            options instanceof AWSS3StorageUploadInputStreamOptions
+                && ((AWSS3StorageUploadInputStreamOptions) options).isStreamingUpload(),
+            options instanceof AWSS3StorageUploadInputStreamOptions
+                ? ((AWSS3StorageUploadInputStreamOptions) options).getPriority()
+                : TransferPriority.NORMAL
         );
 
         AWSS3StorageUploadInputStreamOperation operation = new AWSS3StorageUploadInputStreamOperation(
@@ -504,6 +523,85 @@ public final class AWSS3StoragePlugin extends StoragePlugin<S3Client> {
         return operation;
     }
 
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeMany(
+        @NonNull List<String> keys,
+        @NonNull Consumer<StorageRemoveManyResult> onProgress,
+        @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+        @NonNull Consumer<StorageException> onError
+    ) {
+        return removeMany(keys, StorageRemoveOptions.defaultInstance(), onProgress, onSuccess, onError);
+    }
+
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeMany(
+        @NonNull List<String> keys,
+        @NonNull StorageRemoveOptions options,
+        @NonNull Consumer<StorageRemoveManyResult> onProgress,
+        @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+        @NonNull Consumer<StorageException> onError
+    ) {
+        return removeMany(keys, null, options, onProgress, onSuccess, onError);
+    }
+
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeAll(
+        @NonNull String path,
+        @NonNull Consumer<StorageRemoveManyResult> onProgress,
+        @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+        @NonNull Consumer<StorageException> onError
+    ) {
+        return removeAll(path, StorageRemoveOptions.defaultInstance(), onProgress, onSuccess, onError);
+    }
+
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeAll(
+        @NonNull String path,
+        @NonNull StorageRemoveOptions options,
+        @NonNull Consumer<StorageRemoveManyResult> onProgress,
+        @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+        @NonNull Consumer<StorageException> onError
+    ) {
+        return removeMany(null, path, options, onProgress, onSuccess, onError);
+    }
+
+    private StorageRemoveManyOperation<?> removeMany(
+        @Nullable List<String> keys,
+        @Nullable String path,
+        @NonNull StorageRemoveOptions options,
+        @NonNull Consumer<StorageRemoveManyResult> onProgress,
+        @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+        @NonNull Consumer<StorageException> onError
+    ) {
+        AWSS3StorageRemoveManyRequest request = new AWSS3StorageRemoveManyRequest(
+            keys,
+            path,
+            options.getAccessLevel() != null
+                ? options.getAccessLevel()
+                : defaultAccessLevel,
+            options.getTargetIdentityId()
+        );
+
+        AWSS3StorageRemoveManyOperation operation =
+            new AWSS3StorageRemoveManyOperation(
+                storageService,
+                executorService,
+                authCredentialsProvider,
+                request,
+                awsS3StoragePluginConfiguration,
+                onProgress,
+                onSuccess,
+                onError);
+
+        operation.start();
+
+        return operation;
+    }
+
     @Override
     public void getTransfer(
         @NonNull String transferId,
@@ -599,7 +697,10 @@ public final class AWSS3StoragePlugin extends StoragePlugin<S3Client> {
             options.getAccessLevel() != null
                 ? options.getAccessLevel()
                 : defaultAccessLevel,
-            options.getTargetIdentityId()
+            options.getTargetIdentityId(),
+            options.getPageSize(),
+            options.getNextToken(),
+            options.getDelimiter()
         );
 
         AWSS3StorageListOperation operation =
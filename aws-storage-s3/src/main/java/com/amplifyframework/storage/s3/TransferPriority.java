@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3;
+
+/**
+ * Priority of a transfer, deciding which transfers move data first when more are running than the plugin
+ * transfers at once.
+ */
+public enum TransferPriority {
+    /**
+     * Background transfers, such as backups, which yield to any other transfer between requests.
+     */
+    LOW,
+
+    /**
+     * Default priority.
+     */
+    NORMAL,
+
+    /**
+     * Transfers a user is waiting for, which start at once instead of waiting for a free slot.
+     */
+    HIGH
+}
@@ -16,12 +16,54 @@
 package com.amplifyframework.storage.s3.configuration
 
 import com.amplifyframework.auth.AuthCredentialsProvider
+import com.amplifyframework.storage.s3.transfer.PartUploadScheduler
+import com.amplifyframework.storage.s3.transfer.TransferScheduler
 
 class AWSS3StoragePluginConfiguration private constructor(builder: Builder) {
 
     private val awsS3PluginPrefixResolver = builder.awsS3PluginPrefixResolver
 
+    /**
+     * The most parts of multipart uploads uploaded at once, across transfers. Upload concurrency adapts to the
+     * network below this cap, so lowering it throttles how much bandwidth transfers use.
+     */
+    val maxConcurrentUploadParts = builder.maxConcurrentUploadParts
+
+    /**
+     * The most parts of a single multipart upload uploaded at once, so that one large upload doesn't hold up others.
+     */
+    val maxConcurrentUploadPartsPerTransfer = builder.maxConcurrentUploadPartsPerTransfer
+
+    /**
+     * The most times per second a transfer listener is told of progress. Progress in between is coalesced, and the
+     * listener gets the latest progress.
+     */
+    val maxProgressUpdatesPerSecond = builder.maxProgressUpdatesPerSecond
+
+    /**
+     * The most bytes of downloaded objects kept on disk, so that downloading an unchanged object again only takes a
+     * conditional request. 0, the default, disables the cache.
+     */
+    val downloadCacheSizeBytes = builder.downloadCacheSizeBytes
+
+    /**
+     * How long the records of completed, failed and canceled transfers are kept, in milliseconds, after which they
+     * are pruned when the plugin starts. 0 keeps them until they are removed.
+     */
+    val transferRecordRetentionMillis = builder.transferRecordRetentionMillis
+
+    /**
+     * The most downloads, single part uploads and upload parts running at once, across transfers. Waiting requests
+     * start by TransferPriority, while HIGH priority ones start at once even above this cap. Requests wait inside
+     * their WorkManager worker, so the wait counts against the 10 minutes WorkManager lets a worker run, after which
+     * the worker is retried.
+     */
+    val maxConcurrentTransfers = builder.maxConcurrentTransfers
+
     companion object {
+        const val DEFAULT_MAX_PROGRESS_UPDATES_PER_SECOND = 10
+        const val DEFAULT_TRANSFER_RECORD_RETENTION_MILLIS = 7 * 24 * 60 * 60 * 1000L
+
         operator fun invoke(block: Builder.() -> Unit): AWSS3StoragePluginConfiguration =
             Builder()
                 .apply(block)
@@ -36,7 +78,21 @@ class AWSS3StoragePluginConfiguration private constructor(builder: Builder) {
 
     class Builder {
         var awsS3PluginPrefixResolver: AWSS3PluginPrefixResolver? = null
+        var maxConcurrentUploadParts: Int = PartUploadScheduler.DEFAULT_MAX_CONCURRENT_PARTS
+        var maxConcurrentUploadPartsPerTransfer: Int = PartUploadScheduler.DEFAULT_MAX_CONCURRENT_PARTS_PER_TRANSFER
+        var maxProgressUpdatesPerSecond: Int = DEFAULT_MAX_PROGRESS_UPDATES_PER_SECOND
+        var downloadCacheSizeBytes: Long = 0L
+        var transferRecordRetentionMillis: Long = DEFAULT_TRANSFER_RECORD_RETENTION_MILLIS
+        var maxConcurrentTransfers: Int = TransferScheduler.DEFAULT_MAX_CONCURRENT_TRANSFERS
 
-        fun build(): AWSS3StoragePluginConfiguration = AWSS3StoragePluginConfiguration(this)
+        fun build(): AWSS3StoragePluginConfiguration {
+            require(maxConcurrentUploadParts > 0) { "maxConcurrentUploadParts must be positive" }
+            require(maxConcurrentUploadPartsPerTransfer > 0) { "maxConcurrentUploadPartsPerTransfer must be positive" }
+            require(maxProgressUpdatesPerSecond > 0) { "maxProgressUpdatesPerSecond must be positive" }
+            require(downloadCacheSizeBytes >= 0) { "downloadCacheSizeBytes must not be negative" }
+            require(transferRecordRetentionMillis >= 0) { "transferRecordRetentionMillis must not be negative" }
+            require(maxConcurrentTransfers > 0) { "maxConcurrentTransfers must be positive" }
+            return AWSS3StoragePluginConfiguration(this)
+        }
     }
 }
@@ -83,8 +83,18 @@ public final class AWSS3StorageListOperation extends StorageListOperation<AWSS3S
                     prefix -> {
                         try {
                             String serviceKey = prefix.concat(getRequest().getPath());
-                            List<StorageItem> listedItems = storageService.listFiles(serviceKey, prefix);
-                            onSuccess.accept(StorageListResult.fromItems(listedItems));
+                            if (getRequest().isPaged()) {
+                                onSuccess.accept(storageService.listFiles(
+                                    serviceKey,
+                                    prefix,
+                                    getRequest().getPageSize(),
+                                    getRequest().getNextToken(),
+                                    getRequest().getDelimiter()
+                                ));
+                            } else {
+                                List<StorageItem> listedItems = storageService.listFiles(serviceKey, prefix);
+                                onSuccess.accept(StorageListResult.fromItems(listedItems));
+                            }
                         } catch (Exception exception) {
                             onError.accept(new StorageException(
                                     "Something went wrong with your AWS S3 Storage list operation",
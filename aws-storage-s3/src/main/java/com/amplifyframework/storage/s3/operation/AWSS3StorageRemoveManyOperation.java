@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.operation;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.auth.AuthCredentialsProvider;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.storage.StorageException;
+import com.amplifyframework.storage.StorageItem;
+import com.amplifyframework.storage.operation.StorageRemoveManyOperation;
+import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.result.StorageRemoveManyResult;
+import com.amplifyframework.storage.s3.configuration.AWSS3StoragePluginConfiguration;
+import com.amplifyframework.storage.s3.request.AWSS3StorageRemoveManyRequest;
+import com.amplifyframework.storage.s3.service.StorageService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * An operation to remove many files from AWS S3. Keys are deleted with DeleteObjects requests of up to
+ * 1000 keys each, a few of which are sent at once. Removing a path lists its keys a page at a time, and
+ * deletes each page while the next one is listed.
+ */
+public final class AWSS3StorageRemoveManyOperation
+        extends StorageRemoveManyOperation<AWSS3StorageRemoveManyRequest> {
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+
+    private final StorageService storageService;
+    private final ExecutorService executorService;
+    private final AuthCredentialsProvider authCredentialsProvider;
+    private final Consumer<StorageRemoveManyResult> onProgress;
+    private final Consumer<StorageRemoveManyResult> onSuccess;
+    private final Consumer<StorageException> onError;
+    private final AWSS3StoragePluginConfiguration awsS3StoragePluginConfiguration;
+    private final List<String> removedKeys = new ArrayList<>();
+    private final Map<String, StorageException> failedKeys = new LinkedHashMap<>();
+
+    /**
+     * Constructs a new AWSS3StorageRemoveManyOperation.
+     *
+     * @param storageService      S3 client wrapper
+     * @param executorService     Executor service used for running blocking operations on a
+     *                            separate thread
+     * @param authCredentialsProvider Interface to retrieve AWS specific auth information
+     * @param request             remove request parameters
+     * @param awsS3StoragePluginConfiguration s3Plugin configuration
+     * @param onProgress          notified after each batch of keys is deleted
+     * @param onSuccess           notified when every key was attempted
+     * @param onError             notified when keys can't be attempted due to error
+     */
+    public AWSS3StorageRemoveManyOperation(
+            @NonNull StorageService storageService,
+            @NonNull ExecutorService executorService,
+            @NonNull AuthCredentialsProvider authCredentialsProvider,
+            @NonNull AWSS3StorageRemoveManyRequest request,
+            @NonNull AWSS3StoragePluginConfiguration awsS3StoragePluginConfiguration,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError
+    ) {
+        super(Objects.requireNonNull(request));
+        this.storageService = Objects.requireNonNull(storageService);
+        this.executorService = Objects.requireNonNull(executorService);
+        this.authCredentialsProvider = authCredentialsProvider;
+        this.onProgress = Objects.requireNonNull(onProgress);
+        this.onSuccess = Objects.requireNonNull(onSuccess);
+        this.onError = Objects.requireNonNull(onError);
+        this.awsS3StoragePluginConfiguration = awsS3StoragePluginConfiguration;
+    }
+
+    @SuppressWarnings("SyntheticAccessor")
+    @Override
+    public void start() {
+        executorService.submit(() -> {
+            awsS3StoragePluginConfiguration.getAWSS3PluginPrefixResolver(authCredentialsProvider).
+                resolvePrefix(getRequest().getAccessLevel(),
+                    getRequest().getTargetIdentityId(),
+                    prefix -> {
+                        try {
+                            removeKeys(prefix);
+                            onSuccess.accept(snapshot());
+                        } catch (Exception exception) {
+                            onError.accept(new StorageException(
+                                    "Something went wrong with your AWS S3 Storage remove operation",
+                                    exception,
+                                    "See attached exception for more information and suggestions"
+                            ));
+                        }
+                    },
+                    onError);
+        });
+    }
+
+    private void removeKeys(String prefix) throws Exception {
+        Semaphore requestPermits = new Semaphore(MAX_CONCURRENT_REQUESTS);
+        List<Future<?>> requests = new ArrayList<>();
+        List<String> keys = getRequest().getKeys();
+        if (keys != null) {
+            for (int start = 0; start < keys.size(); start += MAX_KEYS_PER_REQUEST) {
+                List<String> batch = keys.subList(start, Math.min(start + MAX_KEYS_PER_REQUEST, keys.size()));
+                requests.add(submitBatch(prefix, batch, requestPermits));
+            }
+        } else {
+            String serviceKey = prefix.concat(Objects.requireNonNull(getRequest().getPath()));
+            String nextToken = null;
+            do {
+                StorageListResult page =
+                    storageService.listFiles(serviceKey, prefix, MAX_KEYS_PER_REQUEST, nextToken, null);
+                List<String> batch = new ArrayList<>();
+                for (StorageItem item : page.getItems()) {
+                    batch.add(item.getKey());
+                }
+                if (!batch.isEmpty()) {
+                    requests.add(submitBatch(prefix, batch, requestPermits));
+                }
+                nextToken = page.getNextToken();
+            } while (nextToken != null);
+        }
+        for (Future<?> request : requests) {
+            request.get();
+        }
+    }
+
+    // Waits for a free permit, so that only a few requests are in flight and listing doesn't run far ahead.
+    private Future<?> submitBatch(String prefix, List<String> keys, Semaphore requestPermits)
+            throws InterruptedException {
+        requestPermits.acquire();
+        return executorService.submit(() -> {
+            try {
+                List<String> serviceKeys = new ArrayList<>();
+                for (String key : keys) {
+                    serviceKeys.add(prefix.concat(key));
+                }
+                Map<String, String> errors = storageService.deleteObjects(serviceKeys);
+                Map<String, StorageException> failures = new LinkedHashMap<>();
+                List<String> removed = new ArrayList<>();
+                for (String key : keys) {
+                    String error = errors.get(prefix.concat(key));
+                    if (error == null) {
+                        removed.add(key);
+                    } else {
+                        failures.put(key, new StorageException(
+                            "Failed to remove " + key + ": " + error,
+                            "See the S3 error code for more information and suggestions"
+                        ));
+                    }
+                }
+                record(removed, failures);
+            } catch (Exception exception) {
+                Map<String, StorageException> failures = new LinkedHashMap<>();
+                for (String key : keys) {
+                    failures.put(key, new StorageException(
+                        "Something went wrong with your AWS S3 Storage remove operation",
+                        exception,
+                        "See attached exception for more information and suggestions"
+                    ));
+                }
+                record(new ArrayList<>(), failures);
+            } finally {
+                requestPermits.release();
+            }
+        });
+    }
+
+    private void record(List<String> removed, Map<String, StorageException> failures) {
+        StorageRemoveManyResult progress;
+        synchronized (this) {
+            removedKeys.addAll(removed);
+            failedKeys.putAll(failures);
+            progress = snapshot();
+        }
+        onProgress.accept(progress);
+    }
+
+    private synchronized StorageRemoveManyResult snapshot() {
+        return StorageRemoveManyResult.fromKeys(removedKeys, failedKeys);
+    }
+}
@@ -112,13 +112,26 @@ class AWSS3StorageUploadInputStreamOperation @JvmOverloads internal constructor(
                                 objectMetadata.metaData[ObjectMetadata.SERVER_SIDE_ENCRYPTION] =
                                     storageServerSideEncryption.getName()
                             }
-                            transferObserver = storageService.uploadInputStream(
-                                transferId,
-                                serviceKey,
-                                inputStream,
-                                objectMetadata
-                            )
-                            transferObserver?.setTransferListener(UploadTransferListener())
+                            if (uploadRequest.isStreamingUpload) {
+                                // The upload starts right away, so the listener must be registered up front.
+                                transferObserver = storageService.uploadInputStreamStreaming(
+                                    transferId,
+                                    serviceKey,
+                                    inputStream,
+                                    objectMetadata,
+                                    UploadTransferListener(),
+                                    request.priority
+                                )
+                            } else {
+                                transferObserver = storageService.uploadInputStream(
+                                    transferId,
+                                    serviceKey,
+                                    inputStream,
+                                    objectMetadata,
+                                    request.priority
+                                )
+                                transferObserver?.setTransferListener(UploadTransferListener())
+                            }
                         } catch (ioException: IOException) {
                             onError?.accept(
                                 StorageException(
@@ -19,14 +19,39 @@ import androidx.annotation.NonNull;
 import androidx.core.util.ObjectsCompat;
 
 import com.amplifyframework.storage.options.StorageDownloadFileOptions;
+import com.amplifyframework.storage.s3.TransferPriority;
+
+import java.util.Objects;
 
 /**
  * Options to specify attributes of object download operation from an AWS S3 bucket.
  */
 public final class AWSS3StorageDownloadFileOptions extends StorageDownloadFileOptions {
+    private final long multipartDownloadThreshold;
+    private final TransferPriority priority;
 
     private AWSS3StorageDownloadFileOptions(final Builder builder) {
         super(builder);
+        this.multipartDownloadThreshold = builder.getMultipartDownloadThreshold();
+        this.priority = builder.getPriority();
+    }
+
+    /**
+     * Size in bytes from which an object is downloaded as several byte ranges over concurrent connections,
+     * or 0 if objects are always downloaded over a single connection.
+     * @return Multipart download threshold in bytes
+     */
+    public long getMultipartDownloadThreshold() {
+        return multipartDownloadThreshold;
+    }
+
+    /**
+     * Priority of the download among the transfers of the plugin.
+     * @return Transfer priority
+     */
+    @NonNull
+    public TransferPriority getPriority() {
+        return priority;
     }
 
     /**
@@ -55,7 +80,9 @@ public final class AWSS3StorageDownloadFileOptions extends StorageDownloadFileOp
     public static Builder from(@NonNull final AWSS3StorageDownloadFileOptions options) {
         return builder()
             .accessLevel(options.getAccessLevel())
-            .targetIdentityId(options.getTargetIdentityId());
+            .targetIdentityId(options.getTargetIdentityId())
+            .multipartDownloadThreshold(options.getMultipartDownloadThreshold())
+            .priority(options.getPriority());
     }
 
     /**
@@ -76,7 +103,9 @@ public final class AWSS3StorageDownloadFileOptions extends StorageDownloadFileOp
         } else {
             AWSS3StorageDownloadFileOptions that = (AWSS3StorageDownloadFileOptions) obj;
             return ObjectsCompat.equals(getAccessLevel(), that.getAccessLevel()) &&
-                    ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId());
+                    ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId()) &&
+                    getMultipartDownloadThreshold() == that.getMultipartDownloadThreshold() &&
+                    ObjectsCompat.equals(getPriority(), that.getPriority());
         }
     }
 
@@ -84,7 +113,9 @@ public final class AWSS3StorageDownloadFileOptions extends StorageDownloadFileOp
     public int hashCode() {
         return ObjectsCompat.hash(
                 getAccessLevel(),
-                getTargetIdentityId()
+                getTargetIdentityId(),
+                getMultipartDownloadThreshold(),
+                getPriority()
         );
     }
 
@@ -94,6 +125,8 @@ public final class AWSS3StorageDownloadFileOptions extends StorageDownloadFileOp
         return "AWSS3StorageDownloadFileOptions {" +
                 "accessLevel=" + getAccessLevel() +
                 ", targetIdentityId=" + getTargetIdentityId() +
+                ", multipartDownloadThreshold=" + getMultipartDownloadThreshold() +
+                ", priority=" + getPriority() +
                 '}';
     }
 
@@ -103,6 +136,46 @@ public final class AWSS3StorageDownloadFileOptions extends StorageDownloadFileOp
      * fluent configuration method calls.
      */
     public static final class Builder extends StorageDownloadFileOptions.Builder<Builder> {
+        private long multipartDownloadThreshold;
+        private TransferPriority priority = TransferPriority.NORMAL;
+
+        /**
+         * Configures the size from which objects are downloaded as several byte ranges fetched concurrently
+         * and written in place, instead of as a single stream. Ranges are resumed individually after a pause
+         * or a restart of the app. A value of 0, the default, disables multipart downloads.
+         * @param multipartDownloadThreshold threshold in bytes, or 0 to disable multipart downloads
+         * @return Current Builder instance for fluent chaining
+         */
+        @NonNull
+        public Builder multipartDownloadThreshold(long multipartDownloadThreshold) {
+            if (multipartDownloadThreshold < 0) {
+                throw new IllegalArgumentException("multipartDownloadThreshold must not be negative.");
+            }
+            this.multipartDownloadThreshold = multipartDownloadThreshold;
+            return this;
+        }
+
+        long getMultipartDownloadThreshold() {
+            return multipartDownloadThreshold;
+        }
+
+        /**
+         * Configures the priority of the download. High priority downloads start at once, while low priority
+         * ones start after other waiting transfers. Defaults to {@link TransferPriority#NORMAL}.
+         * @param priority transfer priority
+         * @return Current Builder instance for fluent chaining
+         */
+        @NonNull
+        public Builder priority(@NonNull TransferPriority priority) {
+            this.priority = Objects.requireNonNull(priority);
+            return this;
+        }
+
+        @NonNull
+        TransferPriority getPriority() {
+            return priority;
+        }
+
         @Override
         @NonNull
         public AWSS3StorageDownloadFileOptions build() {
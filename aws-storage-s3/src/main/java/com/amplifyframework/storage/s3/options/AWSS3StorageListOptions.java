@@ -55,7 +55,10 @@ public final class AWSS3StorageListOptions extends StorageListOptions {
     public static Builder from(@NonNull final AWSS3StorageListOptions options) {
         return builder()
             .accessLevel(options.getAccessLevel())
-            .targetIdentityId(options.getTargetIdentityId());
+            .targetIdentityId(options.getTargetIdentityId())
+            .pageSize(options.getPageSize())
+            .nextToken(options.getNextToken())
+            .delimiter(options.getDelimiter());
     }
 
     /**
@@ -76,7 +79,10 @@ public final class AWSS3StorageListOptions extends StorageListOptions {
         } else {
             AWSS3StorageListOptions that = (AWSS3StorageListOptions) obj;
             return ObjectsCompat.equals(getAccessLevel(), that.getAccessLevel()) &&
-                    ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId());
+                    ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId()) &&
+                    getPageSize() == that.getPageSize() &&
+                    ObjectsCompat.equals(getNextToken(), that.getNextToken()) &&
+                    ObjectsCompat.equals(getDelimiter(), that.getDelimiter());
         }
     }
 
@@ -84,7 +90,10 @@ public final class AWSS3StorageListOptions extends StorageListOptions {
     public int hashCode() {
         return ObjectsCompat.hash(
                 getAccessLevel(),
-                getTargetIdentityId()
+                getTargetIdentityId(),
+                getPageSize(),
+                getNextToken(),
+                getDelimiter()
         );
     }
 
@@ -94,6 +103,9 @@ public final class AWSS3StorageListOptions extends StorageListOptions {
         return "AWSS3StorageListOptions {" +
                 "accessLevel=" + getAccessLevel() +
                 ", targetIdentityId=" + getTargetIdentityId() +
+                ", pageSize=" + getPageSize() +
+                ", nextToken=" + getNextToken() +
+                ", delimiter=" + getDelimiter() +
                 '}';
     }
 
@@ -20,6 +20,7 @@ import androidx.core.util.ObjectsCompat;
 
 import com.amplifyframework.storage.options.StorageUploadFileOptions;
 import com.amplifyframework.storage.s3.ServerSideEncryption;
+import com.amplifyframework.storage.s3.TransferPriority;
 
 import java.util.Objects;
 
@@ -28,10 +29,12 @@ import java.util.Objects;
  */
 public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOptions {
     private final ServerSideEncryption serverSideEncryption;
+    private final TransferPriority priority;
 
     private AWSS3StorageUploadFileOptions(final Builder builder) {
         super(builder);
         this.serverSideEncryption = builder.getServerSideEncryption();
+        this.priority = builder.getPriority();
     }
 
     /**
@@ -43,6 +46,15 @@ public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOption
         return serverSideEncryption;
     }
 
+    /**
+     * Priority of the upload among the transfers of the plugin.
+     * @return Transfer priority
+     */
+    @NonNull
+    public TransferPriority getPriority() {
+        return priority;
+    }
+
     /**
      * Factory method to create a new instance of the
      * {@link Builder}.  The builder can be
@@ -72,6 +84,7 @@ public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOption
             .targetIdentityId(options.getTargetIdentityId())
             .contentType(options.getContentType())
             .serverSideEncryption(options.getServerSideEncryption())
+            .priority(options.getPriority())
             .metadata(options.getMetadata());
     }
 
@@ -96,6 +109,7 @@ public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOption
                     ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId()) &&
                     ObjectsCompat.equals(getContentType(), that.getContentType()) &&
                     ObjectsCompat.equals(getServerSideEncryption(), that.getServerSideEncryption()) &&
+                    ObjectsCompat.equals(getPriority(), that.getPriority()) &&
                     ObjectsCompat.equals(getMetadata(), that.getMetadata());
         }
     }
@@ -107,6 +121,7 @@ public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOption
                 getTargetIdentityId(),
                 getContentType(),
                 getServerSideEncryption(),
+                getPriority(),
                 getMetadata()
         );
     }
@@ -119,6 +134,7 @@ public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOption
                 ", targetIdentityId=" + getTargetIdentityId() +
                 ", contentType=" + getContentType() +
                 ", serverSideEncryption=" + getServerSideEncryption().getName() +
+                ", priority=" + getPriority() +
                 ", metadata=" + getMetadata() +
                 '}';
     }
@@ -130,10 +146,12 @@ public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOption
      */
     public static final class Builder extends StorageUploadFileOptions.Builder<Builder> {
         private ServerSideEncryption serverSideEncryption;
+        private TransferPriority priority;
 
         private Builder() {
             super();
             this.serverSideEncryption = ServerSideEncryption.NONE;
+            this.priority = TransferPriority.NORMAL;
         }
 
         /**
@@ -152,6 +170,23 @@ public final class AWSS3StorageUploadFileOptions extends StorageUploadFileOption
             return serverSideEncryption;
         }
 
+        /**
+         * Configures the priority of the upload. High priority uploads start at once, while low priority ones
+         * yield to other transfers between parts. Defaults to {@link TransferPriority#NORMAL}.
+         * @param priority transfer priority
+         * @return Current Builder instance for fluent chaining
+         */
+        @NonNull
+        public Builder priority(@NonNull TransferPriority priority) {
+            this.priority = Objects.requireNonNull(priority);
+            return this;
+        }
+
+        @NonNull
+        TransferPriority getPriority() {
+            return priority;
+        }
+
         @Override
         @NonNull
         public AWSS3StorageUploadFileOptions build() {
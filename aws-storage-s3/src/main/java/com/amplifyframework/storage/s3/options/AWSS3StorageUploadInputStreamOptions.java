@@ -20,6 +20,7 @@ import androidx.core.util.ObjectsCompat;
 
 import com.amplifyframework.storage.options.StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.s3.ServerSideEncryption;
+import com.amplifyframework.storage.s3.TransferPriority;
 
 import java.util.Objects;
 
@@ -28,10 +29,14 @@ import java.util.Objects;
  */
 public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInputStreamOptions {
     private final ServerSideEncryption serverSideEncryption;
+    private final boolean streamingUpload;
+    private final TransferPriority priority;
 
     private AWSS3StorageUploadInputStreamOptions(final Builder builder) {
         super(builder);
         this.serverSideEncryption = builder.serverSideEncryption;
+        this.streamingUpload = builder.streamingUpload;
+        this.priority = builder.priority;
     }
 
     /**
@@ -43,6 +48,23 @@ public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInp
         return serverSideEncryption;
     }
 
+    /**
+     * Whether the stream is uploaded in parts while it is being read, instead of being copied to a file first.
+     * @return true if the upload streams
+     */
+    public boolean isStreamingUpload() {
+        return streamingUpload;
+    }
+
+    /**
+     * Priority of the upload among the transfers of the plugin.
+     * @return Transfer priority
+     */
+    @NonNull
+    public TransferPriority getPriority() {
+        return priority;
+    }
+
     /**
      * Factory method to create a new instance of the
      * {@link Builder}.  The builder can be
@@ -72,6 +94,8 @@ public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInp
                 .targetIdentityId(options.getTargetIdentityId())
                 .contentType(options.getContentType())
                 .serverSideEncryption(options.getServerSideEncryption())
+                .streamingUpload(options.isStreamingUpload())
+                .priority(options.getPriority())
                 .metadata(options.getMetadata());
     }
 
@@ -96,6 +120,8 @@ public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInp
                     ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId()) &&
                     ObjectsCompat.equals(getContentType(), that.getContentType()) &&
                     ObjectsCompat.equals(getServerSideEncryption(), that.getServerSideEncryption()) &&
+                    isStreamingUpload() == that.isStreamingUpload() &&
+                    ObjectsCompat.equals(getPriority(), that.getPriority()) &&
                     ObjectsCompat.equals(getMetadata(), that.getMetadata());
         }
     }
@@ -107,6 +133,8 @@ public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInp
                 getTargetIdentityId(),
                 getContentType(),
                 getServerSideEncryption(),
+                isStreamingUpload(),
+                getPriority(),
                 getMetadata()
         );
     }
@@ -119,6 +147,8 @@ public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInp
                 ", targetIdentityId=" + getTargetIdentityId() +
                 ", contentType=" + getContentType() +
                 ", serverSideEncryption=" + getServerSideEncryption().getName() +
+                ", streamingUpload=" + isStreamingUpload() +
+                ", priority=" + getPriority() +
                 ", metadata=" + getMetadata() +
                 '}';
     }
@@ -130,10 +160,13 @@ public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInp
      */
     public static final class Builder extends StorageUploadInputStreamOptions.Builder<Builder> {
         private ServerSideEncryption serverSideEncryption;
+        private boolean streamingUpload;
+        private TransferPriority priority;
 
         private Builder() {
             super();
             this.serverSideEncryption = ServerSideEncryption.NONE;
+            this.priority = TransferPriority.NORMAL;
         }
 
         /**
@@ -147,6 +180,32 @@ public final class AWSS3StorageUploadInputStreamOptions extends StorageUploadInp
             return this;
         }
 
+        /**
+         * Configures whether the stream is uploaded in parts as soon as they are read, instead of being copied
+         * to a temporary file before the upload starts. Memory use is bounded to a few parts. If the upload is
+         * paused or interrupted, only what wasn't uploaded yet is written to a temporary file to carry on from.
+         * Suits streams produced on the fly, such as camera or encoder output.
+         * @param streamingUpload true to upload while reading the stream
+         * @return Current Builder instance for fluent chaining
+         */
+        @NonNull
+        public Builder streamingUpload(boolean streamingUpload) {
+            this.streamingUpload = streamingUpload;
+            return this;
+        }
+
+        /**
+         * Configures the priority of the upload. High priority uploads start at once, while low priority ones
+         * yield to other transfers between parts. Defaults to {@link TransferPriority#NORMAL}.
+         * @param priority transfer priority
+         * @return Current Builder instance for fluent chaining
+         */
+        @NonNull
+        public Builder priority(@NonNull TransferPriority priority) {
+            this.priority = Objects.requireNonNull(priority);
+            return this;
+        }
+
         @Override
         @NonNull
         public AWSS3StorageUploadInputStreamOptions build() {
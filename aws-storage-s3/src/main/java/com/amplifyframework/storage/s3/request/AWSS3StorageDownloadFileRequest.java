@@ -19,6 +19,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.amplifyframework.storage.StorageAccessLevel;
+import com.amplifyframework.storage.s3.TransferPriority;
 
 import java.io.File;
 
@@ -31,6 +32,8 @@ public final class AWSS3StorageDownloadFileRequest {
     private final File local;
     private final StorageAccessLevel accessLevel;
     private final String targetIdentityId;
+    private final long multipartDownloadThreshold;
+    private final TransferPriority priority;
 
     /**
      * Constructs a new AWSS3StorageDownloadFileRequest.
@@ -48,11 +51,61 @@ public final class AWSS3StorageDownloadFileRequest {
             @NonNull File local,
             @NonNull StorageAccessLevel accessLevel,
             @Nullable String targetIdentityId
+    ) {
+        this(key, local, accessLevel, targetIdentityId, 0L);
+    }
+
+    /**
+     * Constructs a new AWSS3StorageDownloadFileRequest.
+     * Although this has public access, it is intended for internal use and should not be used directly by host
+     * applications. The behavior of this may change without warning.
+     *
+     * @param key key for item to download
+     * @param local Target file for the downloaded file to be saved to
+     * @param accessLevel Storage access level
+     * @param targetIdentityId If set, this should override the current user's identity ID.
+     *                         If null, the operation will fetch the current identity ID.
+     * @param multipartDownloadThreshold Size from which the object is downloaded in concurrent ranges,
+     *                                   or 0 to always download it in a single stream
+     */
+    public AWSS3StorageDownloadFileRequest(
+            @NonNull String key,
+            @NonNull File local,
+            @NonNull StorageAccessLevel accessLevel,
+            @Nullable String targetIdentityId,
+            long multipartDownloadThreshold
+    ) {
+        this(key, local, accessLevel, targetIdentityId, multipartDownloadThreshold, TransferPriority.NORMAL);
+    }
+
+    /**
+     * Constructs a new AWSS3StorageDownloadFileRequest.
+     * Although this has public access, it is intended for internal use and should not be used directly by host
+     * applications. The behavior of this may change without warning.
+     *
+     * @param key key for item to download
+     * @param local Target file for the downloaded file to be saved to
+     * @param accessLevel Storage access level
+     * @param targetIdentityId If set, this should override the current user's identity ID.
+     *                         If null, the operation will fetch the current identity ID.
+     * @param multipartDownloadThreshold Size from which the object is downloaded in concurrent ranges,
+     *                                   or 0 to always download it in a single stream
+     * @param priority Priority of the download among the transfers of the plugin
+     */
+    public AWSS3StorageDownloadFileRequest(
+            @NonNull String key,
+            @NonNull File local,
+            @NonNull StorageAccessLevel accessLevel,
+            @Nullable String targetIdentityId,
+            long multipartDownloadThreshold,
+            @NonNull TransferPriority priority
     ) {
         this.key = key;
         this.local = local;
         this.accessLevel = accessLevel;
         this.targetIdentityId = targetIdentityId;
+        this.multipartDownloadThreshold = multipartDownloadThreshold;
+        this.priority = priority;
     }
 
     /**
@@ -90,5 +143,21 @@ public final class AWSS3StorageDownloadFileRequest {
     public File getLocal() {
         return local;
     }
-}
 
+    /**
+     * Gets the size from which the object is downloaded in concurrent ranges.
+     * @return multipart download threshold in bytes, or 0 if disabled
+     */
+    public long getMultipartDownloadThreshold() {
+        return multipartDownloadThreshold;
+    }
+
+    /**
+     * Gets the priority of the download among the transfers of the plugin.
+     * @return transfer priority
+     */
+    @NonNull
+    public TransferPriority getPriority() {
+        return priority;
+    }
+}
@@ -27,6 +27,9 @@ public final class AWSS3StorageListRequest {
     private final String path;
     private final StorageAccessLevel accessLevel;
     private final String targetIdentityId;
+    private final int pageSize;
+    private final String nextToken;
+    private final String delimiter;
 
     /**
      * Constructs a new AWSS3StorageListRequest.
@@ -42,10 +45,37 @@ public final class AWSS3StorageListRequest {
             @NonNull String path,
             @NonNull StorageAccessLevel accessLevel,
             @Nullable String targetIdentityId
+    ) {
+        this(path, accessLevel, targetIdentityId, 0, null, null);
+    }
+
+    /**
+     * Constructs a new AWSS3StorageListRequest for a page of items.
+     * Although this has public access, it is intended for internal use and should not be used directly by host
+     * applications. The behavior of this may change without warning.
+     *
+     * @param path the path in S3 to list items from
+     * @param accessLevel Storage access level
+     * @param targetIdentityId If set, this should override the current user's identity ID.
+     *                         If null, the operation will fetch the current identity ID.
+     * @param pageSize the most items to list, or 0 to list all of them
+     * @param nextToken the token of the page to list, or null for the first page
+     * @param delimiter If set, keys are grouped into folders by this delimiter
+     */
+    public AWSS3StorageListRequest(
+            @NonNull String path,
+            @NonNull StorageAccessLevel accessLevel,
+            @Nullable String targetIdentityId,
+            int pageSize,
+            @Nullable String nextToken,
+            @Nullable String delimiter
     ) {
         this.path = path;
         this.accessLevel = accessLevel;
         this.targetIdentityId = targetIdentityId;
+        this.pageSize = pageSize;
+        this.nextToken = nextToken;
+        this.delimiter = delimiter;
     }
 
     /**
@@ -74,5 +104,38 @@ public final class AWSS3StorageListRequest {
     public String getTargetIdentityId() {
         return targetIdentityId;
     }
-}
 
+    /**
+     * Gets the most items to list, or 0 to list all of them.
+     * @return page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets the token of the page to list, or null for the first page.
+     * @return next token
+     */
+    @Nullable
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Gets the delimiter keys are grouped into folders by, if any.
+     * @return delimiter
+     */
+    @Nullable
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Whether the request is for a page of items, or for folders, rather than for all items.
+     * @return true if a page size, a next token or a delimiter is set
+     */
+    public boolean isPaged() {
+        return pageSize > 0 || nextToken != null || delimiter != null;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.request;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.storage.StorageAccessLevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parameters to provide to S3 that describe a request to remove many files, either given by key or
+ * all of those under a path.
+ */
+public final class AWSS3StorageRemoveManyRequest {
+    private final List<String> keys;
+    private final String path;
+    private final StorageAccessLevel accessLevel;
+    private final String targetIdentityId;
+
+    /**
+     * Constructs a new AWSS3StorageRemoveManyRequest.
+     * Although this has public access, it is intended for internal use and should not be used directly by host
+     * applications. The behavior of this may change without warning.
+     *
+     * @param keys keys of the items to remove, or null to remove the items under the path
+     * @param path path of the items to remove, if keys is null
+     * @param accessLevel Storage access level
+     * @param targetIdentityId If set, this should override the current user's identity ID.
+     *                         If null, the operation will fetch the current identity ID.
+     */
+    public AWSS3StorageRemoveManyRequest(
+            @Nullable List<String> keys,
+            @Nullable String path,
+            @NonNull StorageAccessLevel accessLevel,
+            @Nullable String targetIdentityId
+    ) {
+        if ((keys == null) == (path == null)) {
+            throw new IllegalArgumentException("Either keys or a path must be given.");
+        }
+        this.keys = keys != null ? Collections.unmodifiableList(new ArrayList<>(keys)) : null;
+        this.path = path;
+        this.accessLevel = accessLevel;
+        this.targetIdentityId = targetIdentityId;
+    }
+
+    /**
+     * Gets the keys of the items to remove.
+     * @return keys, or null if the items under the path are removed
+     */
+    @Nullable
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Gets the path of the items to remove.
+     * @return path, or null if items are removed by key
+     */
+    @Nullable
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the access level.
+     * @return Access level
+     */
+    @NonNull
+    public StorageAccessLevel getAccessLevel() {
+        return accessLevel;
+    }
+
+    /**
+     * Gets the target identity id override. If null, the operation gets the default, current user's identity ID.
+     * @return target identity id override
+     */
+    @Nullable
+    public String getTargetIdentityId() {
+        return targetIdentityId;
+    }
+}
@@ -20,6 +20,7 @@ import androidx.annotation.Nullable;
 
 import com.amplifyframework.storage.StorageAccessLevel;
 import com.amplifyframework.storage.s3.ServerSideEncryption;
+import com.amplifyframework.storage.s3.TransferPriority;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +37,8 @@ public final class AWSS3StorageUploadRequest<L> {
     private final String contentType;
     private final ServerSideEncryption serverSideEncryption;
     private final Map<String, String> metadata;
+    private final boolean streamingUpload;
+    private final TransferPriority priority;
 
     /**
      * Constructs a new AWSS3StorageUploadRequest.
@@ -59,6 +62,74 @@ public final class AWSS3StorageUploadRequest<L> {
             @Nullable String contentType,
             @NonNull ServerSideEncryption serverSideEncryption,
             @Nullable Map<String, String> metadata
+    ) {
+        this(key, local, accessLevel, targetIdentityId, contentType, serverSideEncryption, metadata, false);
+    }
+
+    /**
+     * Constructs a new AWSS3StorageUploadRequest.
+     * Although this has public access, it is intended for internal use and should not be used directly by host
+     * applications. The behavior of this may change without warning.
+     *
+     * @param key key for item to upload
+     * @param local object to upload (e.g. File or InputStream)
+     * @param accessLevel Storage access level
+     * @param targetIdentityId If set, this should override the current user's identity ID.
+     *                         If null, the operation will fetch the current identity ID.
+     * @param contentType The standard MIME type describing the format of the object to store
+     * @param serverSideEncryption server side encryption type for the current storage bucket
+     * @param metadata Metadata for the object to store
+     * @param streamingUpload Whether an InputStream is uploaded while it is being read
+     */
+    public AWSS3StorageUploadRequest(
+            @NonNull String key,
+            @NonNull L local,
+            @NonNull StorageAccessLevel accessLevel,
+            @Nullable String targetIdentityId,
+            @Nullable String contentType,
+            @NonNull ServerSideEncryption serverSideEncryption,
+            @Nullable Map<String, String> metadata,
+            boolean streamingUpload
+    ) {
+        this(
+            key,
+            local,
+            accessLevel,
+            targetIdentityId,
+            contentType,
+            serverSideEncryption,
+            metadata,
+            streamingUpload,
+            TransferPriority.NORMAL
+        );
+    }
+
+    /**
+     * Constructs a new AWSS3StorageUploadRequest.
+     * Although this has public access, it is intended for internal use and should not be used directly by host
+     * applications. The behavior of this may change without warning.
+     *
+     * @param key key for item to upload
+     * @param local object to upload (e.g. File or InputStream)
+     * @param accessLevel Storage access level
+     * @param targetIdentityId If set, this should override the current user's identity ID.
+     *                         If null, the operation will fetch the current identity ID.
+     * @param contentType The standard MIME type describing the format of the object to store
+     * @param serverSideEncryption server side encryption type for the current storage bucket
+     * @param metadata Metadata for the object to store
+     * @param streamingUpload Whether an InputStream is uploaded while it is being read
+     * @param priority Priority of the upload among the transfers of the plugin
+     */
+    public AWSS3StorageUploadRequest(
+            @NonNull String key,
+            @NonNull L local,
+            @NonNull StorageAccessLevel accessLevel,
+            @Nullable String targetIdentityId,
+            @Nullable String contentType,
+            @NonNull ServerSideEncryption serverSideEncryption,
+            @Nullable Map<String, String> metadata,
+            boolean streamingUpload,
+            @NonNull TransferPriority priority
     ) {
         this.key = key;
         this.local = local;
@@ -70,6 +141,8 @@ public final class AWSS3StorageUploadRequest<L> {
         if (metadata != null) {
             this.metadata.putAll(metadata);
         }
+        this.streamingUpload = streamingUpload;
+        this.priority = priority;
     }
 
     /**
@@ -134,5 +207,21 @@ public final class AWSS3StorageUploadRequest<L> {
     public Map<String, String> getMetadata() {
         return metadata;
     }
-}
 
+    /**
+     * Whether an InputStream is uploaded while it is being read, instead of being copied to a file first.
+     * @return true if the upload streams
+     */
+    public boolean isStreamingUpload() {
+        return streamingUpload;
+    }
+
+    /**
+     * Gets the priority of the upload among the transfers of the plugin.
+     * @return transfer priority
+     */
+    @NonNull
+    public TransferPriority getPriority() {
+        return priority;
+    }
+}
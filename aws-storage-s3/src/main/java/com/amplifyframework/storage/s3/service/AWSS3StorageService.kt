@@ -18,15 +18,27 @@ package com.amplifyframework.storage.s3.service
 import android.content.Context
 import aws.sdk.kotlin.services.s3.S3Client
 import aws.sdk.kotlin.services.s3.deleteObject
+import aws.sdk.kotlin.services.s3.deleteObjects
+import aws.sdk.kotlin.services.s3.listObjectsV2
+import aws.sdk.kotlin.services.s3.model.Delete
 import aws.sdk.kotlin.services.s3.model.GetObjectRequest
+import aws.sdk.kotlin.services.s3.model.Object as S3Object
+import aws.sdk.kotlin.services.s3.model.ObjectIdentifier
 import aws.sdk.kotlin.services.s3.paginators.listObjectsV2Paginated
 import aws.sdk.kotlin.services.s3.presigners.presign
 import com.amplifyframework.auth.AuthCredentialsProvider
 import com.amplifyframework.storage.ObjectMetadata
 import com.amplifyframework.storage.StorageItem
+import com.amplifyframework.storage.result.StorageListResult
+import com.amplifyframework.storage.s3.TransferPriority
+import com.amplifyframework.storage.s3.configuration.AWSS3StoragePluginConfiguration
+import com.amplifyframework.storage.s3.transfer.DownloadCache
+import com.amplifyframework.storage.s3.transfer.PartUploadScheduler
+import com.amplifyframework.storage.s3.transfer.TransferListener
 import com.amplifyframework.storage.s3.transfer.TransferManager
 import com.amplifyframework.storage.s3.transfer.TransferObserver
 import com.amplifyframework.storage.s3.transfer.TransferRecord
+import com.amplifyframework.storage.s3.transfer.TransferScheduler
 import com.amplifyframework.storage.s3.transfer.UploadOptions
 import com.amplifyframework.storage.s3.utils.S3Keys
 import java.io.File
@@ -47,16 +59,39 @@ internal class AWSS3StorageService(
     private val awsRegion: String,
     private val s3BucketName: String,
     private val authCredentialsProvider: AuthCredentialsProvider,
-    private val awsS3StoragePluginKey: String
+    private val awsS3StoragePluginKey: String,
+    maxConcurrentUploadParts: Int = PartUploadScheduler.DEFAULT_MAX_CONCURRENT_PARTS,
+    maxConcurrentUploadPartsPerTransfer: Int = PartUploadScheduler.DEFAULT_MAX_CONCURRENT_PARTS_PER_TRANSFER,
+    maxProgressUpdatesPerSecond: Int = AWSS3StoragePluginConfiguration.DEFAULT_MAX_PROGRESS_UPDATES_PER_SECOND,
+    downloadCacheSizeBytes: Long = 0L,
+    transferRecordRetentionMillis: Long = AWSS3StoragePluginConfiguration.DEFAULT_TRANSFER_RECORD_RETENTION_MILLIS,
+    maxConcurrentTransfers: Int = TransferScheduler.DEFAULT_MAX_CONCURRENT_TRANSFERS
 ) : StorageService {
 
+    companion object {
+        private const val DOWNLOAD_CACHE_DIRECTORY = "amplify_s3_download_cache"
+    }
+
     private var s3Client: S3Client = S3Client {
         region = awsRegion
         credentialsProvider = authCredentialsProvider
     }
 
     val transferManager: TransferManager =
-        TransferManager(context, s3Client, awsS3StoragePluginKey)
+        TransferManager(
+            context,
+            s3Client,
+            awsS3StoragePluginKey,
+            partUploadScheduler = PartUploadScheduler(maxConcurrentUploadParts, maxConcurrentUploadPartsPerTransfer),
+            progressNotificationIntervalMillis = 1000L / maxProgressUpdatesPerSecond,
+            downloadCache = if (downloadCacheSizeBytes > 0) {
+                DownloadCache(File(context.cacheDir, DOWNLOAD_CACHE_DIRECTORY), downloadCacheSizeBytes)
+            } else {
+                null
+            },
+            transferRecordRetentionMillis = transferRecordRetentionMillis,
+            transferScheduler = TransferScheduler(maxConcurrentTransfers)
+        )
 
     /**
      * Generate pre-signed URL for an object.
@@ -79,10 +114,25 @@ internal class AWSS3StorageService(
      * Begin downloading a file.
      * @param serviceKey S3 service key
      * @param file Target file
+     * @param multipartDownloadThreshold Size from which the object is downloaded in concurrent ranges
+     * @param priority Priority of the download
      * @return A transfer observer
      */
-    override fun downloadToFile(transferId: String, serviceKey: String, file: File): TransferObserver {
-        return transferManager.download(transferId, s3BucketName, serviceKey, file)
+    override fun downloadToFile(
+        transferId: String,
+        serviceKey: String,
+        file: File,
+        multipartDownloadThreshold: Long,
+        priority: TransferPriority
+    ): TransferObserver {
+        return transferManager.download(
+            transferId,
+            s3BucketName,
+            serviceKey,
+            file,
+            multipartDownloadThreshold = multipartDownloadThreshold,
+            priority = priority
+        )
     }
 
     /**
@@ -90,15 +140,17 @@ internal class AWSS3StorageService(
      * @param serviceKey S3 service key
      * @param file Target file
      * @param metadata Object metadata to associate with upload
+     * @param priority Priority of the upload
      * @return A transfer observer
      */
     override fun uploadFile(
         transferId: String,
         serviceKey: String,
         file: File,
-        metadata: ObjectMetadata
+        metadata: ObjectMetadata,
+        priority: TransferPriority
     ): TransferObserver {
-        return transferManager.upload(transferId, s3BucketName, serviceKey, file, metadata)
+        return transferManager.upload(transferId, s3BucketName, serviceKey, file, metadata, priority = priority)
     }
 
     /**
@@ -106,6 +158,7 @@ internal class AWSS3StorageService(
      * @param serviceKey S3 service key
      * @param inputStream Target InputStream
      * @param metadata Object metadata to associate with upload
+     * @param priority Priority of the upload
      * @return A transfer observer
      * @throws IOException An IOException thrown during the process writing an InputStream into a file
      */
@@ -113,12 +166,35 @@ internal class AWSS3StorageService(
         transferId: String,
         serviceKey: String,
         inputStream: InputStream,
-        metadata: ObjectMetadata
+        metadata: ObjectMetadata,
+        priority: TransferPriority
     ): TransferObserver {
-        val uploadOptions = UploadOptions(s3BucketName, metadata)
+        val uploadOptions = UploadOptions(s3BucketName, metadata, priority = priority)
         return transferManager.upload(transferId, serviceKey, inputStream, uploadOptions)
     }
 
+    /**
+     * Begin uploading an inputStream while it is still being read.
+     * @param serviceKey S3 service key
+     * @param inputStream Target InputStream
+     * @param metadata Object metadata to associate with upload
+     * @param listener Listener registered before the upload starts
+     * @param priority Priority of the upload
+     * @return A transfer observer
+     * @throws IOException An IOException thrown while creating the file parts are spilled to
+     */
+    override fun uploadInputStreamStreaming(
+        transferId: String,
+        serviceKey: String,
+        inputStream: InputStream,
+        metadata: ObjectMetadata,
+        listener: TransferListener,
+        priority: TransferPriority
+    ): TransferObserver {
+        val uploadOptions = UploadOptions(s3BucketName, metadata, transferListener = listener, priority = priority)
+        return transferManager.uploadStreaming(transferId, serviceKey, inputStream, uploadOptions)
+    }
+
     /**
      * List items inside an S3 path.
      * @param path The path to list items from
@@ -132,25 +208,68 @@ internal class AWSS3StorageService(
                 this.prefix = path
             }
             result.collect {
-                it.contents?.forEach { value ->
-                    val key = value.key
-                    val lastModified = value.lastModified
-                    val eTag = value.eTag
-                    if (key != null && lastModified != null && eTag != null) {
-                        items += StorageItem(
-                            S3Keys.extractAmplifyKey(key, prefix),
-                            value.size,
-                            Date.from(Instant.ofEpochMilli(lastModified.epochSeconds)),
-                            eTag,
-                            null
-                        )
-                    }
-                }
+                it.contents?.mapNotNullTo(items) { value -> toStorageItem(value, prefix) }
             }
         }
         return items
     }
 
+    /**
+     * Synchronous operation to list a page of items, and the folders found using a delimiter, in s3.
+     * @param path The path to list items from
+     * @param prefix The prefix of the access level, which is stripped from keys
+     * @param pageSize The most items to list, or 0 to list all of them
+     * @param nextToken The token of the page to list, or null for the first page
+     * @param delimiter If set, keys are grouped into folders by this delimiter
+     * @return A page of parsed items, with the token of the next page if there is one
+     */
+    override fun listFiles(
+        path: String,
+        prefix: String,
+        pageSize: Int,
+        nextToken: String?,
+        delimiter: String?
+    ): StorageListResult {
+        val items = mutableListOf<StorageItem>()
+        val commonPrefixes = mutableListOf<String>()
+        var token = nextToken
+        runBlocking {
+            do {
+                val response = s3Client.listObjectsV2 {
+                    this.bucket = s3BucketName
+                    this.prefix = path
+                    this.delimiter = delimiter
+                    this.continuationToken = token
+                    if (pageSize > 0) {
+                        this.maxKeys = pageSize
+                    }
+                }
+                response.contents?.mapNotNullTo(items) { toStorageItem(it, prefix) }
+                response.commonPrefixes?.mapNotNullTo(commonPrefixes) { commonPrefix ->
+                    commonPrefix.prefix?.let { S3Keys.extractAmplifyKey(it, prefix) }
+                }
+                token = response.nextContinuationToken
+            } while (pageSize == 0 && token != null)
+        }
+        return StorageListResult.fromItems(items, commonPrefixes, token)
+    }
+
+    private fun toStorageItem(value: S3Object, prefix: String): StorageItem? {
+        val key = value.key
+        val lastModified = value.lastModified
+        val eTag = value.eTag
+        if (key == null || lastModified == null || eTag == null) {
+            return null
+        }
+        return StorageItem(
+            S3Keys.extractAmplifyKey(key, prefix),
+            value.size,
+            Date.from(Instant.ofEpochMilli(lastModified.epochSeconds)),
+            eTag,
+            null
+        )
+    }
+
     /**
      * Synchronous operation to delete a file in s3.
      * @param serviceKey Fully specified path to file to delete (including public/private/protected folder)
@@ -164,6 +283,27 @@ internal class AWSS3StorageService(
         }
     }
 
+    /**
+     * Synchronous operation to delete many files in s3 with one request.
+     * @param serviceKeys Fully specified paths to the files to delete, at most 1000
+     * @return The error messages of the files which weren't deleted, by key
+     */
+    override fun deleteObjects(serviceKeys: List<String>): Map<String, String> {
+        val response = runBlocking {
+            s3Client.deleteObjects {
+                bucket = s3BucketName
+                delete = Delete {
+                    objects = serviceKeys.map { ObjectIdentifier { key = it } }
+                    // Only report the objects which failed.
+                    quiet = true
+                }
+            }
+        }
+        return response.errors.orEmpty()
+            .mapNotNull { error -> error.key?.let { it to "${error.code}: ${error.message}" } }
+            .toMap()
+    }
+
     /**
      * Pause a file transfer operation.
      * @param transferObserver an in-progress transfer
@@ -17,9 +17,13 @@ package com.amplifyframework.storage.s3.service;
 
 import android.content.Context;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.amplifyframework.storage.ObjectMetadata;
 import com.amplifyframework.storage.StorageItem;
+import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.s3.TransferPriority;
+import com.amplifyframework.storage.s3.transfer.TransferListener;
 import com.amplifyframework.storage.s3.transfer.TransferObserver;
 import com.amplifyframework.storage.s3.transfer.TransferRecord;
 
@@ -28,6 +32,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface to manage file transfer to and from a registered S3 bucket.
@@ -50,11 +55,16 @@ public interface StorageService {
      * @param transferId unique id for this transfer
      * @param serviceKey key to uniquely specify item to download
      * @param file       file to write downloaded item
+     * @param multipartDownloadThreshold size from which the item is downloaded in concurrent ranges,
+     *                                   or 0 to always download it in a single stream
+     * @param priority   priority of the download among the transfers of the plugin
      * @return An instance of {@link TransferObserver} to monitor download
      */
     TransferObserver downloadToFile(@NonNull String transferId,
                                     @NonNull String serviceKey,
-                                    @NonNull File file);
+                                    @NonNull File file,
+                                    long multipartDownloadThreshold,
+                                    @NonNull TransferPriority priority);
 
     /**
      * Begin uploading a file to a key in storage and return an observer
@@ -65,12 +75,14 @@ public interface StorageService {
      * @param serviceKey Key to uniquely label item in storage
      * @param file       file to upload
      * @param metadata   metadata to attach to uploaded item
+     * @param priority   priority of the upload among the transfers of the plugin
      * @return An instance of {@link TransferObserver} to monitor upload
      */
     TransferObserver uploadFile(@NonNull String transferId,
                                 @NonNull String serviceKey,
                                 @NonNull File file,
-                                @NonNull ObjectMetadata metadata);
+                                @NonNull ObjectMetadata metadata,
+                                @NonNull TransferPriority priority);
 
     /**
      * Begin uploading an InputStream to a key in storage and return an observer
@@ -81,6 +93,7 @@ public interface StorageService {
      * @param serviceKey  key to uniquely label item in storage
      * @param inputStream InputStream from which to read content
      * @param metadata    Metadata to attach to uploaded item
+     * @param priority    priority of the upload among the transfers of the plugin
      * @return An instance of {@link TransferObserver} to monitor upload
      * @throws IOException on error reading the InputStream, or saving it to a temporary
      *                     File before the upload begins.
@@ -88,7 +101,29 @@ public interface StorageService {
     TransferObserver uploadInputStream(@NonNull String transferId,
                                        @NonNull String serviceKey,
                                        @NonNull InputStream inputStream,
-                                       @NonNull ObjectMetadata metadata)
+                                       @NonNull ObjectMetadata metadata,
+                                       @NonNull TransferPriority priority)
+        throws IOException;
+
+    /**
+     * Begin uploading an InputStream to a key in storage in parts, while the stream is
+     * still being read, and return an observer to monitor upload progress.
+     *
+     * @param transferId unique id for this transfer
+     * @param serviceKey  key to uniquely label item in storage
+     * @param inputStream InputStream from which to read content
+     * @param metadata    Metadata to attach to uploaded item
+     * @param listener    Listener registered before the upload starts
+     * @param priority    priority of the upload among the transfers of the plugin
+     * @return An instance of {@link TransferObserver} to monitor upload
+     * @throws IOException on error creating the temporary File parts are spilled to
+     */
+    TransferObserver uploadInputStreamStreaming(@NonNull String transferId,
+                                                @NonNull String serviceKey,
+                                                @NonNull InputStream inputStream,
+                                                @NonNull ObjectMetadata metadata,
+                                                @NonNull TransferListener listener,
+                                                @NonNull TransferPriority priority)
         throws IOException;
 
     /**
@@ -100,6 +135,24 @@ public interface StorageService {
      */
     List<StorageItem> listFiles(@NonNull String path, @NonNull String prefix);
 
+    /**
+     * Returns a page of items, and the folders found using a delimiter, inside the storage at the given path.
+     *
+     * @param path path inside storage to inspect for list of items
+     * @param prefix path appended to S3 keys
+     * @param pageSize the most items to list, or 0 to list all of them
+     * @param nextToken the token of the page to list, or null for the first page
+     * @param delimiter If set, keys are grouped into folders by this delimiter
+     * @return A page of parsed items, with the token of the next page if there is one
+     */
+    StorageListResult listFiles(
+            @NonNull String path,
+            @NonNull String prefix,
+            int pageSize,
+            @Nullable String nextToken,
+            @Nullable String delimiter
+    );
+
     /**
      * Delete an object with specific key inside the storage.
      *
@@ -107,6 +160,15 @@ public interface StorageService {
      */
     void deleteObject(@NonNull String serviceKey);
 
+    /**
+     * Delete many objects inside the storage with one request.
+     *
+     * @param serviceKeys Keys of the items to remove from storage, at most 1000
+     * @return The error messages of the objects which weren't deleted, by key
+     */
+    @NonNull
+    Map<String, String> deleteObjects(@NonNull List<String> serviceKeys);
+
     /**
      * Pause the ongoing transfer.
      *
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.transfer
+
+import android.util.Base64
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.storage.s3.AWSS3StoragePlugin
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.security.MessageDigest
+
+/**
+ * A disk cache of downloaded objects, keyed by bucket, key and ETag, which keeps its total size under maxSizeBytes
+ * by evicting the least recently used objects.
+ *
+ * Each object is kept at directory/sha256(bucket/key)/base64(ETag), so only one version of an object is kept, and
+ * the ETag of the cached version is at hand to revalidate it with If-None-Match. Files are copied in and out rather
+ * than hard-linked, so that an app changing a downloaded file can't change what later downloads are served.
+ */
+internal class DownloadCache(
+    private val directory: File,
+    private val maxSizeBytes: Long
+) {
+    companion object {
+        private const val FILE_NAME_FLAGS = Base64.URL_SAFE or Base64.NO_WRAP or Base64.NO_PADDING
+    }
+
+    private val logger =
+        Amplify.Logging.forNamespace(
+            AWSS3StoragePlugin.AWS_S3_STORAGE_LOG_NAMESPACE.format(this::class.java.simpleName)
+        )
+
+    /**
+     * A cached version of an object.
+     */
+    class Entry(val eTag: String, val file: File)
+
+    /**
+     * Gets the cached version of an object, if any.
+     *
+     * @param bucket The bucket of the object
+     * @param key The key of the object
+     * @return The cached version, or null if the object isn't cached
+     */
+    @Synchronized
+    fun get(bucket: String, key: String): Entry? {
+        val file = objectDirectory(bucket, key).listFiles()?.firstOrNull() ?: return null
+        val eTag = try {
+            String(Base64.decode(file.name, FILE_NAME_FLAGS))
+        } catch (exception: IllegalArgumentException) {
+            file.delete()
+            return null
+        }
+        return Entry(eTag, file)
+    }
+
+    /**
+     * Copies a cached version of an object to where it was requested, and marks it as recently used.
+     *
+     * @param entry The cached version
+     * @param destination Where to copy it to
+     */
+    @Synchronized
+    @Throws(IOException::class)
+    fun copyTo(entry: Entry, destination: File) {
+        destination.parentFile?.takeIf { !it.exists() }?.mkdirs()
+        copy(entry.file, destination)
+        entry.file.setLastModified(System.currentTimeMillis())
+    }
+
+    /**
+     * Drops a cached version of an object which couldn't be read, so that the next download fetches it again.
+     *
+     * @param entry The cached version
+     */
+    @Synchronized
+    fun invalidate(entry: Entry) {
+        entry.file.delete()
+        entry.file.parentFile?.delete()
+    }
+
+    /**
+     * Caches a downloaded version of an object, replacing any other version of it, then evicts the least recently
+     * used objects while the cache is over its size. A file larger than the whole cache isn't cached.
+     *
+     * @param bucket The bucket of the object
+     * @param key The key of the object
+     * @param eTag The ETag of the downloaded version
+     * @param source The downloaded file
+     */
+    @Synchronized
+    fun put(bucket: String, key: String, eTag: String, source: File) {
+        if (source.length() > maxSizeBytes) {
+            return
+        }
+        val objectDirectory = objectDirectory(bucket, key)
+        val name = Base64.encodeToString(eTag.toByteArray(), FILE_NAME_FLAGS)
+        val target = File(objectDirectory, name)
+        val temporary = File(directory, "$name.tmp")
+        try {
+            objectDirectory.mkdirs()
+            copy(source, temporary)
+            objectDirectory.listFiles()?.forEach { it.delete() }
+            if (!temporary.renameTo(target)) {
+                throw IOException("Failed to move ${temporary.name} into the cache")
+            }
+        } catch (exception: IOException) {
+            logger.warn("Failed to cache the download of $key", exception)
+            temporary.delete()
+            return
+        }
+        evict()
+    }
+
+    private fun evict() {
+        val files = directory.listFiles()?.flatMap { it.listFiles()?.toList().orEmpty() }.orEmpty()
+        var size = files.sumOf { it.length() }
+        if (size <= maxSizeBytes) {
+            return
+        }
+        for (file in files.sortedBy { it.lastModified() }) {
+            if (size <= maxSizeBytes) {
+                break
+            }
+            size -= file.length()
+            file.delete()
+            file.parentFile?.delete()
+        }
+    }
+
+    private fun objectDirectory(bucket: String, key: String): File {
+        val digest = MessageDigest.getInstance("SHA-256").digest("$bucket/$key".toByteArray())
+        return File(directory, digest.joinToString("") { "%02x".format(it) })
+    }
+
+    private fun copy(source: File, destination: File) {
+        FileInputStream(source).channel.use { input ->
+            FileOutputStream(destination).channel.use { output ->
+                var position = 0L
+                val size = input.size()
+                while (position < size) {
+                    position += input.transferTo(position, size - position, output)
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.transfer
+
+import aws.smithy.kotlin.runtime.content.ByteStream
+import aws.smithy.kotlin.runtime.io.SdkByteReadChannel
+import java.io.Closeable
+import java.io.EOFException
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.concurrent.ConcurrentLinkedQueue
+import kotlin.math.min
+
+/**
+ * A request body reading a range of a file with positional FileChannel reads, reporting progress as it is read.
+ *
+ * Reads go straight into the buffer of the HTTP engine when it reads into a ByteBuffer, and through a pooled direct
+ * buffer when it reads into an array, so no buffer is allocated per chunk. The parts of a multipart upload being
+ * uploaded at once share one open FileChannel, as positional reads don't move its position.
+ *
+ * The stream must be closed once the request is done, to give back the buffer and the channel.
+ */
+internal class FileChannelByteStream(
+    private val file: File,
+    private val start: Long = 0L,
+    length: Long = file.length() - start,
+    private val progressListener: ProgressListener? = null
+) : ByteStream.OneShotStream(), Closeable {
+
+    companion object {
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val MAX_POOLED_BUFFERS = 16
+        private val bufferPool = ConcurrentLinkedQueue<ByteBuffer>()
+        private val openChannels = mutableMapOf<String, SharedChannel>()
+
+        private class SharedChannel(val channel: FileChannel) {
+            var references = 0
+        }
+
+        private fun acquireChannel(file: File): FileChannel {
+            return synchronized(openChannels) {
+                val sharedChannel = openChannels.getOrPut(file.absolutePath) {
+                    SharedChannel(RandomAccessFile(file, "r").channel)
+                }
+                sharedChannel.references++
+                sharedChannel.channel
+            }
+        }
+
+        private fun releaseChannel(file: File) {
+            synchronized(openChannels) {
+                val sharedChannel = openChannels[file.absolutePath] ?: return
+                if (--sharedChannel.references == 0) {
+                    openChannels.remove(file.absolutePath)
+                    sharedChannel.channel.close()
+                }
+            }
+        }
+
+        private fun acquireBuffer(): ByteBuffer = bufferPool.poll() ?: ByteBuffer.allocateDirect(BUFFER_SIZE)
+
+        private fun releaseBuffer(buffer: ByteBuffer) {
+            // The size check races with other releases, which at worst pools a few extra buffers.
+            if (bufferPool.size < MAX_POOLED_BUFFERS) {
+                buffer.clear()
+                bufferPool.offer(buffer)
+            }
+        }
+    }
+
+    override val contentLength: Long = length
+
+    // A retried request reads the body again, so more than one reader may be open.
+    private val readers = ConcurrentLinkedQueue<Reader>()
+
+    override fun readFrom(): SdkByteReadChannel {
+        return Reader().also { readers.add(it) }
+    }
+
+    override fun close() {
+        readers.forEach { it.close() }
+    }
+
+    private inner class Reader : SdkByteReadChannel {
+        private val fileChannel = acquireChannel(file)
+        private val end = start + contentLength
+        private var position = start
+        private var buffer: ByteBuffer? = null
+        private var closed = false
+
+        override val availableForRead: Int
+            get() = if (closed) 0 else min(end - position, Int.MAX_VALUE.toLong()).toInt()
+        override val isClosedForRead: Boolean
+            get() = closed || position >= end
+        override val isClosedForWrite: Boolean
+            get() = true
+
+        override suspend fun awaitContent() {
+            // The whole range is on disk, so content is always available.
+        }
+
+        override fun cancel(cause: Throwable?): Boolean {
+            val wasOpen = !closed
+            close()
+            return wasOpen
+        }
+
+        override suspend fun readAvailable(sink: ByteBuffer): Int {
+            if (isClosedForRead) {
+                return -1
+            }
+            val limit = sink.limit()
+            sink.limit(sink.position() + min(sink.remaining().toLong(), end - position).toInt())
+            val readBytes = try {
+                fileChannel.read(sink, position)
+            } finally {
+                sink.limit(limit)
+            }
+            return advance(readBytes)
+        }
+
+        override suspend fun readAvailable(sink: ByteArray, offset: Int, length: Int): Int {
+            if (isClosedForRead) {
+                return -1
+            }
+            val buffer = buffer ?: acquireBuffer().also { buffer = it }
+            buffer.clear()
+            buffer.limit(min(min(buffer.capacity(), length).toLong(), end - position).toInt())
+            val readBytes = fileChannel.read(buffer, position)
+            if (readBytes > 0) {
+                buffer.flip()
+                buffer.get(sink, offset, readBytes)
+            }
+            return advance(readBytes)
+        }
+
+        override suspend fun readFully(sink: ByteArray, offset: Int, length: Int) {
+            var copied = 0
+            while (copied < length) {
+                val readBytes = readAvailable(sink, offset + copied, length - copied)
+                if (readBytes == -1) {
+                    throw EOFException("Expected $length bytes but only $copied were left in ${file.name}")
+                }
+                copied += readBytes
+            }
+        }
+
+        override suspend fun readRemaining(limit: Int): ByteArray {
+            if (isClosedForRead) {
+                return ByteArray(0)
+            }
+            val bytes = ByteArray(min(limit.toLong(), end - position).toInt())
+            readFully(bytes, 0, bytes.size)
+            return bytes
+        }
+
+        private fun advance(readBytes: Int): Int {
+            if (readBytes == -1) {
+                // The file is shorter than when the transfer was created.
+                close()
+                return -1
+            }
+            position += readBytes
+            if (readBytes > 0) {
+                progressListener?.progressChanged(readBytes.toLong())
+            }
+            if (position >= end) {
+                close()
+            }
+            return readBytes
+        }
+
+        fun close() {
+            synchronized(this) {
+                if (closed) {
+                    return
+                }
+                closed = true
+            }
+            buffer?.let { releaseBuffer(it) }
+            buffer = null
+            releaseChannel(file)
+            readers.remove(this)
+        }
+    }
+}
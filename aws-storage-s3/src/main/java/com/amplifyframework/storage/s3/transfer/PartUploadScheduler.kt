@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.transfer
+
+import kotlin.math.ceil
+import kotlin.math.max
+import kotlin.math.min
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+
+/**
+ * Schedules the part uploads of multipart uploads. It caps how many parts are uploaded at once, for each transfer
+ * and in total, and sizes the parts of new uploads after the throughput measured so far.
+ *
+ * The total cap adapts like TCP congestion control (AIMD): a part completed in reasonable time raises it by
+ * 1/limit, so by about one per round of parts, while a failed part, or one uploaded at a much lower throughput than
+ * the recent average, halves it. Throughput rather than duration is compared, as parts grow with the measured
+ * throughput. It never goes above maxConcurrentParts, which is how apps throttle background transfers.
+ */
+internal class PartUploadScheduler(
+    private val maxConcurrentParts: Int = DEFAULT_MAX_CONCURRENT_PARTS,
+    private val maxConcurrentPartsPerTransfer: Int = DEFAULT_MAX_CONCURRENT_PARTS_PER_TRANSFER,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+    companion object {
+        const val DEFAULT_MAX_CONCURRENT_PARTS = 8
+        const val DEFAULT_MAX_CONCURRENT_PARTS_PER_TRANSFER = 4
+        const val MAXIMUM_UPLOAD_PART_SIZE = 64L * 1024 * 1024
+        private const val INITIAL_CONGESTION_WINDOW = 2.0
+
+        // A part uploaded at this many times less than the average throughput counts as congestion, as a timeout would.
+        private const val SLOW_PART_FACTOR = 3.0
+        private const val SMOOTHING_FACTOR = 0.2
+
+        // Parts of new uploads are sized to take about this long at the measured throughput.
+        private const val TARGET_PART_DURATION_MILLIS = 15_000L
+    }
+
+    private class Waiter(val transferRecordId: Int) {
+        val granted = CompletableDeferred<Unit>()
+    }
+
+    private val lock = Any()
+    private val waiters = ArrayDeque<Waiter>()
+    private val partsInFlight = mutableMapOf<Int, Int>()
+    private var totalPartsInFlight = 0
+    private var congestionWindow = min(INITIAL_CONGESTION_WINDOW, maxConcurrentParts.toDouble())
+    private var averageBytesPerMilli = 0.0
+
+    init {
+        require(maxConcurrentParts > 0) { "maxConcurrentParts must be positive" }
+        require(maxConcurrentPartsPerTransfer > 0) { "maxConcurrentPartsPerTransfer must be positive" }
+    }
+
+    /**
+     * The number of parts currently allowed to upload at once, across transfers.
+     */
+    val concurrencyLimit: Int
+        get() = synchronized(lock) { limit() }
+
+    /**
+     * Uploads a part once the caps allow it, and learns from how the upload went. Time spent in [slot] before it
+     * runs the upload, such as waiting for a slot of the [TransferScheduler], doesn't count towards the part.
+     *
+     * @param transferRecordId The id of the main record of the multipart upload
+     * @param partBytes The size of the part
+     * @param slot Runs the upload once the caps allow it
+     * @param upload Uploads the part
+     * @return The result of the upload
+     */
+    suspend fun <T> schedule(
+        transferRecordId: Int,
+        partBytes: Long,
+        slot: suspend (suspend () -> T) -> T = { it() },
+        upload: suspend () -> T
+    ): T {
+        acquire(transferRecordId)
+        try {
+            return slot {
+                val startTime = clock()
+                val result = upload()
+                onPartCompleted(partBytes, clock() - startTime)
+                result
+            }
+        } catch (exception: Exception) {
+            if (exception !is CancellationException) {
+                onPartFailed()
+            }
+            throw exception
+        } finally {
+            release(transferRecordId)
+        }
+    }
+
+    /**
+     * Picks the part size for a new multipart upload, so that parts take a few seconds at the measured throughput,
+     * within the part size and part count limits of S3.
+     *
+     * @param bytesTotal The size of the upload, or 0 if unknown
+     * @return The part size in bytes
+     */
+    fun recommendedPartSize(bytesTotal: Long): Long {
+        val partSizeForPartCount = ceil(bytesTotal / TransferRecord.MAXIMUM_UPLOAD_PARTS.toDouble()).toLong()
+        val partSizeForThroughput = synchronized(lock) { (averageBytesPerMilli * TARGET_PART_DURATION_MILLIS).toLong() }
+        return max(
+            TransferRecord.MINIMUM_UPLOAD_PART_SIZE.toLong(),
+            max(partSizeForPartCount, min(partSizeForThroughput, MAXIMUM_UPLOAD_PART_SIZE))
+        )
+    }
+
+    private suspend fun acquire(transferRecordId: Int) {
+        // Queued parts of transfers at their own cap don't hold up the parts of other transfers.
+        val waiter = synchronized(lock) {
+            Waiter(transferRecordId).also {
+                waiters.addLast(it)
+                grantWaiters()
+            }
+        }
+        try {
+            waiter.granted.await()
+        } catch (exception: CancellationException) {
+            val granted = synchronized(lock) { !waiters.remove(waiter) }
+            if (granted) {
+                release(transferRecordId)
+            }
+            throw exception
+        }
+    }
+
+    private fun release(transferRecordId: Int) {
+        synchronized(lock) {
+            totalPartsInFlight--
+            val remaining = (partsInFlight[transferRecordId] ?: 1) - 1
+            if (remaining > 0) partsInFlight[transferRecordId] = remaining else partsInFlight.remove(transferRecordId)
+            grantWaiters()
+        }
+    }
+
+    private fun onPartCompleted(partBytes: Long, durationMillis: Long) {
+        synchronized(lock) {
+            val bytesPerMilli = partBytes / max(durationMillis, 1L).toDouble()
+            val slow = averageBytesPerMilli > 0 && bytesPerMilli * SLOW_PART_FACTOR < averageBytesPerMilli
+            averageBytesPerMilli = smooth(averageBytesPerMilli, bytesPerMilli)
+            if (slow) {
+                decreaseWindow()
+            } else {
+                congestionWindow = min(congestionWindow + 1 / congestionWindow, maxConcurrentParts.toDouble())
+                grantWaiters()
+            }
+        }
+    }
+
+    private fun onPartFailed() {
+        synchronized(lock) { decreaseWindow() }
+    }
+
+    private fun decreaseWindow() {
+        congestionWindow = max(congestionWindow / 2, 1.0)
+    }
+
+    private fun smooth(average: Double, sample: Double): Double {
+        return if (average == 0.0) sample else average + SMOOTHING_FACTOR * (sample - average)
+    }
+
+    private fun limit() = max(congestionWindow.toInt(), 1)
+
+    private fun canStart(transferRecordId: Int): Boolean {
+        return totalPartsInFlight < limit() &&
+            (partsInFlight[transferRecordId] ?: 0) < maxConcurrentPartsPerTransfer
+    }
+
+    private fun start(transferRecordId: Int) {
+        totalPartsInFlight++
+        partsInFlight[transferRecordId] = (partsInFlight[transferRecordId] ?: 0) + 1
+    }
+
+    // Grants waiters in arrival order, skipping those of transfers which are at their own cap.
+    private fun grantWaiters() {
+        val iterator = waiters.iterator()
+        while (iterator.hasNext() && totalPartsInFlight < limit()) {
+            val waiter = iterator.next()
+            if (canStart(waiter.transferRecordId)) {
+                iterator.remove()
+                start(waiter.transferRecordId)
+                waiter.granted.complete(Unit)
+            }
+        }
+    }
+}
@@ -140,6 +140,7 @@ internal class DownloadProgressListener(
         bytesTransferredSoFar = transferRecord.bytesCurrent
     }
 
+    @Synchronized
     override fun progressChanged(bytesTransferred: Long) {
         bytesTransferredSoFar += bytesTransferred
         progressUpdateSink += bytesTransferred
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.transfer
+
+import aws.sdk.kotlin.services.s3.S3Client
+import aws.sdk.kotlin.services.s3.abortMultipartUpload
+import aws.sdk.kotlin.services.s3.completeMultipartUpload
+import aws.sdk.kotlin.services.s3.createMultipartUpload
+import aws.sdk.kotlin.services.s3.model.CompletedMultipartUpload
+import aws.sdk.kotlin.services.s3.model.ObjectCannedAcl
+import aws.sdk.kotlin.services.s3.uploadPart
+import aws.smithy.kotlin.runtime.content.ByteStream
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.storage.ObjectMetadata
+import com.amplifyframework.storage.TransferState
+import com.amplifyframework.storage.s3.AWSS3StoragePlugin
+import java.io.File
+import java.io.FileOutputStream
+import java.io.InputStream
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.ClosedReceiveChannelException
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.joinAll
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+
+/**
+ * Uploads an InputStream as a multipart upload while the stream is still being read, instead of copying it to a file
+ * first. Parts are read into a pool of part-sized buffers and uploaded concurrently. Reading waits whenever every
+ * buffer holds a part which S3 hasn't acknowledged yet, so memory stays under maxInFlightParts × partSize. Like
+ * the parts of other uploads, each part waits for the [PartUploadScheduler] and then for a [TransferScheduler] slot
+ * of the transfer's priority.
+ *
+ * The size of the stream isn't known up front, so parts start at the size [PartUploadScheduler.recommendedPartSize]
+ * suggests for the current throughput, and double every [PARTS_PER_SIZE_DOUBLING] parts, so that the 10,000 parts
+ * S3 allows hold terabytes rather than the 48.8 GiB of fixed 5 MiB parts.
+ *
+ * The stream can't be read twice. So when the upload is paused or a part fails, only the parts which weren't
+ * acknowledged, followed by the rest of the stream, are spilled to the transfer's file. From there on the transfer
+ * is an ordinary multipart upload of that file, which WorkManager resumes and retries.
+ */
+internal class StreamingMultipartUploader(
+    private val s3: S3Client,
+    private val transferDB: TransferDB,
+    private val transferStatusUpdater: TransferStatusUpdater,
+    private val partUploadScheduler: PartUploadScheduler,
+    private val transferScheduler: TransferScheduler,
+    private val initialPartSize: Int? = null,
+    private val maxInFlightParts: Int = DEFAULT_MAX_IN_FLIGHT_PARTS
+) {
+    private val logger =
+        Amplify.Logging.forNamespace(
+            AWSS3StoragePlugin.AWS_S3_STORAGE_LOG_NAMESPACE.format(this::class.java.simpleName)
+        )
+
+    companion object {
+        const val DEFAULT_MAX_IN_FLIGHT_PARTS = 4
+        const val PARTS_PER_SIZE_DOUBLING = 1000
+
+        /**
+         * Size of the part with the given number, for parts which start at the given size.
+         */
+        fun partSizeOf(partNumber: Int, initialPartSize: Int): Int {
+            val doublings = (partNumber - 1) / PARTS_PER_SIZE_DOUBLING
+            return (initialPartSize.toLong() shl doublings).coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+        }
+    }
+
+    private class StreamedPart(val partNumber: Int, val buffer: ByteArray, val length: Int)
+
+    /**
+     * Aborts the multipart upload of a streaming upload which won't go on, if it was started in S3.
+     *
+     * @param transferRecord The main record of the upload
+     */
+    suspend fun abort(transferRecord: TransferRecord) {
+        transferRecord.multipartId?.let { abortMultipartUpload(transferRecord, it) }
+    }
+
+    /**
+     * Uploads the stream for the given main record of a multipart upload, whose file is where parts get spilled.
+     *
+     * @param transferRecord The main record of the upload, as kept by [TransferStatusUpdater.activeTransferMap]
+     * @param inputStream The stream to upload, which is closed once read
+     * @return true if spilled parts are left for a WorkManager multipart upload to finish, false if the upload
+     * reached a terminal or paused state
+     */
+    suspend fun upload(
+        transferRecord: TransferRecord,
+        inputStream: InputStream
+    ): Boolean = withContext(Dispatchers.IO) {
+        transferStatusUpdater.updateTransferState(transferRecord.id, TransferState.IN_PROGRESS)
+        // Nothing was read yet, so a failure to start the upload fails the transfer rather than spilling the stream.
+        val uploadId = createMultipartUpload(transferRecord)
+        val partSize = initialPartSize
+            ?: partUploadScheduler.recommendedPartSize(0).coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+        val failure = AtomicReference<Throwable?>(null)
+        val unacknowledgedParts = ConcurrentHashMap<Int, StreamedPart>()
+        val acknowledgedBytes = AtomicLong(0L)
+        var bytesRead = 0L
+        var partNumber = 0
+        var endOfStream = false
+        inputStream.use { stream ->
+            coroutineScope {
+                val bufferPool = Channel<ByteArray>(maxInFlightParts)
+                var allocatedBuffers = 0
+                val partUploads = mutableListOf<Job>()
+                while (failure.get() == null && isRunning(transferRecord)) {
+                    val size = partSizeOf(partNumber + 1, partSize)
+                    val pooled = bufferPool.tryReceive().getOrNull()
+                        ?: if (allocatedBuffers < maxInFlightParts) {
+                            allocatedBuffers++
+                            ByteArray(size)
+                        } else {
+                            try {
+                                bufferPool.receive()
+                            } catch (exception: ClosedReceiveChannelException) {
+                                break
+                            }
+                        }
+                    // Parts have grown, so a buffer of the previous size is replaced.
+                    val buffer = if (pooled.size == size) pooled else ByteArray(size)
+                    val length = readPart(stream, buffer)
+                    if (length == 0 && partNumber > 0) {
+                        endOfStream = true
+                        break
+                    }
+                    val part = StreamedPart(++partNumber, buffer, length)
+                    bytesRead += length
+                    unacknowledgedParts[part.partNumber] = part
+                    partUploads += launch {
+                        try {
+                            val eTag = uploadPart(transferRecord, uploadId, part)
+                            recordAcknowledgedPart(transferRecord, uploadId, part, eTag)
+                            unacknowledgedParts.remove(part.partNumber)
+                            val uploaded = acknowledgedBytes.addAndGet(part.length.toLong())
+                            transferStatusUpdater.updateProgress(transferRecord.id, uploaded, bytesRead, true)
+                            bufferPool.trySend(part.buffer)
+                        } catch (exception: Exception) {
+                            if (exception is CancellationException) throw exception
+                            failure.compareAndSet(null, exception)
+                            // Wakes up the reader if it waits for a buffer, which this part keeps until spilled.
+                            bufferPool.close()
+                        }
+                    }
+                    if (length < buffer.size) {
+                        endOfStream = true
+                        break
+                    }
+                }
+                partUploads.joinAll()
+            }
+            if (TransferState.isCancelled(transferRecord.state)) {
+                abortMultipartUpload(transferRecord, uploadId)
+                File(transferRecord.file).delete()
+                transferStatusUpdater.updateTransferState(transferRecord.id, TransferState.CANCELED)
+                return@withContext false
+            }
+            if (endOfStream && failure.get() == null) {
+                completeMultipartUpload(transferRecord, uploadId, bytesRead)
+                return@withContext false
+            }
+            failure.get()?.let { logger.warn("Streaming upload interrupted, spilling remaining parts: $it") }
+            val spilledBytes = spillRemainingParts(
+                transferRecord,
+                uploadId,
+                unacknowledgedParts.values.sortedBy { it.partNumber },
+                stream.takeUnless { endOfStream },
+                partNumber,
+                partSize
+            )
+            transferStatusUpdater.updateProgress(
+                transferRecord.id,
+                acknowledgedBytes.get(),
+                acknowledgedBytes.get() + spilledBytes,
+                true
+            )
+        }
+        if (TransferState.isPaused(transferRecord.state)) {
+            transferStatusUpdater.updateTransferState(transferRecord.id, TransferState.PAUSED)
+            false
+        } else {
+            true
+        }
+    }
+
+    private fun isRunning(transferRecord: TransferRecord): Boolean {
+        return !TransferState.isPaused(transferRecord.state) && !TransferState.isCancelled(transferRecord.state)
+    }
+
+    private suspend fun createMultipartUpload(transferRecord: TransferRecord): String {
+        return s3.createMultipartUpload {
+            bucket = transferRecord.bucketName
+            key = transferRecord.key
+            acl = transferRecord.cannedAcl?.let { cannedAcl ->
+                ObjectCannedAcl.values().firstOrNull { it.value == cannedAcl }
+            }
+            metadata = transferRecord.userMetadata
+            tagging = transferRecord.userMetadata?.get(ObjectMetadata.S3_TAGGING)
+        }.uploadId?.also {
+            transferStatusUpdater.updateMultipartId(transferRecord.id, it)
+        } ?: throw IllegalStateException("No upload id in the response to CreateMultipartUpload")
+    }
+
+    private suspend fun uploadPart(transferRecord: TransferRecord, multipartUploadId: String, part: StreamedPart) =
+        partUploadScheduler.schedule(
+            transferRecord.id,
+            part.length.toLong(),
+            slot = { upload -> transferScheduler.schedule(transferRecord.id, transferRecord.priority, upload) }
+        ) {
+            s3.uploadPart {
+                bucket = transferRecord.bucketName
+                key = transferRecord.key
+                uploadId = multipartUploadId
+                partNumber = part.partNumber
+                // Only the last part is shorter than the buffer, so full parts are sent without a copy.
+                body = ByteStream.fromBytes(
+                    if (part.length == part.buffer.size) part.buffer else part.buffer.copyOf(part.length)
+                )
+            }
+        }.eTag ?: throw IllegalStateException("Etag is empty")
+
+    private fun recordAcknowledgedPart(
+        transferRecord: TransferRecord,
+        multipartUploadId: String,
+        part: StreamedPart,
+        eTag: String
+    ) {
+        val uri = transferDB.insertMultipartUploadRecord(
+            UUID.randomUUID().toString(),
+            transferRecord.bucketName!!,
+            transferRecord.key!!,
+            File(transferRecord.file),
+            0L,
+            part.partNumber,
+            multipartUploadId,
+            part.length.toLong(),
+            0,
+            transferRecord.id
+        )
+        val partRecordId = uri.lastPathSegment?.toInt()
+            ?: throw IllegalStateException("Invalid TransferRecord ID ${uri.lastPathSegment}")
+        transferDB.updateETag(partRecordId, eTag)
+        transferDB.updateState(partRecordId, TransferState.PART_COMPLETED)
+    }
+
+    private suspend fun completeMultipartUpload(
+        transferRecord: TransferRecord,
+        multipartUploadId: String,
+        bytes: Long
+    ) {
+        val completedParts = transferDB.queryPartETagsOfUpload(transferRecord.id)
+        s3.completeMultipartUpload {
+            bucket = transferRecord.bucketName
+            key = transferRecord.key
+            multipartUpload = CompletedMultipartUpload {
+                parts = completedParts
+            }
+            uploadId = multipartUploadId
+        }
+        transferStatusUpdater.updateProgress(transferRecord.id, bytes, bytes, true)
+        transferStatusUpdater.updateTransferState(transferRecord.id, TransferState.COMPLETED)
+    }
+
+    private suspend fun abortMultipartUpload(transferRecord: TransferRecord, multipartUploadId: String) {
+        try {
+            s3.abortMultipartUpload {
+                bucket = transferRecord.bucketName
+                key = transferRecord.key
+                uploadId = multipartUploadId
+            }
+        } catch (exception: Exception) {
+            logger.warn("Failed to abort multipart upload $multipartUploadId: $exception")
+        }
+    }
+
+    /**
+     * Writes the parts which weren't acknowledged, then the rest of the stream, to the transfer's file, with a
+     * pending part record for each.
+     * @return The number of bytes spilled
+     */
+    private fun spillRemainingParts(
+        transferRecord: TransferRecord,
+        multipartUploadId: String,
+        unacknowledgedParts: List<StreamedPart>,
+        remainingStream: InputStream?,
+        lastReadPartNumber: Int,
+        partSize: Int
+    ): Long {
+        val spillFile = File(transferRecord.file)
+        var fileOffset = 0L
+        val spilledParts = mutableListOf<Pair<Int, Long>>()
+        FileOutputStream(spillFile).use { output ->
+            unacknowledgedParts.forEach { part ->
+                output.write(part.buffer, 0, part.length)
+                spilledParts += part.partNumber to part.length.toLong()
+            }
+            remainingStream?.let { stream ->
+                var buffer = unacknowledgedParts.lastOrNull()?.buffer ?: ByteArray(0)
+                var partNumber = lastReadPartNumber
+                while (true) {
+                    val size = partSizeOf(partNumber + 1, partSize)
+                    if (buffer.size != size) buffer = ByteArray(size)
+                    val length = readPart(stream, buffer)
+                    if (length == 0) break
+                    output.write(buffer, 0, length)
+                    spilledParts += ++partNumber to length.toLong()
+                    if (length < buffer.size) break
+                }
+            }
+        }
+        val lastPartNumber = spilledParts.maxOfOrNull { it.first }
+        spilledParts.forEach { (partNumber, length) ->
+            transferDB.insertMultipartUploadRecord(
+                UUID.randomUUID().toString(),
+                transferRecord.bucketName!!,
+                transferRecord.key!!,
+                spillFile,
+                fileOffset,
+                partNumber,
+                multipartUploadId,
+                length,
+                if (partNumber == lastPartNumber) 1 else 0,
+                transferRecord.id
+            )
+            fileOffset += length
+        }
+        return fileOffset
+    }
+
+    /**
+     * Reads from the stream until the buffer is full or the stream ends.
+     * @return The number of bytes read, less than the buffer size only at the end of the stream
+     */
+    private fun readPart(stream: InputStream, buffer: ByteArray): Int {
+        var length = 0
+        while (length < buffer.size) {
+            val read = stream.read(buffer, length, buffer.size - length)
+            if (read == -1) break
+            length += read
+        }
+        return length
+    }
+}
@@ -26,8 +26,11 @@ import com.amplifyframework.core.Amplify
 import com.amplifyframework.storage.ObjectMetadata
 import com.amplifyframework.storage.TransferState
 import com.amplifyframework.storage.s3.AWSS3StoragePlugin
+import com.amplifyframework.storage.s3.TransferPriority
 import com.amplifyframework.storage.s3.utils.JsonUtils
 import java.io.File
+import java.util.UUID
+import kotlin.math.min
 
 /**
  * SQlite database to store transfer records
@@ -46,6 +49,10 @@ internal class TransferDB private constructor(context: Context) {
 
     companion object {
         private const val QUERY_PLACE_HOLDER_STRING = ",?"
+        private const val MAX_SELECTION_ARGS = 999
+
+        // Records of parts and ranges refer to the main record of their transfer.
+        private const val MAIN_RECORD_SELECTION = "${TransferTable.COLUMN_MAIN_UPLOAD_ID} is null"
         private val instance: TransferDB? = null
 
         @JvmStatic
@@ -72,6 +79,7 @@ internal class TransferDB private constructor(context: Context) {
      * @param uploadId The multipart upload id of the upload.
      * @param bytesTotal The Total bytes of the file.
      * @param isLastPart Whether this part is the last part of the upload.
+     * @param mainUploadId The id of the main record, for a part record.
      * @return An Uri of the record inserted.
      */
     fun insertMultipartUploadRecord(
@@ -83,7 +91,8 @@ internal class TransferDB private constructor(context: Context) {
         partNumber: Int,
         uploadId: String,
         bytesTotal: Long,
-        isLastPart: Int
+        isLastPart: Int,
+        mainUploadId: Int = 0
     ): Uri {
         val values: ContentValues = generateContentValuesForMultiPartUpload(
             transferId,
@@ -91,6 +100,9 @@ internal class TransferDB private constructor(context: Context) {
             fileOffset, partNumber, uploadId, bytesTotal, isLastPart, ObjectMetadata(),
             null
         )
+        if (mainUploadId != 0) {
+            values.put(TransferTable.COLUMN_MAIN_UPLOAD_ID, mainUploadId)
+        }
         return transferDBHelper.insert(transferDBHelper.contentUri, values)
     }
 
@@ -104,6 +116,8 @@ internal class TransferDB private constructor(context: Context) {
      * @param file The file to upload.
      * @param metadata The S3 Object metadata associated with this object
      * @param cannedAcl The canned Acl of this S3 object
+     * @param multipartDownloadThreshold For downloads, the object size from which it is downloaded in ranges.
+     * @param priority The priority of the transfer.
      * @return An Uri of the record inserted.
      */
     fun insertSingleTransferRecord(
@@ -114,6 +128,8 @@ internal class TransferDB private constructor(context: Context) {
         file: File?,
         cannedAcl: ObjectCannedAcl? = null,
         metadata: ObjectMetadata? = ObjectMetadata(),
+        multipartDownloadThreshold: Long = 0L,
+        priority: TransferPriority = TransferPriority.NORMAL
     ): Uri {
         val values = generateContentValuesForSinglePartTransfer(
             transferId,
@@ -122,7 +138,9 @@ internal class TransferDB private constructor(context: Context) {
             key,
             file,
             metadata,
-            cannedAcl
+            cannedAcl,
+            multipartDownloadThreshold,
+            priority
         )
         return transferDBHelper.insert(transferDBHelper.contentUri, values)
     }
@@ -137,6 +155,84 @@ internal class TransferDB private constructor(context: Context) {
         return transferDBHelper.bulkInsert(transferDBHelper.contentUri, valuesArray)
     }
 
+    /**
+     * Splits a multipart download into range records, one per part of the object, and inserts them in a single
+     * transaction.
+     *
+     * @param mainRecord The main record of the download
+     * @param bytesTotal The size of the object
+     * @param partSize The size of each range, except for the last one which holds the remainder
+     * @return The range records, in the order of their position in the object
+     */
+    fun insertDownloadRangeRecords(mainRecord: TransferRecord, bytesTotal: Long, partSize: Long): List<TransferRecord> {
+        val valuesList = mutableListOf<ContentValues>()
+        var rangeStart = 0L
+        var partNumber = 1
+        while (rangeStart < bytesTotal) {
+            val rangeLast = min(rangeStart + partSize, bytesTotal) - 1
+            valuesList.add(
+                ContentValues().apply {
+                    put(TransferTable.COLUMN_TRANSFER_ID, UUID.randomUUID().toString())
+                    put(TransferTable.COLUMN_MAIN_UPLOAD_ID, mainRecord.id)
+                    put(TransferTable.COLUMN_TYPE, TransferType.DOWNLOAD.toString())
+                    put(TransferTable.COLUMN_STATE, TransferState.WAITING.toString())
+                    put(TransferTable.COLUMN_BUCKET_NAME, mainRecord.bucketName)
+                    put(TransferTable.COLUMN_KEY, mainRecord.key)
+                    put(TransferTable.COLUMN_FILE, mainRecord.file)
+                    put(TransferTable.COLUMN_BYTES_CURRENT, 0L)
+                    put(TransferTable.COLUMN_BYTES_TOTAL, rangeLast - rangeStart + 1)
+                    put(TransferTable.COLUMN_IS_MULTIPART, 1)
+                    put(TransferTable.COLUMN_PART_NUM, partNumber)
+                    put(TransferTable.COLUMN_DATA_RANGE_START, rangeStart)
+                    put(TransferTable.COLUMN_DATA_RANGE_LAST, rangeLast)
+                    put(TransferTable.COLUMN_IS_LAST_PART, if (rangeLast == bytesTotal - 1) 1 else 0)
+                    put(TransferTable.COLUMN_IS_ENCRYPTED, 0)
+                }
+            )
+            rangeStart = rangeLast + 1
+            partNumber++
+        }
+        transferDBHelper.insertAll(transferDBHelper.contentUri, valuesList)
+        return queryDownloadRangeRecords(mainRecord.id)
+    }
+
+    /**
+     * Queries the range records of a multipart download.
+     *
+     * @param mainId The id of the main record of the download
+     * @return The range records, in the order of their position in the object
+     */
+    fun queryDownloadRangeRecords(mainId: Int): List<TransferRecord> {
+        val records = mutableListOf<TransferRecord>()
+        transferDBHelper.query(getPartUri(mainId), sortOrder = TransferTable.COLUMN_PART_NUM).use {
+            while (it.moveToNext()) {
+                records.add(TransferRecord.updateFromDB(it))
+            }
+        }
+        return records
+    }
+
+    /**
+     * Queries the transfers which are waiting or in progress but were never handed to WorkManager. These are
+     * streaming uploads which were still reading their stream, or transfers which weren't started yet, when the
+     * process died, so nothing will ever resume them.
+     *
+     * @return The main records of the transfers.
+     */
+    fun queryUnscheduledTransfers(): List<TransferRecord> {
+        val states = arrayOf(TransferState.WAITING, TransferState.IN_PROGRESS)
+        val selection = "${TransferTable.COLUMN_STATE} in (${createPlaceholders(states.size)}) and " +
+            "${TransferTable.COLUMN_WORKMANAGER_REQUEST_ID} is null and $MAIN_RECORD_SELECTION"
+        val selectionArgs = Array<String?>(states.size) { states[it].toString() }
+        val records = mutableListOf<TransferRecord>()
+        transferDBHelper.query(transferDBHelper.contentUri, selection = selection, selectionArgs = selectionArgs).use {
+            while (it.moveToNext()) {
+                records.add(TransferRecord.updateFromDB(it))
+            }
+        }
+        return records
+    }
+
     /**
      * Updates the current bytes of a transfer record.
      *
@@ -158,6 +254,22 @@ internal class TransferDB private constructor(context: Context) {
         return transferDBHelper.update(getRecordUri(id), values, null, null)
     }
 
+    /**
+     * Updates the current and total bytes of several transfer records in one transaction.
+     *
+     * @param progress The bytes currently transferred and the total bytes, by transfer id
+     */
+    fun updateBytesTransferred(progress: Map<Int, Pair<Long, Long>>) {
+        transferDBHelper.updateAll(
+            progress.entries.associate { (id, bytes) ->
+                getRecordUri(id) to ContentValues().apply {
+                    put(TransferTable.COLUMN_BYTES_CURRENT, bytes.first)
+                    put(TransferTable.COLUMN_BYTES_TOTAL, bytes.second)
+                }
+            }
+        )
+    }
+
     /**
      * Updates the current bytes of a transfer record.
      *
@@ -204,9 +316,7 @@ internal class TransferDB private constructor(context: Context) {
         state: TransferState
     ): Int {
         logger.info("update state for $id to ${state.name}")
-        val values = ContentValues()
-        values.put(TransferTable.COLUMN_STATE, state.toString())
-        return transferDBHelper.update(getRecordUri(id), values, null, null)
+        return transferDBHelper.update(getRecordUri(id), stateValues(state), null, null)
     }
 
     /**
@@ -225,93 +335,137 @@ internal class TransferDB private constructor(context: Context) {
         return transferDBHelper.update(getRecordUri(id), values, null, null)
     }
 
+    /**
+     * Updates the states of several transfer records in one transaction.
+     *
+     * @param ids The ids of the transfers.
+     * @param state The new state of the transfers.
+     * @return Number of rows updated.
+     */
+    fun updateStates(ids: Collection<Int>, state: TransferState): Int {
+        if (ids.isEmpty()) {
+            return 0
+        }
+        val values = stateValues(state)
+        return transferDBHelper.inTransaction {
+            // Chunked to stay under the SQLite limit on bound arguments.
+            ids.chunked(MAX_SELECTION_ARGS).sumOf { chunk ->
+                transferDBHelper.update(
+                    transferDBHelper.contentUri,
+                    values,
+                    "${TransferTable.COLUMN_ID} in (${createPlaceholders(chunk.size)})",
+                    chunk.map { it.toString() }.toTypedArray()
+                )
+            }
+        }
+    }
+
     /**
      * Updates states of all transfer records with the specified type which are
-     * "running" and "waiting" to "pending pause".
+     * "running" and "waiting" to "pending pause". Records of parts and ranges follow their transfer, so they are
+     * left alone.
      *
      * @param type The type of transfers to query for.
      * @return Number of rows updated.
      */
     fun pauseAllWithType(type: TransferType): Int {
-        val values = ContentValues()
-        values.put(
-            TransferTable.COLUMN_STATE,
-            TransferState.PENDING_PAUSE.toString()
-        )
-        val selection: String?
-        val selectionArgs: Array<String>?
-        if (type == TransferType.ANY) {
-            selection =
-                TransferTable.COLUMN_STATE + " in (?,?,?)"
-            selectionArgs = arrayOf(
-                TransferState.IN_PROGRESS.toString(),
-                TransferState.RESUMED_WAITING.toString(),
-                TransferState.WAITING.toString()
-            )
-        } else {
-            selection =
-                (TransferTable.COLUMN_STATE + " in (?,?,?) and " + TransferTable.COLUMN_TYPE + "=?")
-            selectionArgs = arrayOf(
-                TransferState.IN_PROGRESS.toString(),
-                TransferState.RESUMED_WAITING.toString(),
-                TransferState.WAITING.toString(),
-                type.toString()
-            )
-        }
-        return transferDBHelper.update(
-            transferDBHelper.contentUri,
-            values,
-            selection,
-            selectionArgs
+        return updateStatesWithType(
+            type,
+            arrayOf(TransferState.IN_PROGRESS, TransferState.RESUMED_WAITING, TransferState.WAITING),
+            TransferState.PENDING_PAUSE
         )
     }
 
     /**
      * Updates states of all transfer records with the specified which are
-     * "running" and "waiting" to "pending cancel"
+     * "running" and "waiting" to "pending cancel". Records of parts and ranges follow their transfer, so they are
+     * left alone.
      *
      * @param type The type of transfers to cancel
      * @return Number of rows updated.
      */
     fun cancelAllWithType(type: TransferType): Int {
-        val values = ContentValues()
-        values.put(
-            TransferTable.COLUMN_STATE,
-            TransferState.PENDING_CANCEL.toString()
+        return updateStatesWithType(
+            type,
+            arrayOf(
+                TransferState.IN_PROGRESS,
+                TransferState.RESUMED_WAITING,
+                TransferState.WAITING,
+                TransferState.PAUSED
+            ),
+            TransferState.PENDING_CANCEL
         )
-        val selection: String?
-        val selectionArgs: Array<String>?
-        if (type == TransferType.ANY) {
-            selection =
-                TransferTable.COLUMN_STATE + " in (?,?,?,?,?)"
-            selectionArgs = arrayOf(
-                TransferState.IN_PROGRESS.toString(),
-                TransferState.RESUMED_WAITING.toString(),
-                TransferState.WAITING.toString(),
-                TransferState.PAUSED.toString()
+    }
+
+    /**
+     * Deletes the records of transfers which completed, failed or were canceled before the given time, along with
+     * their part records and temporary files, in one transaction.
+     *
+     * @param updatedBeforeMillis The time, in milliseconds since the epoch, of the last state change to prune before.
+     * @return Number of transfers deleted.
+     */
+    fun pruneTerminalTransfers(updatedBeforeMillis: Long): Int {
+        val states = arrayOf(TransferState.COMPLETED, TransferState.FAILED, TransferState.CANCELED)
+        val selection = "${TransferTable.COLUMN_STATE} in (${createPlaceholders(states.size)}) and " +
+            "${TransferTable.COLUMN_UPDATED_AT} < ?"
+        val selectionArgs = states.map { it.toString() }.plus(updatedBeforeMillis.toString()).toTypedArray()
+        val files = mutableListOf<String>()
+        val pruned = transferDBHelper.inTransaction {
+            transferDBHelper.query(
+                transferDBHelper.contentUri,
+                arrayOf<String?>(TransferTable.COLUMN_FILE),
+                selection,
+                arrayOf<String?>(*selectionArgs)
+            ).use { cursor ->
+                while (cursor.moveToNext()) {
+                    files += cursor.getString(0)
+                }
+            }
+            transferDBHelper.delete(
+                transferDBHelper.contentUri,
+                "${TransferTable.COLUMN_MAIN_UPLOAD_ID} in (select ${TransferTable.COLUMN_ID} from " +
+                    "${TransferTable.TABLE_TRANSFER} where ${TransferTable.COLUMN_PART_NUM}=0 and $selection)",
+                selectionArgs
             )
-        } else {
-            selection =
-                (
-                    TransferTable.COLUMN_STATE + " in (?,?,?,?,?) and " +
-                        TransferTable.COLUMN_TYPE + "=?"
-                    )
-            selectionArgs = arrayOf(
-                TransferState.IN_PROGRESS.toString(),
-                TransferState.RESUMED_WAITING.toString(),
-                TransferState.WAITING.toString(),
-                TransferState.PAUSED.toString(),
-                type.toString()
+            transferDBHelper.delete(
+                transferDBHelper.contentUri,
+                "${TransferTable.COLUMN_PART_NUM}=0 and $selection",
+                selectionArgs
             )
         }
+        files.map { File(it) }
+            .filter { it.name.startsWith(TransferStatusUpdater.TEMP_FILE_PREFIX) }
+            .forEach { it.delete() }
+        return pruned
+    }
+
+    private fun updateStatesWithType(
+        type: TransferType,
+        fromStates: Array<TransferState>,
+        toState: TransferState
+    ): Int {
+        var selection = "${TransferTable.COLUMN_STATE} in (${createPlaceholders(fromStates.size)}) and " +
+            "$MAIN_RECORD_SELECTION"
+        var selectionArgs = fromStates.map { it.toString() }
+        if (type != TransferType.ANY) {
+            selection += " and ${TransferTable.COLUMN_TYPE}=?"
+            selectionArgs = selectionArgs.plus(type.toString())
+        }
         return transferDBHelper.update(
             transferDBHelper.contentUri,
-            values,
+            stateValues(toState),
             selection,
-            selectionArgs
+            selectionArgs.toTypedArray()
         )
     }
 
+    private fun stateValues(state: TransferState): ContentValues {
+        val values = ContentValues()
+        values.put(TransferTable.COLUMN_STATE, state.toString())
+        values.put(TransferTable.COLUMN_UPDATED_AT, System.currentTimeMillis())
+        return values
+    }
+
     /**
      * Queries all the records which have the given type.
      *
@@ -333,7 +487,8 @@ internal class TransferDB private constructor(context: Context) {
     }
 
     /**
-     * Queries all the records which have the given type and states.
+     * Queries all the records which have the given type and states. Only the main records of transfers are
+     * returned, not the records of their parts or ranges, which have no work of their own.
      *
      * @param type   The type of Transfer
      * @param states The list of Transfer States whose Transfer Records are required.
@@ -349,7 +504,7 @@ internal class TransferDB private constructor(context: Context) {
         val numStates = states.size
         val placeholderString: String? = createPlaceholders(numStates)
         if (type == TransferType.ANY) {
-            selection = "${TransferTable.COLUMN_STATE} in ($placeholderString)"
+            selection = "${TransferTable.COLUMN_STATE} in ($placeholderString) and $MAIN_RECORD_SELECTION"
             selectionArgs = arrayOfNulls(numStates)
             index = 0
             while (index < numStates) {
@@ -357,8 +512,8 @@ internal class TransferDB private constructor(context: Context) {
                 index++
             }
         } else {
-            selection =
-                "${TransferTable.COLUMN_STATE} in ($placeholderString) and $TransferTable.COLUMN_TYPE=?"
+            selection = "${TransferTable.COLUMN_STATE} in ($placeholderString) and " +
+                "${TransferTable.COLUMN_TYPE}=? and $MAIN_RECORD_SELECTION"
             selectionArgs = arrayOfNulls(numStates + 1)
             index = 0
             while (index < numStates) {
@@ -602,7 +757,8 @@ internal class TransferDB private constructor(context: Context) {
         bytesTotal: Long,
         isLastPart: Int,
         metadata: ObjectMetadata?,
-        cannedAcl: ObjectCannedAcl?
+        cannedAcl: ObjectCannedAcl?,
+        priority: TransferPriority = TransferPriority.NORMAL
     ): ContentValues {
         val values = ContentValues()
         values.put(TransferTable.COLUMN_TRANSFER_ID, transferId)
@@ -623,6 +779,7 @@ internal class TransferDB private constructor(context: Context) {
         cannedAcl?.let {
             values.put(TransferTable.COLUMN_CANNED_ACL, it.value)
         }
+        values.put(TransferTable.COLUMN_PRIORITY, priority.name)
         return values
     }
 
@@ -680,7 +837,8 @@ internal class TransferDB private constructor(context: Context) {
      */
     fun queryPartETagsOfUpload(mainUploadId: Int): List<CompletedPart> {
         val partETags = mutableListOf<CompletedPart>()
-        val cursor = transferDBHelper.query(getPartUri(mainUploadId), null, null, null, null)
+        // Parts may be recorded out of order, while S3 requires them in ascending order.
+        val cursor = transferDBHelper.query(getPartUri(mainUploadId), null, null, null, TransferTable.COLUMN_PART_NUM)
         cursor.use {
             while (it.moveToNext()) {
                 val part = it.getInt(it.getColumnIndexOrThrow(TransferTable.COLUMN_PART_NUM))
@@ -707,6 +865,7 @@ internal class TransferDB private constructor(context: Context) {
      * @param file The file to upload.
      * @param metadata The S3 ObjectMetadata to send along with the object
      * @param cannedAcl The canned ACL associated with the object
+     * @param multipartDownloadThreshold For downloads, the object size from which it is downloaded in ranges
      * @return The ContentValues object generated.
      */
     private fun generateContentValuesForSinglePartTransfer(
@@ -716,7 +875,9 @@ internal class TransferDB private constructor(context: Context) {
         key: String,
         file: File?,
         metadata: ObjectMetadata?,
-        cannedAcl: ObjectCannedAcl?
+        cannedAcl: ObjectCannedAcl?,
+        multipartDownloadThreshold: Long = 0L,
+        priority: TransferPriority = TransferPriority.NORMAL
     ): ContentValues {
         val values = ContentValues()
         values.put(TransferTable.COLUMN_TRANSFER_ID, transferId)
@@ -734,6 +895,8 @@ internal class TransferDB private constructor(context: Context) {
         values.put(TransferTable.COLUMN_IS_ENCRYPTED, 0)
         values.putAll(generateContentValuesForObjectMetadata(metadata))
         values.put(TransferTable.COLUMN_CANNED_ACL, cannedAcl?.value)
+        values.put(TransferTable.COLUMN_MULTIPART_DOWNLOAD_THRESHOLD, multipartDownloadThreshold)
+        values.put(TransferTable.COLUMN_PRIORITY, priority.name)
         return values
     }
 
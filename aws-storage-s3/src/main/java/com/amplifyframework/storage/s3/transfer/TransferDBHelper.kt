@@ -44,7 +44,7 @@ internal class TransferDBHelper(private val context: Context) :
 
         // This represents the latest database version.
         // Update this when the database is being upgraded.
-        private const val DATABASE_VERSION = 8
+        private const val DATABASE_VERSION = 11
         private const val BASE_PATH = "transfers"
         private const val TRANSFERS = 10
         private const val TRANSFER_ID = 20
@@ -292,6 +292,57 @@ internal class TransferDBHelper(private val context: Context) :
         return mainUploadId
     }
 
+    /**
+     * Inserts records in a single transaction, either all of them or none.
+     *
+     * @param uri The Uri of a table.
+     * @param valuesList The values of the records to insert.
+     */
+    internal fun insertAll(uri: Uri, valuesList: List<ContentValues>) {
+        if (uriMatcher.match(uri) != TRANSFERS) {
+            throw IllegalArgumentException("Unknown URI: $uri")
+        }
+        ensureDatabaseOpen()
+        database.beginTransaction()
+        try {
+            valuesList.forEach { database.insertOrThrow(TransferTable.TABLE_TRANSFER, null, it) }
+            database.setTransactionSuccessful()
+        } finally {
+            database.endTransaction()
+        }
+    }
+
+    /**
+     * Updates each record by its URI, all in one transaction.
+     * @param valuesByUri values to update, by record URI
+     */
+    internal fun updateAll(valuesByUri: Map<Uri, ContentValues>) {
+        ensureDatabaseOpen()
+        database.beginTransaction()
+        try {
+            valuesByUri.forEach { (uri, values) -> update(uri, values, null, null) }
+            database.setTransactionSuccessful()
+        } finally {
+            database.endTransaction()
+        }
+    }
+
+    /**
+     * Runs a block of reads and writes in a single transaction, which is rolled back if the block throws.
+     *
+     * @param block The reads and writes to run
+     * @return What the block returns
+     */
+    internal fun <T> inTransaction(block: () -> T): T {
+        ensureDatabaseOpen()
+        database.beginTransaction()
+        try {
+            return block().also { database.setTransactionSuccessful() }
+        } finally {
+            database.endTransaction()
+        }
+    }
+
     @Synchronized
     private fun ensureDatabaseOpen() {
         if (!database.isOpen) {
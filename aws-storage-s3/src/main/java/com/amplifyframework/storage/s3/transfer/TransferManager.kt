@@ -24,8 +24,10 @@ import aws.sdk.kotlin.services.s3.S3Client
 import aws.sdk.kotlin.services.s3.model.ObjectCannedAcl
 import com.amplifyframework.core.Amplify
 import com.amplifyframework.storage.ObjectMetadata
+import com.amplifyframework.storage.TransferState
 import com.amplifyframework.storage.s3.AWSS3StoragePlugin
 import com.amplifyframework.storage.s3.TransferOperations
+import com.amplifyframework.storage.s3.TransferPriority
 import com.amplifyframework.storage.s3.transfer.worker.RouterWorker
 import com.amplifyframework.storage.s3.transfer.worker.TransferWorkerFactory
 import java.io.File
@@ -33,9 +35,13 @@ import java.io.FileOutputStream
 import java.io.IOException
 import java.io.InputStream
 import java.util.UUID
+import java.util.concurrent.atomic.AtomicBoolean
 import kotlin.math.ceil
-import kotlin.math.max
 import kotlin.math.min
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
 
 /**
  * TransferManager is a high-level class for applications to upload and
@@ -46,11 +52,17 @@ internal class TransferManager @JvmOverloads constructor(
     context: Context,
     s3: S3Client,
     private val pluginKey: String,
-    private val workManager: WorkManager = WorkManager.getInstance(context)
+    private val workManager: WorkManager = WorkManager.getInstance(context),
+    private val partUploadScheduler: PartUploadScheduler = PartUploadScheduler(),
+    progressNotificationIntervalMillis: Long = TransferStatusUpdater.DEFAULT_PROGRESS_NOTIFICATION_INTERVAL_MILLIS,
+    downloadCache: DownloadCache? = null,
+    transferRecordRetentionMillis: Long = 0L,
+    transferScheduler: TransferScheduler = TransferScheduler()
 ) {
 
     private val transferDB: TransferDB = TransferDB.getInstance(context)
-    val transferStatusUpdater: TransferStatusUpdater = TransferStatusUpdater.getInstance(context)
+    val transferStatusUpdater: TransferStatusUpdater =
+        TransferStatusUpdater.getInstance(context, progressNotificationIntervalMillis)
     private val logger =
         Amplify.Logging.forNamespace(
             AWSS3StoragePlugin.AWS_S3_STORAGE_LOG_NAMESPACE.format(this::class.java.simpleName)
@@ -64,13 +76,48 @@ internal class TransferManager @JvmOverloads constructor(
             transferDB
         )
     private val mainHandler = Handler(Looper.getMainLooper())
+    private val streamingUploader =
+        StreamingMultipartUploader(s3, transferDB, transferStatusUpdater, partUploadScheduler, transferScheduler)
+    private val backgroundScope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+
+    companion object {
+        // Every plugin shares the transfer database, so only the first to start looks for unscheduled transfers.
+        private val unscheduledTransfersFailed = AtomicBoolean(false)
+    }
 
     init {
         RouterWorker.workerFactories[pluginKey] = TransferWorkerFactory(
             transferDB,
             s3,
-            transferStatusUpdater
+            transferStatusUpdater,
+            partUploadScheduler,
+            downloadCache,
+            transferScheduler
         )
+        failUnscheduledTransfers()
+        if (transferRecordRetentionMillis > 0) {
+            backgroundScope.launch {
+                val cutoff = System.currentTimeMillis() - transferRecordRetentionMillis
+                val pruned = transferDB.pruneTerminalTransfers(cutoff)
+                logger.debug("Pruned $pruned finished transfer records")
+            }
+        }
+    }
+
+    /**
+     * Fails the transfers which the last process left waiting or in progress without handing them to WorkManager,
+     * as nothing will resume them, and aborts the streaming uploads among them which were started in S3. Runs once
+     * per process, before any transfer of this process starts.
+     */
+    private fun failUnscheduledTransfers() {
+        if (!unscheduledTransfersFailed.compareAndSet(false, true)) return
+        val transferRecords = transferDB.queryUnscheduledTransfers()
+        if (transferRecords.isEmpty()) return
+        logger.warn("Failing ${transferRecords.size} transfers interrupted by the end of the last process")
+        transferDB.updateStates(transferRecords.map { it.id }, TransferState.FAILED)
+        backgroundScope.launch {
+            transferRecords.forEach { streamingUploader.abort(it) }
+        }
     }
 
     /**
@@ -84,6 +131,7 @@ internal class TransferManager @JvmOverloads constructor(
      * @param metadata  The S3 metadata to associate with this object
      * @param cannedAcl The canned ACL to associate with this object
      * @param listener  Listener to attach to transfer observer.
+     * @param priority  Priority of the upload among the transfers of the plugin.
      * @return A TransferObserver used to track upload progress and state
      */
     @JvmOverloads
@@ -94,10 +142,11 @@ internal class TransferManager @JvmOverloads constructor(
         file: File,
         metadata: ObjectMetadata,
         cannedAcl: ObjectCannedAcl? = null,
-        listener: TransferListener? = null
+        listener: TransferListener? = null,
+        priority: TransferPriority = TransferPriority.NORMAL
     ): TransferObserver {
         val transferRecordId = if (shouldUploadInMultipart(file)) {
-            createMultipartUploadRecords(transferId, bucket, key, file, metadata, cannedAcl)
+            createMultipartUploadRecords(transferId, bucket, key, file, metadata, cannedAcl, priority)
         } else {
             val uri = transferDB.insertSingleTransferRecord(
                 transferId,
@@ -106,7 +155,8 @@ internal class TransferManager @JvmOverloads constructor(
                 key,
                 file,
                 cannedAcl,
-                metadata
+                metadata,
+                priority = priority
             )
             uri.lastPathSegment?.toInt()
                 ?: throw IllegalStateException("Invalid TransferRecord ID ${uri.lastPathSegment}")
@@ -145,22 +195,121 @@ internal class TransferManager @JvmOverloads constructor(
             file,
             options.objectMetadata,
             options.cannedAcl,
+            options.transferListener,
+            options.priority
+        )
+    }
+
+    /**
+     * Starts uploading the stream as a multipart upload while it is still being read, without copying it to a
+     * file first. If the upload is paused or a part fails, what remains of the stream is spilled to a temporary
+     * file and the upload continues from there like the upload of a file.
+     *
+     * @param transferId Unique id for this transfer.
+     * @param key        The key in the specified bucket by which to store the new object.
+     * @param inputStream The stream to upload, closed once read.
+     * @param options    Options of the upload.
+     * @return A TransferObserver used to track upload progress and state
+     */
+    @Throws(IOException::class)
+    fun uploadStreaming(
+        transferId: String,
+        key: String,
+        inputStream: InputStream,
+        options: UploadOptions
+    ): TransferObserver {
+        val spillFile = File.createTempFile(TransferStatusUpdater.TEMP_FILE_PREFIX, ".tmp")
+        val transferRecordId = transferDB.bulkInsertTransferRecords(
+            arrayOf(
+                transferDB.generateContentValuesForMultiPartUpload(
+                    transferId,
+                    options.bucket,
+                    key,
+                    spillFile,
+                    0L,
+                    0,
+                    null,
+                    0L,
+                    0,
+                    options.objectMetadata,
+                    options.cannedAcl,
+                    options.priority
+                )
+            )
+        )
+        val transferRecord = transferStatusUpdater.activeTransferMap[transferRecordId]
+            ?: throw IllegalStateException("Failed to find transferRecord")
+        val transferObserver = TransferObserver(
+            transferRecordId,
+            transferStatusUpdater,
+            options.bucket,
+            key,
+            spillFile.path,
             options.transferListener
         )
+        backgroundScope.launch {
+            val finishWithWorkManager = try {
+                streamingUploader.upload(transferRecord, inputStream)
+            } catch (exception: Exception) {
+                logger.error("Streaming upload failed", exception)
+                transferStatusUpdater.updateOnError(transferRecordId, exception)
+                transferStatusUpdater.updateTransferState(transferRecordId, TransferState.FAILED)
+                false
+            }
+            if (finishWithWorkManager) {
+                TransferOperations.start(
+                    transferRecord,
+                    pluginKey,
+                    transferStatusUpdater,
+                    workManager,
+                    transferWorkerObserver,
+                    transferDB,
+                    null
+                )
+                mainHandler.post {
+                    workManager
+                        .getWorkInfosForUniqueWorkLiveData(transferRecordId.toString())
+                        .observeForever(transferWorkerObserver)
+                }
+            }
+        }
+        return transferObserver
     }
 
+    /**
+     * Starts downloading the object with the given key to the given file.
+     *
+     * @param bucket   The name of the bucket to download the object from.
+     * @param key      The key of the object to download.
+     * @param file     The file to download the object to. Overwritten if it exists.
+     * @param listener Listener to attach to transfer observer.
+     * @param multipartDownloadThreshold Object size from which it is downloaded as several byte ranges fetched
+     *                 concurrently, or 0 to always download it in a single stream.
+     * @param priority Priority of the download among the transfers of the plugin.
+     * @return A TransferObserver used to track download progress and state
+     */
     @JvmOverloads
     fun download(
         transferId: String,
         bucket: String,
         key: String,
         file: File,
-        listener: TransferListener? = null
+        listener: TransferListener? = null,
+        multipartDownloadThreshold: Long = 0L,
+        priority: TransferPriority = TransferPriority.NORMAL
     ): TransferObserver {
         if (file.isDirectory) {
             throw IllegalArgumentException("Invalid file: $file")
         }
-        val uri = transferDB.insertSingleTransferRecord(transferId, TransferType.DOWNLOAD, bucket, key, file)
+        val uri = transferDB.insertSingleTransferRecord(
+            transferId,
+            TransferType.DOWNLOAD,
+            bucket,
+            key,
+            file,
+            multipartDownloadThreshold = multipartDownloadThreshold,
+            priority = priority
+        )
         val transferRecordId: Int = uri.lastPathSegment?.toInt()
             ?: throw IllegalStateException("Invalid TransferRecord ID ${uri.lastPathSegment}")
         if (file.isFile) {
@@ -235,11 +384,10 @@ internal class TransferManager @JvmOverloads constructor(
         file: File,
         metadata: ObjectMetadata,
         cannedAcl: ObjectCannedAcl?,
+        priority: TransferPriority
     ): Int {
         var remainingLength = file.length()
-        val partSize =
-            ceil(remainingLength / TransferRecord.MAXIMUM_UPLOAD_PARTS.toDouble()).toInt()
-        val optimalPartSize = max(partSize, TransferRecord.MINIMUM_UPLOAD_PART_SIZE).toLong()
+        val optimalPartSize = partUploadScheduler.recommendedPartSize(remainingLength)
         val partCount = ceil(remainingLength.toDouble() / optimalPartSize.toDouble()).toInt()
         var partNum = 1
         var fileOffset = 0L
@@ -255,7 +403,8 @@ internal class TransferManager @JvmOverloads constructor(
             file.length(),
             0,
             metadata,
-            cannedAcl
+            cannedAcl,
+            priority
         )
         repeat(partCount) {
             val bytesForPart = min(optimalPartSize, remainingLength)
@@ -270,7 +419,8 @@ internal class TransferManager @JvmOverloads constructor(
                 bytesForPart,
                 if (remainingLength - optimalPartSize <= 0) 1 else 0,
                 metadata,
-                cannedAcl
+                cannedAcl,
+                priority
             )
             partNum++
             fileOffset += optimalPartSize
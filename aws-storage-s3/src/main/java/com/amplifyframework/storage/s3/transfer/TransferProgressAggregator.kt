@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.transfer
+
+import android.os.Handler
+import android.os.SystemClock
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.math.max
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+
+/**
+ * Keeps the latest progress of transfers in memory, so that progress ticks don't each cost a database write and a
+ * listener callback. Unsaved progress is written to the DB in one transaction every flushIntervalMillis, or when
+ * the transfer changes state, and listeners are notified of the latest progress at most once every
+ * notificationIntervalMillis.
+ */
+internal class TransferProgressAggregator(
+    private val transferDB: TransferDB,
+    private val mainHandler: Handler,
+    private val notificationIntervalMillis: Long,
+    private val flushIntervalMillis: Long = DEFAULT_FLUSH_INTERVAL_MILLIS,
+    private val notify: (transferRecordId: Int, bytesCurrent: Long, bytesTotal: Long) -> Unit
+) {
+    companion object {
+        const val DEFAULT_FLUSH_INTERVAL_MILLIS = 1000L
+    }
+
+    private class Progress {
+        val bytesCurrent = AtomicLong(0L)
+        val bytesTotal = AtomicLong(0L)
+        val unsaved = AtomicBoolean(false)
+        var nextNotificationAt = 0L
+        var pendingNotification: Runnable? = null
+    }
+
+    private val progressMap = ConcurrentHashMap<Int, Progress>()
+    private val flushScheduled = AtomicBoolean(false)
+    private val flushScope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+
+    /**
+     * Records the progress of a transfer.
+     *
+     * @param transferRecordId The id of the transfer
+     * @param bytesCurrent The bytes transferred so far
+     * @param bytesTotal The total bytes of the transfer
+     * @param persist Whether the progress is to be written to the DB
+     * @param notifyListener Whether listeners are to be notified of the progress
+     */
+    fun record(
+        transferRecordId: Int,
+        bytesCurrent: Long,
+        bytesTotal: Long,
+        persist: Boolean,
+        notifyListener: Boolean
+    ) {
+        val progress = progressMap.computeIfAbsent(transferRecordId) { Progress() }
+        progress.bytesTotal.set(bytesTotal)
+        progress.bytesCurrent.set(bytesCurrent)
+        if (persist) {
+            progress.unsaved.set(true)
+            scheduleFlush()
+        }
+        if (notifyListener) {
+            scheduleNotification(transferRecordId, progress)
+        }
+    }
+
+    /**
+     * Writes the unsaved progress of all transfers to the DB, in one transaction.
+     */
+    fun flush() {
+        val unsaved = progressMap.filterValues { it.unsaved.getAndSet(false) }
+            .mapValues { (_, progress) -> progress.bytesCurrent.get() to progress.bytesTotal.get() }
+        if (unsaved.isNotEmpty()) {
+            transferDB.updateBytesTransferred(unsaved)
+        }
+    }
+
+    /**
+     * Writes the unsaved progress of a transfer to the DB, and moves a pending notification of its progress ahead
+     * of anything posted to the main thread afterwards, such as its state change.
+     *
+     * @param transferRecordId The id of the transfer
+     */
+    fun flush(transferRecordId: Int) {
+        val progress = progressMap[transferRecordId] ?: return
+        if (progress.unsaved.getAndSet(false)) {
+            transferDB.updateBytesTransferred(
+                transferRecordId,
+                progress.bytesCurrent.get(),
+                progress.bytesTotal.get()
+            )
+        }
+        synchronized(progress) {
+            progress.pendingNotification?.let {
+                mainHandler.removeCallbacks(it)
+                mainHandler.post(it)
+            }
+        }
+    }
+
+    /**
+     * Forgets a transfer whose records were removed. A notification already posted is still delivered.
+     *
+     * @param transferRecordId The id of the transfer
+     */
+    fun remove(transferRecordId: Int) {
+        progressMap.remove(transferRecordId)
+    }
+
+    private fun scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushScope.launch {
+                delay(flushIntervalMillis)
+                flushScheduled.set(false)
+                flush()
+            }
+        }
+    }
+
+    private fun scheduleNotification(transferRecordId: Int, progress: Progress) {
+        synchronized(progress) {
+            if (progress.pendingNotification != null) {
+                return
+            }
+            val notification = Runnable {
+                synchronized(progress) {
+                    progress.pendingNotification = null
+                    progress.nextNotificationAt = SystemClock.uptimeMillis() + notificationIntervalMillis
+                }
+                notify(transferRecordId, progress.bytesCurrent.get(), progress.bytesTotal.get())
+            }
+            progress.pendingNotification = notification
+            mainHandler.postDelayed(notification, max(progress.nextNotificationAt - SystemClock.uptimeMillis(), 0L))
+        }
+    }
+}
@@ -16,6 +16,7 @@ package com.amplifyframework.storage.s3.transfer
 
 import android.database.Cursor
 import com.amplifyframework.storage.TransferState
+import com.amplifyframework.storage.s3.TransferPriority
 import com.amplifyframework.storage.s3.utils.JsonUtils
 
 internal data class TransferRecord(
@@ -55,12 +56,16 @@ internal data class TransferRecord(
     var sseKMSKey: String? = null,
     var md5: String? = null,
     var cannedAcl: String? = null,
-    var workManagerRequestId: String? = null
+    var workManagerRequestId: String? = null,
+    var multipartDownloadThreshold: Long = 0,
+    var priority: TransferPriority = TransferPriority.NORMAL
 ) {
     companion object {
 
         const val MINIMUM_UPLOAD_PART_SIZE = 5 * 1024 * 1024
         const val MAXIMUM_UPLOAD_PARTS = 10000
+        const val MINIMUM_DOWNLOAD_PART_SIZE = 8 * 1024 * 1024
+        const val MAXIMUM_DOWNLOAD_PARTS = 1000
 
         @JvmStatic
         fun updateFromDB(c: Cursor): TransferRecord {
@@ -144,6 +149,10 @@ internal data class TransferRecord(
                     c.getString(c.getColumnIndexOrThrow(TransferTable.COLUMN_CANNED_ACL))
                 this.headerStorageClass =
                     c.getString(c.getColumnIndexOrThrow(TransferTable.COLUMN_HEADER_STORAGE_CLASS))
+                this.multipartDownloadThreshold =
+                    c.getLong(c.getColumnIndexOrThrow(TransferTable.COLUMN_MULTIPART_DOWNLOAD_THRESHOLD))
+                this.priority =
+                    TransferPriority.valueOf(c.getString(c.getColumnIndexOrThrow(TransferTable.COLUMN_PRIORITY)))
             }
         }
     }
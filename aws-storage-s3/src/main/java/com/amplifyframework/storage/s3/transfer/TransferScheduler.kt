@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.s3.transfer
+
+import com.amplifyframework.storage.s3.TransferPriority
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+
+/**
+ * Decides which transfers move data when more are waiting than maxConcurrentTransfers. Each request to S3, a
+ * download or a single part upload or one part of a multipart upload, takes a slot for as long as it runs.
+ *
+ * HIGH priority requests start at once, even above the cap. Other requests wait for a free slot, which goes to the
+ * highest priority first, then to the transfer holding the fewest slots, then in arrival order. As parts of a
+ * multipart upload wait for a slot one by one, a LOW upload yields to newer transfers between its parts, without
+ * being stopped in the middle of a request.
+ *
+ * Requests wait inside their WorkManager worker. A waiting worker is suspended, so it holds no thread, but
+ * WorkManager still counts it as running: it takes one of the slots WorkManager gives to running workers, and its
+ * wait counts against the 10 minutes a worker may run. A worker stopped at that limit gives up its place here and
+ * WorkManager retries it later. HIGH requests never wait, so LOW workers blocked here can't hold them back.
+ */
+internal class TransferScheduler(
+    private val maxConcurrentTransfers: Int = DEFAULT_MAX_CONCURRENT_TRANSFERS
+) {
+    companion object {
+        const val DEFAULT_MAX_CONCURRENT_TRANSFERS = 8
+    }
+
+    private class Waiter(val transferRecordId: Int, val priority: TransferPriority, val sequence: Long) {
+        val granted = CompletableDeferred<Unit>()
+    }
+
+    private val lock = Any()
+    private val waiters = mutableListOf<Waiter>()
+    private val slotsInUse = mutableMapOf<Int, Int>()
+    private var totalSlotsInUse = 0
+    private var nextSequence = 0L
+
+    init {
+        require(maxConcurrentTransfers > 0) { "maxConcurrentTransfers must be positive" }
+    }
+
+    /**
+     * Runs a request of a transfer once a slot is free for its priority.
+     *
+     * @param transferRecordId The id of the main record of the transfer
+     * @param priority The priority of the transfer
+     * @param work Runs the request
+     * @return The result of the request
+     */
+    suspend fun <T> schedule(transferRecordId: Int, priority: TransferPriority, work: suspend () -> T): T {
+        acquire(transferRecordId, priority)
+        try {
+            return work()
+        } finally {
+            release(transferRecordId)
+        }
+    }
+
+    private suspend fun acquire(transferRecordId: Int, priority: TransferPriority) {
+        val waiter = synchronized(lock) {
+            if (priority == TransferPriority.HIGH || (waiters.isEmpty() && totalSlotsInUse < maxConcurrentTransfers)) {
+                start(transferRecordId)
+                return
+            }
+            Waiter(transferRecordId, priority, nextSequence++).also { waiters.add(it) }
+        }
+        try {
+            waiter.granted.await()
+        } catch (exception: CancellationException) {
+            val granted = synchronized(lock) { !waiters.remove(waiter) }
+            if (granted) {
+                release(transferRecordId)
+            }
+            throw exception
+        }
+    }
+
+    private fun release(transferRecordId: Int) {
+        synchronized(lock) {
+            totalSlotsInUse--
+            val remaining = (slotsInUse[transferRecordId] ?: 1) - 1
+            if (remaining > 0) slotsInUse[transferRecordId] = remaining else slotsInUse.remove(transferRecordId)
+            grantWaiters()
+        }
+    }
+
+    private fun start(transferRecordId: Int) {
+        totalSlotsInUse++
+        slotsInUse[transferRecordId] = (slotsInUse[transferRecordId] ?: 0) + 1
+    }
+
+    private fun grantWaiters() {
+        while (waiters.isNotEmpty() && totalSlotsInUse < maxConcurrentTransfers) {
+            val waiter = waiters.minWith(
+                compareByDescending<Waiter> { it.priority }
+                    .thenBy { slotsInUse[it.transferRecordId] ?: 0 }
+                    .thenBy { it.sequence }
+            )
+            waiters.remove(waiter)
+            start(waiter.transferRecordId)
+            waiter.granted.complete(Unit)
+        }
+    }
+}
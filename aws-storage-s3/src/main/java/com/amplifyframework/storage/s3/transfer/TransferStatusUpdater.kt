@@ -28,7 +28,8 @@ import java.util.concurrent.ConcurrentHashMap
  * Updates transfer status to observers and to local DB
  **/
 internal class TransferStatusUpdater private constructor(
-    private val transferDB: TransferDB
+    private val transferDB: TransferDB,
+    progressNotificationIntervalMillis: Long
 ) {
     private val logger =
         Amplify.Logging.forNamespace(
@@ -42,6 +43,15 @@ internal class TransferStatusUpdater private constructor(
     private val multiPartTransferStatusListener: MutableMap<Int, MultiPartUploadTaskListener> by lazy {
         ConcurrentHashMap()
     }
+    private val progressAggregator = TransferProgressAggregator(
+        transferDB,
+        mainHandler,
+        progressNotificationIntervalMillis
+    ) { transferRecordId, bytesCurrent, bytesTotal ->
+        transferStatusListenerMap[transferRecordId]?.forEach {
+            it.onProgressChanged(transferRecordId, bytesCurrent, bytesTotal)
+        }
+    }
     val activeTransferMap = object : AbstractMutableMap<Int, TransferRecord>() {
 
         val transferRecordMap = ConcurrentHashMap<Int, TransferRecord>()
@@ -51,10 +61,10 @@ internal class TransferStatusUpdater private constructor(
         }
 
         override fun get(key: Int): TransferRecord? {
-            if (!transferRecordMap.containsKey(key)) {
-                transferDB.getTransferRecordById(key)?.let { put(key, it) }
+            // Looked up directly, as AbstractMutableMap.get scans all entries.
+            return transferRecordMap[key] ?: transferDB.getTransferRecordById(key)?.let {
+                transferRecordMap.putIfAbsent(key, it) ?: it
             }
-            return super.get(key)
         }
 
         override val entries: MutableSet<MutableMap.MutableEntry<Int, TransferRecord>>
@@ -64,10 +74,15 @@ internal class TransferStatusUpdater private constructor(
     companion object {
 
         internal const val TEMP_FILE_PREFIX = "aws-s3-d861b25a-1edf-11eb-adc1-0242ac120002"
+        internal const val DEFAULT_PROGRESS_NOTIFICATION_INTERVAL_MILLIS = 100L
 
         @JvmStatic
-        fun getInstance(context: Context): TransferStatusUpdater {
-            return TransferStatusUpdater(TransferDB.getInstance(context))
+        @JvmOverloads
+        fun getInstance(
+            context: Context,
+            progressNotificationIntervalMillis: Long = DEFAULT_PROGRESS_NOTIFICATION_INTERVAL_MILLIS
+        ): TransferStatusUpdater {
+            return TransferStatusUpdater(TransferDB.getInstance(context), progressNotificationIntervalMillis)
         }
     }
 
@@ -86,11 +101,12 @@ internal class TransferStatusUpdater private constructor(
                     logger.error("Failed to delete temp file: ${file.name} $exception")
                 }
             }
-            if (it.isMultipart == 1) {
+            if (it.isMultipart == 1 || it.multipartDownloadThreshold > 0) {
                 transferDB.deletePartTransferRecords(transferRecordId)
             }
             transferDB.deleteTransferRecords(transferRecordId)
             activeTransferMap.remove(transferRecordId)
+            progressAggregator.remove(transferRecordId)
         }
     }
 
@@ -101,6 +117,7 @@ internal class TransferStatusUpdater private constructor(
                 return
             }
             transferRecord.state = newState
+            progressAggregator.flush(transferRecord.id)
             transferDB.updateState(transferRecord.id, newState)
             if (TransferState.COMPLETED == newState) {
                 removeTransferRecord(transferRecord.id)
@@ -124,7 +141,10 @@ internal class TransferStatusUpdater private constructor(
         }
     }
 
-    @Synchronized
+    /**
+     * Records the progress of a transfer. Progress is written to the DB in batches, and listeners are notified of
+     * the latest progress at most once per notification interval.
+     */
     fun updateProgress(
         transferRecordId: Int,
         bytesCurrent: Long,
@@ -136,20 +156,7 @@ internal class TransferStatusUpdater private constructor(
             it.bytesCurrent = bytesCurrent
             it.bytesTotal = bytesTotal
         }
-        if (updateDB) {
-            transferDB.updateBytesTransferred(transferRecordId, bytesCurrent, bytesTotal)
-        }
-        if (notifyListener) {
-            transferStatusListenerMap[transferRecordId]?.forEach {
-                mainHandler.post {
-                    it.onProgressChanged(
-                        transferRecordId,
-                        bytesCurrent,
-                        bytesTotal
-                    )
-                }
-            }
-        }
+        progressAggregator.record(transferRecordId, bytesCurrent, bytesTotal, updateDB, notifyListener)
     }
 
     @Synchronized
@@ -132,6 +132,15 @@ internal class TransferTable {
         // A unique transfer id for user to query
         const val COLUMN_TRANSFER_ID = "transfer_id"
 
+        // For download records only, the object size from which the download is split into concurrent range records.
+        const val COLUMN_MULTIPART_DOWNLOAD_THRESHOLD = "multipart_download_threshold"
+
+        // The time of the last state change, in milliseconds since the epoch, from which old records are pruned.
+        const val COLUMN_UPDATED_AT = "updated_at"
+
+        // The TransferPriority of the transfer, deciding the order in which waiting transfers start.
+        const val COLUMN_PRIORITY = "priority"
+
         private const val TABLE_VERSION_2 = 2
         private const val TABLE_VERSION_3 = 3
         private const val TABLE_VERSION_4 = 4
@@ -139,6 +148,9 @@ internal class TransferTable {
         private const val TABLE_VERSION_6 = 6
         private const val TABLE_VERSION_7 = 7
         private const val TABLE_VERSION_8 = 8
+        private const val TABLE_VERSION_9 = 9
+        private const val TABLE_VERSION_10 = 10
+        private const val TABLE_VERSION_11 = 11
 
         // Database creation SQL statement
         const val DATABASE_CREATE = "create table $TABLE_TRANSFER (" +
@@ -213,6 +225,15 @@ internal class TransferTable {
             if (TABLE_VERSION_8 in (oldVersion + 1)..newVersion) {
                 addVersion8Columns(database)
             }
+            if (TABLE_VERSION_9 in (oldVersion + 1)..newVersion) {
+                addVersion9Columns(database)
+            }
+            if (TABLE_VERSION_10 in (oldVersion + 1)..newVersion) {
+                addVersion10ColumnsAndIndexes(database)
+            }
+            if (TABLE_VERSION_11 in (oldVersion + 1)..newVersion) {
+                addVersion11Columns(database)
+            }
             database.setTransactionSuccessful()
             database.endTransaction()
         }
@@ -281,5 +302,42 @@ internal class TransferTable {
                 "DEFAULT '${UUID.randomUUID()}';"
             database.execSQL(addConnectionType)
         }
+
+        /**
+         * Adds columns that were introduced in version 9 to the database
+         */
+        private fun addVersion9Columns(database: SQLiteDatabase) {
+            val addMultipartDownloadThreshold = "ALTER TABLE $TABLE_TRANSFER ADD COLUMN " +
+                "$COLUMN_MULTIPART_DOWNLOAD_THRESHOLD bigint DEFAULT 0;"
+            database.execSQL(addMultipartDownloadThreshold)
+        }
+
+        /**
+         * Adds the column and the indexes that were introduced in version 10 to the database. Existing records are
+         * stamped with the time of the upgrade, so that they are pruned a retention window after it.
+         */
+        private fun addVersion10ColumnsAndIndexes(database: SQLiteDatabase) {
+            val addUpdatedAt = "ALTER TABLE $TABLE_TRANSFER ADD COLUMN $COLUMN_UPDATED_AT bigint DEFAULT 0;"
+            val stampUpdatedAt = "UPDATE $TABLE_TRANSFER SET $COLUMN_UPDATED_AT = ${System.currentTimeMillis()};"
+            database.execSQL(addUpdatedAt)
+            database.execSQL(stampUpdatedAt)
+            createIndex(database, COLUMN_TRANSFER_ID)
+            createIndex(database, COLUMN_MAIN_UPLOAD_ID)
+            createIndex(database, COLUMN_STATE, COLUMN_TYPE)
+            createIndex(database, COLUMN_TYPE)
+        }
+
+        /**
+         * Adds columns that were introduced in version 11 to the database
+         */
+        private fun addVersion11Columns(database: SQLiteDatabase) {
+            val addPriority = "ALTER TABLE $TABLE_TRANSFER ADD COLUMN $COLUMN_PRIORITY text DEFAULT 'NORMAL';"
+            database.execSQL(addPriority)
+        }
+
+        private fun createIndex(database: SQLiteDatabase, vararg columns: String) {
+            val name = "${TABLE_TRANSFER}_${columns.joinToString("_")}_index"
+            database.execSQL("CREATE INDEX IF NOT EXISTS $name ON $TABLE_TRANSFER (${columns.joinToString()});")
+        }
     }
 }
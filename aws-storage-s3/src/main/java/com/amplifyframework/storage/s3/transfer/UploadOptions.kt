@@ -17,6 +17,7 @@ package com.amplifyframework.storage.s3.transfer
 
 import aws.sdk.kotlin.services.s3.model.ObjectCannedAcl
 import com.amplifyframework.storage.ObjectMetadata
+import com.amplifyframework.storage.s3.TransferPriority
 
 /**
  * Options used to configure the upload of an object using {@link TransferManager}.
@@ -26,5 +27,6 @@ internal data class UploadOptions @JvmOverloads constructor(
     val bucket: String,
     val objectMetadata: ObjectMetadata = ObjectMetadata(),
     val cannedAcl: ObjectCannedAcl? = null,
-    val transferListener: TransferListener? = null
+    val transferListener: TransferListener? = null,
+    val priority: TransferPriority = TransferPriority.NORMAL
 )
@@ -33,16 +33,13 @@ import aws.sdk.kotlin.services.s3.model.PutObjectRequest
 import aws.sdk.kotlin.services.s3.model.RequestPayer
 import aws.sdk.kotlin.services.s3.model.ServerSideEncryption
 import aws.sdk.kotlin.services.s3.model.StorageClass
-import aws.smithy.kotlin.runtime.content.ByteStream
-import aws.smithy.kotlin.runtime.io.SdkByteReadChannel
-import aws.smithy.kotlin.runtime.io.readChannel
 import aws.smithy.kotlin.runtime.time.Instant
-import aws.smithy.kotlin.runtime.util.InternalApi
 import com.amplifyframework.core.Amplify
 import com.amplifyframework.storage.ObjectMetadata
 import com.amplifyframework.storage.TransferState
 import com.amplifyframework.storage.s3.AWSS3StoragePlugin
 import com.amplifyframework.storage.s3.R
+import com.amplifyframework.storage.s3.transfer.FileChannelByteStream
 import com.amplifyframework.storage.s3.transfer.ProgressListener
 import com.amplifyframework.storage.s3.transfer.TransferDB
 import com.amplifyframework.storage.s3.transfer.TransferRecord
@@ -50,7 +47,6 @@ import com.amplifyframework.storage.s3.transfer.TransferStatusUpdater
 import java.io.File
 import java.lang.Exception
 import java.net.SocketException
-import java.nio.ByteBuffer
 import kotlinx.coroutines.CancellationException
 
 /**
@@ -206,7 +202,7 @@ internal abstract class BaseTransferWorker(
         return PutObjectRequest {
             bucket = transferRecord.bucketName
             key = transferRecord.key
-            body = ByteStream.readWithProgressUpdates(file, progressListener = progressListener)
+            body = FileChannelByteStream(file, progressListener = progressListener)
             cacheControl = transferRecord.headerCacheControl
             contentDisposition = transferRecord.headerContentDisposition
             serverSideEncryption = transferRecord.sseAlgorithm?.let {
@@ -228,67 +224,4 @@ internal abstract class BaseTransferWorker(
             tagging = transferRecord.userMetadata?.get(ObjectMetadata.S3_TAGGING)
         }
     }
-
-    @OptIn(InternalApi::class)
-    fun ByteStream.Companion.readWithProgressUpdates(
-        file: File,
-        start: Long = 0,
-        length: Long = file.length(),
-        progressListener: ProgressListener?
-    ): ByteStream {
-        return object : ByteStream.OneShotStream() {
-            override val contentLength: Long = length
-            override fun readFrom(): SdkByteReadChannel {
-                val oneShotStream = file.readChannel(start, start + length - 1)
-                return object : SdkByteReadChannel {
-                    override val availableForRead: Int
-                        get() = oneShotStream.availableForRead
-                    override val isClosedForRead: Boolean
-                        get() = oneShotStream.isClosedForRead
-                    override val isClosedForWrite: Boolean
-                        get() = oneShotStream.isClosedForWrite
-
-                    override suspend fun awaitContent() {
-                        oneShotStream.awaitContent()
-                    }
-
-                    override fun cancel(cause: Throwable?): Boolean {
-                        return oneShotStream.cancel(cause)
-                    }
-
-                    override suspend fun readAvailable(sink: ByteBuffer): Int {
-                        return oneShotStream.readAvailable(sink).also {
-                            if (it > 0) {
-                                progressListener?.progressChanged(it.toLong())
-                            }
-                        }
-                    }
-
-                    override suspend fun readAvailable(sink: ByteArray, offset: Int, length: Int): Int {
-                        return oneShotStream.readAvailable(sink, offset, length).also {
-                            if (it > 0) {
-                                progressListener?.progressChanged(it.toLong())
-                            }
-                        }
-                    }
-
-                    override suspend fun readFully(sink: ByteArray, offset: Int, length: Int) {
-                        return oneShotStream.readFully(sink, offset, length).also {
-                            if (sink.isNotEmpty()) {
-                                progressListener?.progressChanged(sink.size.toLong())
-                            }
-                        }
-                    }
-
-                    override suspend fun readRemaining(limit: Int): ByteArray {
-                        return readRemaining(limit).also {
-                            if (it.isNotEmpty()) {
-                                progressListener?.progressChanged(it.size.toLong())
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
 }
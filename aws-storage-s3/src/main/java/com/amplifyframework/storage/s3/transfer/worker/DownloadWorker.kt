@@ -19,15 +19,31 @@ import android.content.Context
 import androidx.work.WorkerParameters
 import aws.sdk.kotlin.services.s3.S3Client
 import aws.sdk.kotlin.services.s3.model.GetObjectRequest
+import aws.smithy.kotlin.runtime.ServiceException
 import aws.smithy.kotlin.runtime.content.ByteStream
+import aws.smithy.kotlin.runtime.http.HttpStatusCode
+import aws.smithy.kotlin.runtime.http.response.HttpResponse
 import aws.smithy.kotlin.runtime.util.InternalApi
+import com.amplifyframework.storage.s3.transfer.DownloadCache
 import com.amplifyframework.storage.s3.transfer.DownloadProgressListener
 import com.amplifyframework.storage.s3.transfer.TransferDB
+import com.amplifyframework.storage.s3.transfer.TransferRecord
+import com.amplifyframework.storage.s3.transfer.TransferScheduler
 import com.amplifyframework.storage.s3.transfer.TransferStatusUpdater
 import java.io.BufferedOutputStream
 import java.io.File
 import java.io.FileOutputStream
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.net.SocketException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import kotlinx.coroutines.withContext
 
 /**
@@ -38,14 +54,100 @@ internal class DownloadWorker(
     private val transferDB: TransferDB,
     private val transferStatusUpdater: TransferStatusUpdater,
     context: Context,
-    workerParameters: WorkerParameters
+    workerParameters: WorkerParameters,
+    private val downloadCache: DownloadCache? = null,
+    private val transferScheduler: TransferScheduler = TransferScheduler()
 ) : BaseTransferWorker(transferStatusUpdater, transferDB, context, workerParameters) {
 
     private lateinit var downloadProgressListener: DownloadProgressListener
     private val defaultBufferSize = 4096
+    private val rangeBufferSize = 64 * 1024
+    private val maxConcurrentRanges = 4
+
+    // Bytes of a range written between two updates of its record, bounding what is fetched again after a restart.
+    private val rangeProgressPersistInterval = 1024 * 1024L
+
+    // ETag of the object when this run downloaded all of it, so that it can be cached.
+    private var downloadedETag: String? = null
 
-    @OptIn(InternalApi::class)
     override suspend fun performWork(): Result {
+        return transferScheduler.schedule(transferRecord.id, transferRecord.priority) {
+            performScheduledWork()
+        }
+    }
+
+    private suspend fun performScheduledWork(): Result {
+        val cache = downloadCache ?: return performDownload()
+        if (transferRecord.bytesCurrent == 0L && serveFromCache(cache)) {
+            return Result.success(outputData)
+        }
+        val result = performDownload()
+        val eTag = downloadedETag
+        if (result is Result.Success && !isStopped && eTag != null) {
+            withContext(Dispatchers.IO) {
+                cache.put(transferRecord.bucketName!!, transferRecord.key!!, eTag, File(transferRecord.file))
+            }
+        }
+        return result
+    }
+
+    private suspend fun performDownload(): Result {
+        if (transferRecord.multipartDownloadThreshold > 0) {
+            return performRangedWork()
+        }
+        return performSingleStreamWork()
+    }
+
+    /**
+     * Copies the cached version of the object to the file if S3 confirms with If-None-Match that it is still the
+     * current one.
+     *
+     * @return true if the download was served from the cache
+     */
+    private suspend fun serveFromCache(cache: DownloadCache): Boolean {
+        val entry = withContext(Dispatchers.IO) {
+            cache.get(transferRecord.bucketName!!, transferRecord.key!!)
+        } ?: return false
+        try {
+            s3.headObject {
+                key = transferRecord.key
+                bucket = transferRecord.bucketName
+                ifNoneMatch = entry.eTag
+            }
+            // The object has changed since it was cached.
+            return false
+        } catch (exception: ServiceException) {
+            val status = (exception.sdkErrorMetadata.protocolResponse as? HttpResponse)?.status
+            if (status != HttpStatusCode.NotModified) {
+                return false
+            }
+        }
+        val file = File(transferRecord.file)
+        try {
+            withContext(Dispatchers.IO) { cache.copyTo(entry, file) }
+        } catch (exception: IOException) {
+            // The cached copy is unreadable, or was evicted since it was looked up, so the object is downloaded.
+            withContext(Dispatchers.IO) {
+                cache.invalidate(entry)
+                file.delete()
+            }
+            return false
+        }
+        val totalBytes = file.length()
+        transferDB.updateBytesTotalForDownload(transferRecord.id, totalBytes)
+        transferRecord.bytesTotal = totalBytes
+        transferRecord.bytesCurrent = totalBytes
+        transferStatusUpdater.updateProgress(
+            transferRecord.id,
+            totalBytes,
+            totalBytes,
+            true
+        )
+        return true
+    }
+
+    @OptIn(InternalApi::class)
+    private suspend fun performSingleStreamWork(): Result {
         val file = File(transferRecord.file)
         val downloadedBytes = file.length()
         if (downloadedBytes > 0 && transferRecord.bytesTotal == downloadedBytes) {
@@ -57,6 +159,9 @@ internal class DownloadWorker(
             range = "bytes=$downloadedBytes-"
         }
         return s3.getObject(getObjectRequest) { response ->
+            if (downloadedBytes == 0L) {
+                downloadedETag = response.eTag
+            }
             val totalBytes = (response.body?.contentLength ?: 0L) + downloadedBytes
             transferRecord.bytesTotal = totalBytes
             transferRecord.bytesCurrent = downloadedBytes
@@ -73,6 +178,136 @@ internal class DownloadWorker(
         }
     }
 
+    /**
+     * Downloads the object as byte ranges fetched over concurrent connections, each written in place into the
+     * preallocated file. The progress of every range is kept in its own record, so that a resumed download only
+     * fetches what is missing from each range. Every range is requested with If-Match on the ETag from HeadObject,
+     * kept in the main record, and the download starts over if the object was replaced in between.
+     */
+    private suspend fun performRangedWork(restartIfChanged: Boolean = true): Result {
+        val file = File(transferRecord.file)
+        var ranges = transferDB.queryDownloadRangeRecords(transferRecord.id)
+        if (ranges.isNotEmpty() && transferRecord.eTag == null) {
+            // Without the ETag the ranges were fetched for, they can't be pinned to one version of the object, so
+            // the bytes already written are dropped along with them.
+            transferDB.deletePartTransferRecords(transferRecord.id)
+            file.delete()
+            ranges = emptyList()
+        }
+        if (ranges.isEmpty()) {
+            val headObjectResponse = s3.headObject {
+                key = transferRecord.key
+                bucket = transferRecord.bucketName
+            }
+            val objectSize = headObjectResponse.contentLength
+            headObjectResponse.eTag?.let {
+                transferDB.updateETag(transferRecord.id, it)
+                transferRecord.eTag = it
+            }
+            val partSize = maxOf(
+                TransferRecord.MINIMUM_DOWNLOAD_PART_SIZE.toLong(),
+                (objectSize + TransferRecord.MAXIMUM_DOWNLOAD_PARTS - 1) / TransferRecord.MAXIMUM_DOWNLOAD_PARTS
+            )
+            if (objectSize < transferRecord.multipartDownloadThreshold || objectSize <= partSize) {
+                return performSingleStreamWork()
+            }
+            ranges = transferDB.insertDownloadRangeRecords(transferRecord, objectSize, partSize)
+        }
+        val totalBytes = ranges.sumOf { it.bytesTotal }
+        if (file.length() != totalBytes) {
+            // The file was replaced or truncated since the ranges were written, so start over.
+            ranges.filter { it.bytesCurrent > 0 }.forEach {
+                it.bytesCurrent = 0
+                transferDB.updateBytesTransferred(it.id, 0, it.bytesTotal)
+            }
+            file.parentFile?.takeIf { !it.exists() }?.mkdirs()
+            RandomAccessFile(file, "rw").use { it.setLength(totalBytes) }
+        }
+        transferDB.updateBytesTotalForDownload(transferRecord.id, totalBytes)
+        transferRecord.bytesTotal = totalBytes
+        transferRecord.bytesCurrent = ranges.sumOf { it.bytesCurrent }
+        downloadProgressListener = DownloadProgressListener(transferRecord, transferStatusUpdater)
+        val eTag = transferRecord.eTag
+        try {
+            RandomAccessFile(file, "rw").use { randomAccessFile ->
+                val fileChannel = randomAccessFile.channel
+                val permits = Semaphore(maxConcurrentRanges)
+                coroutineScope {
+                    ranges.filter { it.bytesCurrent < it.bytesTotal }.map { range ->
+                        async(Dispatchers.IO) {
+                            permits.withPermit { downloadRange(range, eTag, fileChannel, downloadProgressListener) }
+                        }
+                    }.awaitAll()
+                }
+            }
+        } catch (exception: ServiceException) {
+            val status = (exception.sdkErrorMetadata.protocolResponse as? HttpResponse)?.status
+            if (status != HttpStatusCode.PreconditionFailed || !restartIfChanged) {
+                throw exception
+            }
+            // The object was replaced since its ranges were planned, so the bytes already written belong to another
+            // version. Start over from the current one.
+            transferDB.deletePartTransferRecords(transferRecord.id)
+            transferRecord.eTag = null
+            file.delete()
+            return performRangedWork(restartIfChanged = false)
+        }
+        if (isStopped) {
+            return Result.retry()
+        }
+        // Every range was fetched with If-Match, so the whole file is this version of the object.
+        downloadedETag = eTag
+        transferDB.deletePartTransferRecords(transferRecord.id)
+        transferStatusUpdater.updateProgress(
+            transferRecord.id,
+            totalBytes,
+            totalBytes,
+            true
+        )
+        return Result.success(outputData)
+    }
+
+    @OptIn(InternalApi::class)
+    private suspend fun downloadRange(
+        rangeRecord: TransferRecord,
+        eTag: String?,
+        fileChannel: FileChannel,
+        progressListener: DownloadProgressListener
+    ) {
+        val getObjectRequest = GetObjectRequest {
+            key = rangeRecord.key
+            bucket = rangeRecord.bucketName
+            range = "bytes=${rangeRecord.rangeStart + rangeRecord.bytesCurrent}-${rangeRecord.rangeLast}"
+            ifMatch = eTag
+        }
+        s3.getObject(getObjectRequest) { response ->
+            val sdkByteReadChannel = (response.body as ByteStream.OneShotStream).readFrom()
+            val buffer = ByteArray(rangeBufferSize)
+            var persistedBytes = rangeRecord.bytesCurrent
+            while (!isStopped && rangeRecord.bytesCurrent < rangeRecord.bytesTotal) {
+                val remaining = rangeRecord.bytesTotal - rangeRecord.bytesCurrent
+                val readBytes =
+                    sdkByteReadChannel.readAvailable(buffer, 0, minOf(buffer.size.toLong(), remaining).toInt())
+                if (readBytes == -1) break
+                val byteBuffer = ByteBuffer.wrap(buffer, 0, readBytes)
+                var position = rangeRecord.rangeStart + rangeRecord.bytesCurrent
+                while (byteBuffer.hasRemaining()) {
+                    position += fileChannel.write(byteBuffer, position)
+                }
+                rangeRecord.bytesCurrent += readBytes
+                progressListener.progressChanged(readBytes.toLong())
+                if (rangeRecord.bytesCurrent - persistedBytes >= rangeProgressPersistInterval) {
+                    transferDB.updateBytesTransferred(rangeRecord.id, rangeRecord.bytesCurrent, rangeRecord.bytesTotal)
+                    persistedBytes = rangeRecord.bytesCurrent
+                }
+            }
+            transferDB.updateBytesTransferred(rangeRecord.id, rangeRecord.bytesCurrent, rangeRecord.bytesTotal)
+            if (!isStopped && rangeRecord.bytesCurrent < rangeRecord.bytesTotal) {
+                throw SocketException("Connection closed before range ${rangeRecord.partNumber} was fully downloaded")
+            }
+        }
+    }
+
     @OptIn(InternalApi::class)
     private suspend fun writeToFileWithProgressUpdates(
         stream: ByteStream.OneShotStream,
@@ -18,10 +18,12 @@ import android.content.Context
 import androidx.work.WorkerParameters
 import aws.sdk.kotlin.services.s3.S3Client
 import aws.sdk.kotlin.services.s3.uploadPart
-import aws.smithy.kotlin.runtime.content.ByteStream
 import com.amplifyframework.storage.TransferState
+import com.amplifyframework.storage.s3.transfer.FileChannelByteStream
 import com.amplifyframework.storage.s3.transfer.PartUploadProgressListener
+import com.amplifyframework.storage.s3.transfer.PartUploadScheduler
 import com.amplifyframework.storage.s3.transfer.TransferDB
+import com.amplifyframework.storage.s3.transfer.TransferScheduler
 import com.amplifyframework.storage.s3.transfer.TransferStatusUpdater
 import java.io.File
 
@@ -32,6 +34,8 @@ internal class PartUploadTransferWorker(
     private val s3: S3Client,
     private val transferDB: TransferDB,
     private val transferStatusUpdater: TransferStatusUpdater,
+    private val partUploadScheduler: PartUploadScheduler,
+    private val transferScheduler: TransferScheduler,
     context: Context,
     workerParameters: WorkerParameters
 ) : BaseTransferWorker(transferStatusUpdater, transferDB, context, workerParameters) {
@@ -47,17 +51,29 @@ internal class PartUploadTransferWorker(
         transferStatusUpdater.updateTransferState(transferRecord.mainUploadId, TransferState.IN_PROGRESS)
         multiPartUploadId = inputData.keyValueMap[MULTI_PART_UPLOAD_ID] as String
         partUploadProgressListener = PartUploadProgressListener(transferRecord, transferStatusUpdater)
-        return s3.uploadPart {
-            bucket = transferRecord.bucketName
-            key = transferRecord.key
-            uploadId = multiPartUploadId
-            body = ByteStream.readWithProgressUpdates(
+        // The part waits for the part upload caps before taking a slot of the transfer, so that a slot is only held
+        // while the part is on the wire.
+        return partUploadScheduler.schedule(
+            transferRecord.mainUploadId,
+            transferRecord.bytesTotal,
+            slot = { upload ->
+                transferScheduler.schedule(transferRecord.mainUploadId, transferRecord.priority, upload)
+            }
+        ) {
+            FileChannelByteStream(
                 File(transferRecord.file),
                 transferRecord.fileOffset,
                 transferRecord.bytesTotal,
                 partUploadProgressListener
-            )
-            partNumber = transferRecord.partNumber
+            ).use { partBody ->
+                s3.uploadPart {
+                    bucket = transferRecord.bucketName
+                    key = transferRecord.key
+                    uploadId = multiPartUploadId
+                    body = partBody
+                    partNumber = transferRecord.partNumber
+                }
+            }
         }.let { response ->
             response.eTag?.let { tag ->
                 transferDB.updateETag(transferRecord.id, tag)
@@ -21,7 +21,9 @@ package com.amplifyframework.storage.s3.transfer.worker
 import android.content.Context
 import androidx.work.WorkerParameters
 import aws.sdk.kotlin.services.s3.S3Client
+import com.amplifyframework.storage.s3.transfer.FileChannelByteStream
 import com.amplifyframework.storage.s3.transfer.TransferDB
+import com.amplifyframework.storage.s3.transfer.TransferScheduler
 import com.amplifyframework.storage.s3.transfer.TransferStatusUpdater
 import com.amplifyframework.storage.s3.transfer.UploadProgressListener
 
@@ -29,6 +31,7 @@ internal class SinglePartUploadWorker(
     private val s3: S3Client,
     private val transferDB: TransferDB,
     private val transferStatusUpdater: TransferStatusUpdater,
+    private val transferScheduler: TransferScheduler,
     context: Context,
     workerParameters: WorkerParameters
 ) : BaseTransferWorker(transferStatusUpdater, transferDB, context, workerParameters) {
@@ -38,8 +41,12 @@ internal class SinglePartUploadWorker(
     override suspend fun performWork(): Result {
         uploadProgressListener = UploadProgressListener(transferRecord, transferStatusUpdater)
         val putObjectRequest = createPutObjectRequest(transferRecord, uploadProgressListener)
-        return s3.putObject(putObjectRequest).let {
-            Result.success(outputData)
+        return transferScheduler.schedule(transferRecord.id, transferRecord.priority) {
+            (putObjectRequest.body as FileChannelByteStream).use {
+                s3.putObject(putObjectRequest).let {
+                    Result.success(outputData)
+                }
+            }
         }
     }
 }
@@ -19,7 +19,10 @@ import androidx.work.ListenableWorker
 import androidx.work.WorkerFactory
 import androidx.work.WorkerParameters
 import aws.sdk.kotlin.services.s3.S3Client
+import com.amplifyframework.storage.s3.transfer.DownloadCache
+import com.amplifyframework.storage.s3.transfer.PartUploadScheduler
 import com.amplifyframework.storage.s3.transfer.TransferDB
+import com.amplifyframework.storage.s3.transfer.TransferScheduler
 import com.amplifyframework.storage.s3.transfer.TransferStatusUpdater
 
 /**
@@ -28,7 +31,10 @@ import com.amplifyframework.storage.s3.transfer.TransferStatusUpdater
 internal class TransferWorkerFactory(
     private val transferDB: TransferDB,
     private val s3: S3Client,
-    private val transferStatusUpdater: TransferStatusUpdater
+    private val transferStatusUpdater: TransferStatusUpdater,
+    private val partUploadScheduler: PartUploadScheduler,
+    private val downloadCache: DownloadCache? = null,
+    private val transferScheduler: TransferScheduler = TransferScheduler()
 ) : WorkerFactory() {
     override fun createWorker(
         appContext: Context,
@@ -42,13 +48,16 @@ internal class TransferWorkerFactory(
                     transferDB,
                     transferStatusUpdater,
                     appContext,
-                    workerParameters
+                    workerParameters,
+                    downloadCache,
+                    transferScheduler
                 )
             SinglePartUploadWorker::class.java.name ->
                 return SinglePartUploadWorker(
                     s3,
                     transferDB,
                     transferStatusUpdater,
+                    transferScheduler,
                     appContext,
                     workerParameters
                 )
@@ -65,6 +74,8 @@ internal class TransferWorkerFactory(
                     s3,
                     transferDB,
                     transferStatusUpdater,
+                    partUploadScheduler,
+                    transferScheduler,
                     appContext,
                     workerParameters
                 )
@@ -59,6 +59,7 @@ import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
@@ -171,7 +172,8 @@ public final class StorageComponentTest {
         // result by default. We need a non-null transfer observer.
         // One option is to mock that, too.
         TransferObserver observer = mock(TransferObserver.class);
-        when(storageService.downloadToFile(anyString(), anyString(), any(File.class)))
+        when(storageService.downloadToFile(
+                anyString(), anyString(), any(File.class), anyLong(), any(TransferPriority.class)))
                 .thenReturn(observer);
 
         // Since we use a mock TransferObserver, it has no internal logic
@@ -214,7 +216,8 @@ public final class StorageComponentTest {
         final File toLocalFile = new RandomTempFile();
 
         TransferObserver observer = mock(TransferObserver.class);
-        when(storageService.downloadToFile(anyString(), anyString(), any(File.class)))
+        when(storageService.downloadToFile(
+                anyString(), anyString(), any(File.class), anyLong(), any(TransferPriority.class)))
                 .thenReturn(observer);
 
         doAnswer(invocation -> {
@@ -251,7 +254,8 @@ public final class StorageComponentTest {
 
         TransferObserver observer =
                 mock(com.amplifyframework.storage.s3.transfer.TransferObserver.class);
-        when(storageService.uploadFile(anyString(), anyString(), any(File.class), any(ObjectMetadata.class)))
+        when(storageService.uploadFile(
+                anyString(), anyString(), any(File.class), any(ObjectMetadata.class), any(TransferPriority.class)))
                 .thenReturn(observer);
 
         doAnswer(invocation -> {
@@ -291,7 +295,8 @@ public final class StorageComponentTest {
             anyString(),
             anyString(),
             any(InputStream.class),
-            any(ObjectMetadata.class))
+            any(ObjectMetadata.class),
+            any(TransferPriority.class))
         )
                 .thenReturn(observer);
 
@@ -333,7 +338,8 @@ public final class StorageComponentTest {
 
         com.amplifyframework.storage.s3.transfer.TransferObserver observer =
                 mock(com.amplifyframework.storage.s3.transfer.TransferObserver.class);
-        when(storageService.uploadFile(anyString(), anyString(), any(File.class), any(ObjectMetadata.class)))
+        when(storageService.uploadFile(
+                anyString(), anyString(), any(File.class), any(ObjectMetadata.class), any(TransferPriority.class)))
                 .thenReturn(observer);
 
         doAnswer(invocation -> {
@@ -377,7 +383,8 @@ public final class StorageComponentTest {
             anyString(),
             anyString(),
             any(InputStream.class),
-            any(ObjectMetadata.class))
+            any(ObjectMetadata.class),
+            any(TransferPriority.class))
         )
                 .thenReturn(observer);
 
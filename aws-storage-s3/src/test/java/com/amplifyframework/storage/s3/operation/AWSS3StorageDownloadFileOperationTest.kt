@@ -19,6 +19,7 @@ import com.amplifyframework.auth.AuthCredentialsProvider
 import com.amplifyframework.core.Consumer
 import com.amplifyframework.storage.StorageAccessLevel
 import com.amplifyframework.storage.StorageException
+import com.amplifyframework.storage.s3.TransferPriority
 import com.amplifyframework.storage.s3.configuration.AWSS3PluginPrefixResolver
 import com.amplifyframework.storage.s3.configuration.AWSS3StoragePluginConfiguration
 import com.amplifyframework.storage.s3.request.AWSS3StorageDownloadFileRequest
@@ -72,7 +73,9 @@ class AWSS3StorageDownloadFileOperationTest {
         Mockito.verify(storageService).downloadToFile(
             awsS3StorageDownloadFileOperation.transferId,
             expectedKey,
-            tempFile
+            tempFile,
+            0L,
+            TransferPriority.NORMAL
         )
     }
 
@@ -113,7 +116,9 @@ class AWSS3StorageDownloadFileOperationTest {
         Mockito.verify(storageService).downloadToFile(
             awsS3StorageDownloadFileOperation.transferId,
             expectedKey,
-            tempFile
+            tempFile,
+            0L,
+            TransferPriority.NORMAL
         )
     }
 
@@ -154,7 +159,9 @@ class AWSS3StorageDownloadFileOperationTest {
         Mockito.verify(storageService).downloadToFile(
             awsS3StorageDownloadFileOperation.transferId,
             expectedKey,
-            tempFile
+            tempFile,
+            0L,
+            TransferPriority.NORMAL
         )
     }
 }
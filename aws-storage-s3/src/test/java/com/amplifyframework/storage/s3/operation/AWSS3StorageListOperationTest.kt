@@ -65,6 +65,30 @@ public class AWSS3StorageListOperationTest {
         Mockito.verify(storageService).listFiles(expectedKey, "public/")
     }
 
+    @Test
+    fun pagedRequestListsOnePageWithDelimiterTest() {
+        val request = AWSS3StorageListRequest(
+            "photos/",
+            StorageAccessLevel.PUBLIC,
+            "",
+            100,
+            "next_token",
+            "/"
+        )
+        coEvery { authCredentialsProvider.getIdentityId() } returns "abc"
+        awsS3StorageListOperation = AWSS3StorageListOperation(
+            storageService,
+            MoreExecutors.newDirectExecutorService(),
+            authCredentialsProvider,
+            request,
+            AWSS3StoragePluginConfiguration {},
+            {},
+            {}
+        )
+        awsS3StorageListOperation.start()
+        Mockito.verify(storageService).listFiles("public/photos/", "public/", 100, "next_token", "/")
+    }
+
     @Test
     fun customEmptyResolverAWSS3PluginConfigTest() {
         val path = ""
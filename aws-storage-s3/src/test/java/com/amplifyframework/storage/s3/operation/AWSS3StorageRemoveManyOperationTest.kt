@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amplifyframework.storage.s3.operation
+
+import com.amplifyframework.auth.AuthCredentialsProvider
+import com.amplifyframework.storage.StorageAccessLevel
+import com.amplifyframework.storage.StorageItem
+import com.amplifyframework.storage.result.StorageListResult
+import com.amplifyframework.storage.result.StorageRemoveManyResult
+import com.amplifyframework.storage.s3.configuration.AWSS3StoragePluginConfiguration
+import com.amplifyframework.storage.s3.request.AWSS3StorageRemoveManyRequest
+import com.amplifyframework.storage.s3.service.StorageService
+import com.google.common.util.concurrent.MoreExecutors
+import io.mockk.coEvery
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import java.util.Date
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+
+class AWSS3StorageRemoveManyOperationTest {
+
+    private lateinit var storageService: StorageService
+    private lateinit var authCredentialsProvider: AuthCredentialsProvider
+    private val progress = mutableListOf<StorageRemoveManyResult>()
+    private var result: StorageRemoveManyResult? = null
+
+    @Before
+    fun setup() {
+        storageService = mockk()
+        authCredentialsProvider = mockk()
+        coEvery { authCredentialsProvider.getIdentityId() } returns "abc"
+    }
+
+    @Test
+    fun removeManyDeletesKeysInBatchesAndReportsFailures() {
+        val keys = (1..2500).map { "photo_$it.png" }
+        every { storageService.deleteObjects(any()) } answers {
+            val serviceKeys = firstArg<List<String>>()
+            if ("public/photo_5.png" in serviceKeys) {
+                mapOf("public/photo_5.png" to "AccessDenied: Access Denied")
+            } else {
+                emptyMap()
+            }
+        }
+
+        start(AWSS3StorageRemoveManyRequest(keys, null, StorageAccessLevel.PUBLIC, null))
+
+        verify { storageService.deleteObjects(keys.subList(0, 1000).map { "public/$it" }) }
+        verify { storageService.deleteObjects(keys.subList(1000, 2000).map { "public/$it" }) }
+        verify { storageService.deleteObjects(keys.subList(2000, 2500).map { "public/$it" }) }
+        assertEquals(3, progress.size)
+        assertEquals(2499, result?.removedKeys?.size)
+        assertEquals(setOf("photo_5.png"), result?.failedKeys?.keys)
+    }
+
+    @Test
+    fun removeAllDeletesEachListedPage() {
+        val firstPage = StorageListResult.fromItems(listOf(item("photos/a.png")), null, "next_token")
+        val lastPage = StorageListResult.fromItems(listOf(item("photos/b.png")), null, null)
+        every { storageService.listFiles("public/photos/", "public/", 1000, null, null) } returns firstPage
+        every { storageService.listFiles("public/photos/", "public/", 1000, "next_token", null) } returns lastPage
+        every { storageService.deleteObjects(any()) } returns emptyMap()
+
+        start(AWSS3StorageRemoveManyRequest(null, "photos/", StorageAccessLevel.PUBLIC, null))
+
+        verify { storageService.deleteObjects(listOf("public/photos/a.png")) }
+        verify { storageService.deleteObjects(listOf("public/photos/b.png")) }
+        assertEquals(listOf("photos/a.png", "photos/b.png"), result?.removedKeys)
+    }
+
+    private fun start(request: AWSS3StorageRemoveManyRequest) {
+        AWSS3StorageRemoveManyOperation(
+            storageService,
+            MoreExecutors.newDirectExecutorService(),
+            authCredentialsProvider,
+            request,
+            AWSS3StoragePluginConfiguration {},
+            { progress += it },
+            { result = it },
+            { throw it }
+        ).start()
+    }
+
+    private fun item(key: String) = StorageItem(key, 1L, Date(), "eTag", null)
+}
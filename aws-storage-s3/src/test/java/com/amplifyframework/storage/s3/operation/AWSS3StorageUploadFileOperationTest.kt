@@ -20,6 +20,7 @@ import com.amplifyframework.storage.ObjectMetadata
 import com.amplifyframework.storage.StorageAccessLevel
 import com.amplifyframework.storage.StorageException
 import com.amplifyframework.storage.s3.ServerSideEncryption
+import com.amplifyframework.storage.s3.TransferPriority
 import com.amplifyframework.storage.s3.configuration.AWSS3PluginPrefixResolver
 import com.amplifyframework.storage.s3.configuration.AWSS3StoragePluginConfiguration
 import com.amplifyframework.storage.s3.request.AWSS3StorageUploadRequest
@@ -74,7 +75,8 @@ class AWSS3StorageUploadFileOperationTest {
             Mockito.eq(awsS3StorageUploadFileOperation.transferId),
             Mockito.eq(expectedKey),
             Mockito.eq(tempFile),
-            Mockito.any(ObjectMetadata::class.java)
+            Mockito.any(ObjectMetadata::class.java),
+            Mockito.eq(TransferPriority.NORMAL)
         )
     }
 
@@ -118,7 +120,8 @@ class AWSS3StorageUploadFileOperationTest {
             Mockito.eq(awsS3StorageUploadFileOperation.transferId),
             Mockito.eq(expectedKey),
             Mockito.eq(tempFile),
-            Mockito.any(ObjectMetadata::class.java)
+            Mockito.any(ObjectMetadata::class.java),
+            Mockito.eq(TransferPriority.NORMAL)
         )
     }
 
@@ -162,7 +165,8 @@ class AWSS3StorageUploadFileOperationTest {
             Mockito.eq(awsS3StorageUploadFileOperation.transferId),
             Mockito.eq(expectedKey),
             Mockito.eq(tempFile),
-            Mockito.any(ObjectMetadata::class.java)
+            Mockito.any(ObjectMetadata::class.java),
+            Mockito.eq(TransferPriority.NORMAL)
         )
     }
 }
@@ -20,6 +20,7 @@ import com.amplifyframework.storage.ObjectMetadata
 import com.amplifyframework.storage.StorageAccessLevel
 import com.amplifyframework.storage.StorageException
 import com.amplifyframework.storage.s3.ServerSideEncryption
+import com.amplifyframework.storage.s3.TransferPriority
 import com.amplifyframework.storage.s3.configuration.AWSS3PluginPrefixResolver
 import com.amplifyframework.storage.s3.configuration.AWSS3StoragePluginConfiguration
 import com.amplifyframework.storage.s3.request.AWSS3StorageUploadRequest
@@ -60,6 +61,7 @@ class AWSS3StorageUploadInputStreamOperationTest {
                 Mockito.any(),
                 Mockito.any(),
                 Mockito.any(),
+                Mockito.any(),
                 Mockito.any()
             )
         ).thenReturn(Mockito.mock(TransferObserver::class.java))
@@ -87,7 +89,8 @@ class AWSS3StorageUploadInputStreamOperationTest {
             Mockito.eq(inputStreamOperation.transferId),
             Mockito.eq(expectedKey),
             Mockito.eq(tempInputStream),
-            Mockito.any(ObjectMetadata::class.java)
+            Mockito.any(ObjectMetadata::class.java),
+            Mockito.eq(TransferPriority.NORMAL)
         )
     }
 
@@ -102,6 +105,7 @@ class AWSS3StorageUploadInputStreamOperationTest {
                 Mockito.any(),
                 Mockito.any(),
                 Mockito.any(),
+                Mockito.any(),
                 Mockito.any()
             )
         )
@@ -141,7 +145,8 @@ class AWSS3StorageUploadInputStreamOperationTest {
             Mockito.eq(inputStreamOperation.transferId),
             Mockito.eq(expectedKey),
             Mockito.eq(tempInputStream),
-            Mockito.any(ObjectMetadata::class.java)
+            Mockito.any(ObjectMetadata::class.java),
+            Mockito.eq(TransferPriority.NORMAL)
         )
     }
 
@@ -156,6 +161,7 @@ class AWSS3StorageUploadInputStreamOperationTest {
                 Mockito.any(),
                 Mockito.any(),
                 Mockito.any(),
+                Mockito.any(),
                 Mockito.any()
             )
         ).thenReturn(Mockito.mock(TransferObserver::class.java))
@@ -194,7 +200,8 @@ class AWSS3StorageUploadInputStreamOperationTest {
             Mockito.eq(inputStreamOperation.transferId),
             Mockito.eq(expectedKey),
             Mockito.eq(tempInputStream),
-            Mockito.any(ObjectMetadata::class.java)
+            Mockito.any(ObjectMetadata::class.java),
+            Mockito.eq(TransferPriority.NORMAL)
         )
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amplifyframework.storage.s3.transfer
+
+import java.io.File
+import java.io.IOException
+import java.nio.file.Files
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertThrows
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class DownloadCacheTest {
+    private lateinit var directory: File
+    private lateinit var cache: DownloadCache
+
+    @Before
+    fun setup() {
+        directory = Files.createTempDirectory("download_cache").toFile()
+        directory.deleteOnExit()
+        cache = DownloadCache(directory, 100L)
+    }
+
+    @Test
+    fun testCachedObjectIsCopiedToDestination() {
+        val content = ByteArray(40) { it.toByte() }
+        cache.put("bucket", "key", "\"etag\"", tempFile(content))
+
+        val entry = cache.get("bucket", "key")
+        assertNotNull(entry)
+        assertEquals("\"etag\"", entry!!.eTag)
+        val destination = File(directory.parentFile, "destination_${System.nanoTime()}")
+        destination.deleteOnExit()
+        cache.copyTo(entry, destination)
+
+        assertArrayEquals(content, destination.readBytes())
+        assertNull(cache.get("bucket", "other_key"))
+    }
+
+    @Test
+    fun testNewVersionReplacesCachedVersion() {
+        cache.put("bucket", "key", "etag_1", tempFile(ByteArray(40)))
+        cache.put("bucket", "key", "etag_2", tempFile(ByteArray(40)))
+
+        assertEquals("etag_2", cache.get("bucket", "key")?.eTag)
+    }
+
+    @Test
+    fun testLeastRecentlyUsedObjectsAreEvicted() {
+        cache.put("bucket", "key_1", "etag", tempFile(ByteArray(40)))
+        cache.get("bucket", "key_1")!!.file.setLastModified(1_000L)
+        cache.put("bucket", "key_2", "etag", tempFile(ByteArray(40)))
+        cache.get("bucket", "key_2")!!.file.setLastModified(2_000L)
+        // Using key_1 makes key_2 the least recently used.
+        cache.copyTo(cache.get("bucket", "key_1")!!, tempFile(ByteArray(0)))
+
+        cache.put("bucket", "key_3", "etag", tempFile(ByteArray(40)))
+
+        assertNotNull(cache.get("bucket", "key_1"))
+        assertNull(cache.get("bucket", "key_2"))
+        assertNotNull(cache.get("bucket", "key_3"))
+    }
+
+    @Test
+    fun testObjectLargerThanCacheIsNotCached() {
+        cache.put("bucket", "key", "etag", tempFile(ByteArray(101)))
+
+        assertNull(cache.get("bucket", "key"))
+    }
+
+    @Test
+    fun testInvalidatedObjectIsNoLongerCached() {
+        cache.put("bucket", "key", "etag", tempFile(ByteArray(40)))
+        val entry = cache.get("bucket", "key")!!
+        // Evicted by another cache instance after it was looked up.
+        entry.file.delete()
+
+        assertThrows(IOException::class.java) { cache.copyTo(entry, tempFile(ByteArray(0))) }
+        cache.invalidate(entry)
+
+        assertNull(cache.get("bucket", "key"))
+    }
+
+    private fun tempFile(content: ByteArray): File {
+        return File.createTempFile("download", ".tmp").apply {
+            deleteOnExit()
+            writeBytes(content)
+        }
+    }
+}
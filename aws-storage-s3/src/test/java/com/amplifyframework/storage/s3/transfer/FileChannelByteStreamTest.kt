@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amplifyframework.storage.s3.transfer
+
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.nio.ByteBuffer
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class FileChannelByteStreamTest {
+    private lateinit var file: File
+    private val content = ByteArray(200 * 1024) { it.toByte() }
+    private var progress = 0L
+    private val progressListener = object : ProgressListener {
+        override fun progressChanged(bytesTransferred: Long) {
+            progress += bytesTransferred
+        }
+    }
+
+    @Before
+    fun setup() {
+        file = File.createTempFile("upload", ".tmp")
+        file.deleteOnExit()
+        file.writeBytes(content)
+    }
+
+    @Test
+    fun testReadsRangeIntoArraysAndReportsProgress() = runTest {
+        val start = 1000L
+        val length = 150 * 1024L
+        val stream = FileChannelByteStream(file, start, length, progressListener)
+        val output = ByteArrayOutputStream()
+        stream.use {
+            val channel = it.readFrom()
+            val sink = ByteArray(10_000)
+            while (true) {
+                val readBytes = channel.readAvailable(sink, 0, sink.size)
+                if (readBytes == -1) break
+                output.write(sink, 0, readBytes)
+            }
+            assertTrue(channel.isClosedForRead)
+        }
+
+        assertArrayEquals(content.copyOfRange(start.toInt(), (start + length).toInt()), output.toByteArray())
+        assertEquals(length, progress)
+    }
+
+    @Test
+    fun testReadsIntoByteBuffers() = runTest {
+        val stream = FileChannelByteStream(file, progressListener = progressListener)
+        val sink = ByteBuffer.allocate(content.size + 10)
+        stream.use {
+            val channel = it.readFrom()
+            while (channel.readAvailable(sink) != -1) {
+                // Keep reading until the end of the file.
+            }
+        }
+
+        sink.flip()
+        assertEquals(content.size, sink.remaining())
+        assertArrayEquals(content, ByteArray(sink.remaining()).also { sink.get(it) })
+        assertEquals(content.size.toLong(), progress)
+    }
+
+    @Test
+    fun testConcurrentPartsOfSameFileReadIndependently() = runTest {
+        val first = FileChannelByteStream(file, 0L, 1024L)
+        val second = FileChannelByteStream(file, 1024L, 1024L)
+        val firstChannel = first.readFrom()
+        val secondChannel = second.readFrom()
+
+        val secondBytes = secondChannel.readRemaining(Int.MAX_VALUE)
+        second.close()
+        val firstBytes = firstChannel.readRemaining(Int.MAX_VALUE)
+        first.close()
+
+        assertArrayEquals(content.copyOfRange(0, 1024), firstBytes)
+        assertArrayEquals(content.copyOfRange(1024, 2048), secondBytes)
+    }
+
+    @Test
+    fun testClosingStreamClosesEveryReader() = runTest {
+        val stream = FileChannelByteStream(file, 0L, 1024L)
+        // A retried request reads the body again before the first reader is done.
+        val firstChannel = stream.readFrom()
+        val secondChannel = stream.readFrom()
+        firstChannel.readAvailable(ByteArray(10), 0, 10)
+
+        stream.close()
+
+        assertTrue(firstChannel.isClosedForRead)
+        assertTrue(secondChannel.isClosedForRead)
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amplifyframework.storage.s3.transfer
+
+import com.amplifyframework.storage.s3.TransferPriority
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicInteger
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class PartUploadSchedulerTest {
+    private var now = 0L
+
+    @Test
+    fun testCapsPartsInFlightPerTransfer() = runTest {
+        val scheduler = PartUploadScheduler(maxConcurrentParts = 8, maxConcurrentPartsPerTransfer = 1) { now }
+        val inFlight = AtomicInteger(0)
+        val maxInFlight = AtomicInteger(0)
+
+        (1..3).map {
+            async {
+                scheduler.schedule(1, 1024L) {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), ::maxOf)
+                    delay(100)
+                    inFlight.decrementAndGet()
+                }
+            }
+        }.awaitAll()
+
+        assertEquals(1, maxInFlight.get())
+    }
+
+    @Test
+    fun testConcurrencyGrowsOnSuccessAndHalvesOnFailure() = runTest {
+        val scheduler = PartUploadScheduler(maxConcurrentParts = 8, maxConcurrentPartsPerTransfer = 8) { now }
+        assertEquals(2, scheduler.concurrencyLimit)
+
+        repeat(3) { scheduler.schedule(1, 1024L) { now += 10 } }
+        assertEquals(3, scheduler.concurrencyLimit)
+
+        try {
+            scheduler.schedule(1, 1024L) { throw IOException("connection reset") }
+        } catch (exception: IOException) {
+            // Expected
+        }
+        assertEquals(1, scheduler.concurrencyLimit)
+    }
+
+    @Test
+    fun testLargerPartsAtTheSameThroughputAreNotCongestion() = runTest {
+        val scheduler = PartUploadScheduler(maxConcurrentParts = 8, maxConcurrentPartsPerTransfer = 8) { now }
+        val mebibyte = 1024L * 1024
+
+        // 1 MiB per second, whether the part takes 5 or 20 seconds.
+        scheduler.schedule(1, 5 * mebibyte) { now += 5_000 }
+        scheduler.schedule(1, 20 * mebibyte) { now += 20_000 }
+        scheduler.schedule(1, 5 * mebibyte) { now += 5_000 }
+        assertEquals(3, scheduler.concurrencyLimit)
+
+        // A quarter of the average throughput is congestion.
+        scheduler.schedule(1, 5 * mebibyte) { now += 20_000 }
+        assertEquals(1, scheduler.concurrencyLimit)
+    }
+
+    @Test
+    fun testPartWaitingForCapsHoldsNoTransferSlot() = runTest {
+        val scheduler = PartUploadScheduler(maxConcurrentParts = 8, maxConcurrentPartsPerTransfer = 1) { now }
+        val transferScheduler = TransferScheduler(maxConcurrentTransfers = 2)
+        val firstPart = CompletableDeferred<Unit>()
+        val started = mutableListOf<Int>()
+        fun uploadPart(transferRecordId: Int, upload: suspend () -> Unit) = launch {
+            scheduler.schedule(
+                transferRecordId,
+                1024L,
+                slot = { transferScheduler.schedule(transferRecordId, TransferPriority.NORMAL, it) },
+                upload = upload
+            )
+        }
+
+        uploadPart(1) { firstPart.await() }
+        uploadPart(1) { started.add(1) }
+        uploadPart(2) { started.add(2) }
+        runCurrent()
+
+        // The second part of transfer 1 waits for its transfer's cap, leaving the free slot to transfer 2.
+        assertEquals(listOf(2), started)
+        firstPart.complete(Unit)
+        runCurrent()
+        assertEquals(listOf(2, 1), started)
+    }
+
+    @Test
+    fun testTimeWaitingForSlotIsNotCountedAsUploadTime() = runTest {
+        val scheduler = PartUploadScheduler(maxConcurrentParts = 8, maxConcurrentPartsPerTransfer = 8) { now }
+        val mebibyte = 1024L * 1024
+
+        scheduler.schedule(1, mebibyte) { now += 1000 }
+        scheduler.schedule(
+            1,
+            mebibyte,
+            slot = { upload ->
+                now += 60_000
+                upload()
+            }
+        ) { now += 1000 }
+
+        // 1 MiB per second both times, so parts are sized for it and the window grew.
+        assertEquals(15L * mebibyte, scheduler.recommendedPartSize(100L * mebibyte))
+        assertEquals(2, scheduler.concurrencyLimit)
+    }
+
+    @Test
+    fun testPartSizeFollowsMeasuredThroughput() = runTest {
+        val scheduler = PartUploadScheduler { now }
+        assertEquals(
+            TransferRecord.MINIMUM_UPLOAD_PART_SIZE.toLong(),
+            scheduler.recommendedPartSize(100L * 1024 * 1024)
+        )
+
+        // 1 MiB per second makes parts of about 15 MiB.
+        scheduler.schedule(1, 1024L * 1024) { now += 1000 }
+
+        assertEquals(15L * 1024 * 1024, scheduler.recommendedPartSize(100L * 1024 * 1024))
+    }
+}
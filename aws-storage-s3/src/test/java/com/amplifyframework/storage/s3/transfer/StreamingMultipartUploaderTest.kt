@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amplifyframework.storage.s3.transfer
+
+import android.net.Uri
+import aws.sdk.kotlin.services.s3.S3Client
+import aws.sdk.kotlin.services.s3.model.CompleteMultipartUploadResponse
+import aws.sdk.kotlin.services.s3.model.CreateMultipartUploadResponse
+import aws.sdk.kotlin.services.s3.model.UploadPartRequest
+import aws.sdk.kotlin.services.s3.model.UploadPartResponse
+import com.amplifyframework.storage.TransferState
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import java.io.ByteArrayInputStream
+import java.io.File
+import java.io.IOException
+import java.util.UUID
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertThrows
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(RobolectricTestRunner::class)
+internal class StreamingMultipartUploaderTest {
+    private lateinit var s3Client: S3Client
+    private lateinit var transferDB: TransferDB
+    private lateinit var transferStatusUpdater: TransferStatusUpdater
+    private lateinit var transferRecord: TransferRecord
+    private lateinit var spillFile: File
+    private val partSize = 1024
+
+    @Before
+    fun setup() {
+        s3Client = mockk(relaxed = true)
+        transferDB = mockk(relaxed = true)
+        transferStatusUpdater = mockk(relaxed = true)
+        spillFile = File.createTempFile(TransferStatusUpdater.TEMP_FILE_PREFIX, ".tmp")
+        spillFile.deleteOnExit()
+        transferRecord = TransferRecord(
+            1,
+            UUID.randomUUID().toString(),
+            isMultipart = 1,
+            bucketName = "bucket_name",
+            key = "key",
+            file = spillFile.path,
+            state = TransferState.WAITING
+        )
+        coEvery { s3Client.createMultipartUpload(any()) }.answers {
+            CreateMultipartUploadResponse { uploadId = "upload_id" }
+        }
+        coEvery { s3Client.completeMultipartUpload(any()) }.answers { CompleteMultipartUploadResponse {} }
+        every {
+            transferDB.insertMultipartUploadRecord(any(), any(), any(), any(), any(), any(), any(), any(), any(), 1)
+        }.answers { Uri.parse("transfers/${arg<Int>(5) + 1}") }
+    }
+
+    @Test
+    fun testUploadsPartsWhileReadingAndCompletes() = runTest {
+        val content = ByteArray(partSize * 5 / 2) { it.toByte() }
+        coEvery { s3Client.uploadPart(any()) }.answers {
+            UploadPartResponse { eTag = "etag_${firstArg<UploadPartRequest>().partNumber}" }
+        }
+        val uploader = StreamingMultipartUploader(
+            s3Client,
+            transferDB,
+            transferStatusUpdater,
+            PartUploadScheduler(),
+            TransferScheduler(),
+            partSize,
+            2
+        )
+
+        val finishWithWorkManager = uploader.upload(transferRecord, ByteArrayInputStream(content))
+
+        assertFalse(finishWithWorkManager)
+        coVerify(exactly = 3) { s3Client.uploadPart(any()) }
+        verify { transferDB.updateETag(any(), "etag_3") }
+        coVerify(exactly = 1) { s3Client.completeMultipartUpload(any()) }
+        verify { transferStatusUpdater.updateProgress(1, content.size.toLong(), content.size.toLong(), true) }
+        verify { transferStatusUpdater.updateTransferState(1, TransferState.COMPLETED) }
+        assertTrue(spillFile.length() == 0L)
+    }
+
+    @Test
+    fun testSpillsUnacknowledgedPartsAndRestOfStreamOnFailure() = runTest {
+        val content = ByteArray(partSize * 4) { it.toByte() }
+        coEvery { s3Client.uploadPart(any()) }.answers {
+            val partNumber = firstArg<UploadPartRequest>().partNumber
+            if (partNumber == 2) throw IOException("connection reset")
+            UploadPartResponse { eTag = "etag_$partNumber" }
+        }
+        val uploader = StreamingMultipartUploader(
+            s3Client,
+            transferDB,
+            transferStatusUpdater,
+            PartUploadScheduler(),
+            TransferScheduler(),
+            partSize,
+            1
+        )
+
+        val finishWithWorkManager = uploader.upload(transferRecord, ByteArrayInputStream(content))
+
+        assertTrue(finishWithWorkManager)
+        coVerify(exactly = 0) { s3Client.completeMultipartUpload(any()) }
+        // Part 1 was acknowledged, so parts 2 to 4 are spilled in order, part 4 being the last one.
+        verify { transferDB.updateState(any(), TransferState.PART_COMPLETED) }
+        verify {
+            transferDB.insertMultipartUploadRecord(any(), any(), any(), any(), 0L, 2, any(), partSize.toLong(), 0, 1)
+        }
+        verify {
+            transferDB.insertMultipartUploadRecord(
+                any(), any(), any(), any(), 2L * partSize, 4, any(), partSize.toLong(), 1, 1
+            )
+        }
+        assertArrayEquals(content.copyOfRange(partSize, content.size), spillFile.readBytes())
+    }
+
+    @Test
+    fun testFailsWithoutReadingWhenMultipartUploadCantBeCreated() = runTest {
+        val stream = ByteArrayInputStream(ByteArray(partSize * 2))
+        coEvery { s3Client.createMultipartUpload(any()) }.answers { CreateMultipartUploadResponse {} }
+        val uploader = StreamingMultipartUploader(
+            s3Client,
+            transferDB,
+            transferStatusUpdater,
+            PartUploadScheduler(),
+            TransferScheduler(),
+            partSize,
+            2
+        )
+
+        assertThrows(IllegalStateException::class.java) {
+            runBlocking { uploader.upload(transferRecord, stream) }
+        }
+        coVerify(exactly = 0) { s3Client.uploadPart(any()) }
+        assertEquals(partSize * 2, stream.available())
+    }
+
+    @Test
+    fun testPartSizeDoublesEveryThousandParts() {
+        val initial = TransferRecord.MINIMUM_UPLOAD_PART_SIZE
+        assertEquals(initial, StreamingMultipartUploader.partSizeOf(1, initial))
+        assertEquals(initial, StreamingMultipartUploader.partSizeOf(1000, initial))
+        assertEquals(initial * 2, StreamingMultipartUploader.partSizeOf(1001, initial))
+        assertEquals(initial * 256, StreamingMultipartUploader.partSizeOf(9000, initial))
+        // 10,000 parts hold far more than the 48.8 GiB of fixed 5 MiB parts.
+        val capacity = (1..TransferRecord.MAXIMUM_UPLOAD_PARTS).sumOf {
+            StreamingMultipartUploader.partSizeOf(it, initial).toLong()
+        }
+        assertTrue(capacity > 1024L * 1024 * 1024 * 1024)
+    }
+}
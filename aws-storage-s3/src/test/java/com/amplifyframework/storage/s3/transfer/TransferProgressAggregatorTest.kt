@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amplifyframework.storage.s3.transfer
+
+import android.os.Handler
+import android.os.Looper
+import io.mockk.mockk
+import io.mockk.verify
+import java.time.Duration
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+
+@RunWith(RobolectricTestRunner::class)
+internal class TransferProgressAggregatorTest {
+    private lateinit var transferDB: TransferDB
+    private lateinit var aggregator: TransferProgressAggregator
+    private val notifications = mutableListOf<Triple<Int, Long, Long>>()
+
+    @Before
+    fun setup() {
+        transferDB = mockk(relaxed = true)
+        aggregator = TransferProgressAggregator(
+            transferDB,
+            Handler(Looper.getMainLooper()),
+            100L,
+            flushIntervalMillis = 60_000L
+        ) { transferRecordId, bytesCurrent, bytesTotal ->
+            notifications += Triple(transferRecordId, bytesCurrent, bytesTotal)
+        }
+    }
+
+    @Test
+    fun testFlushWritesLatestProgressOfEachTransferOnce() {
+        (1L..100L).forEach {
+            aggregator.record(1, it, 100L, persist = true, notifyListener = false)
+            aggregator.record(2, it * 2, 200L, persist = true, notifyListener = false)
+        }
+        verify(exactly = 0) { transferDB.updateBytesTransferred(any(), any(), any()) }
+
+        aggregator.flush()
+        aggregator.flush()
+
+        verify(exactly = 1) { transferDB.updateBytesTransferred(mapOf(1 to (100L to 100L), 2 to (200L to 200L))) }
+    }
+
+    @Test
+    fun testNotificationsAreCoalescedToLatestProgress() {
+        aggregator.record(1, 1L, 100L, persist = false, notifyListener = true)
+        shadowOf(Looper.getMainLooper()).idle()
+        (2L..50L).forEach { aggregator.record(1, it, 100L, persist = false, notifyListener = true) }
+        shadowOf(Looper.getMainLooper()).idle()
+        assertEquals(listOf(Triple(1, 1L, 100L)), notifications)
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100))
+
+        assertEquals(listOf(Triple(1, 1L, 100L), Triple(1, 50L, 100L)), notifications)
+    }
+
+    @Test
+    fun testFlushOfTransferWritesAndDeliversPendingProgress() {
+        aggregator.record(1, 1L, 100L, persist = false, notifyListener = true)
+        shadowOf(Looper.getMainLooper()).idle()
+        aggregator.record(1, 100L, 100L, persist = true, notifyListener = true)
+
+        aggregator.flush(1)
+        shadowOf(Looper.getMainLooper()).idle()
+
+        verify { transferDB.updateBytesTransferred(1, 100L, 100L) }
+        assertEquals(Triple(1, 100L, 100L), notifications.last())
+    }
+}
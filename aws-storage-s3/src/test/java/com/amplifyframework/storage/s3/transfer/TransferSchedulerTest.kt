@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amplifyframework.storage.s3.transfer
+
+import com.amplifyframework.storage.s3.TransferPriority
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class TransferSchedulerTest {
+
+    @Test
+    fun testWaitingTransfersStartByPriority() = runTest {
+        val scheduler = TransferScheduler(maxConcurrentTransfers = 1)
+        val running = CompletableDeferred<Unit>()
+        val started = mutableListOf<Int>()
+        launch { scheduler.schedule(1, TransferPriority.NORMAL) { running.await() } }
+        runCurrent()
+
+        launch { scheduler.schedule(2, TransferPriority.LOW) { started.add(2) } }
+        launch { scheduler.schedule(3, TransferPriority.NORMAL) { started.add(3) } }
+        runCurrent()
+        assertTrue(started.isEmpty())
+
+        running.complete(Unit)
+        runCurrent()
+        assertEquals(listOf(3, 2), started)
+    }
+
+    @Test
+    fun testHighPriorityTransferStartsAboveCap() = runTest {
+        val scheduler = TransferScheduler(maxConcurrentTransfers = 1)
+        val running = CompletableDeferred<Unit>()
+        launch { scheduler.schedule(1, TransferPriority.LOW) { running.await() } }
+        runCurrent()
+
+        var started = false
+        launch { scheduler.schedule(2, TransferPriority.HIGH) { started = true } }
+        runCurrent()
+
+        assertTrue(started)
+        running.complete(Unit)
+    }
+
+    @Test
+    fun testHighPriorityTransferIsNotStarvedByWaitingLowPriorityWorkers() = runTest {
+        val scheduler = TransferScheduler(maxConcurrentTransfers = 2)
+        val running = CompletableDeferred<Unit>()
+        val started = mutableListOf<Int>()
+        // Two LOW workers hold every slot, and more LOW workers wait behind them.
+        launch { scheduler.schedule(1, TransferPriority.LOW) { running.await() } }
+        launch { scheduler.schedule(2, TransferPriority.LOW) { running.await() } }
+        (3..10).forEach { id -> launch { scheduler.schedule(id, TransferPriority.LOW) { started.add(id) } } }
+        runCurrent()
+
+        launch { scheduler.schedule(11, TransferPriority.HIGH) { started.add(11) } }
+        runCurrent()
+
+        assertEquals(listOf(11), started)
+        running.complete(Unit)
+        runCurrent()
+        assertEquals((3..10).toList(), started.drop(1))
+    }
+
+    @Test
+    fun testTransferHoldingFewerSlotsStartsFirst() = runTest {
+        val scheduler = TransferScheduler(maxConcurrentTransfers = 2)
+        val firstPart = CompletableDeferred<Unit>()
+        val secondPart = CompletableDeferred<Unit>()
+        val started = mutableListOf<Int>()
+        launch { scheduler.schedule(1, TransferPriority.NORMAL) { firstPart.await() } }
+        launch { scheduler.schedule(1, TransferPriority.NORMAL) { secondPart.await() } }
+        runCurrent()
+
+        launch { scheduler.schedule(1, TransferPriority.NORMAL) { started.add(1) } }
+        launch { scheduler.schedule(2, TransferPriority.NORMAL) { started.add(2) } }
+        runCurrent()
+
+        firstPart.complete(Unit)
+        runCurrent()
+        assertEquals(listOf(2, 1), started)
+        secondPart.complete(Unit)
+    }
+
+    @Test
+    fun testCanceledWaiterGivesUpItsPlace() = runTest {
+        val scheduler = TransferScheduler(maxConcurrentTransfers = 1)
+        val running = CompletableDeferred<Unit>()
+        val started = mutableListOf<Int>()
+        launch { scheduler.schedule(1, TransferPriority.NORMAL) { running.await() } }
+        runCurrent()
+
+        val canceled = launch { scheduler.schedule(2, TransferPriority.NORMAL) { started.add(2) } }
+        launch { scheduler.schedule(3, TransferPriority.LOW) { started.add(3) } }
+        runCurrent()
+        canceled.cancel()
+        running.complete(Unit)
+        runCurrent()
+
+        assertEquals(listOf(3), started)
+    }
+}
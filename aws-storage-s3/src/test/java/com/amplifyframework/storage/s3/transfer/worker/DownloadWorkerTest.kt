@@ -20,8 +20,16 @@ import androidx.work.ListenableWorker
 import androidx.work.WorkerParameters
 import androidx.work.workDataOf
 import aws.sdk.kotlin.services.s3.S3Client
+import aws.sdk.kotlin.services.s3.model.GetObjectRequest
 import aws.sdk.kotlin.services.s3.model.GetObjectResponse
+import aws.sdk.kotlin.services.s3.model.HeadObjectResponse
+import aws.sdk.kotlin.services.s3.model.S3Exception
+import aws.smithy.kotlin.runtime.ServiceErrorMetadata
 import aws.smithy.kotlin.runtime.content.ByteStream
+import aws.smithy.kotlin.runtime.http.Headers
+import aws.smithy.kotlin.runtime.http.HttpBody
+import aws.smithy.kotlin.runtime.http.HttpStatusCode
+import aws.smithy.kotlin.runtime.http.response.HttpResponse
 import aws.smithy.kotlin.runtime.io.SdkByteReadChannel
 import aws.smithy.kotlin.runtime.io.readChannel
 import aws.smithy.kotlin.runtime.util.InternalApi
@@ -39,6 +47,7 @@ import java.nio.ByteBuffer
 import java.util.UUID
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertArrayEquals
 import org.junit.Assert.assertEquals
 import org.junit.Before
 import org.junit.Test
@@ -136,6 +145,193 @@ internal class DownloadWorkerTest {
         assertEquals(expectedResult, result)
     }
 
+    @Test
+    fun testRangedDownloadWritesEachRangeInPlace() = runTest {
+        val source = File.createTempFile("Temp", "_source.bin")
+        source.deleteOnExit()
+        val content = ByteArray(3 * 1024 * 1024) { (it % 251).toByte() }
+        source.writeBytes(content)
+        val target = File.createTempFile("Temp", "_target.bin")
+        target.deleteOnExit()
+        val transferRecord = TransferRecord(
+            1,
+            UUID.randomUUID().toString(),
+            bucketName = "bucket_name",
+            key = "key",
+            file = target.path,
+            multipartDownloadThreshold = 1,
+            eTag = "etag"
+        )
+        val partSize = 1024 * 1024L
+        val ranges = createRanges(3, partSize, target)
+        val requests = mutableListOf<GetObjectRequest>()
+        coEvery {
+            s3Client.getObject(
+                any(),
+                any<suspend (GetObjectResponse) -> ListenableWorker.Result>()
+            )
+        }.coAnswers {
+            synchronized(requests) { requests.add(firstArg()) }
+            secondArg<suspend (GetObjectResponse) -> Any>().invoke(rangeOf(source, firstArg()))
+        }
+        every { transferDB.getTransferRecordById(any()) }.answers { transferRecord }
+        every { transferDB.queryDownloadRangeRecords(1) }.answers { ranges }
+        every { transferDB.updateBytesTransferred(any(), any(), any()) }.answers { 1 }
+        every { transferDB.updateBytesTotalForDownload(1, content.size.toLong()) }.answers { 1 }
+        every { transferDB.deletePartTransferRecords(1) }.answers { ranges.size }
+        every { transferStatusUpdater.updateProgress(1, any(), any(), true, any()) }.answers { }
+
+        val worker = DownloadWorker(s3Client, transferDB, transferStatusUpdater, context, workerParameters)
+        val result = worker.doWork()
+
+        val expectedResult =
+            ListenableWorker.Result.success(workDataOf(BaseTransferWorker.OUTPUT_TRANSFER_RECORD_ID to 1))
+        assertEquals(expectedResult, result)
+        assertArrayEquals(content, target.readBytes())
+        ranges.forEach { verify { transferDB.updateBytesTransferred(it.id, partSize, partSize) } }
+        verify { transferDB.deletePartTransferRecords(1) }
+        assertEquals(listOf("etag", "etag", "etag"), requests.map { it.ifMatch })
+    }
+
+    @Test
+    fun testRangedDownloadStartsOverWhenObjectChanges() = runTest {
+        val source = File.createTempFile("Temp", "_source.bin")
+        source.deleteOnExit()
+        val content = ByteArray(3 * 1024 * 1024) { (it % 251).toByte() }
+        source.writeBytes(content)
+        val target = File.createTempFile("Temp", "_target.bin")
+        target.deleteOnExit()
+        target.writeBytes(ByteArray(content.size))
+        val transferRecord = TransferRecord(
+            1,
+            UUID.randomUUID().toString(),
+            bucketName = "bucket_name",
+            key = "key",
+            file = target.path,
+            multipartDownloadThreshold = 1,
+            eTag = "old"
+        )
+        val ranges = createRanges(3, 1024 * 1024L, target)
+        coEvery {
+            s3Client.getObject(
+                any(),
+                any<suspend (GetObjectResponse) -> ListenableWorker.Result>()
+            )
+        }.coAnswers {
+            val request = firstArg<GetObjectRequest>()
+            if (request.ifMatch == "old") {
+                throw S3Exception().apply {
+                    sdkErrorMetadata.attributes[ServiceErrorMetadata.ProtocolResponse] =
+                        HttpResponse(HttpStatusCode.PreconditionFailed, Headers.Empty, HttpBody.Empty)
+                }
+            }
+            secondArg<suspend (GetObjectResponse) -> Any>().invoke(rangeOf(source, request))
+        }
+        coEvery { s3Client.headObject(any()) }.answers {
+            HeadObjectResponse {
+                contentLength = content.size.toLong()
+                eTag = "new"
+            }
+        }
+        every { transferDB.getTransferRecordById(any()) }.answers { transferRecord }
+        every { transferDB.queryDownloadRangeRecords(1) }.returnsMany(ranges, emptyList())
+        every { transferDB.updateBytesTransferred(any(), any(), any()) }.answers { 1 }
+        every { transferDB.updateBytesTotalForDownload(1, content.size.toLong()) }.answers { 1 }
+        every { transferDB.deletePartTransferRecords(1) }.answers { ranges.size }
+        every { transferDB.updateETag(1, "new") }.answers { 1 }
+        every { transferStatusUpdater.updateProgress(1, any(), any(), true, any()) }.answers { }
+
+        val worker = DownloadWorker(s3Client, transferDB, transferStatusUpdater, context, workerParameters)
+        val result = worker.doWork()
+
+        val expectedResult =
+            ListenableWorker.Result.success(workDataOf(BaseTransferWorker.OUTPUT_TRANSFER_RECORD_ID to 1))
+        assertEquals(expectedResult, result)
+        assertArrayEquals(content, target.readBytes())
+        verify { transferDB.deletePartTransferRecords(1) }
+        verify { transferDB.updateETag(1, "new") }
+    }
+
+    @Test
+    fun testRangesWithoutETagAreDroppedWithTheirBytes() = runTest {
+        val source = File.createTempFile("Temp", "_source.bin")
+        source.deleteOnExit()
+        val content = ByteArray(3 * 1024 * 1024) { (it % 251).toByte() }
+        source.writeBytes(content)
+        val target = File.createTempFile("Temp", "_target.bin")
+        target.deleteOnExit()
+        target.writeBytes(ByteArray(content.size))
+        val transferRecord = TransferRecord(
+            1,
+            UUID.randomUUID().toString(),
+            bucketName = "bucket_name",
+            key = "key",
+            file = target.path,
+            multipartDownloadThreshold = Long.MAX_VALUE
+        )
+        val ranges = createRanges(3, 1024 * 1024L, target)
+        ranges.first().bytesCurrent = 1024 * 1024L
+        val requests = mutableListOf<GetObjectRequest>()
+        coEvery {
+            s3Client.getObject(
+                any(),
+                any<suspend (GetObjectResponse) -> ListenableWorker.Result>()
+            )
+        }.coAnswers {
+            requests.add(firstArg())
+            secondArg<suspend (GetObjectResponse) -> Any>().invoke(rangeOf(source, firstArg()))
+        }
+        coEvery { s3Client.headObject(any()) }.answers {
+            HeadObjectResponse {
+                contentLength = content.size.toLong()
+                eTag = "new"
+            }
+        }
+        every { transferDB.getTransferRecordById(any()) }.answers { transferRecord }
+        every { transferDB.queryDownloadRangeRecords(1) }.answers { ranges }
+        every { transferDB.deletePartTransferRecords(1) }.answers { ranges.size }
+        every { transferDB.updateETag(1, "new") }.answers { 1 }
+        every { transferStatusUpdater.updateProgress(1, any(), any(), true, any()) }.answers { }
+
+        val worker = DownloadWorker(s3Client, transferDB, transferStatusUpdater, context, workerParameters)
+        val result = worker.doWork()
+
+        val expectedResult =
+            ListenableWorker.Result.success(workDataOf(BaseTransferWorker.OUTPUT_TRANSFER_RECORD_ID to 1))
+        assertEquals(expectedResult, result)
+        verify { transferDB.deletePartTransferRecords(1) }
+        // The object is fetched from its start, rather than appended to the bytes written for the dropped ranges.
+        assertEquals(listOf("bytes=0-"), requests.map { it.range })
+        assertArrayEquals(content, target.readBytes())
+    }
+
+    private fun createRanges(count: Int, partSize: Long, file: File): List<TransferRecord> {
+        return (0 until count).map { index ->
+            TransferRecord(
+                index + 2,
+                UUID.randomUUID().toString(),
+                mainUploadId = 1,
+                isMultipart = 1,
+                partNumber = index + 1,
+                bytesTotal = partSize,
+                rangeStart = index * partSize,
+                rangeLast = (index + 1) * partSize - 1,
+                bucketName = "bucket_name",
+                key = "key",
+                file = file.path
+            )
+        }
+    }
+
+    private fun rangeOf(source: File, request: GetObjectRequest): GetObjectResponse {
+        val (start, last) = request.range!!.removePrefix("bytes=").split("-")
+            .map { it.toLongOrNull() ?: (source.length() - 1) }
+        return GetObjectResponse {
+            contentLength = last - start + 1
+            body = ByteStream.readAsOneShotStream(source, start, last - start + 1)
+        }
+    }
+
     private fun createFile(size: Int): File {
         val file = File((System.getProperty("java.io.tmpdir")?.plus(File.separator)) + "file")
         file.createNewFile()
@@ -16,6 +16,7 @@
 package com.amplifyframework.kotlin.storage
 
 import com.amplifyframework.core.Amplify
+import com.amplifyframework.core.Consumer
 import com.amplifyframework.kotlin.storage.Storage.InProgressStorageOperation
 import com.amplifyframework.storage.StorageCategoryBehavior as Delegate
 import com.amplifyframework.storage.StorageException
@@ -29,6 +30,7 @@ import com.amplifyframework.storage.options.StorageUploadInputStreamOptions
 import com.amplifyframework.storage.result.StorageDownloadFileResult
 import com.amplifyframework.storage.result.StorageGetUrlResult
 import com.amplifyframework.storage.result.StorageListResult
+import com.amplifyframework.storage.result.StorageRemoveManyResult
 import com.amplifyframework.storage.result.StorageRemoveResult
 import com.amplifyframework.storage.result.StorageTransferProgress
 import com.amplifyframework.storage.result.StorageTransferResult
@@ -41,8 +43,15 @@ import kotlin.coroutines.resumeWithException
 import kotlin.coroutines.suspendCoroutine
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flow
 
 class KotlinStorageFacade(private val delegate: Delegate = Amplify.Storage) : Storage {
     @Throws(StorageException::class)
@@ -146,6 +155,39 @@ class KotlinStorageFacade(private val delegate: Delegate = Amplify.Storage) : St
         }
     }
 
+    override fun removeMany(keys: List<String>, options: StorageRemoveOptions): Flow<StorageRemoveManyResult> {
+        return removeManyFlow { onProgress, onResult, onError ->
+            delegate.removeMany(keys, options, onProgress, onResult, onError)
+        }
+    }
+
+    override fun removeAll(path: String, options: StorageRemoveOptions): Flow<StorageRemoveManyResult> {
+        return removeManyFlow { onProgress, onResult, onError ->
+            delegate.removeAll(path, options, onProgress, onResult, onError)
+        }
+    }
+
+    // The final result is usually the same as the last progress, so it is only emitted if it differs.
+    private fun removeManyFlow(
+        start: (
+            Consumer<StorageRemoveManyResult>,
+            Consumer<StorageRemoveManyResult>,
+            Consumer<StorageException>
+        ) -> Unit
+    ): Flow<StorageRemoveManyResult> {
+        return callbackFlow {
+            start(
+                { trySend(it) },
+                {
+                    trySend(it)
+                    close()
+                },
+                { close(it) }
+            )
+            awaitClose()
+        }.buffer(Channel.UNLIMITED).distinctUntilChanged()
+    }
+
     @Throws(StorageException::class)
     override suspend fun list(path: String, options: StorageListOptions): StorageListResult {
         return suspendCoroutine { continuation ->
@@ -158,6 +200,17 @@ class KotlinStorageFacade(private val delegate: Delegate = Amplify.Storage) : St
         }
     }
 
+    override fun listPages(path: String, options: StorageListOptions): Flow<StorageListResult> {
+        return flow {
+            var page = list(path, options)
+            emit(page)
+            while (page.nextToken != null) {
+                page = list(path, StorageListOptions.from(options).nextToken(page.nextToken).build())
+                emit(page)
+            }
+        }
+    }
+
     @Throws(StorageException::class)
     override suspend fun getTransfer(transferId: String): StorageTransferOperation<*, StorageTransferResult> {
         return suspendCoroutine { continuation ->
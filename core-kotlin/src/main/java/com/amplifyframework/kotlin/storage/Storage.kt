@@ -28,6 +28,7 @@ import com.amplifyframework.storage.options.StorageUploadInputStreamOptions
 import com.amplifyframework.storage.result.StorageDownloadFileResult
 import com.amplifyframework.storage.result.StorageGetUrlResult
 import com.amplifyframework.storage.result.StorageListResult
+import com.amplifyframework.storage.result.StorageRemoveManyResult
 import com.amplifyframework.storage.result.StorageRemoveResult
 import com.amplifyframework.storage.result.StorageTransferProgress
 import com.amplifyframework.storage.result.StorageTransferResult
@@ -81,12 +82,39 @@ interface Storage {
         options: StorageRemoveOptions = StorageRemoveOptions.defaultInstance()
     ): StorageRemoveResult
 
+    /**
+     * Removes the objects with the given keys. The flow emits the keys removed and failed so far as the removal
+     * progresses, the last emission being the final result, and throws if the objects can't be attempted.
+     */
+    fun removeMany(
+        keys: List<String>,
+        options: StorageRemoveOptions = StorageRemoveOptions.defaultInstance()
+    ): Flow<StorageRemoveManyResult>
+
+    /**
+     * Removes every object under the given path. The flow emits the keys removed and failed so far as the removal
+     * progresses, the last emission being the final result, and throws if the objects can't be listed.
+     */
+    fun removeAll(
+        path: String,
+        options: StorageRemoveOptions = StorageRemoveOptions.defaultInstance()
+    ): Flow<StorageRemoveManyResult>
+
     @Throws(StorageException::class)
     suspend fun list(
         path: String,
         options: StorageListOptions = StorageListOptions.defaultInstance()
     ): StorageListResult
 
+    /**
+     * Lists the items at the given path a page at a time, following the token of each page to the next one.
+     * Set a page size in the options for the listing to be spread over several pages.
+     */
+    fun listPages(
+        path: String,
+        options: StorageListOptions = StorageListOptions.defaultInstance()
+    ): Flow<StorageListResult>
+
     @Throws(StorageException::class)
     suspend fun getTransfer(transferId: String): StorageTransferOperation<*, StorageTransferResult>
 
@@ -23,9 +23,11 @@ import com.amplifyframework.storage.operation.StorageDownloadFileOperation
 import com.amplifyframework.storage.operation.StorageTransferOperation
 import com.amplifyframework.storage.operation.StorageUploadFileOperation
 import com.amplifyframework.storage.operation.StorageUploadInputStreamOperation
+import com.amplifyframework.storage.options.StorageListOptions
 import com.amplifyframework.storage.result.StorageDownloadFileResult
 import com.amplifyframework.storage.result.StorageGetUrlResult
 import com.amplifyframework.storage.result.StorageListResult
+import com.amplifyframework.storage.result.StorageRemoveManyResult
 import com.amplifyframework.storage.result.StorageRemoveResult
 import com.amplifyframework.storage.result.StorageTransferProgress
 import com.amplifyframework.storage.result.StorageTransferResult
@@ -468,6 +470,68 @@ class KotlinStorageFacadeTest {
         storage.list(path)
     }
 
+    /**
+     * When a listed page has a next token, listPages() should list the next page
+     * with it, and complete after the last page.
+     */
+    @Test
+    fun listPagesFollowsNextToken() = runBlocking {
+        val path = "/beach/photos"
+        val firstItem = StorageItem("me_at_beach.png", 100L, Date(), "eTag", "props")
+        val secondItem = StorageItem("me_in_sea.png", 100L, Date(), "eTag", "props")
+        val firstPage = StorageListResult.fromItems(listOf(firstItem), emptyList(), "next_token")
+        val secondPage = StorageListResult.fromItems(listOf(secondItem), emptyList(), null)
+        every {
+            delegate.list(eq(path), any(), any(), any())
+        } answers {
+            val options = it.invocation.args[1] as StorageListOptions
+            val onResult = it.invocation.args[2] as Consumer<StorageListResult>
+            onResult.accept(if (options.nextToken == null) firstPage else secondPage)
+            mockk()
+        }
+        val options = StorageListOptions.builder().pageSize(1).build()
+        assertEquals(listOf(firstPage, secondPage), storage.listPages(path, options).toList())
+    }
+
+    /**
+     * When the delegate reports progress and then a result, removeMany() should emit
+     * each progress update, skip a final result identical to the last update, and complete.
+     */
+    @Test
+    fun removeManyEmitsProgressThenCompletes() = runTest {
+        val keys = listOf("first", "second")
+        val firstBatch = StorageRemoveManyResult.fromKeys(listOf("first"), null)
+        val secondBatch = StorageRemoveManyResult.fromKeys(keys, null)
+        every {
+            delegate.removeMany(eq(keys), any(), any(), any(), any())
+        } answers {
+            val onProgress = it.invocation.args[2] as Consumer<StorageRemoveManyResult>
+            val onResult = it.invocation.args[3] as Consumer<StorageRemoveManyResult>
+            onProgress.accept(firstBatch)
+            onProgress.accept(secondBatch)
+            onResult.accept(secondBatch)
+            mockk()
+        }
+        assertEquals(listOf(firstBatch, secondBatch), storage.removeMany(keys).toList())
+    }
+
+    /**
+     * When the delegate fails to remove the objects under a path, removeAll() should throw.
+     */
+    @Test(expected = StorageException::class)
+    fun removeAllThrowsWhenDelegateFails(): Unit = runBlocking {
+        val path = "/beach/photos"
+        val error = StorageException("uh", "oh")
+        every {
+            delegate.removeAll(eq(path), any(), any(), any(), any())
+        } answers {
+            val onError = it.invocation.args[4] as Consumer<StorageException>
+            onError.accept(error)
+            mockk()
+        }
+        storage.removeAll(path).toList()
+    }
+
     @Test
     fun getTransferSucceeds() = runTest {
         val transferId = UUID.randomUUID().toString()
@@ -35,5 +35,13 @@ public enum ApiChannelEventName {
      * @see com.amplifyframework.api.events.ApiEndpointStatusChangeEvent
      * @see com.amplifyframework.api.events.ApiEndpointStatusChangeEvent.ApiEndpointStatus
      */
-    API_ENDPOINT_STATUS_CHANGED
+    API_ENDPOINT_STATUS_CHANGED,
+
+    /**
+     * Indicates that a subscription connection was lost and has since been re-established.
+     * Subscriptions that were active at the time of the disconnect have been started again,
+     * but any data published while the connection was down was not delivered. Listeners
+     * can use this event to catch up on what they may have missed.
+     */
+    SUBSCRIPTION_CONNECTION_RESUMED
 }
@@ -21,6 +21,7 @@ import androidx.core.util.ObjectsCompat;
 
 import com.amplifyframework.util.Immutable;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
@@ -34,25 +35,53 @@ public final class RestOperationRequest {
     private final byte[] data;
     private final Map<String, String> headers;
     private final Map<String, String> queryParameters;
+    private final RestStreamingBody streamingBody;
+    private final File responseFile;
+    private final RestProgressListener progressListener;
 
     /**
-     * Constructs a request object for RestOperation.
+     * Constructs a request object for RestOperation, whose bodies may be streamed.
      * @param httpMethod The rest operation type
      * @param path Path against which the request is made.
-     * @param data Data for the rest option
+     * @param data Data for the rest option, if the body is held in memory
+     * @param streamingBody Body for the rest option, if it is streamed
      * @param headers Header map for the request
      * @param queryParameters Query parameters for the request.
+     * @param responseFile File to write the response body to, or null to hold it in memory
+     * @param progressListener Listener for progress of the request and response bodies
      */
     public RestOperationRequest(HttpMethod httpMethod,
                                 String path,
                                 byte[] data,
+                                RestStreamingBody streamingBody,
                                 Map<String, String> headers,
-                                Map<String, String> queryParameters) {
+                                Map<String, String> queryParameters,
+                                File responseFile,
+                                RestProgressListener progressListener) {
         this.httpMethod = httpMethod;
         this.path = path;
         this.headers = headers == null ? Collections.emptyMap() : Immutable.of(headers);
         this.data = data == null ? null : Arrays.copyOf(data, data.length);
+        this.streamingBody = streamingBody;
         this.queryParameters = queryParameters == null ? Collections.emptyMap() : Immutable.of(queryParameters);
+        this.responseFile = responseFile;
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Constructs a request object for RestOperation.
+     * @param httpMethod The rest operation type
+     * @param path Path against which the request is made.
+     * @param data Data for the rest option
+     * @param headers Header map for the request
+     * @param queryParameters Query parameters for the request.
+     */
+    public RestOperationRequest(HttpMethod httpMethod,
+                                String path,
+                                byte[] data,
+                                Map<String, String> headers,
+                                Map<String, String> queryParameters) {
+        this(httpMethod, path, data, null, headers, queryParameters, null, null);
     }
 
     /**
@@ -101,6 +130,33 @@ public final class RestOperationRequest {
         return data;
     }
 
+    /**
+     * Returns the streaming body, if present.
+     * @return Streaming body for the request, or null if the body is held in memory
+     */
+    @Nullable
+    public RestStreamingBody getStreamingBody() {
+        return streamingBody;
+    }
+
+    /**
+     * Returns the file to which the response body is written, if any.
+     * @return File for the response body, or null if the response body is held in memory
+     */
+    @Nullable
+    public File getResponseFile() {
+        return responseFile;
+    }
+
+    /**
+     * Returns the listener for progress of the request and response bodies, if any.
+     * @return Progress listener, or null
+     */
+    @Nullable
+    public RestProgressListener getProgressListener() {
+        return progressListener;
+    }
+
     /**
      * Returns the headers if present.
      * @return Header map, null if not present
@@ -116,6 +172,8 @@ public final class RestOperationRequest {
             "httpMethod=" + httpMethod +
             ", path='" + path + '\'' +
             ", data=" + Arrays.toString(data) +
+            ", streamingBody=" + streamingBody +
+            ", responseFile=" + responseFile +
             ", headers=" + headers +
             ", queryParameters=" + queryParameters +
             '}';
@@ -139,6 +197,12 @@ public final class RestOperationRequest {
         if (!ObjectsCompat.equals(this.getData(), that.getData())) {
             return false;
         }
+        if (!ObjectsCompat.equals(this.getStreamingBody(), that.getStreamingBody())) {
+            return false;
+        }
+        if (!ObjectsCompat.equals(this.getResponseFile(), that.getResponseFile())) {
+            return false;
+        }
         if (!ObjectsCompat.equals(this.getHeaders(), that.getHeaders())) {
             return false;
         }
@@ -150,6 +214,8 @@ public final class RestOperationRequest {
         int result = getHttpMethod() != null ? getHttpMethod().hashCode() : 0;
         result = 31 * result + (getPath() != null ? getPath().hashCode() : 0);
         result = 31 * result + Arrays.hashCode(getData());
+        result = 31 * result + (getStreamingBody() != null ? getStreamingBody().hashCode() : 0);
+        result = 31 * result + (getResponseFile() != null ? getResponseFile().hashCode() : 0);
         result = 31 * result + (getHeaders() != null ? getHeaders().hashCode() : 0);
         result = 31 * result + (getQueryParameters() != null ? getQueryParameters().hashCode() : 0);
         return result;
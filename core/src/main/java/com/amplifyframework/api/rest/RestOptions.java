@@ -21,6 +21,7 @@ import androidx.core.util.ObjectsCompat;
 
 import com.amplifyframework.util.Immutable;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -34,22 +35,34 @@ public final class RestOptions {
     private final byte[] data;
     private final Map<String, String> headers;
     private final Map<String, String> queryParameters;
+    private final RestStreamingBody streamingBody;
+    private final File responseFile;
+    private final RestProgressListener progressListener;
 
     /**
      * Construct a REST request.
      * @param path Path for the endpoint to make the request
      * @param data Data for the rest option
+     * @param streamingBody Body to stream for the rest option, instead of data
      * @param headers Headers for the request.
      * @param queryParameters Query parameters for the request. This value is nullable
+     * @param responseFile File to write the response body to, instead of holding it in memory
+     * @param progressListener Listener for progress of the request and response bodies
      */
     private RestOptions(String path,
                        byte[] data,
+                       RestStreamingBody streamingBody,
                        Map<String, String> headers,
-                       Map<String, String> queryParameters) {
+                       Map<String, String> queryParameters,
+                       File responseFile,
+                       RestProgressListener progressListener) {
         this.path = path;
         this.data = data == null ? null : Arrays.copyOf(data, data.length);
+        this.streamingBody = streamingBody;
         this.headers = headers == null ? Collections.emptyMap() : Immutable.of(headers);
         this.queryParameters = queryParameters == null ? Collections.emptyMap() : Immutable.of(queryParameters);
+        this.responseFile = responseFile;
+        this.progressListener = progressListener;
     }
 
     /**
@@ -76,6 +89,33 @@ public final class RestOptions {
         return data;
     }
 
+    /**
+     * Returns the streaming body, if present.
+     * @return Streaming body for the request, or null if the body is held in memory
+     */
+    @Nullable
+    public RestStreamingBody getStreamingBody() {
+        return streamingBody;
+    }
+
+    /**
+     * Returns the file to which the response body is written, if any.
+     * @return File for the response body, or null if the response body is held in memory
+     */
+    @Nullable
+    public File getResponseFile() {
+        return responseFile;
+    }
+
+    /**
+     * Returns the listener for progress of the request and response bodies, if any.
+     * @return Progress listener, or null
+     */
+    @Nullable
+    public RestProgressListener getProgressListener() {
+        return progressListener;
+    }
+
     /**
      * Returns the header map if present.
      * @return Map of header key values
@@ -92,6 +132,14 @@ public final class RestOptions {
         return data != null;
     }
 
+    /**
+     * Checks if the options contains a streaming body.
+     * @return True if the streaming body is not null.
+     */
+    public boolean hasStreamingBody() {
+        return streamingBody != null;
+    }
+
     /**
      * Gets a builder instance.
      * @return A builder instance
@@ -115,6 +163,12 @@ public final class RestOptions {
         if (!ObjectsCompat.equals(this.getData(), that.getData())) {
             return false;
         }
+        if (!ObjectsCompat.equals(this.getStreamingBody(), that.getStreamingBody())) {
+            return false;
+        }
+        if (!ObjectsCompat.equals(this.getResponseFile(), that.getResponseFile())) {
+            return false;
+        }
         if (!ObjectsCompat.equals(this.getHeaders(), that.getHeaders())) {
             return false;
         }
@@ -125,6 +179,8 @@ public final class RestOptions {
     public int hashCode() {
         int result = getPath() != null ? getPath().hashCode() : 0;
         result = 31 * result + Arrays.hashCode(getData());
+        result = 31 * result + (getStreamingBody() != null ? getStreamingBody().hashCode() : 0);
+        result = 31 * result + (getResponseFile() != null ? getResponseFile().hashCode() : 0);
         result = 31 * result + (getHeaders() != null ? getHeaders().hashCode() : 0);
         result = 31 * result + (getQueryParameters() != null ? getQueryParameters().hashCode() : 0);
         return result;
@@ -136,6 +192,8 @@ public final class RestOptions {
         return "RestOptions{" +
             "path='" + path + '\'' +
             ", data=" + Arrays.toString(data) +
+            ", streamingBody=" + streamingBody +
+            ", responseFile=" + responseFile +
             ", headers=" + headers +
             ", queryParameters=" + queryParameters +
             '}';
@@ -151,8 +209,11 @@ public final class RestOptions {
 
         private String path;
         private byte[] data;
+        private RestStreamingBody streamingBody;
         private Map<String, String> queryParameters;
         private Map<String, String> headers;
+        private File responseFile;
+        private RestProgressListener progressListener;
 
         Builder() { }
 
@@ -176,6 +237,39 @@ public final class RestOptions {
             return this;
         }
 
+        /**
+         * Configures a body for the request which is streamed as it is sent, rather than held
+         * in memory. Use this instead of {@link #addBody(byte[])} for large payloads.
+         * @param streamingBody Body of the request, read from a file or stream.
+         * @return Current Builder instance, for fluent method chaining
+         */
+        public Builder addStreamingBody(@NonNull final RestStreamingBody streamingBody) {
+            this.streamingBody = streamingBody;
+            return this;
+        }
+
+        /**
+         * Writes the response body to a file as it is received, rather than holding it in memory.
+         * The response's data is then empty; read the body from
+         * {@link RestResponse#getBodyFile()} instead.
+         * @param responseFile File to which the response body is written. It is overwritten.
+         * @return Current Builder instance, for fluent method chaining
+         */
+        public Builder writeResponseTo(@NonNull final File responseFile) {
+            this.responseFile = responseFile;
+            return this;
+        }
+
+        /**
+         * Configures a listener for progress of the request and response bodies.
+         * @param progressListener Listener for progress of the transfer.
+         * @return Current Builder instance, for fluent method chaining
+         */
+        public Builder progressListener(@NonNull final RestProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
         /**
          * Configures the query parameters for the request.
          * @param queryParameters Query parameters for the request.
@@ -224,8 +318,11 @@ public final class RestOptions {
             return new RestOptions(
                     this.path,
                     this.data,
+                    this.streamingBody,
                     this.headers,
-                    this.queryParameters);
+                    this.queryParameters,
+                    this.responseFile,
+                    this.progressListener);
         }
     }
 }
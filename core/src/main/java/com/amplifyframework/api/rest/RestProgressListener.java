@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.rest;
+
+/**
+ * Receives progress of a REST request's body being sent, and of its response body being received.
+ * Both methods are invoked on the thread doing the transfer, so should return quickly.
+ */
+public interface RestProgressListener {
+    /**
+     * Invoked as the request body is sent.
+     * @param bytesSent Number of bytes of the request body sent so far
+     * @param totalBytes Length of the request body, or -1 if it isn't known
+     */
+    default void onUploadProgress(long bytesSent, long totalBytes) {}
+
+    /**
+     * Invoked as the response body is received.
+     * @param bytesReceived Number of bytes of the response body received so far
+     * @param totalBytes Length of the response body, or -1 if it isn't known
+     */
+    default void onDownloadProgress(long bytesReceived, long totalBytes) {}
+}
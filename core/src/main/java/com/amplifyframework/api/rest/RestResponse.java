@@ -25,8 +25,10 @@ import com.amplifyframework.util.Range;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Response from rest request.
@@ -35,6 +37,7 @@ public final class RestResponse {
     private final Data data;
     private final Code code;
     private final Map<String, String> headers;
+    private final File bodyFile;
 
     /**
      * Constructs a response for the rest operation with empty data.
@@ -52,9 +55,26 @@ public final class RestResponse {
      * @param headers Map of HTTP headers of the response
      */
     public RestResponse(int statusCode, Map<String, String> headers, byte[] data) {
+        this(statusCode, headers, data, null);
+    }
+
+    private RestResponse(int statusCode, Map<String, String> headers, byte[] data, File bodyFile) {
         this.data = new Data(data);
         this.headers = headers;
         this.code = new Code(statusCode);
+        this.bodyFile = bodyFile;
+    }
+
+    /**
+     * Creates a response for the rest operation, whose body was written to a file.
+     * @param statusCode Status code of the response
+     * @param headers Map of HTTP headers of the response
+     * @param bodyFile File containing the body of the response
+     * @return A response whose body is in the file, rather than in its data
+     */
+    @NonNull
+    public static RestResponse fromFile(int statusCode, Map<String, String> headers, @NonNull File bodyFile) {
+        return new RestResponse(statusCode, headers, null, Objects.requireNonNull(bodyFile));
     }
 
     /**
@@ -65,6 +85,16 @@ public final class RestResponse {
         return data;
     }
 
+    /**
+     * Get the file containing the body of the response, if the request asked for the
+     * body to be written to a file.
+     * @return File containing the response body, or null if the body is in {@link #getData()}.
+     */
+    @Nullable
+    public File getBodyFile() {
+        return bodyFile;
+    }
+
     /**
      * Get the http status code of the response.
      * @return Valid status code. If the returned code is invalid, it returns -1.
@@ -93,12 +123,16 @@ public final class RestResponse {
         if (!ObjectsCompat.equals(this.getData(), that.getData())) {
             return false;
         }
+        if (!ObjectsCompat.equals(this.getBodyFile(), that.getBodyFile())) {
+            return false;
+        }
         return ObjectsCompat.equals(this.getCode(), that.getCode());
     }
 
     @Override
     public int hashCode() {
         int result = getData() != null ? getData().hashCode() : 0;
+        result = 31 * result + (getBodyFile() != null ? getBodyFile().hashCode() : 0);
         result = 31 * result + (getCode() != null ? getCode().hashCode() : 0);
         return result;
     }
@@ -108,6 +142,7 @@ public final class RestResponse {
     public String toString() {
         return "RestResponse{" +
             "data=" + data +
+            ", bodyFile=" + bodyFile +
             ", code=" + code +
             '}';
     }
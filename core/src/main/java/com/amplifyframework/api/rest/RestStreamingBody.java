@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.rest;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A request body which is read from a file or stream as it is sent, rather than held in memory.
+ * Use it for payloads too large to hold as a byte array.
+ */
+public final class RestStreamingBody {
+    private static final long UNKNOWN_LENGTH = -1;
+
+    private final File file;
+    private final AtomicReference<InputStream> stream;
+    private final long contentLength;
+
+    private RestStreamingBody(@Nullable File file, @Nullable InputStream stream, long contentLength) {
+        this.file = file;
+        this.stream = new AtomicReference<>(stream);
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Creates a body which is read from a file. The file may be read more than once, for example
+     * to compute a signature before it is sent, or to retry the request.
+     * @param file File containing the body
+     * @return A streaming request body
+     */
+    @NonNull
+    public static RestStreamingBody fromFile(@NonNull File file) {
+        return new RestStreamingBody(Objects.requireNonNull(file), null, file.length());
+    }
+
+    /**
+     * Creates a body which is read from a stream. The stream can only be read once, so the request
+     * can't be retried, and IAM-signed requests carry an unsigned payload. The stream is closed
+     * once the body has been sent.
+     * @param stream Stream from which to read the body
+     * @param contentLength Number of bytes in the stream, or -1 if it isn't known
+     * @return A streaming request body
+     */
+    @NonNull
+    public static RestStreamingBody fromInputStream(@NonNull InputStream stream, long contentLength) {
+        return new RestStreamingBody(null, Objects.requireNonNull(stream),
+            contentLength < 0 ? UNKNOWN_LENGTH : contentLength);
+    }
+
+    /**
+     * Opens the body for reading. The caller is responsible for closing the returned stream.
+     * @return A stream of the body's bytes
+     * @throws IOException If the file can't be opened, or the stream has already been read
+     */
+    @NonNull
+    public InputStream open() throws IOException {
+        if (file != null) {
+            return new FileInputStream(file);
+        }
+        InputStream unread = stream.getAndSet(null);
+        if (unread == null) {
+            throw new IOException("The body's stream has already been read, and can't be read again.");
+        }
+        return unread;
+    }
+
+    /**
+     * Gets the number of bytes in the body.
+     * @return Length of the body, or -1 if it isn't known
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Checks whether the body can be read more than once.
+     * @return true for bodies read from a file
+     */
+    public boolean isRepeatable() {
+        return file != null;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "RestStreamingBody{" +
+            "file=" + file +
+            ", contentLength=" + contentLength +
+            '}';
+    }
+}
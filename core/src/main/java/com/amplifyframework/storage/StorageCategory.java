@@ -23,6 +23,7 @@ import com.amplifyframework.core.category.CategoryType;
 import com.amplifyframework.storage.operation.StorageDownloadFileOperation;
 import com.amplifyframework.storage.operation.StorageGetUrlOperation;
 import com.amplifyframework.storage.operation.StorageListOperation;
+import com.amplifyframework.storage.operation.StorageRemoveManyOperation;
 import com.amplifyframework.storage.operation.StorageRemoveOperation;
 import com.amplifyframework.storage.operation.StorageTransferOperation;
 import com.amplifyframework.storage.operation.StorageUploadFileOperation;
@@ -36,6 +37,7 @@ import com.amplifyframework.storage.options.StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.result.StorageDownloadFileResult;
 import com.amplifyframework.storage.result.StorageGetUrlResult;
 import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.result.StorageRemoveManyResult;
 import com.amplifyframework.storage.result.StorageRemoveResult;
 import com.amplifyframework.storage.result.StorageTransferProgress;
 import com.amplifyframework.storage.result.StorageTransferResult;
@@ -44,6 +46,7 @@ import com.amplifyframework.storage.result.StorageUploadInputStreamResult;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 
 /**
  * Defines the Client API consumed by the application.
@@ -215,6 +218,52 @@ public final class StorageCategory extends Category<StoragePlugin<?>> implements
         return getSelectedPlugin().remove(key, options, onSuccess, onError);
     }
 
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeMany(
+            @NonNull List<String> keys,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError
+    ) {
+        return getSelectedPlugin().removeMany(keys, onProgress, onSuccess, onError);
+    }
+
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeMany(
+            @NonNull List<String> keys,
+            @NonNull StorageRemoveOptions options,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError
+    ) {
+        return getSelectedPlugin().removeMany(keys, options, onProgress, onSuccess, onError);
+    }
+
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeAll(
+            @NonNull String path,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError
+    ) {
+        return getSelectedPlugin().removeAll(path, onProgress, onSuccess, onError);
+    }
+
+    @NonNull
+    @Override
+    public StorageRemoveManyOperation<?> removeAll(
+            @NonNull String path,
+            @NonNull StorageRemoveOptions options,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError
+    ) {
+        return getSelectedPlugin().removeAll(path, options, onProgress, onSuccess, onError);
+    }
+
     @NonNull
     @Override
     public StorageListOperation<?> list(
@@ -21,6 +21,7 @@ import com.amplifyframework.core.Consumer;
 import com.amplifyframework.storage.operation.StorageDownloadFileOperation;
 import com.amplifyframework.storage.operation.StorageGetUrlOperation;
 import com.amplifyframework.storage.operation.StorageListOperation;
+import com.amplifyframework.storage.operation.StorageRemoveManyOperation;
 import com.amplifyframework.storage.operation.StorageRemoveOperation;
 import com.amplifyframework.storage.operation.StorageTransferOperation;
 import com.amplifyframework.storage.operation.StorageUploadFileOperation;
@@ -34,6 +35,7 @@ import com.amplifyframework.storage.options.StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.result.StorageDownloadFileResult;
 import com.amplifyframework.storage.result.StorageGetUrlResult;
 import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.result.StorageRemoveManyResult;
 import com.amplifyframework.storage.result.StorageRemoveResult;
 import com.amplifyframework.storage.result.StorageTransferProgress;
 import com.amplifyframework.storage.result.StorageTransferResult;
@@ -42,6 +44,7 @@ import com.amplifyframework.storage.result.StorageUploadInputStreamResult;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 
 /**
  * Defines the behavior of the Storage category that clients will use.
@@ -309,6 +312,102 @@ public interface StorageCategoryBehavior {
             @NonNull Consumer<StorageRemoveResult> onSuccess,
             @NonNull Consumer<StorageException> onError);
 
+    /**
+     * Delete many objects from storage at once. Objects are deleted independently of
+     * each other, and the result reports those which couldn't be deleted.
+     * @param keys the unique identifiers of the objects in storage
+     * @param onProgress Called as objects are deleted, with the keys deleted and failed so far
+     * @param onSuccess Called once every object was attempted, and furnishes a result
+     * @param onError Called if an error prevents the operation from attempting the objects
+     * @return an operation object that provides notifications and
+     *        actions related to the execution of the work
+     */
+    @NonNull
+    default StorageRemoveManyOperation<?> removeMany(
+            @NonNull List<String> keys,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError) {
+        return removeMany(keys, StorageRemoveOptions.defaultInstance(), onProgress, onSuccess, onError);
+    }
+
+    /**
+     * Delete many objects from storage at once. Objects are deleted independently of
+     * each other, and the result reports those which couldn't be deleted.
+     * @param keys the unique identifiers of the objects in storage
+     * @param options parameters specific to plugin behavior
+     * @param onProgress Called as objects are deleted, with the keys deleted and failed so far
+     * @param onSuccess Called once every object was attempted, and furnishes a result
+     * @param onError Called if an error prevents the operation from attempting the objects,
+     *                or if the plugin doesn't support removing many objects at once
+     * @return an operation object that provides notifications and
+     *        actions related to the execution of the work
+     */
+    @NonNull
+    default StorageRemoveManyOperation<?> removeMany(
+            @NonNull List<String> keys,
+            @NonNull StorageRemoveOptions options,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError) {
+        onError.accept(new StorageException(
+                "Removing many objects at once is not supported by this storage plugin.",
+                "Remove the objects one at a time with remove()."
+        ));
+        return new StorageRemoveManyOperation<Void>(null) {
+            @Override
+            public void start() {}
+        };
+    }
+
+    /**
+     * Delete every object under the hierarchy specified by the path, relative to
+     * access level, from storage.
+     * @param path the path of the objects to delete
+     * @param onProgress Called as objects are deleted, with the keys deleted and failed so far
+     * @param onSuccess Called once every object was attempted, and furnishes a result
+     * @param onError Called if an error prevents the operation from attempting the objects
+     * @return an operation object that provides notifications and
+     *        actions related to the execution of the work
+     */
+    @NonNull
+    default StorageRemoveManyOperation<?> removeAll(
+            @NonNull String path,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError) {
+        return removeAll(path, StorageRemoveOptions.defaultInstance(), onProgress, onSuccess, onError);
+    }
+
+    /**
+     * Delete every object under the hierarchy specified by the path, relative to
+     * access level, from storage.
+     * @param path the path of the objects to delete
+     * @param options parameters specific to plugin behavior
+     * @param onProgress Called as objects are deleted, with the keys deleted and failed so far
+     * @param onSuccess Called once every object was attempted, and furnishes a result
+     * @param onError Called if an error prevents the operation from attempting the objects,
+     *                or if the plugin doesn't support removing every object under a path
+     * @return an operation object that provides notifications and
+     *        actions related to the execution of the work
+     */
+    @NonNull
+    default StorageRemoveManyOperation<?> removeAll(
+            @NonNull String path,
+            @NonNull StorageRemoveOptions options,
+            @NonNull Consumer<StorageRemoveManyResult> onProgress,
+            @NonNull Consumer<StorageRemoveManyResult> onSuccess,
+            @NonNull Consumer<StorageException> onError) {
+        onError.accept(new StorageException(
+                "Removing every object under a path is not supported by this storage plugin.",
+                "List the objects under the path, and remove them one at a time with remove()."
+        ));
+        return new StorageRemoveManyOperation<Void>(null) {
+            @Override
+            public void start() {}
+        };
+    }
+
     /**
      * List the object identifiers under the hierarchy specified
      * by the path, relative to access level, from storage.
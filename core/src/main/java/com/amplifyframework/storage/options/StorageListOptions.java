@@ -17,12 +17,16 @@ package com.amplifyframework.storage.options;
 
 import android.annotation.SuppressLint;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.util.ObjectsCompat;
 
 /**
  * Options to specify attributes of list API invocation.
  */
 public class StorageListOptions extends StorageOptions {
+    private final int pageSize;
+    private final String nextToken;
+    private final String delimiter;
 
     /**
      * Constructs a StorageListOptions instance with the
@@ -31,6 +35,38 @@ public class StorageListOptions extends StorageOptions {
      */
     protected StorageListOptions(final Builder<?> builder) {
         super(builder.getAccessLevel(), builder.getTargetIdentityId());
+        this.pageSize = builder.getPageSize();
+        this.nextToken = builder.getNextToken();
+        this.delimiter = builder.getDelimiter();
+    }
+
+    /**
+     * Gets the most items to list in one page. 0 lists all items at once.
+     * @return page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets the token of the page to list, as returned with the previous page.
+     * If null, the first page is listed.
+     * @return next token
+     */
+    @Nullable
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Gets the delimiter which groups keys into folders. If set, keys containing
+     * the delimiter past the listed path aren't listed, and the folders they are
+     * in are returned as common prefixes instead.
+     * @return delimiter
+     */
+    @Nullable
+    public String getDelimiter() {
+        return delimiter;
     }
 
     /**
@@ -57,7 +93,10 @@ public class StorageListOptions extends StorageOptions {
     public static Builder<?> from(@NonNull final StorageListOptions options) {
         return builder()
             .accessLevel(options.getAccessLevel())
-            .targetIdentityId(options.getTargetIdentityId());
+            .targetIdentityId(options.getTargetIdentityId())
+            .pageSize(options.getPageSize())
+            .nextToken(options.getNextToken())
+            .delimiter(options.getDelimiter());
     }
 
     /**
@@ -82,7 +121,10 @@ public class StorageListOptions extends StorageOptions {
         } else {
             StorageListOptions that = (StorageListOptions) obj;
             return ObjectsCompat.equals(getAccessLevel(), that.getAccessLevel()) &&
-                    ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId());
+                    ObjectsCompat.equals(getTargetIdentityId(), that.getTargetIdentityId()) &&
+                    getPageSize() == that.getPageSize() &&
+                    ObjectsCompat.equals(getNextToken(), that.getNextToken()) &&
+                    ObjectsCompat.equals(getDelimiter(), that.getDelimiter());
         }
     }
 
@@ -93,7 +135,10 @@ public class StorageListOptions extends StorageOptions {
     public int hashCode() {
         return ObjectsCompat.hash(
                 getAccessLevel(),
-                getTargetIdentityId()
+                getTargetIdentityId(),
+                getPageSize(),
+                getNextToken(),
+                getDelimiter()
         );
     }
 
@@ -106,6 +151,9 @@ public class StorageListOptions extends StorageOptions {
         return "StorageListOptions {" +
                 "accessLevel=" + getAccessLevel() +
                 ", targetIdentityId=" + getTargetIdentityId() +
+                ", pageSize=" + getPageSize() +
+                ", nextToken=" + getNextToken() +
+                ", delimiter=" + getDelimiter() +
                 '}';
     }
 
@@ -115,6 +163,60 @@ public class StorageListOptions extends StorageOptions {
      * @param <B> the type of builder to chain with
      */
     public static class Builder<B extends Builder<B>> extends StorageOptions.Builder<B, StorageListOptions> {
+        private int pageSize;
+        private String nextToken;
+        private String delimiter;
+
+        /**
+         * Configures the most items to list in one page. 0, the default, lists all items at once.
+         * @param pageSize Page size for new StorageListOptions instances
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public final B pageSize(int pageSize) {
+            if (pageSize < 0) {
+                throw new IllegalArgumentException("pageSize must not be negative.");
+            }
+            this.pageSize = pageSize;
+            return (B) this;
+        }
+
+        /**
+         * Configures the token of the page to list, as returned with the previous page.
+         * @param nextToken Next token for new StorageListOptions instances
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public final B nextToken(@Nullable String nextToken) {
+            this.nextToken = nextToken;
+            return (B) this;
+        }
+
+        /**
+         * Configures the delimiter which groups keys into folders, such as "/".
+         * @param delimiter Delimiter for new StorageListOptions instances
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public final B delimiter(@Nullable String delimiter) {
+            this.delimiter = delimiter;
+            return (B) this;
+        }
+
+        public final int getPageSize() {
+            return pageSize;
+        }
+
+        @Nullable
+        public final String getNextToken() {
+            return nextToken;
+        }
+
+        @Nullable
+        public final String getDelimiter() {
+            return delimiter;
+        }
+
         /**
          * Returns an instance of StorageListOptions with the parameters
          * specified by this builder.
@@ -29,9 +29,13 @@ import java.util.List;
  */
 public final class StorageListResult {
     private final List<StorageItem> items;
+    private final List<String> commonPrefixes;
+    private final String nextToken;
 
-    private StorageListResult(List<StorageItem> items) {
+    private StorageListResult(List<StorageItem> items, List<String> commonPrefixes, String nextToken) {
         this.items = items;
+        this.commonPrefixes = commonPrefixes;
+        this.nextToken = nextToken;
     }
 
     /**
@@ -41,11 +45,35 @@ public final class StorageListResult {
      */
     @NonNull
     public static StorageListResult fromItems(@Nullable List<StorageItem> items) {
+        return fromItems(items, null, null);
+    }
+
+    /**
+     * Factory method to construct a storage list result from a page of items.
+     * @param items A possibly null, possibly empty list of items
+     * @param commonPrefixes A possibly null, possibly empty list of the folders found using a delimiter
+     * @param nextToken The token of the next page, or null if this is the last page
+     * @return A new immutable instance of StorageListResult
+     */
+    @NonNull
+    public static StorageListResult fromItems(
+            @Nullable List<StorageItem> items,
+            @Nullable List<String> commonPrefixes,
+            @Nullable String nextToken
+    ) {
         final List<StorageItem> safeItems = new ArrayList<>();
         if (items != null) {
             safeItems.addAll(items);
         }
-        return new StorageListResult(Collections.unmodifiableList(safeItems));
+        final List<String> safeCommonPrefixes = new ArrayList<>();
+        if (commonPrefixes != null) {
+            safeCommonPrefixes.addAll(commonPrefixes);
+        }
+        return new StorageListResult(
+                Collections.unmodifiableList(safeItems),
+                Collections.unmodifiableList(safeCommonPrefixes),
+                nextToken
+        );
     }
 
     /**
@@ -56,4 +84,22 @@ public final class StorageListResult {
     public List<StorageItem> getItems() {
         return items;
     }
+
+    /**
+     * Gets the folders under the listed path, when listing with a delimiter. Each ends with the delimiter.
+     * @return List of common prefixes, empty if listed without a delimiter
+     */
+    @NonNull
+    public List<String> getCommonPrefixes() {
+        return commonPrefixes;
+    }
+
+    /**
+     * Gets the token to list the next page with.
+     * @return The token of the next page, or null if this is the last page
+     */
+    @Nullable
+    public String getNextToken() {
+        return nextToken;
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.storage.result;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+import com.amplifyframework.storage.StorageException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A result of removing many objects at once on the Storage category. Objects are removed
+ * independently of each other, so some of them may be removed while others fail.
+ */
+
+public final class StorageRemoveManyResult {
+    private final List<String> removedKeys;
+    private final Map<String, StorageException> failedKeys;
+
+    private StorageRemoveManyResult(List<String> removedKeys, Map<String, StorageException> failedKeys) {
+        this.removedKeys = removedKeys;
+        this.failedKeys = failedKeys;
+    }
+
+    /**
+     * Creates a StorageRemoveManyResult from the keys which were removed and those which failed.
+     * @param removedKeys A possibly null, possibly empty list of the keys of removed items
+     * @param failedKeys A possibly null, possibly empty map of the errors of items which weren't removed, by key
+     * @return A new immutable instance of StorageRemoveManyResult
+     */
+    @NonNull
+    public static StorageRemoveManyResult fromKeys(
+            @Nullable List<String> removedKeys,
+            @Nullable Map<String, StorageException> failedKeys
+    ) {
+        final List<String> safeRemovedKeys = new ArrayList<>();
+        if (removedKeys != null) {
+            safeRemovedKeys.addAll(removedKeys);
+        }
+        final Map<String, StorageException> safeFailedKeys = new LinkedHashMap<>();
+        if (failedKeys != null) {
+            safeFailedKeys.putAll(failedKeys);
+        }
+        return new StorageRemoveManyResult(
+                Collections.unmodifiableList(safeRemovedKeys),
+                Collections.unmodifiableMap(safeFailedKeys)
+        );
+    }
+
+    /**
+     * Gets the keys of the items which were removed from storage.
+     * @return Keys of removed items
+     */
+    @NonNull
+    public List<String> getRemovedKeys() {
+        return removedKeys;
+    }
+
+    /**
+     * Gets the errors of the items which couldn't be removed from storage, by key.
+     * @return Errors by key, empty if every item was removed
+     */
+    @NonNull
+    public Map<String, StorageException> getFailedKeys() {
+        return failedKeys;
+    }
+
+    @Override
+    public boolean equals(Object thatObject) {
+        if (this == thatObject) {
+            return true;
+        }
+        if (thatObject == null || getClass() != thatObject.getClass()) {
+            return false;
+        }
+
+        StorageRemoveManyResult that = (StorageRemoveManyResult) thatObject;
+
+        return ObjectsCompat.equals(removedKeys, that.removedKeys) &&
+                ObjectsCompat.equals(failedKeys, that.failedKeys);
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(removedKeys, failedKeys);
+    }
+}
@@ -36,6 +36,7 @@ import com.amplifyframework.storage.options.StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.result.StorageDownloadFileResult;
 import com.amplifyframework.storage.result.StorageGetUrlResult;
 import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.result.StorageRemoveManyResult;
 import com.amplifyframework.storage.result.StorageRemoveResult;
 import com.amplifyframework.storage.result.StorageTransferProgress;
 import com.amplifyframework.storage.result.StorageTransferResult;
@@ -44,6 +45,7 @@ import com.amplifyframework.storage.result.StorageUploadInputStreamResult;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Single;
@@ -149,6 +151,36 @@ public final class RxStorageBinding implements RxStorageCategoryBehavior {
         });
     }
 
+    @NonNull
+    @Override
+    public Observable<StorageRemoveManyResult> removeMany(@NonNull List<String> keys) {
+        return removeMany(keys, StorageRemoveOptions.defaultInstance());
+    }
+
+    @NonNull
+    @Override
+    public Observable<StorageRemoveManyResult> removeMany(
+            @NonNull List<String> keys, @NonNull StorageRemoveOptions options) {
+        return toObservable((onProgress, onResult, onError) ->
+            storage.removeMany(keys, options, onProgress, onResult, onError)
+        );
+    }
+
+    @NonNull
+    @Override
+    public Observable<StorageRemoveManyResult> removeAll(@NonNull String path) {
+        return removeAll(path, StorageRemoveOptions.defaultInstance());
+    }
+
+    @NonNull
+    @Override
+    public Observable<StorageRemoveManyResult> removeAll(
+            @NonNull String path, @NonNull StorageRemoveOptions options) {
+        return toObservable((onProgress, onResult, onError) ->
+            storage.removeAll(path, options, onProgress, onResult, onError)
+        );
+    }
+
     @NonNull
     @Override
     public Single<StorageListResult> list(@NonNull String path) {
@@ -167,6 +199,20 @@ public final class RxStorageBinding implements RxStorageCategoryBehavior {
         });
     }
 
+    @NonNull
+    @Override
+    public Observable<StorageListResult> listPages(@NonNull String path, @NonNull StorageListOptions options) {
+        return list(path, options).toObservable().concatMap(page -> {
+            if (page.getNextToken() == null) {
+                return Observable.just(page);
+            }
+            StorageListOptions nextPageOptions = StorageListOptions.from(options)
+                .nextToken(page.getNextToken())
+                .build();
+            return Observable.just(page).concatWith(listPages(path, nextPageOptions));
+        });
+    }
+
     @NonNull
     @Override
     public Single<StorageTransferOperation<?, ? extends StorageTransferResult>> getTransfer(
@@ -181,6 +227,19 @@ public final class RxStorageBinding implements RxStorageCategoryBehavior {
         return CancelableBehaviors.toSingle(method);
     }
 
+    // The final result is usually the same as the last progress, so it is only emitted if it differs.
+    private Observable<StorageRemoveManyResult> toObservable(RxStorageRemoveManyCallbackMapper callbacks) {
+        return CancelableBehaviors.<Void, StorageRemoveManyResult, StorageException>toObservable(
+            (onStart, onItem, onError, onComplete) -> {
+                callbacks.emitTo(onItem, result -> {
+                    onItem.accept(result);
+                    onComplete.call();
+                }, onError);
+                return new NoOpCancelable(); // StorageRemoveManyOperation is not Cancelable at the moment!
+            }
+        ).distinctUntilChanged();
+    }
+
     /**
      * A generic implementation of an operation that emits
      * progress information and returns a single.
@@ -261,4 +320,15 @@ public final class RxStorageBinding implements RxStorageCategoryBehavior {
                 Consumer<StorageException> onError
         );
     }
+
+    /**
+     * Type alias that defines the callbacks of a remove many operation.
+     */
+    interface RxStorageRemoveManyCallbackMapper {
+        void emitTo(
+                Consumer<StorageRemoveManyResult> onProgress,
+                Consumer<StorageRemoveManyResult> onResult,
+                Consumer<StorageException> onError
+        );
+    }
 }
@@ -29,6 +29,7 @@ import com.amplifyframework.storage.options.StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.result.StorageDownloadFileResult;
 import com.amplifyframework.storage.result.StorageGetUrlResult;
 import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.result.StorageRemoveManyResult;
 import com.amplifyframework.storage.result.StorageRemoveResult;
 import com.amplifyframework.storage.result.StorageTransferResult;
 import com.amplifyframework.storage.result.StorageUploadFileResult;
@@ -36,7 +37,9 @@ import com.amplifyframework.storage.result.StorageUploadInputStreamResult;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 
+import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Single;
 
 /**
@@ -185,6 +188,58 @@ public interface RxStorageCategoryBehavior {
             @NonNull StorageRemoveOptions options
     );
 
+    /**
+     * Removes many remote files at once.
+     * @param keys Keys to remote files
+     * @return An observable which emits the keys removed and failed so far as the removal progresses,
+     *         the last emission being the final result, and then completes. It emits an error if the
+     *         files can't be attempted. The removal does not begin until subscription.
+     */
+    @NonNull
+    Observable<StorageRemoveManyResult> removeMany(
+            @NonNull List<String> keys
+    );
+
+    /**
+     * Removes many remote files at once.
+     * @param keys Keys to remote files
+     * @param options Remove options
+     * @return An observable which emits the keys removed and failed so far as the removal progresses,
+     *         the last emission being the final result, and then completes. It emits an error if the
+     *         files can't be attempted. The removal does not begin until subscription.
+     */
+    @NonNull
+    Observable<StorageRemoveManyResult> removeMany(
+            @NonNull List<String> keys,
+            @NonNull StorageRemoveOptions options
+    );
+
+    /**
+     * Removes every remote file under a path.
+     * @param path Remote path where files are found
+     * @return An observable which emits the keys removed and failed so far as the removal progresses,
+     *         the last emission being the final result, and then completes. It emits an error if the
+     *         files can't be listed. The removal does not begin until subscription.
+     */
+    @NonNull
+    Observable<StorageRemoveManyResult> removeAll(
+            @NonNull String path
+    );
+
+    /**
+     * Removes every remote file under a path.
+     * @param path Remote path where files are found
+     * @param options Remove options
+     * @return An observable which emits the keys removed and failed so far as the removal progresses,
+     *         the last emission being the final result, and then completes. It emits an error if the
+     *         files can't be listed. The removal does not begin until subscription.
+     */
+    @NonNull
+    Observable<StorageRemoveManyResult> removeAll(
+            @NonNull String path,
+            @NonNull StorageRemoveOptions options
+    );
+
     /**
      * Lists remote files.
      * @param path Remote path where files are found
@@ -211,6 +266,20 @@ public interface RxStorageCategoryBehavior {
             @NonNull StorageListOptions options
     );
 
+    /**
+     * Lists remote files a page at a time, following the token of each page to the next one.
+     * @param path Remote path where files are found
+     * @param options Storage listing options, with the page size to list
+     * @return An observable which emits each page of the listing in order, and completes after
+     *         the last one. The next page is not listed until the previous one is emitted. You
+     *         can stop the listing by disposing the subscription.
+     */
+    @NonNull
+    Observable<StorageListResult> listPages(
+            @NonNull String path,
+            @NonNull StorageListOptions options
+    );
+
     /**
      * Queries the transfer form local db.
      * @param transferId ID of the transferOperation
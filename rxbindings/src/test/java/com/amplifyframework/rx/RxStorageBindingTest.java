@@ -27,17 +27,21 @@ import com.amplifyframework.storage.StoragePlugin;
 import com.amplifyframework.storage.operation.StorageDownloadFileOperation;
 import com.amplifyframework.storage.operation.StorageGetUrlOperation;
 import com.amplifyframework.storage.operation.StorageListOperation;
+import com.amplifyframework.storage.operation.StorageRemoveManyOperation;
 import com.amplifyframework.storage.operation.StorageRemoveOperation;
 import com.amplifyframework.storage.operation.StorageTransferOperation;
 import com.amplifyframework.storage.operation.StorageUploadFileOperation;
 import com.amplifyframework.storage.operation.StorageUploadInputStreamOperation;
 import com.amplifyframework.storage.options.StorageDownloadFileOptions;
 import com.amplifyframework.storage.options.StorageGetUrlOptions;
+import com.amplifyframework.storage.options.StorageListOptions;
+import com.amplifyframework.storage.options.StorageRemoveOptions;
 import com.amplifyframework.storage.options.StorageUploadFileOptions;
 import com.amplifyframework.storage.options.StorageUploadInputStreamOptions;
 import com.amplifyframework.storage.result.StorageDownloadFileResult;
 import com.amplifyframework.storage.result.StorageGetUrlResult;
 import com.amplifyframework.storage.result.StorageListResult;
+import com.amplifyframework.storage.result.StorageRemoveManyResult;
 import com.amplifyframework.storage.result.StorageRemoveResult;
 import com.amplifyframework.storage.result.StorageTransferProgress;
 import com.amplifyframework.storage.result.StorageTransferResult;
@@ -58,7 +62,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -519,6 +525,34 @@ public final class RxStorageBindingTest {
             .assertError(error);
     }
 
+    /**
+     * When a page emitted by {@link StorageCategoryBehavior#list(String, StorageListOptions, Consumer, Consumer)}
+     * has a next token, the {@link Observable} returned by
+     * {@link RxStorageCategoryBehavior#listPages(String, StorageListOptions)} should emit it, list the
+     * next page with the token, and complete after the last page.
+     */
+    @Test
+    public void listPagesFollowsNextToken() {
+        StorageListResult firstPage = StorageListResult.fromItems(Collections.emptyList(), null, "next_token");
+        StorageListResult secondPage = StorageListResult.fromItems(Collections.emptyList(), null, null);
+        doAnswer(invocation -> {
+            final int indexOfOptions = 1; // 0 path, 1 options, 2 onResult, 3 onError
+            final int indexOfResultConsumer = 2;
+            StorageListOptions options = invocation.getArgument(indexOfOptions);
+            Consumer<StorageListResult> resultConsumer = invocation.getArgument(indexOfResultConsumer);
+            resultConsumer.accept(options.getNextToken() == null ? firstPage : secondPage);
+            return mock(StorageListOperation.class);
+        })
+        .when(delegate)
+            .list(eq(remoteKey), any(StorageListOptions.class), anyConsumer(), anyConsumer());
+
+        rxStorage
+            .listPages(remoteKey, StorageListOptions.builder().pageSize(1).build())
+            .test()
+            .assertValues(firstPage, secondPage)
+            .assertComplete();
+    }
+
     /**
      * When the {@link StorageCategoryBehavior#remove(String, Consumer, Consumer)} emits
      * a result, the {@link Single} returned by {@link RxStorageCategoryBehavior#remove(String)} should
@@ -565,6 +599,38 @@ public final class RxStorageBindingTest {
             .assertError(error);
     }
 
+    /**
+     * When {@link StorageCategoryBehavior#removeMany(List, StorageRemoveOptions, Consumer, Consumer, Consumer)}
+     * reports progress and then a result, the {@link Observable} returned by
+     * {@link RxStorageCategoryBehavior#removeMany(List)} should emit each progress update, skip a final
+     * result identical to the last update, and complete.
+     */
+    @Test
+    public void removeManyEmitsProgressThenCompletes() {
+        List<String> keys = Arrays.asList("first", "second");
+        StorageRemoveManyResult firstBatch =
+            StorageRemoveManyResult.fromKeys(Collections.singletonList("first"), null);
+        StorageRemoveManyResult secondBatch = StorageRemoveManyResult.fromKeys(keys, null);
+        doAnswer(invocation -> {
+            final int indexOfProgressConsumer = 2; // 0 keys, 1 options, 2 onProgress, 3 onResult, 4 onError
+            final int indexOfResultConsumer = 3;
+            Consumer<StorageRemoveManyResult> progressConsumer = invocation.getArgument(indexOfProgressConsumer);
+            Consumer<StorageRemoveManyResult> resultConsumer = invocation.getArgument(indexOfResultConsumer);
+            progressConsumer.accept(firstBatch);
+            progressConsumer.accept(secondBatch);
+            resultConsumer.accept(secondBatch);
+            return mock(StorageRemoveManyOperation.class);
+        })
+        .when(delegate)
+            .removeMany(eq(keys), any(StorageRemoveOptions.class), anyConsumer(), anyConsumer(), anyConsumer());
+
+        rxStorage
+            .removeMany(keys)
+            .test()
+            .assertValues(firstBatch, secondBatch)
+            .assertComplete();
+    }
+
     /**
      * When {@link StorageCategoryBehavior#getTransfer(String, Consumer, Consumer)} emits a result,
      * then the {@link Single} returned by {@link RxStorageCategoryBehavior#getTransfer(String)}